@@ -8,6 +8,7 @@ CREATE TABLE users
     last_name  VARCHAR(100),
     role       VARCHAR(50)         NOT NULL DEFAULT 'USER', -- USER, ROASTER, ADMIN
     is_active  BOOLEAN                      DEFAULT true,
+    token_version INTEGER          NOT NULL DEFAULT 0,      -- bumped to invalidate issued access tokens
     created_at TIMESTAMP           NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP           NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -49,6 +50,7 @@ CREATE TABLE coffees
     bitterness_level  INTEGER CHECK (bitterness_level >= 1 AND bitterness_level <= 10), -- 1-10 scale
     image_url         VARCHAR(500),
     is_active         BOOLEAN               DEFAULT true,
+    search_vector     TSVECTOR,                                                         -- maintained by triggers below
     created_at        TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at        TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -112,10 +114,11 @@ CREATE TABLE favorites
 CREATE TABLE refresh_tokens
 (
     id          BIGSERIAL PRIMARY KEY,
-    token       VARCHAR(255) NOT NULL UNIQUE,
+    token       VARCHAR(255) NOT NULL UNIQUE, -- SHA-256 of the token (Base64URL), never the token
     user_id     BIGINT       NOT NULL,
     expiry_date TIMESTAMP    NOT NULL,
     revoked     BOOLEAN      NOT NULL DEFAULT FALSE,
+    rotated_at  TIMESTAMP,                    -- set when exchanged for a new token on refresh
     created_at  TIMESTAMP             DEFAULT CURRENT_TIMESTAMP,
     updated_at  TIMESTAMP             DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_user
@@ -123,3 +126,105 @@ CREATE TABLE refresh_tokens
             REFERENCES users (id)
             ON DELETE CASCADE
 );
+
+-- OUTBOX of coffee changes: written in the same transaction as the change, relayed to other
+-- systems in id order and deleted once delivered
+CREATE TABLE coffee_outbox
+(
+    id          BIGSERIAL PRIMARY KEY,
+    coffee_id   BIGINT      NOT NULL, -- no foreign key, DELETED events outlive their coffee
+    change_type VARCHAR(20) NOT NULL, -- CREATED, UPDATED, DEACTIVATED, DELETED
+    payload     JSON,                 -- the coffee after the change as written, null when removed
+    created_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- FULL-TEXT SEARCH over coffees
+-- Weights: name (A), flavor note names (B), origin region and varietal (C), description (D)
+CREATE FUNCTION coffee_search_document(name TEXT, description TEXT, origin_region TEXT,
+                                       varietal TEXT, flavor_notes TEXT)
+    RETURNS TSVECTOR
+    LANGUAGE sql
+    IMMUTABLE AS
+$$
+SELECT setweight(to_tsvector('english', coalesce(name, '')), 'A')
+           || setweight(to_tsvector('english', coalesce(flavor_notes, '')), 'B')
+           || setweight(to_tsvector('english', concat_ws(' ', origin_region, varietal)), 'C')
+           || setweight(to_tsvector('english', coalesce(description, '')), 'D')
+$$;
+
+CREATE FUNCTION coffee_flavor_note_names(coffee_id BIGINT)
+    RETURNS TEXT
+    LANGUAGE sql
+    STABLE AS
+$$
+SELECT string_agg(fn.name, ' ')
+FROM coffee_flavor_notes cfn
+         JOIN flavor_notes fn ON fn.id = cfn.flavor_note_id
+WHERE cfn.coffee_id = $1
+$$;
+
+CREATE FUNCTION refresh_coffee_search_vector()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    NEW.search_vector := coffee_search_document(NEW.name, NEW.description, NEW.origin_region,
+                                                NEW.varietal, coffee_flavor_note_names(NEW.id));
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_coffees_search_vector
+    BEFORE INSERT OR UPDATE OF name, description, origin_region, varietal
+    ON coffees
+    FOR EACH ROW
+EXECUTE FUNCTION refresh_coffee_search_vector();
+
+-- Flavor notes live in other tables, so linking, unlinking or renaming one re-indexes its coffees
+CREATE FUNCTION refresh_coffees_search_vector(coffee_ids BIGINT[])
+    RETURNS VOID
+    LANGUAGE sql AS
+$$
+UPDATE coffees c
+SET search_vector = coffee_search_document(c.name, c.description, c.origin_region, c.varietal,
+                                           coffee_flavor_note_names(c.id))
+WHERE c.id = ANY (coffee_ids)
+$$;
+
+CREATE FUNCTION refresh_linked_coffee_search_vector()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM refresh_coffees_search_vector(ARRAY [OLD.coffee_id]);
+    ELSE
+        PERFORM refresh_coffees_search_vector(ARRAY [NEW.coffee_id]);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_coffee_flavor_notes_search_vector
+    AFTER INSERT OR DELETE
+    ON coffee_flavor_notes
+    FOR EACH ROW
+EXECUTE FUNCTION refresh_linked_coffee_search_vector();
+
+CREATE FUNCTION refresh_flavor_note_coffees_search_vector()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM refresh_coffees_search_vector(ARRAY(SELECT cfn.coffee_id
+                                                FROM coffee_flavor_notes cfn
+                                                WHERE cfn.flavor_note_id = NEW.id));
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_flavor_notes_search_vector
+    AFTER UPDATE OF name
+    ON flavor_notes
+    FOR EACH ROW
+EXECUTE FUNCTION refresh_flavor_note_coffees_search_vector();
@@ -1,3 +1,6 @@
+-- Trigram matching (typo-tolerant name search)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- INDEXES for Query Optimization (lookups)
 CREATE INDEX idx_coffee_roaster ON coffees (roaster_id);
 CREATE INDEX idx_coffee_origin ON coffees (origin_country);
@@ -15,3 +18,13 @@ CREATE INDEX idx_refresh_token_expiry ON refresh_tokens (expiry_date);
 
 -- Composite index for common search queries
 CREATE INDEX idx_coffee_beans_search ON coffees (origin_country, roast_level, is_active);
+
+-- Keyset pagination over active coffees: seek on (sort key, id)
+CREATE INDEX idx_coffee_active_name_id ON coffees (name, id) WHERE is_active = true;
+CREATE INDEX idx_coffee_active_price_id ON coffees (price, id) WHERE is_active = true;
+CREATE INDEX idx_coffee_active_created_id ON coffees (created_at, id) WHERE is_active = true;
+CREATE INDEX idx_coffee_active_updated_id ON coffees (updated_at, id) WHERE is_active = true;
+
+-- Text search: ranked full-text match, then trigram word similarity on the name as fallback
+CREATE INDEX idx_coffee_search_vector ON coffees USING GIN (search_vector);
+CREATE INDEX idx_coffee_name_trgm ON coffees USING GIN (name gin_trgm_ops);
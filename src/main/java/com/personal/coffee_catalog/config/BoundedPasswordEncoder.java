@@ -0,0 +1,83 @@
+package com.personal.coffee_catalog.config;
+
+import com.personal.coffee_catalog.exception.TooManyRequestsException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs a (deliberately slow) password encoder on a fixed pool of hashing threads.
+ * <p>Request threads wait for the result without holding anything else, and at most
+ * {@code threads} hashes run at once, so a login storm cannot take every core from catalog reads.
+ * Up to {@code queueCapacity} more wait for a thread; beyond that the call fails with
+ * {@link TooManyRequestsException} (429) instead of queueing without bound.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * @param threads       Hashing threads, at most one per core is useful
+   * @param queueCapacity Hashes waiting for a thread before new ones are rejected
+   */
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+    this.delegate = delegate;
+    AtomicInteger threadIds = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      task -> Thread.ofPlatform()
+        .daemon()
+        .name("password-hashing-" + threadIds.incrementAndGet())
+        .unstarted(task));
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private <T> T run(Callable<T> hashing) {
+    Future<T> result;
+    try {
+      result = executor.submit(hashing);
+    } catch (RejectedExecutionException e) {
+      throw new TooManyRequestsException(
+        "Too many logins in progress. Please retry in a moment", e);
+    }
+
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while hashing a password", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+}
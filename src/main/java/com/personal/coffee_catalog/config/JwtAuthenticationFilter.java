@@ -1,6 +1,10 @@
 package com.personal.coffee_catalog.config;
 
+import com.personal.coffee_catalog.model.User;
 import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.ParsedToken;
+import com.personal.coffee_catalog.service.TokenRevocationService;
+import com.personal.coffee_catalog.service.TokenRevocationService.Status;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +24,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
+  private final TokenRevocationService tokenRevocationService;
+  private final boolean statelessAuthentication;
 
   @Override
   protected void doFilterInternal(
@@ -37,12 +43,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     try {
       final String jwt = authHeader.substring(7);
-      final String userEmail = jwtService.extractUsername(jwt);
 
-      if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+      if (SecurityContextHolder.getContext().getAuthentication() == null) {
+        UserDetails userDetails = resolveUserDetails(jwt);
 
-        if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (userDetails != null) {
           UsernamePasswordAuthenticationToken authToken =
             new UsernamePasswordAuthenticationToken(
               userDetails,
@@ -63,4 +68,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
+
+  /**
+   * Resolve the principal of a token. The token is verified once and the parsed claims are reused.
+   * In stateless mode the principal is built from the signed claims; tokens without identity claims,
+   * and tokens the revocation record cannot vouch for, fall back to the database lookup.
+   */
+  private UserDetails resolveUserDetails(String jwt) {
+    ParsedToken token = jwtService.parseToken(jwt);
+
+    if (statelessAuthentication) {
+      User principal = jwtService.extractPrincipal(token);
+
+      if (principal != null) {
+        Status status = tokenRevocationService.check(principal.getId(),
+          principal.getTokenVersion(), token.expiresAt());
+        if (status == Status.REVOKED) {
+          return null;
+        }
+        if (status == Status.ACCEPTED) {
+          return principal;
+        }
+        // Unknown: checked against the stored token version below
+      }
+    }
+
+    if (token.subject() == null) {
+      return null;
+    }
+
+    UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.subject());
+    return jwtService.isTokenValid(token, userDetails) ? userDetails : null;
+  }
 }
@@ -0,0 +1,57 @@
+package com.personal.coffee_catalog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * SQL metrics on top of what the actuator already measures (request latency per endpoint, Hikari
+ * pool gauges): statements timed at the data source, and counted per request, with warnings for
+ * slow statements and for requests running too many (the usual sign of an N+1).
+ */
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Wrap the pool in a {@link StatementMetricsDataSource}; the pool gauges still find it, the
+   * actuator unwraps delegating data sources
+   */
+  @Bean
+  public static BeanPostProcessor statementMetricsDataSourcePostProcessor(
+    ObjectProvider<MeterRegistry> meterRegistry,
+    @Value("${catalog.sql-monitor.slow-statement-ms:500}") long slowStatementMs
+  ) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+          && !(bean instanceof StatementMetricsDataSource)) {
+          return new StatementMetricsDataSource(dataSource, meterRegistry.getObject(),
+            Duration.ofMillis(slowStatementMs));
+        }
+        return bean;
+      }
+    };
+  }
+
+  /**
+   * First in the chain, so the statements of the authentication are part of the request
+   */
+  @Bean
+  public FilterRegistrationBean<RequestSqlMetricsFilter> requestSqlMetricsFilter(
+    MeterRegistry meterRegistry,
+    @Value("${catalog.sql-monitor.max-statements-per-request:50}") int maxStatementsPerRequest
+  ) {
+    FilterRegistrationBean<RequestSqlMetricsFilter> registration = new FilterRegistrationBean<>(
+      new RequestSqlMetricsFilter(meterRegistry, maxStatementsPerRequest));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
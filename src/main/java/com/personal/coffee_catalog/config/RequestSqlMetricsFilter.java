@@ -0,0 +1,100 @@
+package com.personal.coffee_catalog.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each request executed, and how long they took, per endpoint:
+ * {@code http.server.requests.sql.statements} and {@code http.server.requests.sql.time}, tagged
+ * like {@code http.server.requests} with the method and the URI pattern. An N+1 regression shows
+ * as a statements-per-request distribution moving up with the page size.
+ * <p>Runs ahead of the security filters, so user lookups of the authentication are counted too.
+ * Requests running more than {@code maxStatementsPerRequest} statements log a warning listing
+ * the statements they repeated most, and count in
+ * {@code http.server.requests.sql.statements.exceeded}.
+ */
+@Slf4j
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+  static final String STATEMENTS_METRIC = "http.server.requests.sql.statements";
+  static final String TIME_METRIC = "http.server.requests.sql.time";
+  static final String EXCEEDED_METRIC = "http.server.requests.sql.statements.exceeded";
+  static final String UNKNOWN_URI = "UNKNOWN";
+
+  private final MeterRegistry meterRegistry;
+  private final int maxStatementsPerRequest;
+
+  /**
+   * @param maxStatementsPerRequest Requests running more are logged; zero disables the warning
+   */
+  public RequestSqlMetricsFilter(MeterRegistry meterRegistry, int maxStatementsPerRequest) {
+    this.meterRegistry = meterRegistry;
+    this.maxStatementsPerRequest = maxStatementsPerRequest > 0
+      ? maxStatementsPerRequest
+      : Integer.MAX_VALUE;
+  }
+
+  @Override
+  protected void doFilterInternal(
+    HttpServletRequest request,
+    HttpServletResponse response,
+    FilterChain filterChain
+  ) throws ServletException, IOException {
+    SqlStatementTally tally = SqlStatementTally.open();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      SqlStatementTally.close(tally);
+      record(request, tally);
+    }
+  }
+
+  private void record(HttpServletRequest request, SqlStatementTally tally) {
+    // Set by the handler mapping; requests rejected before it (e.g. 401) share one URI tag
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+    DistributionSummary.builder(STATEMENTS_METRIC)
+      .description("SQL statements executed per request")
+      .tag("method", request.getMethod())
+      .tag("uri", uri)
+      .publishPercentileHistogram()
+      .minimumExpectedValue(1.0)
+      .maximumExpectedValue(1000.0)
+      .register(meterRegistry)
+      .record(tally.statements());
+    Timer.builder(TIME_METRIC)
+      .description("Time spent executing SQL statements per request")
+      .tag("method", request.getMethod())
+      .tag("uri", uri)
+      .publishPercentileHistogram()
+      .minimumExpectedValue(Duration.ofNanos(100_000))
+      .maximumExpectedValue(Duration.ofSeconds(30))
+      .register(meterRegistry)
+      .record(tally.nanos(), TimeUnit.NANOSECONDS);
+
+    if (tally.statements() > maxStatementsPerRequest) {
+      Counter.builder(EXCEEDED_METRIC)
+        .description("Requests running more SQL statements than the threshold")
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .register(meterRegistry)
+        .increment();
+      log.warn("{} {} ran {} SQL statements (threshold {}), most repeated: {}",
+        request.getMethod(), uri, tally.statements(), maxStatementsPerRequest,
+        tally.mostRepeated(3));
+    }
+  }
+}
@@ -2,9 +2,12 @@ package com.personal.coffee_catalog.config;
 
 import com.personal.coffee_catalog.repository.UserRepository;
 import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.TokenRevocationService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -17,7 +20,6 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -29,10 +31,30 @@ public class SecurityConfig {
 
   private final UserRepository userRepository;
   private final JwtService jwtService;
+  private final TokenRevocationService tokenRevocationService;
 
+  @Value("${jwt.stateless-authentication:true}")
+  private boolean statelessAuthentication;
+
+  @Value("${catalog.password-hashing.strength:10}")
+  private int passwordHashingStrength;
+
+  @Value("${catalog.password-hashing.threads:0}")
+  private int passwordHashingThreads;
+
+  @Value("${catalog.password-hashing.queue-capacity:100}")
+  private int passwordHashingQueueCapacity;
+
+  /**
+   * BCrypt on its own bounded pool of hashing threads (one per core unless configured)
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public BoundedPasswordEncoder passwordEncoder() {
+    int threads = passwordHashingThreads > 0
+      ? passwordHashingThreads
+      : Runtime.getRuntime().availableProcessors();
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(passwordHashingStrength), threads,
+      passwordHashingQueueCapacity);
   }
 
   @Bean
@@ -43,7 +65,8 @@ public class SecurityConfig {
 
   @Bean
   public JwtAuthenticationFilter jwtAuthenticationFilter() {
-    return new JwtAuthenticationFilter(jwtService, userDetailsService());
+    return new JwtAuthenticationFilter(jwtService, userDetailsService(), tokenRevocationService,
+      statelessAuthentication);
   }
 
   @Bean
@@ -63,8 +86,13 @@ public class SecurityConfig {
     http
       .csrf(csrf -> csrf.disable())
       .authorizeHttpRequests(auth -> auth
+        // Streamed responses (change feed, export) end with an async dispatch of a request that
+        // was already authorized, and the token filter does not run on it again
+        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
         .requestMatchers("/api/auth/**").permitAll()
         .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+        // Scraped by Prometheus; the edge proxy should not route /actuator from the internet
+        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
         .anyRequest().authenticated()
       )
       .sessionManagement(session -> session
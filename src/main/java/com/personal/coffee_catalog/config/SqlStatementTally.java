@@ -0,0 +1,125 @@
+package com.personal.coffee_catalog.config;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * SQL statements executed, and the time spent in JDBC, by the request (or guarded call) running
+ * on this thread.
+ * <p>{@link RequestSqlMetricsFilter} opens a tally around each request and
+ * {@link StatementMetricsDataSource} adds every statement to it; work handed to other threads
+ * (async exports, background writers) only shows in the global {@code jdbc.statements} timer.
+ * Statements are counted by SQL string, which costs a map update; they are only reduced to their
+ * {@link #shape(String) shape} when a report is asked for.
+ */
+public final class SqlStatementTally {
+
+  /**
+   * Distinct SQL strings counted one by one; past that, statements only add to the total
+   */
+  private static final int MAX_DISTINCT_STATEMENTS = 100;
+  private static final int MAX_SHAPE_LENGTH = 300;
+  private static final String BATCH = "<batch>";
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern SELECT_LIST =
+    Pattern.compile("^select\\s.+?\\sfrom\\s", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  private static final ThreadLocal<SqlStatementTally> CURRENT = new ThreadLocal<>();
+
+  private final SqlStatementTally previous;
+  private final Map<String, Integer> countsBySql = new HashMap<>();
+  private int statements;
+  private long nanos;
+
+  private SqlStatementTally(SqlStatementTally previous) {
+    this.previous = previous;
+  }
+
+  /**
+   * Start counting for the current thread; statements go to this tally only until it is closed,
+   * then to the one open before, if any
+   *
+   * @return The new tally, to be passed to {@link #close(SqlStatementTally)}
+   */
+  public static SqlStatementTally open() {
+    SqlStatementTally tally = new SqlStatementTally(CURRENT.get());
+    CURRENT.set(tally);
+    return tally;
+  }
+
+  public static void close(SqlStatementTally tally) {
+    if (CURRENT.get() == tally) {
+      if (tally.previous != null) {
+        CURRENT.set(tally.previous);
+      } else {
+        CURRENT.remove();
+      }
+    }
+  }
+
+  /**
+   * Add one statement (a batch counts once: it is one round trip) to the tally of this thread,
+   * if it has one
+   *
+   * @param sql SQL as prepared or executed, null for a batch of plain statements
+   */
+  static void record(String sql, long elapsedNanos) {
+    SqlStatementTally tally = CURRENT.get();
+    if (tally != null) {
+      tally.statements++;
+      tally.nanos += elapsedNanos;
+      String key = sql != null ? sql : BATCH;
+      if (tally.countsBySql.size() < MAX_DISTINCT_STATEMENTS
+        || tally.countsBySql.containsKey(key)) {
+        tally.countsBySql.merge(key, 1, Integer::sum);
+      }
+    }
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public long nanos() {
+    return nanos;
+  }
+
+  /**
+   * The statements run most often, for warnings and failed assertions
+   *
+   * @param limit Shapes listed at most
+   * @return e.g. {@code 20 x select ... where c1_0.coffee_id=?; 1 x select ...}
+   */
+  public String mostRepeated(int limit) {
+    Map<String, Integer> countsByShape = new HashMap<>();
+    countsBySql.forEach((sql, count) -> countsByShape.merge(shape(sql), count, Integer::sum));
+    return countsByShape.entrySet().stream()
+      .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+      .limit(limit)
+      .map(entry -> entry.getValue() + " x " + entry.getKey())
+      .collect(Collectors.joining("; "));
+  }
+
+  /**
+   * SQL with its literals and parameter lists replaced by {@code ?}, so that statements differing
+   * only by their values match, and no value ends up in a log. The column list of a query is left
+   * out too: the tables and the conditions tell an N+1 apart.
+   */
+  static String shape(String sql) {
+    String shape = SELECT_LIST.matcher(sql).replaceFirst("select ... from ");
+    shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = PARAMETER_LIST.matcher(shape).replaceAll("?");
+    shape = WHITESPACE.matcher(shape).replaceAll(" ").strip();
+    return shape.length() > MAX_SHAPE_LENGTH
+      ? shape.substring(0, MAX_SHAPE_LENGTH) + "..."
+      : shape;
+  }
+}
@@ -0,0 +1,168 @@
+package com.personal.coffee_catalog.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement executed through the pool, whether it comes from Hibernate or a
+ * {@code JdbcTemplate}: into the {@code jdbc.statements} timer, and into the
+ * {@link SqlStatementTally} of the current request.
+ * <p>Connections and statements are wrapped in JDK proxies; only the {@code execute*} calls do
+ * more than delegate. {@code unwrap} reaches the driver objects (e.g. for COPY), whose work is
+ * then not counted.
+ * <p>Statements slower than the threshold are logged with their shape (no values) and counted in
+ * {@code jdbc.statements.slow}; the check is a comparison, so it can stay on in production.
+ */
+@Slf4j
+public class StatementMetricsDataSource extends DelegatingDataSource {
+
+  private final Timer statementTimer;
+  private final Counter slowStatements;
+  private final long slowStatementNanos;
+
+  /**
+   * @param slowStatementThreshold Statements taking longer are logged; zero disables the warning
+   */
+  public StatementMetricsDataSource(DataSource targetDataSource, MeterRegistry meterRegistry,
+    Duration slowStatementThreshold) {
+    super(targetDataSource);
+    this.slowStatementNanos = slowStatementThreshold.isZero()
+      ? Long.MAX_VALUE
+      : slowStatementThreshold.toNanos();
+    this.slowStatements = Counter.builder("jdbc.statements.slow")
+      .description("Statements slower than catalog.sql-monitor.slow-statement-ms")
+      .register(meterRegistry);
+    this.statementTimer = Timer.builder("jdbc.statements")
+      .description("Execution of SQL statements (a batch counts once)")
+      .publishPercentileHistogram()
+      .minimumExpectedValue(Duration.ofNanos(100_000))
+      .maximumExpectedValue(Duration.ofSeconds(30))
+      .register(meterRegistry);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection wrap(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+      new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static String sqlArgument(Object[] args) {
+    return args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+
+    ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Timed " + target;
+        default:
+          break;
+      }
+
+      Object result = StatementMetricsDataSource.invoke(target, method, args);
+      // prepareStatement and prepareCall take the SQL first; createStatement gets it on execute
+      String sql = sqlArgument(args);
+      Class<?> type = switch (result) {
+        case CallableStatement ignored -> CallableStatement.class;
+        case PreparedStatement ignored -> PreparedStatement.class;
+        case Statement ignored -> Statement.class;
+        case null, default -> null;
+      };
+      if (type == null) {
+        return result;
+      }
+      return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+        new StatementHandler((Statement) result, (Connection) proxy, sql));
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+
+    private final Statement target;
+    private final Connection connection;
+    private final String preparedSql;
+
+    StatementHandler(Statement target, Connection connection, String preparedSql) {
+      this.target = target;
+      this.connection = connection;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      switch (name) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "getConnection":
+          return connection;
+        default:
+          break;
+      }
+      if (!name.startsWith("execute")) {
+        return StatementMetricsDataSource.invoke(target, method, args);
+      }
+
+      long start = System.nanoTime();
+      try {
+        return StatementMetricsDataSource.invoke(target, method, args);
+      } finally {
+        long elapsed = System.nanoTime() - start;
+        String sql = preparedSql != null ? preparedSql : sqlArgument(args);
+        statementTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        SqlStatementTally.record(sql, elapsed);
+        if (elapsed > slowStatementNanos) {
+          slowStatements.increment();
+          log.warn("Slow SQL statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+            sql != null ? SqlStatementTally.shape(sql) : "<batch>");
+        }
+      }
+    }
+  }
+}
@@ -10,6 +10,33 @@ public class Constants {
     ADMIN
   }
 
+  /**
+   * Field set returned by coffee list endpoints
+   */
+  public enum CoffeeView {
+    FULL,
+    SUMMARY // without description
+  }
+
+  /**
+   * Formats of the bulk coffee import and export
+   */
+  public enum DataFormat {
+    CSV, // RFC 4180 with a header row of field names
+    NDJSON // one JSON object per line
+  }
+
+  /**
+   * Kinds of events of the catalog change feed
+   */
+  public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DEACTIVATED,
+    DELETED
+  }
+
   public static final String TEXT = "Text";
+  public static final String TEXT_CSV_VALUE = "text/csv";
 
 }
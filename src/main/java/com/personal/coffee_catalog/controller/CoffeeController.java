@@ -1,16 +1,49 @@
 package com.personal.coffee_catalog.controller;
 
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.request.CoffeeBatchGetRequest;
+import com.personal.coffee_catalog.request.CoffeeBulkSelection;
+import com.personal.coffee_catalog.request.CoffeeBulkUpdateRequest;
 import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CacheStatsResponse;
+import com.personal.coffee_catalog.response.CoffeeBatchGetResponse;
+import com.personal.coffee_catalog.response.CoffeeBulkUpdateResponse;
+import com.personal.coffee_catalog.response.CoffeeFacetsResponse;
+import com.personal.coffee_catalog.response.CoffeeImportResponse;
+import com.personal.coffee_catalog.response.CoffeeListItem;
 import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import com.personal.coffee_catalog.response.CursorPageResponse;
 import com.personal.coffee_catalog.response.GenericResponse;
+import com.personal.coffee_catalog.response.OutboxStatsResponse;
+import com.personal.coffee_catalog.response.SearchIndexStatsResponse;
+import com.personal.coffee_catalog.response.SimilarCoffeeResponse;
+import com.personal.coffee_catalog.service.CoffeeCatalogCache.CatalogVersion;
 import com.personal.coffee_catalog.service.CoffeeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,17 +55,34 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/coffee")
-@RequiredArgsConstructor
 @CrossOrigin
 @Tag(name = "Coffee", description = "Coffee endpoints for managing the coffee catalog")
 public class CoffeeController {
 
+  private static final int GZIP_BUFFER_BYTES = 1 << 16;
+
   private final CoffeeService coffeeService;
+  private final CacheControl cacheControl;
+
+  public CoffeeController(CoffeeService coffeeService,
+    @Value("${catalog.http-cache.max-age-seconds:30}") long maxAgeSeconds,
+    @Value("${catalog.http-cache.shared-max-age-seconds:0}") long sharedMaxAgeSeconds) {
+    this.coffeeService = coffeeService;
+    this.cacheControl = sharedMaxAgeSeconds > 0
+      ? CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+      .sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds)).cachePublic()
+      : CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate();
+  }
 
   /**
    * Retrieves a paginated list of all active coffees.
@@ -40,16 +90,199 @@ public class CoffeeController {
    * @param pageable Pageable object containing pagination and sorting information [page: page
    *                 number (default: 0), size: number of items per page (default: 10), sort:
    *                 sorting criteria (default: id,asc)]
-   * @return ResponseEntity containing a GenericResponse with a Page of CoffeeResponse objects
+   * @param view     Field set of each item [FULL (default) or SUMMARY (without description)]
+   * @param request  Conditional request headers (If-None-Match, If-Modified-Since); 304 Not
+   *                 Modified is returned while the catalog has not changed
+   * @return ResponseEntity containing a GenericResponse with a Page of coffee list items
    */
   @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
   @Operation(summary = "Get all active coffees",
     description = "Retrieves a paginated list of all active coffees in the catalog")
-  public ResponseEntity<GenericResponse<Page<CoffeeResponse>>> getAllActiveCoffees(
-    @PageableDefault(sort = "id") Pageable pageable) {
+  public ResponseEntity<GenericResponse<Page<CoffeeListItem>>> getAllActiveCoffees(
+    @PageableDefault(sort = "id") Pageable pageable,
+    @RequestParam(defaultValue = "FULL") CoffeeView view, WebRequest request) {
+    return conditionalGet(request, () -> coffeeService.getAllActiveCoffees(pageable, view));
+  }
+
+  /**
+   * Streams all active coffees in ID order, without paging or count query. Rows are written as
+   * they are read from the database, compressed with gzip when the client accepts it.
+   *
+   * @param format         NDJSON (default, one JSON object per line) or CSV (with a header row)
+   * @param view           Field set of each row [FULL (default) or SUMMARY (without description)]
+   * @param acceptEncoding Accept-Encoding request header; gzip is used when it lists gzip
+   * @return ResponseEntity streaming the coffees
+   */
+  @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+    Constants.TEXT_CSV_VALUE})
+  @Operation(summary = "Export all active coffees",
+    description = "Streams all active coffees as NDJSON or CSV, gzip-compressed if accepted")
+  public ResponseEntity<StreamingResponseBody> exportCoffees(
+    @RequestParam(defaultValue = "NDJSON") DataFormat format,
+    @RequestParam(defaultValue = "FULL") CoffeeView view,
+    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    boolean gzip = acceptEncoding != null
+      && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+    StreamingResponseBody body = out -> {
+      if (gzip) {
+        GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_BYTES);
+        coffeeService.exportCoffees(format, view, compressed);
+        compressed.finish();
+      } else {
+        coffeeService.exportCoffees(format, view, out);
+      }
+    };
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+      .contentType(format == DataFormat.CSV
+        ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+      .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"coffees."
+        + format.name().toLowerCase(Locale.ROOT) + "\"")
+      .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+
+  /**
+   * Streams catalog changes as Server-Sent Events: one event per created, updated, deactivated or
+   * deleted coffee, named after the change type, sent once the change is committed. Event IDs are
+   * sequential; a client reconnecting with Last-Event-ID receives the events it missed, or a RESET
+   * event when they are no longer available and the catalog must be reloaded.
+   *
+   * @param lastEventId ID of the last event received, sent by reconnecting clients
+   * @return SseEmitter streaming the events
+   */
+  @GetMapping(value = "/changes", produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+  @Operation(summary = "Stream catalog changes",
+    description = "Server-Sent Events feed of coffee changes, resumable with Last-Event-ID")
+  public SseEmitter streamChanges(
+    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return coffeeService.subscribeToChanges(lastEventId);
+  }
+
+  /**
+   * Retrieves active coffees with cursor (keyset) pagination. Unlike the paged listing no count
+   * query runs and deep pages cost the same as the first one.
+   *
+   * @param cursor   Opaque cursor returned as nextCursor by the previous call (omit for the first
+   *                 page)
+   * @param pageable Pageable object containing size and sorting information [size: number of
+   *                 items per page (default: 10), sort: one of id, name, originCountry, roastLevel,
+   *                 price, createdAt, updatedAt (default: id,asc)]; the page number is ignored
+   * @param view     Field set of each item [FULL (default) or SUMMARY (without description)]
+   * @param request  Conditional request headers (If-None-Match, If-Modified-Since); 304 Not
+   *                 Modified is returned while the catalog has not changed
+   * @return ResponseEntity containing a GenericResponse with a slice of coffee list items and the
+   * next cursor
+   */
+  @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get active coffees by cursor",
+    description = "Retrieves active coffees using keyset pagination with an opaque next cursor")
+  public ResponseEntity<GenericResponse<CursorPageResponse<CoffeeListItem>>> getActiveCoffeesAfter(
+    @RequestParam(required = false) String cursor,
+    @PageableDefault(sort = "id") Pageable pageable,
+    @RequestParam(defaultValue = "FULL") CoffeeView view, WebRequest request) {
+    return conditionalGet(request,
+      () -> coffeeService.getActiveCoffeesAfter(cursor, pageable, view));
+  }
+
+  /**
+   * Searches active coffees by any combination of criteria. All given criteria must match and
+   * range bounds are inclusive.
+   *
+   * @param search   Search criteria [originCountry, originRegion, roastLevel, processingMethod,
+   *                 varietal (contains), minPrice/maxPrice, minAltitude/maxAltitude,
+   *                 minAcidity/maxAcidity, minSweetness/maxSweetness, minBitterness/maxBitterness]
+   * @param pageable Pageable object containing pagination and sorting information [page: page
+   *                 number (default: 0), size: number of items per page (default: 10), sort:
+   *                 sorting criteria (default: id,asc)]
+   * @param view     Field set of each item [FULL (default) or SUMMARY (without description)]
+   * @param request  Conditional request headers (If-None-Match, If-Modified-Since); 304 Not
+   *                 Modified is returned while the catalog has not changed
+   * @return ResponseEntity containing a GenericResponse with a Page of matching coffee list items
+   */
+  @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Search coffees",
+    description = "Searches active coffees by origin, roast, processing, varietal and ranges")
+  public ResponseEntity<GenericResponse<Page<CoffeeListItem>>> searchCoffees(
+    @Valid @ParameterObject CoffeeSearchRequest search,
+    @PageableDefault(sort = "id") Pageable pageable,
+    @RequestParam(defaultValue = "FULL") CoffeeView view, WebRequest request) {
+    return conditionalGet(request, () -> coffeeService.searchCoffees(search, pageable, view));
+  }
+
+  /**
+   * Counts the active coffees matching the search criteria per origin country, roast level,
+   * processing method, price range and flavor category, served from the in-memory facet index.
+   *
+   * @param search Search criteria, as for the coffee search [originCountry, originRegion,
+   *               roastLevel, processingMethod, varietal (contains), minPrice/maxPrice,
+   *               minAltitude/maxAltitude, minAcidity/maxAcidity, minSweetness/maxSweetness,
+   *               minBitterness/maxBitterness]
+   * @return ResponseEntity containing a GenericResponse with the total and the counts per facet
+   * value
+   */
+  @GetMapping(value = "/facets", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get coffee facet counts",
+    description = "Counts matching active coffees per origin, roast, processing, price and flavor")
+  public ResponseEntity<GenericResponse<CoffeeFacetsResponse>> getFacets(
+    @Valid @ParameterObject CoffeeSearchRequest search) {
+    return ResponseEntity.ok(
+      GenericResponse.<CoffeeFacetsResponse>builder()
+        .data(coffeeService.getFacets(search))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Searches active coffees by free text, best matches first. Matches words in the name, flavor
+   * notes, origin region, varietal and description, and tolerates typos and partial words in the
+   * name.
+   *
+   * @param q        Search text (supports "quoted phrases", or and -excluded words)
+   * @param pageable Pageable object containing pagination information [page: page number
+   *                 (default: 0), size: number of items per page (default: 10)]; results are
+   *                 ordered by relevance
+   * @return ResponseEntity containing a GenericResponse with a Slice of CoffeeResponse objects
+   */
+  @GetMapping(value = "/text-search", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Search coffees by text",
+    description = "Ranked full-text search of active coffees with typo-tolerant name matching")
+  public ResponseEntity<GenericResponse<Slice<CoffeeResponse>>> searchCoffeesByText(
+    @RequestParam String q, @PageableDefault Pageable pageable) {
+    return ResponseEntity.ok(
+      GenericResponse.<Slice<CoffeeResponse>>builder()
+        .data(coffeeService.searchCoffeesByText(q, pageable))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Suggests active coffees while typing, served from the in-memory search index. Every word
+   * matches as a prefix and all words must match.
+   *
+   * @param q        Words matched against name, origin and varietal (optional)
+   * @param origin   Words matched against origin country and region only (optional)
+   * @param varietal Words matched against varietal only (optional)
+   * @param limit    Maximum number of suggestions (default: 10)
+   * @return ResponseEntity containing a GenericResponse with the suggestions, best first
+   */
+  @GetMapping(value = "/autocomplete", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Autocomplete coffees",
+    description = "Suggests active coffees by name, origin and varietal prefixes")
+  public ResponseEntity<GenericResponse<List<CoffeeSuggestionResponse>>> autocomplete(
+    @RequestParam(required = false) String q,
+    @RequestParam(required = false) String origin,
+    @RequestParam(required = false) String varietal,
+    @RequestParam(defaultValue = "10") int limit) {
     return ResponseEntity.ok(
-      GenericResponse.<Page<CoffeeResponse>>builder()
-        .data(coffeeService.getAllActiveCoffees(pageable))
+      GenericResponse.<List<CoffeeSuggestionResponse>>builder()
+        .data(coffeeService.autocomplete(q, origin, varietal, limit))
         .message(HttpStatus.OK.getReasonPhrase())
         .build()
     );
@@ -58,16 +291,63 @@ public class CoffeeController {
   /**
    * Retrieves a specific coffee by its ID.
    *
-   * @param id ID of the coffee to be retrieved
+   * @param id      ID of the coffee to be retrieved
+   * @param request Conditional request headers (If-None-Match, If-Modified-Since); 304 Not
+   *                Modified is returned while the coffee has not changed
    * @return ResponseEntity containing a GenericResponse with the CoffeeResponse object
    */
   @Operation(summary = "Get coffee by ID",
     description = "Retrieves a specific coffee from the catalog by its ID")
   @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE})
-  public ResponseEntity<GenericResponse<CoffeeResponse>> getCoffee(@PathVariable Long id) {
+  public ResponseEntity<GenericResponse<CoffeeResponse>> getCoffee(@PathVariable Long id,
+    WebRequest request) {
+    CoffeeResponse coffee = coffeeService.getCoffee(id);
+    Instant updatedAt = coffee.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+    return conditionalGet(request, "\"" + id + "-" + updatedAt.toEpochMilli() + "\"", updatedAt,
+      () -> coffee);
+  }
+
+  /**
+   * Retrieves several coffees by ID in one call, in request order. Requested IDs that do not exist
+   * or belong to inactive coffees are listed instead of failing the request.
+   *
+   * @param request IDs of the coffees (at most 500)
+   * @return ResponseEntity containing a GenericResponse with the coffees and the missing and
+   * inactive IDs
+   */
+  @PostMapping(value = "/batch-get", produces = {MediaType.APPLICATION_JSON_VALUE}, consumes = {
+    MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get coffees by IDs",
+    description = "Retrieves several coffees by ID with one lookup, reporting missing and "
+      + "inactive IDs")
+  public ResponseEntity<GenericResponse<CoffeeBatchGetResponse>> getCoffees(
+    @Valid @RequestBody CoffeeBatchGetRequest request) {
     return ResponseEntity.ok(
-      GenericResponse.<CoffeeResponse>builder()
-        .data(coffeeService.getCoffee(id))
+      GenericResponse.<CoffeeBatchGetResponse>builder()
+        .data(coffeeService.getCoffees(request.getIds()))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Retrieves the active coffees with the flavor profile closest to a coffee (acidity, sweetness,
+   * bitterness, roast degree, altitude and flavor note categories), served from the in-memory
+   * similarity index.
+   *
+   * @param id    ID of the reference coffee
+   * @param limit Maximum number of coffees (default: 10)
+   * @return ResponseEntity containing a GenericResponse with the similar coffees, most similar
+   * first
+   */
+  @GetMapping(value = "/{id}/similar", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get similar coffees",
+    description = "Retrieves the active coffees with the closest flavor profile to a coffee")
+  public ResponseEntity<GenericResponse<List<SimilarCoffeeResponse>>> getSimilarCoffees(
+    @PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+    return ResponseEntity.ok(
+      GenericResponse.<List<SimilarCoffeeResponse>>builder()
+        .data(coffeeService.getSimilarCoffees(id, limit))
         .message(HttpStatus.OK.getReasonPhrase())
         .build()
     );
@@ -94,6 +374,31 @@ public class CoffeeController {
     );
   }
 
+  /**
+   * Imports coffees in bulk. The body is streamed and loaded in chunks; invalid rows are skipped
+   * and reported, the others are created as active coffees.
+   *
+   * @param contentType text/csv (header row of CoffeeRequest field names) or application/x-ndjson
+   *                    (one CoffeeRequest JSON object per line)
+   * @param body        Rows to import
+   * @return ResponseEntity containing a GenericResponse with the import report
+   */
+  @PostMapping(value = "/import", produces = {MediaType.APPLICATION_JSON_VALUE}, consumes = {
+    Constants.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Import coffees in bulk",
+    description = "Imports coffees from a CSV or NDJSON body, reporting rejected rows (Admin only)")
+  public ResponseEntity<GenericResponse<CoffeeImportResponse>> importCoffees(
+    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+    DataFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+      ? DataFormat.NDJSON : DataFormat.CSV;
+    return ResponseEntity.ok(
+      GenericResponse.<CoffeeImportResponse>builder()
+        .data(coffeeService.importCoffees(body, format))
+        .build()
+    );
+  }
+
   /**
    * Updates an existing coffee entry in the catalog.
    *
@@ -135,6 +440,50 @@ public class CoffeeController {
     );
   }
 
+  /**
+   * Updates the selected coffees in one statement: the given fields are set on each of them.
+   *
+   * @param request Selection (coffee IDs and/or roaster ID) and the fields to set
+   * @return ResponseEntity containing a GenericResponse with the number and IDs of the updated
+   * coffees
+   */
+  @PatchMapping(value = "/bulk", produces = {MediaType.APPLICATION_JSON_VALUE}, consumes = {
+    MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Update coffees in bulk",
+    description = "Sets the given fields on the selected coffees in one statement (Admin only)")
+  public ResponseEntity<GenericResponse<CoffeeBulkUpdateResponse>> updateCoffees(
+    @Valid @RequestBody CoffeeBulkUpdateRequest request) {
+    return ResponseEntity.ok(
+      GenericResponse.<CoffeeBulkUpdateResponse>builder()
+        .data(coffeeService.updateCoffees(request))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Deactivates the selected coffees in one statement (Soft Delete).
+   *
+   * @param selection Coffee IDs and/or roaster ID
+   * @return ResponseEntity containing a GenericResponse with the number and IDs of the coffees
+   * that were deactivated
+   */
+  @PatchMapping(value = "/bulk/deactivate", produces = {MediaType.APPLICATION_JSON_VALUE},
+    consumes = {MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Deactivate coffees in bulk",
+    description = "Deactivates the selected coffees in one statement [Soft Delete] (Admin only)")
+  public ResponseEntity<GenericResponse<CoffeeBulkUpdateResponse>> deactivateCoffees(
+    @Valid @RequestBody CoffeeBulkSelection selection) {
+    return ResponseEntity.ok(
+      GenericResponse.<CoffeeBulkUpdateResponse>builder()
+        .data(coffeeService.deactivateCoffees(selection))
+        .message("Coffees deactivated successfully")
+        .build()
+    );
+  }
+
   /**
    * Deletes a coffee entry from the catalog (Hard Delete).
    *
@@ -153,4 +502,93 @@ public class CoffeeController {
         .build()
     );
   }
+
+  /**
+   * Retrieves hit, miss and eviction counters of the catalog read cache.
+   *
+   * @return ResponseEntity containing a GenericResponse with the statistics per cache
+   */
+  @GetMapping(value = "/cache/stats", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Get catalog cache statistics",
+    description = "Retrieves hit, miss and eviction counters of the catalog read cache (Admin only)")
+  public ResponseEntity<GenericResponse<Map<String, CacheStatsResponse>>> getCacheStats() {
+    return ResponseEntity.ok(
+      GenericResponse.<Map<String, CacheStatsResponse>>builder()
+        .data(coffeeService.getCacheStats())
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Retrieves size, memory footprint and startup build time of the autocomplete search index.
+   *
+   * @return ResponseEntity containing a GenericResponse with the search index statistics
+   */
+  @GetMapping(value = "/search-index/stats", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Get search index statistics",
+    description = "Retrieves size, footprint and build time of the search index (Admin only)")
+  public ResponseEntity<GenericResponse<SearchIndexStatsResponse>> getSearchIndexStats() {
+    return ResponseEntity.ok(
+      GenericResponse.<SearchIndexStatsResponse>builder()
+        .data(coffeeService.getSearchIndexStats())
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Retrieves the outbox backlog and the delivery counters and lag of its relay.
+   *
+   * @return ResponseEntity containing a GenericResponse with the outbox statistics
+   */
+  @GetMapping(value = "/outbox/stats", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Get outbox statistics",
+    description = "Retrieves pending events, delivery counters and lag of the outbox (Admin only)")
+  public ResponseEntity<GenericResponse<OutboxStatsResponse>> getOutboxStats() {
+    return ResponseEntity.ok(
+      GenericResponse.<OutboxStatsResponse>builder()
+        .data(coffeeService.getOutboxStats())
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Conditional GET of a listing, validated by the catalog version (weak ETag, since listings are
+   * not compared byte for byte). There is no Last-Modified: the version is per process, and its
+   * time would not hold across instances.
+   */
+  private <T> ResponseEntity<GenericResponse<T>> conditionalGet(WebRequest request,
+    Supplier<T> data) {
+    String eTag = "W/\"" + coffeeService.getCatalogVersion().tag() + "\"";
+    return conditionalGet(request, eTag, null, data);
+  }
+
+  /**
+   * Answers 304 Not Modified, without loading or serializing the data, when the client's copy
+   * matches the ETag (If-None-Match) or is not older than lastModified (If-Modified-Since).
+   *
+   * @param lastModified Time of the last change, or null to validate by ETag only
+   */
+  private <T> ResponseEntity<GenericResponse<T>> conditionalGet(WebRequest request, String eTag,
+    Instant lastModified, Supplier<T> data) {
+    boolean notModified = lastModified == null ? request.checkNotModified(eTag)
+      : request.checkNotModified(eTag, lastModified.toEpochMilli());
+    if (notModified) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl).eTag(eTag);
+    if (lastModified != null) {
+      response.lastModified(lastModified);
+    }
+    return response.body(GenericResponse.<T>builder()
+      .data(data.get())
+      .message(HttpStatus.OK.getReasonPhrase())
+      .build());
+  }
 }
@@ -0,0 +1,98 @@
+package com.personal.coffee_catalog.controller;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.response.GenericResponse;
+import com.personal.coffee_catalog.response.RoasterCoffeesResponse;
+import com.personal.coffee_catalog.response.RoasterResponse;
+import com.personal.coffee_catalog.service.RoasterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/roasters")
+@CrossOrigin
+@RequiredArgsConstructor
+@Tag(name = "Roaster", description = "Roaster endpoints for browsing roasters and their coffees")
+public class RoasterController {
+
+  private final RoasterService roasterService;
+
+  /**
+   * Retrieves a paginated list of roasters.
+   *
+   * @param verified Only verified (true) or unverified (false) roasters (optional)
+   * @param pageable Pageable object containing pagination and sorting information [page: page
+   *                 number (default: 0), size: number of items per page (default: 10), sort:
+   *                 sorting criteria (default: companyName,asc)]
+   * @return ResponseEntity containing a GenericResponse with a Page of RoasterResponse objects
+   */
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get roasters",
+    description = "Retrieves a paginated list of roasters, optionally only the verified ones")
+  public ResponseEntity<GenericResponse<Page<RoasterResponse>>> getRoasters(
+    @RequestParam(required = false) Boolean verified,
+    @PageableDefault(sort = "companyName") Pageable pageable) {
+    return ResponseEntity.ok(
+      GenericResponse.<Page<RoasterResponse>>builder()
+        .data(roasterService.getRoasters(verified, pageable))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Retrieves a specific roaster by its ID.
+   *
+   * @param id ID of the roaster to be retrieved
+   * @return ResponseEntity containing a GenericResponse with the RoasterResponse object
+   */
+  @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get roaster by ID",
+    description = "Retrieves a specific roaster by its ID")
+  public ResponseEntity<GenericResponse<RoasterResponse>> getRoaster(@PathVariable Long id) {
+    return ResponseEntity.ok(
+      GenericResponse.<RoasterResponse>builder()
+        .data(roasterService.getRoaster(id))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+
+  /**
+   * Retrieves a roaster with a page of its active coffees.
+   *
+   * @param id       ID of the roaster
+   * @param pageable Pageable object containing pagination and sorting information for the
+   *                 coffees [page: page number (default: 0), size: number of items per page
+   *                 (default: 10), sort: sorting criteria (default: id,asc)]
+   * @param view     Field set of each coffee [FULL (default) or SUMMARY (without description)]
+   * @return ResponseEntity containing a GenericResponse with the roaster and a Page of coffee list
+   * items
+   */
+  @GetMapping(value = "/{id}/coffees", produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(summary = "Get roaster with coffees",
+    description = "Retrieves a roaster and a paginated list of its active coffees")
+  public ResponseEntity<GenericResponse<RoasterCoffeesResponse>> getRoasterCoffees(
+    @PathVariable Long id, @PageableDefault(sort = "id") Pageable pageable,
+    @RequestParam(defaultValue = "FULL") CoffeeView view) {
+    return ResponseEntity.ok(
+      GenericResponse.<RoasterCoffeesResponse>builder()
+        .data(roasterService.getRoasterCoffees(id, pageable, view))
+        .message(HttpStatus.OK.getReasonPhrase())
+        .build()
+    );
+  }
+}
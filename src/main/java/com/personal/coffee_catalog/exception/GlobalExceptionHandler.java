@@ -5,12 +5,14 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 /**
  * Global exception handler for the entire application Catches exceptions from all controllers and
@@ -66,6 +68,30 @@ public class GlobalExceptionHandler {
       .body(errorResponse);
   }
 
+  /**
+   * Handle TooManyRequestsException Returns 429 Too Many Requests
+   */
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+    TooManyRequestsException ex,
+    HttpServletRequest request) {
+
+    log.warn("Request rejected: {}", ex.getMessage());
+
+    ErrorResponse errorResponse = ErrorResponse.builder()
+      .timestamp(LocalDateTime.now())
+      .status(HttpStatus.TOO_MANY_REQUESTS.value())
+      .error("Too Many Requests")
+      .message(ex.getMessage())
+      .path(request.getRequestURI())
+      .build();
+
+    return ResponseEntity
+      .status(HttpStatus.TOO_MANY_REQUESTS)
+      .header(HttpHeaders.RETRY_AFTER, "1")
+      .body(errorResponse);
+  }
+
   /**
    * Handle validation errors from @Valid annotation Returns 400 Bad Request with field-specific
    * errors
@@ -148,6 +174,15 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Handle a client that disconnected from a streamed response (change feed, export); nothing can
+   * be written back
+   */
+  @ExceptionHandler(AsyncRequestNotUsableException.class)
+  public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
+    log.debug("Client disconnected: {}", ex.getMessage());
+  }
+
   /**
    * Handle all other unexpected exceptions Returns 500 Internal Server Error
    */
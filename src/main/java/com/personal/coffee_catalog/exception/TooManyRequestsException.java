@@ -0,0 +1,12 @@
+package com.personal.coffee_catalog.exception;
+
+/**
+ * Exception thrown when the server sheds load instead of queueing the request.
+ * <p>Results in a 429 Too Many Requests HTTP response.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+  public TooManyRequestsException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -4,10 +4,12 @@ import com.personal.coffee_catalog.model.Coffee;
 import com.personal.coffee_catalog.request.CoffeeRequest;
 import com.personal.coffee_catalog.response.CoffeeResponse;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface CoffeeMapper {
 
+  @Mapping(target = "roaster", ignore = true)
   CoffeeResponse coffeeToResponse(Coffee coffee);
 
   Coffee requestToCoffee(CoffeeRequest coffeeRequest);
@@ -0,0 +1,11 @@
+package com.personal.coffee_catalog.mapper;
+
+import com.personal.coffee_catalog.model.Roaster;
+import com.personal.coffee_catalog.response.RoasterResponse;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface RoasterMapper {
+
+  RoasterResponse roasterToResponse(Roaster roaster);
+}
@@ -35,7 +35,7 @@ public class Coffee {
   private Long id;
 
   @Column(name = "roaster_id", nullable = false)
-  private Integer roasterId;
+  private Long roasterId;
 
   @Column(nullable = false)
   @NotBlank(message = "Coffee name is required")
@@ -1,45 +0,0 @@
-package com.personal.coffee_catalog.model;
-
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
-import jakarta.persistence.Table;
-import java.time.Instant;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Entity
-@Table(name = "refresh_tokens")
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class RefreshToken {
-
-  @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
-  private Long id;
-
-  @Column(nullable = false, unique = true)
-  private String token;
-
-  @OneToOne
-  @JoinColumn(name = "user_id", referencedColumnName = "id")
-  private User user;
-
-  @Column(nullable = false)
-  private Instant expiryDate;
-
-  @Column(nullable = false)
-  private boolean revoked = false;
-
-  public boolean isExpired() {
-    return Instant.now().isAfter(this.expiryDate);
-  }
-}
@@ -28,6 +28,32 @@ public class Roaster {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  // Account managing the roaster, if any
+  @Column(name = "user_id", unique = true)
+  private Long userId;
+
+  @Column(name = "company_name", nullable = false)
+  private String companyName;
+
+  @Column(columnDefinition = "TEXT")
+  private String description;
+
+  @Column
+  private String website;
+
+  @Column
+  private String location;
+
+  @Column(name = "founded_year")
+  private Integer foundedYear;
+
+  @Column(name = "logo_url", length = 500)
+  private String logoUrl;
+
+  @Column(name = "is_verified")
+  @Builder.Default
+  private Boolean isVerified = false;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -43,6 +43,10 @@ public class User implements UserDetails {
   @Enumerated(EnumType.STRING)
   private Constants.Role role;
 
+  @Column(name = "token_version", nullable = false)
+  @Builder.Default
+  private Integer tokenVersion = 0;
+
   // UserDetails implementation
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,172 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inserts coffees in bulk with Postgres COPY, bypassing JPA.
+ * <p>IDs are taken from the {@code coffees} sequence in one round trip per chunk, so the inserted
+ * rows are known without reading them back. A chunk is copied all or nothing; when it fails, its
+ * rows are inserted one by one to tell which of them the database rejects.
+ */
+@Component
+@RequiredArgsConstructor
+public class CoffeeBulkLoader {
+
+  private static final String COLUMNS =
+    "id, roaster_id, name, description, origin_country, origin_region, roast_level, price, "
+      + "is_active, created_at, updated_at";
+  private static final String ALLOCATE_IDS =
+    "SELECT nextval('coffees_id_seq') FROM generate_series(1, ?)";
+  private static final String COPY = "COPY coffees (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+  private static final String INSERT =
+    "INSERT INTO coffees (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Outcome per row of a chunk, in input order
+   *
+   * @param ids    ID of each inserted coffee, null where the row was rejected
+   * @param errors Database error of each rejected row, null where the row was inserted
+   */
+  public record Result(Long[] ids, String[] errors) {
+
+  }
+
+  /**
+   * @param createdAt Creation and update time of every row, so callers know it without reading
+   *                  the rows back
+   */
+  public Result insert(List<CoffeeRequest> coffees, LocalDateTime createdAt) {
+    return jdbcTemplate.execute((ConnectionCallback<Result>) connection -> {
+      long[] ids = allocateIds(connection, coffees.size());
+      Result result = new Result(new Long[coffees.size()], new String[coffees.size()]);
+
+      Savepoint savepoint = savepoint(connection);
+      try {
+        connection.unwrap(PGConnection.class).getCopyAPI()
+          .copyIn(COPY, new StringReader(toCsv(coffees, ids, createdAt)));
+        release(connection, savepoint);
+        for (int i = 0; i < ids.length; i++) {
+          result.ids()[i] = ids[i];
+        }
+      } catch (SQLException e) {
+        rollback(connection, savepoint);
+        insertOneByOne(connection, coffees, ids, createdAt, result);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return result;
+    });
+  }
+
+  private static long[] allocateIds(Connection connection, int count) throws SQLException {
+    long[] ids = new long[count];
+    try (PreparedStatement statement = connection.prepareStatement(ALLOCATE_IDS)) {
+      statement.setInt(1, count);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        for (int i = 0; resultSet.next(); i++) {
+          ids[i] = resultSet.getLong(1);
+        }
+      }
+    }
+    return ids;
+  }
+
+  private static void insertOneByOne(Connection connection, List<CoffeeRequest> coffees,
+    long[] ids, LocalDateTime createdAt, Result result) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+      for (int i = 0; i < ids.length; i++) {
+        CoffeeRequest coffee = coffees.get(i);
+        statement.setLong(1, ids[i]);
+        statement.setLong(2, coffee.getRoasterId());
+        statement.setString(3, coffee.getName());
+        statement.setString(4, coffee.getDescription());
+        statement.setString(5, coffee.getOriginCountry());
+        statement.setString(6, coffee.getOriginRegion());
+        statement.setString(7, coffee.getRoastLevel());
+        statement.setObject(8, coffee.getPrice(), Types.NUMERIC);
+        statement.setBoolean(9, Boolean.TRUE.equals(coffee.getIsActive()));
+        statement.setObject(10, createdAt);
+        statement.setObject(11, createdAt);
+
+        Savepoint savepoint = savepoint(connection);
+        try {
+          statement.executeUpdate();
+          release(connection, savepoint);
+          result.ids()[i] = ids[i];
+        } catch (SQLException e) {
+          rollback(connection, savepoint);
+          result.errors()[i] = e.getMessage();
+        }
+      }
+    }
+  }
+
+  /**
+   * Rows in the CSV format of COPY: every value quoted, so only an unquoted empty field is NULL
+   */
+  private static String toCsv(List<CoffeeRequest> coffees, long[] ids, LocalDateTime createdAt) {
+    StringBuilder csv = new StringBuilder(coffees.size() * 160);
+    String timestamp = createdAt.toString();
+    for (int i = 0; i < ids.length; i++) {
+      CoffeeRequest coffee = coffees.get(i);
+      csv.append(ids[i]).append(',').append(coffee.getRoasterId());
+      appendQuoted(csv, coffee.getName());
+      appendQuoted(csv, coffee.getDescription());
+      appendQuoted(csv, coffee.getOriginCountry());
+      appendQuoted(csv, coffee.getOriginRegion());
+      appendQuoted(csv, coffee.getRoastLevel());
+      csv.append(',');
+      if (coffee.getPrice() != null) {
+        csv.append(coffee.getPrice().toPlainString());
+      }
+      csv.append(',').append(Boolean.TRUE.equals(coffee.getIsActive()))
+        .append(',').append(timestamp).append(',').append(timestamp).append('\n');
+    }
+    return csv.toString();
+  }
+
+  private static void appendQuoted(StringBuilder csv, String value) {
+    csv.append(',');
+    if (value != null) {
+      csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+  }
+
+  /**
+   * Savepoints only matter inside a surrounding transaction; in auto-commit each statement is one,
+   * so none is set and {@link #release} and {@link #rollback} do nothing
+   */
+  private static Savepoint savepoint(Connection connection) throws SQLException {
+    return connection.getAutoCommit() ? null : connection.setSavepoint();
+  }
+
+  private static void release(Connection connection, Savepoint savepoint) throws SQLException {
+    if (savepoint != null) {
+      connection.releaseSavepoint(savepoint);
+    }
+  }
+
+  private static void rollback(Connection connection, Savepoint savepoint) throws SQLException {
+    if (savepoint != null) {
+      connection.rollback(savepoint);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.personal.coffee_catalog.repository;
+
+/**
+ * Flavor note category linked to a coffee (one row per coffee and distinct category)
+ */
+public interface CoffeeFlavorCategory {
+
+  Long getCoffeeId();
+
+  String getCategory();
+}
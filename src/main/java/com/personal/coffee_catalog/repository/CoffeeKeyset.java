@@ -0,0 +1,185 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset (cursor) pagination over coffees.
+ * <p>Pages seek on (sort key, id) instead of skipping rows, so every page costs the same. The
+ * cursor is an opaque URL-safe token holding the sort and the keys of the last returned row.
+ * Nulls follow the Postgres default: last in ascending and first in descending order.
+ */
+public class CoffeeKeyset {
+
+  private static final String ID = "id";
+  private static final String SEPARATOR = "|";
+
+  private static final Map<String, KeyProperty> PROPERTIES = Map.of(
+    ID, new KeyProperty(CoffeeListItem::getId, Long::valueOf, false),
+    "name", new KeyProperty(CoffeeListItem::getName, value -> value, false),
+    "originCountry", new KeyProperty(CoffeeListItem::getOriginCountry, value -> value, false),
+    "roastLevel", new KeyProperty(CoffeeListItem::getRoastLevel, value -> value, false),
+    "price", new KeyProperty(CoffeeListItem::getPrice, BigDecimal::new, true),
+    "createdAt", new KeyProperty(CoffeeListItem::getCreatedAt, LocalDateTime::parse, false),
+    "updatedAt", new KeyProperty(CoffeeListItem::getUpdatedAt, LocalDateTime::parse, false)
+  );
+
+  private CoffeeKeyset() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Decoded cursor
+   *
+   * @param order Sort order the cursor was issued for
+   * @param value Sort key of the last returned row (may be null)
+   * @param id    ID of the last returned row
+   */
+  public record Cursor(Sort.Order order, Object value, Long id) {
+
+  }
+
+  /**
+   * Resolve the single sort property a keyset listing seeks on. An explicit trailing id order is
+   * allowed since id is always used as the tie-breaker.
+   *
+   * @param sort Requested sort
+   * @return Sort order to seek on
+   * @throws IllegalArgumentException if the sort is not supported
+   */
+  public static Sort.Order resolveOrder(Sort sort) {
+    List<Sort.Order> orders = sort.stream()
+      .filter(order -> !ID.equals(order.getProperty()))
+      .toList();
+
+    if (orders.isEmpty()) {
+      return sort.getOrderFor(ID) != null ? sort.getOrderFor(ID) : Sort.Order.asc(ID);
+    }
+    if (orders.size() > 1 || !PROPERTIES.containsKey(orders.getFirst().getProperty())) {
+      throw new IllegalArgumentException(String.format(
+        "Cursor pagination supports sorting by one of %s", PROPERTIES.keySet()));
+    }
+    return orders.getFirst();
+  }
+
+  /**
+   * Full sort of a keyset listing: the sort key followed by id in the same direction
+   */
+  public static Sort sort(Sort.Order order) {
+    if (ID.equals(order.getProperty())) {
+      return Sort.by(order);
+    }
+    return Sort.by(order, new Sort.Order(order.getDirection(), ID));
+  }
+
+  /**
+   * Encode the cursor pointing after the given row
+   */
+  public static String encode(Sort.Order order, CoffeeListItem last) {
+    Object value = PROPERTIES.get(order.getProperty()).getter().apply(last);
+    String raw = String.join(SEPARATOR, order.getProperty(), order.getDirection().name(),
+      last.getId().toString());
+    if (value != null) {
+      raw += SEPARATOR + (value instanceof BigDecimal decimal ? decimal.toPlainString() : value);
+    }
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode a cursor and check that it was issued for the requested sort
+   *
+   * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+   */
+  public static Cursor decode(String cursor, Sort.Order order) {
+    String[] parts;
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      parts = raw.split("\\" + SEPARATOR, 4);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+
+    if (parts.length < 3 || !order.getProperty().equals(parts[0])
+      || !order.getDirection().name().equals(parts[1])) {
+      throw new IllegalArgumentException("Cursor does not match the requested sort");
+    }
+
+    try {
+      Object value = parts.length == 4
+        ? PROPERTIES.get(order.getProperty()).parser().apply(parts[3])
+        : null;
+      return new Cursor(order, value, Long.valueOf(parts[2]));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+
+  /**
+   * Rows strictly after the cursor in keyset order
+   */
+  public static Specification<Coffee> after(Cursor cursor) {
+    return (root, query, cb) -> {
+      String property = cursor.order().getProperty();
+      boolean ascending = cursor.order().isAscending();
+      Path<Long> id = root.get(ID);
+      Predicate idAfter = ascending
+        ? cb.greaterThan(id, cursor.id())
+        : cb.lessThan(id, cursor.id());
+
+      if (ID.equals(property)) {
+        return idAfter;
+      }
+
+      Path<Comparable<Object>> key = root.get(property);
+      if (cursor.value() == null) {
+        // Cursor sits among the null keys
+        Predicate sameKey = cb.and(cb.isNull(key), idAfter);
+        return ascending ? sameKey : cb.or(sameKey, cb.isNotNull(key));
+      }
+
+      Predicate afterKey = seek(cb, key, asComparable(cursor.value()), ascending, idAfter);
+      if (ascending && PROPERTIES.get(property).nullable()) {
+        return cb.or(afterKey, cb.isNull(key));
+      }
+      return afterKey;
+    };
+  }
+
+  /**
+   * (key, id) past the cursor, with a plain range bound on key so the index range scan applies
+   */
+  private static Predicate seek(CriteriaBuilder cb, Path<Comparable<Object>> key,
+    Comparable<Object> value, boolean ascending, Predicate idAfter) {
+    if (ascending) {
+      return cb.and(cb.greaterThanOrEqualTo(key, value),
+        cb.or(cb.greaterThan(key, value), idAfter));
+    }
+    return cb.and(cb.lessThanOrEqualTo(key, value), cb.or(cb.lessThan(key, value), idAfter));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Comparable<Object> asComparable(Object value) {
+    return (Comparable<Object>) value;
+  }
+
+  private record KeyProperty(
+    Function<CoffeeListItem, Object> getter,
+    Function<String, Object> parser,
+    boolean nullable
+  ) {
+
+  }
+}
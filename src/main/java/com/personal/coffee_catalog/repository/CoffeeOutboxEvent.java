@@ -0,0 +1,24 @@
+package com.personal.coffee_catalog.repository;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import java.time.Instant;
+
+/**
+ * Row of the {@code coffee_outbox} table: one committed change of one coffee.
+ *
+ * @param id        Outbox ID, increasing in the order changes were written
+ * @param coffeeId  ID of the changed coffee
+ * @param type      Kind of change
+ * @param payload   The coffee after the change as JSON, null when deactivated or deleted
+ * @param createdAt Start of the transaction that wrote the change
+ */
+public record CoffeeOutboxEvent(
+  long id,
+  long coffeeId,
+  ChangeType type,
+  @JsonRawValue String payload,
+  Instant createdAt
+) {
+
+}
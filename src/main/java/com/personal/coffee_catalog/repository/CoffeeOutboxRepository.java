@@ -0,0 +1,102 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes the {@code coffee_outbox} table with plain JDBC, joining the surrounding
+ * transaction.
+ * <p>Events are appended with one statement per change (a bulk update of 10k coffees is one
+ * INSERT), and claimed by deleting the oldest unlocked rows. A claim only becomes final when its
+ * transaction commits, so a relay that fails midway leaves the events for the next attempt.
+ * <p>Event IDs are taken under the row lock of the change, so the events of one coffee are
+ * numbered in commit order.
+ */
+@Component
+@RequiredArgsConstructor
+public class CoffeeOutboxRepository {
+
+  private static final String INSERT = """
+    INSERT INTO coffee_outbox (coffee_id, change_type, payload)
+    SELECT coffee_id, ?, CAST(payload AS JSON)
+    FROM unnest(CAST(? AS BIGINT[]), CAST(? AS TEXT[])) AS changes (coffee_id, payload)
+    RETURNING coffee_id, id
+    """;
+  // Rows locked by another relay are skipped, so concurrent relays claim disjoint batches
+  private static final String CLAIM = """
+    DELETE FROM coffee_outbox
+    WHERE id IN (SELECT id FROM coffee_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+    RETURNING id, coffee_id, change_type, CAST(payload AS TEXT) AS payload, created_at
+    """;
+  private static final String PENDING = "SELECT count(*), min(created_at) FROM coffee_outbox";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Events not delivered yet
+   *
+   * @param count           Number of pending events
+   * @param oldestCreatedAt Creation time of the oldest one, null when there are none
+   */
+  public record Pending(long count, Instant oldestCreatedAt) {
+
+  }
+
+  /**
+   * Append one event per coffee
+   *
+   * @param payloads JSON of each coffee, in the order of coffeeIds (null elements for none)
+   * @return event ID by coffee ID
+   */
+  public Map<Long, Long> insert(ChangeType type, Long[] coffeeIds, String[] payloads) {
+    Map<Long, Long> eventIds = new HashMap<>();
+    jdbcTemplate.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(INSERT);
+      statement.setString(1, type.name());
+      statement.setArray(2, connection.createArrayOf("bigint", coffeeIds));
+      statement.setArray(3, connection.createArrayOf("text", payloads));
+      return statement;
+    }, resultSet -> {
+      eventIds.put(resultSet.getLong("coffee_id"), resultSet.getLong("id"));
+    });
+    return eventIds;
+  }
+
+  /**
+   * Delete and return the oldest events that no other transaction holds, up to limit
+   *
+   * @return the events in ID order
+   */
+  public List<CoffeeOutboxEvent> claim(int limit) {
+    return jdbcTemplate.query(CLAIM, CoffeeOutboxRepository::toEvent, limit).stream()
+      .sorted(Comparator.comparingLong(CoffeeOutboxEvent::id))
+      .toList();
+  }
+
+  public Pending pending() {
+    return jdbcTemplate.queryForObject(PENDING, (resultSet, row) -> {
+      Timestamp oldest = resultSet.getTimestamp(2);
+      return new Pending(resultSet.getLong(1), oldest == null ? null : oldest.toInstant());
+    });
+  }
+
+  private static CoffeeOutboxEvent toEvent(ResultSet resultSet, int row) throws SQLException {
+    return new CoffeeOutboxEvent(
+      resultSet.getLong("id"),
+      resultSet.getLong("coffee_id"),
+      ChangeType.valueOf(resultSet.getString("change_type")),
+      resultSet.getString("payload"),
+      resultSet.getTimestamp("created_at").toInstant());
+  }
+}
@@ -0,0 +1,38 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSummaryResponse;
+import java.util.List;
+
+/**
+ * Read-only projection of coffees straight into a list item DTO.
+ * <p>Each property is selected under its own name and set on the DTO by that name; the order is
+ * the column order of exports, so new properties go last.
+ *
+ * @param type       DTO class
+ * @param properties Coffee properties set on the DTO
+ */
+public record CoffeeProjection<T extends CoffeeListItem>(Class<T> type, List<String> properties) {
+
+  public static final CoffeeProjection<CoffeeResponse> FULL = new CoffeeProjection<>(
+    CoffeeResponse.class,
+    List.of("id", "name", "description", "originCountry", "originRegion", "altitudeMeters",
+      "varietal", "processingMethod", "roastLevel", "roastDate", "price", "weightGrams",
+      "acidityLevel", "sweetnessLevel", "bitternessLevel", "imageUrl", "isActive", "createdAt",
+      "updatedAt", "roasterId")
+  );
+
+  public static final CoffeeProjection<CoffeeSummaryResponse> SUMMARY = new CoffeeProjection<>(
+    CoffeeSummaryResponse.class,
+    List.of("id", "name", "originCountry", "originRegion", "altitudeMeters", "varietal",
+      "processingMethod", "roastLevel", "roastDate", "price", "weightGrams", "acidityLevel",
+      "sweetnessLevel", "bitternessLevel", "imageUrl", "isActive", "createdAt", "updatedAt",
+      "roasterId")
+  );
+
+  public static CoffeeProjection<? extends CoffeeListItem> of(CoffeeView view) {
+    return view == CoffeeView.SUMMARY ? SUMMARY : FULL;
+  }
+}
@@ -0,0 +1,32 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.model.Coffee;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Projection queries that build list item DTOs from the JDBC result, without hydrating and
+ * tracking {@link Coffee} entities
+ */
+public interface CoffeeProjectionRepository {
+
+  <T> Page<T> findPage(Specification<Coffee> specification, Pageable pageable,
+    CoffeeProjection<? extends T> projection);
+
+  /**
+   * Slice without count query: fetches one extra row to tell whether a next slice exists
+   */
+  <T> Slice<T> findSlice(Specification<Coffee> specification, Sort sort, int size,
+    CoffeeProjection<? extends T> projection);
+
+  /**
+   * Rows read lazily through a database cursor, {@code fetchSize} at a time. Must be consumed and
+   * closed inside a transaction.
+   */
+  <T> Stream<T> findStream(Specification<Coffee> specification, Sort sort, int fetchSize,
+    CoffeeProjection<? extends T> projection);
+}
@@ -0,0 +1,103 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public class CoffeeProjectionRepositoryImpl implements CoffeeProjectionRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public <T> Page<T> findPage(Specification<Coffee> specification, Pageable pageable,
+    CoffeeProjection<? extends T> projection) {
+    TypedQuery<? extends T> query = select(specification, pageable.getSort(), projection);
+
+    if (pageable.isPaged()) {
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+    }
+
+    List<T> content = Collections.unmodifiableList(query.getResultList());
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+  }
+
+  @Override
+  public <T> Slice<T> findSlice(Specification<Coffee> specification, Sort sort, int size,
+    CoffeeProjection<? extends T> projection) {
+    List<? extends T> rows = select(specification, sort, projection)
+      .setMaxResults(size + 1)
+      .getResultList();
+
+    boolean hasNext = rows.size() > size;
+    List<T> content = Collections.unmodifiableList(hasNext ? rows.subList(0, size) : rows);
+    return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+  }
+
+  @Override
+  public <T> Stream<T> findStream(Specification<Coffee> specification, Sort sort, int fetchSize,
+    CoffeeProjection<? extends T> projection) {
+    return select(specification, sort, projection)
+      .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+      .getResultStream()
+      .map(row -> row); // Stream<? extends T> as Stream<T>
+  }
+
+  private <S extends CoffeeListItem> TypedQuery<S> select(Specification<Coffee> specification,
+    Sort sort, CoffeeProjection<S> projection) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<S> query = cb.createQuery(projection.type());
+    Root<Coffee> root = query.from(Coffee.class);
+
+    // Aliased, so Hibernate sets each property by name on a DTO built with no arguments
+    Selection<?>[] selections = projection.properties().stream()
+      .map(property -> root.get(property).alias(property))
+      .toArray(Selection[]::new);
+    query.select(cb.construct(projection.type(), selections));
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+    return entityManager.createQuery(query);
+  }
+
+  private long count(Specification<Coffee> specification) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Coffee> root = query.from(Coffee.class);
+    query.select(cb.count(root));
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+
+    return entityManager.createQuery(query).getSingleResult();
+  }
+}
@@ -1,15 +1,23 @@
 package com.personal.coffee_catalog.repository;
 
 import com.personal.coffee_catalog.model.Coffee;
+import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface CoffeeRepository extends JpaRepository<Coffee, Long> {
+public interface CoffeeRepository extends JpaRepository<Coffee, Long>,
+  JpaSpecificationExecutor<Coffee>, CoffeeProjectionRepository {
 
   // save(Coffee coffee)
   // saveAll(Iterable<Coffee> coffees)
@@ -22,6 +30,11 @@ public interface CoffeeRepository extends JpaRepository<Coffee, Long> {
   // delete(Coffee coffee)
   // deleteAll()
 
+  // Find by id, locking the row until the transaction ends
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM Coffee c WHERE c.id = ?1")
+  Optional<Coffee> findByIdForUpdate(Long id);
+
   // Find by origin country
   List<Coffee> findByOriginCountry(String originCountry);
 
@@ -34,9 +47,98 @@ public interface CoffeeRepository extends JpaRepository<Coffee, Long> {
   // Find by origin country and roast level
   List<Coffee> findByOriginCountryAndRoastLevel(String originCountry, String roastLevel);
 
-  // Find by name containing (query) level
+  /**
+   * Find by name containing (query) level
+   *
+   * @deprecated Runs as lower(name) LIKE %x%, a sequential scan; use {@link #searchByText}
+   */
+  @Deprecated
   List<Coffee> findByNameContainingIgnoreCase(String name);
 
+  // Ranked full-text search over active coffees: name, flavor notes, origin region, varietal and
+  // description (GIN index on search_vector). The pageable must be unsorted, results are ranked.
+  // A slice, so a page never pays for counting every match.
+  @Query(value = """
+    SELECT c.*
+    FROM coffees c
+    WHERE c.is_active AND c.search_vector @@ websearch_to_tsquery('english', ?1)
+    ORDER BY ts_rank_cd(c.search_vector, websearch_to_tsquery('english', ?1)) DESC, c.id
+    """, nativeQuery = true)
+  Slice<Coffee> searchByText(String query, Pageable pageable);
+
+  // Whether any active coffee matches the full-text search, stopping at the first match
+  @Query(value = """
+    SELECT EXISTS (SELECT 1
+                   FROM coffees c
+                   WHERE c.is_active
+                     AND c.search_vector @@ websearch_to_tsquery('english', ?1))
+    """, nativeQuery = true)
+  boolean existsByText(String query);
+
+  // Typo-tolerant match of partial or misspelled words in the name of active coffees, by trigram
+  // word similarity (GIN trigram index on name). The pageable must be unsorted, results are ranked.
+  @Query(value = """
+    SELECT c.*
+    FROM coffees c
+    WHERE c.is_active AND ?1 <% c.name
+    ORDER BY word_similarity(?1, c.name) DESC, c.id
+    """, nativeQuery = true)
+  Slice<Coffee> searchByNameSimilarity(String query, Pageable pageable);
+
+  // Distinct flavor note categories of every active coffee
+  @Query(value = """
+    SELECT DISTINCT cfn.coffee_id AS coffeeId, fn.category AS category
+    FROM coffee_flavor_notes cfn
+    JOIN flavor_notes fn ON fn.id = cfn.flavor_note_id
+    JOIN coffees c ON c.id = cfn.coffee_id
+    WHERE c.is_active AND fn.category IS NOT NULL
+    """, nativeQuery = true)
+  List<CoffeeFlavorCategory> findActiveFlavorCategories();
+
+  // Distinct flavor note categories of a coffee
+  @Query(value = """
+    SELECT DISTINCT fn.category
+    FROM coffee_flavor_notes cfn
+    JOIN flavor_notes fn ON fn.id = cfn.flavor_note_id
+    WHERE cfn.coffee_id = ?1 AND fn.category IS NOT NULL
+    """, nativeQuery = true)
+  List<String> findFlavorCategories(Long coffeeId);
+
+  // Coffees with the given IDs, of the given roaster, or both; a null argument is no restriction
+  String BULK_SELECTION = """
+    WHERE (CAST(:ids AS BIGINT[]) IS NULL OR c.id = ANY(CAST(:ids AS BIGINT[])))
+      AND (CAST(:roasterId AS BIGINT) IS NULL OR c.roaster_id = CAST(:roasterId AS BIGINT))
+    """;
+
+  // Bulk patch of the selected coffees (see BULK_SELECTION) in one statement; null arguments leave
+  // their column unchanged. RETURNING hands back the updated rows, so this is a plain query that
+  // writes (@Modifying would run it with executeUpdate and only report the row count).
+  @Transactional
+  @Query(value = """
+    UPDATE coffees c
+    SET price = COALESCE(CAST(:price AS NUMERIC), c.price),
+      roast_level = COALESCE(CAST(:roastLevel AS VARCHAR), c.roast_level),
+      origin_country = COALESCE(CAST(:originCountry AS VARCHAR), c.origin_country),
+      origin_region = COALESCE(CAST(:originRegion AS VARCHAR), c.origin_region),
+      updated_at = now()
+    """ + BULK_SELECTION + """
+    RETURNING c.*
+    """, nativeQuery = true)
+  List<Coffee> bulkUpdate(Long[] ids, Long roasterId, BigDecimal price, String roastLevel,
+    String originCountry, String originRegion);
+
+  // Bulk deactivation of the selected coffees (see BULK_SELECTION) in one statement, returning the
+  // IDs of the coffees that were active
+  @Transactional
+  @Query(value = """
+    UPDATE coffees c
+    SET is_active = false, updated_at = now()
+    """ + BULK_SELECTION + """
+      AND c.is_active
+    RETURNING c.id
+    """, nativeQuery = true)
+  List<Long> bulkDeactivate(Long[] ids, Long roasterId);
+
   // Find by price range
   List<Coffee> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
 
@@ -0,0 +1,106 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reusable query criteria for {@link CoffeeRepository}
+ */
+public class CoffeeSpecifications {
+
+  private CoffeeSpecifications() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  public static Specification<Coffee> isActive() {
+    return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+  }
+
+  public static Specification<Coffee> ofRoaster(Long roasterId) {
+    return (root, query, cb) -> cb.equal(root.get("roasterId"), roasterId);
+  }
+
+  /**
+   * Active coffees matching every given search criterion, as a single WHERE clause.
+   * <p>Origin country and roast level are compared as-is (no lower()) so together with the active
+   * flag they can be served by the composite idx_coffee_beans_search index.
+   *
+   * @throws IllegalArgumentException if a range minimum is greater than its maximum
+   */
+  public static Specification<Coffee> matches(CoffeeSearchRequest search) {
+    checkRanges(search);
+
+    return (root, query, cb) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      equal(predicates, cb, root, "originCountry", search.getOriginCountry());
+      equal(predicates, cb, root, "roastLevel", search.getRoastLevel());
+      predicates.add(cb.isTrue(root.get("isActive")));
+
+      equal(predicates, cb, root, "originRegion", search.getOriginRegion());
+      equal(predicates, cb, root, "processingMethod", search.getProcessingMethod());
+      if (StringUtils.hasText(search.getVarietal())) {
+        predicates.add(cb.like(cb.lower(root.get("varietal")),
+          "%" + escapeLike(search.getVarietal().trim().toLowerCase(Locale.ROOT)) + "%", '\\'));
+      }
+
+      between(predicates, cb, root, "price", search.getMinPrice(), search.getMaxPrice());
+      between(predicates, cb, root, "altitudeMeters", search.getMinAltitude(),
+        search.getMaxAltitude());
+      between(predicates, cb, root, "acidityLevel", search.getMinAcidity(),
+        search.getMaxAcidity());
+      between(predicates, cb, root, "sweetnessLevel", search.getMinSweetness(),
+        search.getMaxSweetness());
+      between(predicates, cb, root, "bitternessLevel", search.getMinBitterness(),
+        search.getMaxBitterness());
+
+      return cb.and(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  /**
+   * @throws IllegalArgumentException if a range minimum of the search is greater than its maximum
+   */
+  public static void checkRanges(CoffeeSearchRequest search) {
+    checkRange("price", search.getMinPrice(), search.getMaxPrice());
+    checkRange("altitude", search.getMinAltitude(), search.getMaxAltitude());
+    checkRange("acidity", search.getMinAcidity(), search.getMaxAcidity());
+    checkRange("sweetness", search.getMinSweetness(), search.getMaxSweetness());
+    checkRange("bitterness", search.getMinBitterness(), search.getMaxBitterness());
+  }
+
+  private static void equal(List<Predicate> predicates, CriteriaBuilder cb, Root<Coffee> root,
+    String property, String value) {
+    if (StringUtils.hasText(value)) {
+      predicates.add(cb.equal(root.get(property), value.trim()));
+    }
+  }
+
+  private static <T extends Comparable<? super T>> void checkRange(String name, T min, T max) {
+    if (min != null && max != null && min.compareTo(max) > 0) {
+      throw new IllegalArgumentException(
+        String.format("Minimum %s cannot be greater than maximum %s", name, name));
+    }
+  }
+
+  private static <T extends Comparable<? super T>> void between(List<Predicate> predicates,
+    CriteriaBuilder cb, Root<Coffee> root, String property, T min, T max) {
+    if (min != null) {
+      predicates.add(cb.greaterThanOrEqualTo(root.get(property), min));
+    }
+    if (max != null) {
+      predicates.add(cb.lessThanOrEqualTo(root.get(property), max));
+    }
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
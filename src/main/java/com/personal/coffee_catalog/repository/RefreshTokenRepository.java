@@ -1,24 +1,172 @@
 package com.personal.coffee_catalog.repository;
 
-import com.personal.coffee_catalog.model.RefreshToken;
+import com.personal.coffee_catalog.constants.Constants.Role;
 import com.personal.coffee_catalog.model.User;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
 
-@Repository
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+/**
+ * Reads and writes the {@code refresh_tokens} table with plain JDBC, joining the surrounding
+ * transaction.
+ * <p>Writes come in batches from the write-behind of the token store. Reads happen on every
+ * refresh (the owner, with the state of the token) and for tokens the store does not hold in
+ * memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
 
-  Optional<RefreshToken> findByToken(String token);
+  private static final String FIND = """
+    SELECT token, user_id, created_at, expiry_date, revoked, rotated_at
+    FROM refresh_tokens
+    WHERE token = ?
+    """;
+  // The token row is missing until it is written
+  private static final String FIND_OWNER = """
+    SELECT u.id, u.email, u.role, u.token_version, rt.revoked, rt.rotated_at
+    FROM users u LEFT JOIN refresh_tokens rt ON rt.token = ? AND rt.user_id = u.id
+    WHERE u.id = ?
+    """;
+  private static final String INSERT = """
+    INSERT INTO refresh_tokens (token, user_id, expiry_date, created_at, updated_at)
+    VALUES (?, ?, ?, ?, ?)
+    """;
+  private static final String ROTATE = """
+    UPDATE refresh_tokens SET revoked = true, rotated_at = ?, updated_at = ? WHERE token = ?
+    """;
+  private static final String REVOKE = """
+    UPDATE refresh_tokens SET revoked = true, updated_at = ? WHERE token = ?
+    """;
+  private static final String REVOKE_USER = """
+    UPDATE refresh_tokens SET revoked = true, updated_at = ?
+    WHERE user_id = ? AND created_at <= ? AND NOT revoked
+    """;
+  // Oldest first along idx_refresh_token_expiry, so each batch is a short index range scan
+  private static final String DELETE_EXPIRED = """
+    DELETE FROM refresh_tokens
+    WHERE id IN (SELECT id FROM refresh_tokens WHERE expiry_date < ? ORDER BY expiry_date LIMIT ?)
+    """;
 
-  @Modifying
-  @Transactional
-  @Query("DELETE FROM RefreshToken rt WHERE rt.user = ?1")
-  void deleteByUser(User user);
+  private final JdbcTemplate jdbcTemplate;
 
-  @Transactional
-  void deleteByUserId(Long userId);
+  /**
+   * Token exchanged for a new one on refresh
+   */
+  public record Rotation(String tokenHash, Instant rotatedAt) {
+
+  }
+
+  /**
+   * Token revoked on logout
+   */
+  public record TokenRevocation(String tokenHash, Instant revokedAt) {
+
+  }
+
+  /**
+   * Every token of a user issued up to revokedAt is revoked
+   */
+  public record UserRevocation(long userId, Instant revokedAt) {
+
+  }
+
+  public Optional<StoredRefreshToken> findByTokenHash(String tokenHash) {
+    return jdbcTemplate.query(FIND, RefreshTokenRepository::toToken, tokenHash).stream()
+      .findFirst();
+  }
+
+  /**
+   * Owner of a token, with the state of the token in the table
+   *
+   * @param user    Detached user (ID, email, role and token version)
+   * @param revoked Whether the token was written as revoked or exchanged
+   * @param rotated Whether the token was written as exchanged on refresh
+   */
+  public record Owner(User user, boolean revoked, boolean rotated) {
+
+  }
+
+  /**
+   * Current claims of a token owner, by primary key, and the state of the token as written by
+   * any instance
+   *
+   * @return the owner, empty if it was deleted
+   */
+  public Optional<Owner> findOwner(long userId, String tokenHash) {
+    return jdbcTemplate.query(FIND_OWNER, RefreshTokenRepository::toOwner, tokenHash, userId)
+      .stream()
+      .findFirst();
+  }
+
+  public void insert(List<StoredRefreshToken> tokens) {
+    jdbcTemplate.batchUpdate(INSERT, tokens, tokens.size(), (statement, token) -> {
+      statement.setString(1, token.tokenHash());
+      statement.setLong(2, token.userId());
+      statement.setTimestamp(3, Timestamp.from(token.expiresAt()));
+      statement.setTimestamp(4, Timestamp.from(token.issuedAt()));
+      statement.setTimestamp(5, Timestamp.from(token.issuedAt()));
+    });
+  }
+
+  public void markRotated(List<Rotation> rotations) {
+    jdbcTemplate.batchUpdate(ROTATE, rotations, rotations.size(), (statement, rotation) -> {
+      statement.setTimestamp(1, Timestamp.from(rotation.rotatedAt()));
+      statement.setTimestamp(2, Timestamp.from(rotation.rotatedAt()));
+      statement.setString(3, rotation.tokenHash());
+    });
+  }
+
+  public void revoke(List<TokenRevocation> revocations) {
+    jdbcTemplate.batchUpdate(REVOKE, revocations, revocations.size(), (statement, revocation) -> {
+      statement.setTimestamp(1, Timestamp.from(revocation.revokedAt()));
+      statement.setString(2, revocation.tokenHash());
+    });
+  }
+
+  public void revokeUsers(List<UserRevocation> revocations) {
+    jdbcTemplate.batchUpdate(REVOKE_USER, revocations, revocations.size(),
+      (statement, revocation) -> {
+        statement.setTimestamp(1, Timestamp.from(revocation.revokedAt()));
+        statement.setLong(2, revocation.userId());
+        statement.setTimestamp(3, Timestamp.from(revocation.revokedAt()));
+      });
+  }
+
+  /**
+   * Delete up to limit tokens that expired before the given time
+   *
+   * @return number of tokens deleted
+   */
+  public int deleteExpired(Instant before, int limit) {
+    return jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(before), limit);
+  }
+
+  private static StoredRefreshToken toToken(ResultSet resultSet, int row) throws SQLException {
+    Timestamp rotatedAt = resultSet.getTimestamp("rotated_at");
+    return new StoredRefreshToken(
+      resultSet.getString("token"),
+      resultSet.getLong("user_id"),
+      resultSet.getTimestamp("created_at").toInstant(),
+      resultSet.getTimestamp("expiry_date").toInstant(),
+      resultSet.getBoolean("revoked"),
+      rotatedAt == null ? null : rotatedAt.toInstant());
+  }
+
+  private static Owner toOwner(ResultSet resultSet, int row) throws SQLException {
+    User user = User.builder()
+      .id(resultSet.getLong("id"))
+      .email(resultSet.getString("email"))
+      .role(Role.valueOf(resultSet.getString("role")))
+      .tokenVersion(resultSet.getInt("token_version"))
+      .build();
+    return new Owner(user, resultSet.getBoolean("revoked"),
+      resultSet.getTimestamp("rotated_at") != null);
+  }
 }
@@ -0,0 +1,27 @@
+package com.personal.coffee_catalog.repository;
+
+import com.personal.coffee_catalog.model.Roaster;
+import com.personal.coffee_catalog.response.RoasterSummaryResponse;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RoasterRepository extends JpaRepository<Roaster, Long> {
+
+  // Find by verification status (idx_roasters_verified)
+  Page<Roaster> findByIsVerified(Boolean isVerified, Pageable pageable);
+
+  // Summaries of the roasters of a page of coffees, in one query (primary key lookups)
+  @Query("""
+    SELECT new com.personal.coffee_catalog.response.RoasterSummaryResponse(
+      r.id, r.companyName, r.location, r.logoUrl, r.isVerified)
+    FROM Roaster r
+    WHERE r.id IN ?1
+    """)
+  List<RoasterSummaryResponse> findSummariesByIdIn(Collection<Long> ids);
+}
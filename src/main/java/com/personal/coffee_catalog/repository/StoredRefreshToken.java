@@ -0,0 +1,25 @@
+package com.personal.coffee_catalog.repository;
+
+import java.time.Instant;
+
+/**
+ * Row of the {@code refresh_tokens} table. The claims of its user are read again on every refresh,
+ * so that a changed role or email applies to the next access token.
+ *
+ * @param tokenHash SHA-256 of the token; the token itself is only known to the client
+ * @param userId    Owner
+ * @param issuedAt  When the token was issued
+ * @param expiresAt When the token expires
+ * @param revoked   Whether it was revoked (logout) or exchanged on refresh
+ * @param rotatedAt When it was exchanged on refresh, null if it was not
+ */
+public record StoredRefreshToken(
+  String tokenHash,
+  long userId,
+  Instant issuedAt,
+  Instant expiresAt,
+  boolean revoked,
+  Instant rotatedAt
+) {
+
+}
@@ -3,7 +3,9 @@ package com.personal.coffee_catalog.repository;
 import com.personal.coffee_catalog.model.User;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +13,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  /**
+   * Invalidate the issued access tokens of the user
+   *
+   * @return the new token version, empty if there is no such user
+   */
+  @Transactional
+  @Query(value = """
+    UPDATE users SET token_version = token_version + 1 WHERE id = ?1 RETURNING token_version
+    """, nativeQuery = true)
+  Optional<Integer> incrementTokenVersion(Long userId);
 }
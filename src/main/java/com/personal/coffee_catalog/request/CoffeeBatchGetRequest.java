@@ -0,0 +1,23 @@
+package com.personal.coffee_catalog.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeBatchGetRequest {
+
+  public static final int MAX_IDS = 500;
+
+  @NotEmpty(message = "Coffee IDs are required")
+  @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " coffee IDs per request")
+  private List<@NotNull(message = "Coffee ID must not be null") Long> ids;
+}
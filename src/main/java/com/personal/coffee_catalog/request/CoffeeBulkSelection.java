@@ -0,0 +1,27 @@
+package com.personal.coffee_catalog.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coffees a bulk operation applies to: the given IDs, the coffees of a roaster, or the given IDs
+ * of that roaster when both are set. At least one is required.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeBulkSelection {
+
+  public static final int MAX_IDS = 10_000;
+
+  @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " coffee IDs per request")
+  private List<@NotNull(message = "Coffee ID must not be null") Long> ids;
+
+  private Long roasterId;
+}
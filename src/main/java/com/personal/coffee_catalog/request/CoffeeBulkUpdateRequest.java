@@ -0,0 +1,34 @@
+package com.personal.coffee_catalog.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Patch applied to every selected coffee. Null fields are left unchanged; at least one is
+ * required.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeBulkUpdateRequest {
+
+  @Valid
+  @NotNull(message = "Selection is required")
+  private CoffeeBulkSelection selection;
+
+  @Positive(message = "Price must be positive")
+  private BigDecimal price;
+
+  private String roastLevel;
+
+  private String originCountry;
+
+  private String originRegion;
+}
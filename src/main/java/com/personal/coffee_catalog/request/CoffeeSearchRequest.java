@@ -0,0 +1,68 @@
+package com.personal.coffee_catalog.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coffee search criteria. Every criterion is optional and all given criteria must match; range
+ * bounds are inclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeSearchRequest {
+
+  private String originCountry;
+
+  private String originRegion;
+
+  private String roastLevel;
+
+  private String processingMethod;
+
+  // Matches when the varietal list contains it (case-insensitive)
+  private String varietal;
+
+  @PositiveOrZero(message = "Minimum price must not be negative")
+  private BigDecimal minPrice;
+
+  @PositiveOrZero(message = "Maximum price must not be negative")
+  private BigDecimal maxPrice;
+
+  @PositiveOrZero(message = "Minimum altitude must not be negative")
+  private Integer minAltitude;
+
+  @PositiveOrZero(message = "Maximum altitude must not be negative")
+  private Integer maxAltitude;
+
+  @Min(value = 1, message = "Acidity level must be between 1 and 10")
+  @Max(value = 10, message = "Acidity level must be between 1 and 10")
+  private Integer minAcidity;
+
+  @Min(value = 1, message = "Acidity level must be between 1 and 10")
+  @Max(value = 10, message = "Acidity level must be between 1 and 10")
+  private Integer maxAcidity;
+
+  @Min(value = 1, message = "Sweetness level must be between 1 and 10")
+  @Max(value = 10, message = "Sweetness level must be between 1 and 10")
+  private Integer minSweetness;
+
+  @Min(value = 1, message = "Sweetness level must be between 1 and 10")
+  @Max(value = 10, message = "Sweetness level must be between 1 and 10")
+  private Integer maxSweetness;
+
+  @Min(value = 1, message = "Bitterness level must be between 1 and 10")
+  @Max(value = 10, message = "Bitterness level must be between 1 and 10")
+  private Integer minBitterness;
+
+  @Min(value = 1, message = "Bitterness level must be between 1 and 10")
+  @Max(value = 10, message = "Bitterness level must be between 1 and 10")
+  private Integer maxBitterness;
+}
@@ -0,0 +1,22 @@
+package com.personal.coffee_catalog.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coffees of a batch get in request order (a repeated ID once), and the requested IDs that could
+ * not be returned
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeBatchGetResponse {
+
+  private List<CoffeeResponse> coffees;
+  private List<Long> missingIds;
+  private List<Long> inactiveIds;
+}
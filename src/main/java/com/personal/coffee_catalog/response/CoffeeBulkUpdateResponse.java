@@ -0,0 +1,17 @@
+package com.personal.coffee_catalog.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeBulkUpdateResponse {
+
+  private int updatedRows;
+  private List<Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.personal.coffee_catalog.response;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeChangeEvent {
+
+  private long sequence;
+  private ChangeType type;
+  private Long coffeeId;
+  private CoffeeResponse coffee; // the coffee after the change; null when deactivated or deleted
+  private Instant occurredAt;
+}
@@ -0,0 +1,25 @@
+package com.personal.coffee_catalog.response;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of matching coffees per value of each facet. Values without matches are left out; a
+ * coffee counts once for every distinct flavor category of its notes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeFacetsResponse {
+
+  private long total; // matching coffees
+  private Map<String, Long> originCountry;
+  private Map<String, Long> roastLevel;
+  private Map<String, Long> processingMethod;
+  private Map<String, Long> priceRange; // in range order, e.g. "10-20"
+  private Map<String, Long> flavorCategory;
+}
@@ -0,0 +1,23 @@
+package com.personal.coffee_catalog.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk import. Rejected rows are skipped, the others are imported.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeImportResponse {
+
+  private long totalRows;
+  private long importedRows;
+  private long failedRows;
+  private long elapsedMillis;
+  private List<ImportRowError> errors; // the first catalog.import.max-errors only
+}
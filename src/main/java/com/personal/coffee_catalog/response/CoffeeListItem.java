@@ -0,0 +1,48 @@
+package com.personal.coffee_catalog.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Coffee returned by list endpoints, either full ({@link CoffeeResponse}) or summary
+ * ({@link CoffeeSummaryResponse}). Exposes the keys listings sort and seek on, and the fields
+ * the in-memory search and facet indexes are built from.
+ * <p>Items are projected without their roaster; listings then set the roaster summaries of a
+ * whole page at once.
+ */
+public interface CoffeeListItem {
+
+  Long getId();
+
+  Long getRoasterId();
+
+  String getName();
+
+  String getOriginCountry();
+
+  String getOriginRegion();
+
+  Integer getAltitudeMeters();
+
+  String getVarietal();
+
+  String getProcessingMethod();
+
+  String getRoastLevel();
+
+  BigDecimal getPrice();
+
+  Integer getAcidityLevel();
+
+  Integer getSweetnessLevel();
+
+  Integer getBitternessLevel();
+
+  LocalDateTime getCreatedAt();
+
+  LocalDateTime getUpdatedAt();
+
+  RoasterSummaryResponse getRoaster();
+
+  void setRoaster(RoasterSummaryResponse roaster);
+}
@@ -1,5 +1,6 @@
 package com.personal.coffee_catalog.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,9 +13,10 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CoffeeResponse {
+public class CoffeeResponse implements CoffeeListItem {
 
   private Long id;
+  private Long roasterId;
   private String name;
   private String description;
   private String originCountry;
@@ -33,4 +35,7 @@ public class CoffeeResponse {
   private Boolean isActive;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+  // Not projected: set by the listings, left out of exports and change events
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private RoasterSummaryResponse roaster;
 }
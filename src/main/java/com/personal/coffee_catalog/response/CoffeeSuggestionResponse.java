@@ -0,0 +1,26 @@
+package com.personal.coffee_catalog.response;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Autocomplete suggestion served from the in-memory search index
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeSuggestionResponse {
+
+  private Long id;
+  private String name;
+  private String originCountry;
+  private String originRegion;
+  private String varietal;
+  private String roastLevel;
+  private BigDecimal price;
+  private int score; // higher is a better match
+}
@@ -0,0 +1,43 @@
+package com.personal.coffee_catalog.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coffee list item without the description, for listings that only render cards
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoffeeSummaryResponse implements CoffeeListItem {
+
+  private Long id;
+  private Long roasterId;
+  private String name;
+  private String originCountry;
+  private String originRegion;
+  private Integer altitudeMeters;
+  private String varietal;
+  private String processingMethod;
+  private String roastLevel;
+  private LocalDate roastDate;
+  private BigDecimal price;
+  private Integer weightGrams;
+  private Integer acidityLevel;
+  private Integer sweetnessLevel;
+  private Integer bitternessLevel;
+  private String imageUrl;
+  private Boolean isActive;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+  // Not projected: set by the listings, left out of exports and change events
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private RoasterSummaryResponse roaster;
+}
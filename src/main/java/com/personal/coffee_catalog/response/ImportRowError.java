@@ -0,0 +1,17 @@
+package com.personal.coffee_catalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+  private long row; // 1-based, not counting the CSV header
+  private String field; // null when the row as a whole was rejected
+  private String message;
+}
@@ -0,0 +1,24 @@
+package com.personal.coffee_catalog.response;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatsResponse {
+
+  private boolean relayRunning;
+  private long pendingEvents;
+  private Long oldestPendingAgeMillis; // null when nothing is pending
+  private long deliveredEvents; // since startup, by this instance
+  private long deliveredBatches;
+  private long failedBatches;
+  private long lastLagMillis; // write-to-delivery age of the oldest event of the last batch
+  private long maxLagMillis;
+  private LocalDateTime lastDeliveredAt;
+}
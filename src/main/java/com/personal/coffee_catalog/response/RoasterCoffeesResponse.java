@@ -0,0 +1,20 @@
+package com.personal.coffee_catalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+/**
+ * A roaster and a page of its active coffees. The coffees do not embed the roaster again.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoasterCoffeesResponse {
+
+  private RoasterResponse roaster;
+  private Page<CoffeeListItem> coffees;
+}
@@ -0,0 +1,25 @@
+package com.personal.coffee_catalog.response;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoasterResponse {
+
+  private Long id;
+  private String companyName;
+  private String description;
+  private String website;
+  private String location;
+  private Integer foundedYear;
+  private String logoUrl;
+  private Boolean isVerified;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+}
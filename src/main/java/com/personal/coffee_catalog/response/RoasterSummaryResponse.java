@@ -0,0 +1,22 @@
+package com.personal.coffee_catalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Roaster embedded in coffee responses: what a coffee card shows of its roaster
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoasterSummaryResponse {
+
+  private Long id;
+  private String companyName;
+  private String location;
+  private String logoUrl;
+  private Boolean isVerified;
+}
@@ -0,0 +1,21 @@
+package com.personal.coffee_catalog.response;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsResponse {
+
+  private long documentCount;
+  private long termCount;
+  private long postingCount;
+  private long estimatedBytes; // approximate heap footprint
+  private long buildMillis; // startup build duration
+  private LocalDateTime builtAt;
+}
@@ -0,0 +1,27 @@
+package com.personal.coffee_catalog.response;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coffee with a similar flavor profile, served from the in-memory similarity index
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarCoffeeResponse {
+
+  private Long id;
+  private String name;
+  private String originCountry;
+  private String roastLevel;
+  private BigDecimal price;
+  private Integer acidityLevel;
+  private Integer sweetnessLevel;
+  private Integer bitternessLevel;
+  private double similarity; // 1 for an identical profile, 0 for the most distant one possible
+}
@@ -1,6 +1,6 @@
 package com.personal.coffee_catalog.service;
 
-import com.personal.coffee_catalog.model.RefreshToken;
+import com.personal.coffee_catalog.exception.TooManyRequestsException;
 import com.personal.coffee_catalog.model.User;
 import com.personal.coffee_catalog.repository.UserRepository;
 import com.personal.coffee_catalog.request.LoginRequest;
@@ -10,9 +10,9 @@ import com.personal.coffee_catalog.response.AuthResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -42,67 +42,74 @@ public class AuthService {
     user = userRepository.save(user);
 
     // Generate tokens
-    var accessToken = jwtService.generateToken(user);
-    var refreshToken = refreshTokenService.createRefreshToken(user.getId());
+    var accessToken = jwtService.generateAccessToken(user);
+    var refreshToken = refreshTokenService.createRefreshToken(user);
 
     return AuthResponse.builder()
       .accessToken(accessToken)
-      .refreshToken(refreshToken.getToken())
+      .refreshToken(refreshToken)
       .email(user.getEmail())
       .role(user.getRole().name())
       .build();
   }
 
-  @Transactional(timeout = 5)
+  /**
+   * Authenticate a user and issue tokens. Not transactional: the password check runs on the
+   * hashing threads while no database connection is held, and the refresh token is written
+   * behind.
+   *
+   * @throws TooManyRequestsException if too many logins are already waiting for a hashing thread
+   */
   public AuthResponse login(LoginRequest request) {
     // Authenticate user
+    Authentication authentication;
     try {
-      authenticationManager.authenticate(
+      authentication = authenticationManager.authenticate(
         new UsernamePasswordAuthenticationToken(
           request.getEmail(),
           request.getPassword()
         )
       );
+    } catch (TooManyRequestsException e) {
+      throw e;
     } catch (Exception e) {
       throw new IllegalArgumentException("Invalid email or password");
     }
 
-    // Get user from database
-    var user = userRepository.findByEmail(request.getEmail())
-      .orElseThrow(() -> new RuntimeException("User not found"));
+    // The user was loaded to check the password
+    var user = (User) authentication.getPrincipal();
 
     // Generate tokens
-    var accessToken = jwtService.generateToken(user);
-    var refreshToken = refreshTokenService.createRefreshToken(user.getId());
+    var accessToken = jwtService.generateAccessToken(user);
+    var refreshToken = refreshTokenService.createRefreshToken(user);
 
     return AuthResponse.builder()
       .accessToken(accessToken)
-      .refreshToken(refreshToken.getToken())
+      .refreshToken(refreshToken)
       .email(user.getEmail())
       .role(user.getRole().name())
       .build();
   }
 
+  /**
+   * Exchange a refresh token for a new access token and a new refresh token; the presented one
+   * cannot be used again
+   */
   public AuthResponse refreshToken(RefreshTokenRequest request) {
-    String requestRefreshToken = request.getRefreshToken();
+    var refresh = refreshTokenService.rotate(request.getRefreshToken());
+    var user = refresh.user();
 
-    return refreshTokenService.findByToken(requestRefreshToken)
-      .map(refreshTokenService::verifyExpiration)
-      .map(RefreshToken::getUser)
-      .map(user -> {
-        String accessToken = jwtService.generateToken(user);
-
-        return AuthResponse.builder()
-          .accessToken(accessToken)
-          .refreshToken(requestRefreshToken)
-          .email(user.getEmail())
-          .role(user.getRole().name())
-          .build();
-      })
-      .orElseThrow(() -> new RuntimeException("Refresh token not found"));
+    return AuthResponse.builder()
+      .accessToken(jwtService.generateAccessToken(user))
+      .refreshToken(refresh.token())
+      .email(user.getEmail())
+      .role(user.getRole().name())
+      .build();
   }
 
   public void logout(String refreshToken) {
-    refreshTokenService.revokeToken(refreshToken);
+    // Revokes the refresh token; access tokens are invalidated as well, so stateless
+    // authentication stops accepting them
+    refreshTokenService.logout(refreshToken);
   }
 }
@@ -0,0 +1,339 @@
+package com.personal.coffee_catalog.service;
+
+import static java.util.Map.entry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.response.CacheStatsResponse;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process read-through cache for catalog reads.
+ * <p>Holds single active coffees by ID and the first pages of active coffees per view, page size
+ * and sort order. Entries are bounded by size and TTL, and every catalog write evicts only the
+ * entries it can affect.
+ * <p>Also tracks the {@link CatalogVersion}, which every catalog write moves forward once its
+ * entries are evicted, for HTTP validators of listings.
+ * <p>A load that overlaps a write may have read the data from before it, so its result is cached
+ * only if no write was reported between the start of the load and the {@code put}.
+ */
+@Component
+public class CoffeeCatalogCache {
+
+  /**
+   * Properties a cached page can be sorted by, used to find the pages an update may reorder
+   */
+  static final Map<String, Function<CoffeeResponse, Object>> SORT_PROPERTIES = Map.ofEntries(
+    entry("id", CoffeeResponse::getId),
+    entry("name", CoffeeResponse::getName),
+    entry("description", CoffeeResponse::getDescription),
+    entry("originCountry", CoffeeResponse::getOriginCountry),
+    entry("originRegion", CoffeeResponse::getOriginRegion),
+    entry("altitudeMeters", CoffeeResponse::getAltitudeMeters),
+    entry("varietal", CoffeeResponse::getVarietal),
+    entry("processingMethod", CoffeeResponse::getProcessingMethod),
+    entry("roastLevel", CoffeeResponse::getRoastLevel),
+    entry("roastDate", CoffeeResponse::getRoastDate),
+    entry("price", CoffeeResponse::getPrice),
+    entry("weightGrams", CoffeeResponse::getWeightGrams),
+    entry("acidityLevel", CoffeeResponse::getAcidityLevel),
+    entry("sweetnessLevel", CoffeeResponse::getSweetnessLevel),
+    entry("bitternessLevel", CoffeeResponse::getBitternessLevel),
+    entry("imageUrl", CoffeeResponse::getImageUrl),
+    entry("createdAt", CoffeeResponse::getCreatedAt),
+    entry("updatedAt", CoffeeResponse::getUpdatedAt)
+  );
+
+  private final boolean enabled;
+  private final int maxCachedPages;
+  private final Cache<Long, CoffeeResponse> coffees;
+  private final Cache<PageKey, Page<CoffeeListItem>> activePages;
+  private final LongAdder coffeeInvalidations = new LongAdder();
+  private final LongAdder pageInvalidations = new LongAdder();
+  private final String versionPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+  private final AtomicLong writes = new AtomicLong();
+  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
+  private final AtomicReference<CatalogVersion> version;
+
+  public CoffeeCatalogCache(
+    @Value("${catalog.cache.enabled:true}") boolean enabled,
+    @Value("${catalog.cache.coffee-max-size:10000}") long coffeeMaxSize,
+    @Value("${catalog.cache.page-max-size:500}") long pageMaxSize,
+    @Value("${catalog.cache.max-cached-pages:5}") int maxCachedPages,
+    @Value("${catalog.cache.ttl-ms:600000}") long ttlMs
+  ) {
+    this.enabled = enabled;
+    this.maxCachedPages = maxCachedPages;
+    this.coffees = Caffeine.newBuilder()
+      .maximumSize(coffeeMaxSize)
+      .expireAfterWrite(Duration.ofMillis(ttlMs))
+      .recordStats()
+      .build();
+    this.activePages = Caffeine.newBuilder()
+      .maximumSize(pageMaxSize)
+      .expireAfterWrite(Duration.ofMillis(ttlMs))
+      .recordStats()
+      .build();
+    this.version = new AtomicReference<>(new CatalogVersion(versionPrefix + "-0"));
+  }
+
+  /**
+   * Get an active coffee, loading it on a miss. Loader exceptions propagate and nothing is cached.
+   */
+  public CoffeeResponse getCoffee(Long coffeeId, Supplier<CoffeeResponse> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+
+    long loadedAt = writes.get();
+    CoffeeResponse cached = coffees.getIfPresent(coffeeId);
+    if (cached != null) {
+      return cached;
+    }
+
+    CoffeeResponse loaded = loader.get();
+    putUnlessWritten(coffees, coffeeId, loaded, loadedAt);
+    return loaded;
+  }
+
+  /**
+   * Get active coffees by ID, loading all misses with one loader call. The loader returns the
+   * active coffees it finds; IDs it leaves out are left out of the result and not cached.
+   */
+  public Map<Long, CoffeeResponse> getCoffees(Set<Long> coffeeIds,
+    Function<Set<Long>, Map<Long, CoffeeResponse>> loader) {
+    if (!enabled) {
+      return loader.apply(coffeeIds);
+    }
+
+    long loadedAt = writes.get();
+    Map<Long, CoffeeResponse> found = new LinkedHashMap<>(coffees.getAllPresent(coffeeIds));
+    Set<Long> misses = coffeeIds.stream()
+      .filter(coffeeId -> !found.containsKey(coffeeId))
+      .collect(Collectors.toSet());
+    if (misses.isEmpty()) {
+      return found;
+    }
+
+    Map<Long, CoffeeResponse> loaded = loader.apply(misses);
+    loaded.forEach((coffeeId, coffee) -> putUnlessWritten(coffees, coffeeId, coffee, loadedAt));
+    found.putAll(loaded);
+    return found;
+  }
+
+  /**
+   * Get a page of active coffees, loading it on a miss. Only the first pages are cached.
+   */
+  public Page<CoffeeListItem> getActivePage(Pageable pageable, CoffeeView view,
+    Supplier<Page<CoffeeListItem>> loader) {
+    if (!enabled || pageable.isUnpaged() || pageable.getPageNumber() >= maxCachedPages) {
+      return loader.get();
+    }
+
+    PageKey key = new PageKey(view, pageable.getPageNumber(), pageable.getPageSize(),
+      pageable.getSort());
+    long loadedAt = writes.get();
+    Page<CoffeeListItem> cached = activePages.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    Page<CoffeeListItem> loaded = loader.get();
+    putUnlessWritten(activePages, key, loaded, loadedAt);
+    return loaded;
+  }
+
+  public void onCoffeeCreated(CoffeeResponse created) {
+    onCatalogChanged(() -> {
+      if (isActive(created)) {
+        // Shifts page contents and totals for every sort order
+        invalidateAllPages();
+      }
+    });
+  }
+
+  /**
+   * Bulk variant of {@link #onCoffeeCreated}: pages are invalidated once for all the coffees
+   */
+  public void onCoffeesImported(List<CoffeeResponse> imported) {
+    onCatalogChanged(() -> {
+      if (imported.stream().anyMatch(CoffeeCatalogCache::isActive)) {
+        invalidateAllPages();
+      }
+    });
+  }
+
+  public void onCoffeeUpdated(CoffeeResponse before, CoffeeResponse after) {
+    onCatalogChanged(() -> {
+      invalidateCoffee(after.getId());
+
+      if (isActive(before) != isActive(after)) {
+        invalidateAllPages();
+      } else if (isActive(after)) {
+        Set<String> changedProperties = SORT_PROPERTIES.entrySet().stream()
+          .filter(property -> !Objects.equals(
+            property.getValue().apply(before), property.getValue().apply(after)))
+          .map(Map.Entry::getKey)
+          .collect(Collectors.toSet());
+        invalidatePages(after.getId(), changedProperties);
+      }
+    });
+  }
+
+  /**
+   * Bulk variant of {@link #onCoffeeUpdated} and {@link #onCoffeeDeleted}: the coffees are
+   * invalidated and, since any listing may have changed, so are all pages
+   */
+  public void onCoffeesUpdated(List<Long> coffeeIds) {
+    if (coffeeIds.isEmpty()) {
+      return;
+    }
+
+    onCatalogChanged(() -> {
+      coffeeIds.forEach(this::invalidateCoffee);
+      invalidateAllPages();
+    });
+  }
+
+  public void onCoffeeDeleted(CoffeeResponse deleted) {
+    onCatalogChanged(() -> {
+      invalidateCoffee(deleted.getId());
+
+      if (isActive(deleted)) {
+        invalidateAllPages();
+      }
+    });
+  }
+
+  /**
+   * Current catalog version. Read it before loading the data it validates: a write in between
+   * then yields a newer version, never stale data under the new one.
+   */
+  public CatalogVersion getCatalogVersion() {
+    return version.get();
+  }
+
+  /**
+   * Hit, miss and eviction counters per cache
+   */
+  public Map<String, CacheStatsResponse> getStats() {
+    Map<String, CacheStatsResponse> stats = new LinkedHashMap<>();
+    stats.put("coffees", toResponse(coffees, coffeeInvalidations));
+    stats.put("activePages", toResponse(activePages, pageInvalidations));
+    return stats;
+  }
+
+  /**
+   * Count the write, evict its entries and move the version forward, with no load result put in
+   * between. A load that started before the count is then either evicted or never put.
+   */
+  private void onCatalogChanged(Runnable invalidation) {
+    cacheLock.writeLock().lock();
+    try {
+      long write = writes.incrementAndGet();
+      invalidation.run();
+      version.set(new CatalogVersion(versionPrefix + "-" + write));
+    } finally {
+      cacheLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Cache a load result unless a write was counted since {@code loadedAt}, read before loading
+   */
+  private <K, V> void putUnlessWritten(Cache<K, V> cache, K key, V value, long loadedAt) {
+    cacheLock.readLock().lock();
+    try {
+      if (writes.get() == loadedAt) {
+        cache.put(key, value);
+      }
+    } finally {
+      cacheLock.readLock().unlock();
+    }
+  }
+
+  private void invalidateCoffee(Long coffeeId) {
+    if (coffees.asMap().remove(coffeeId) != null) {
+      coffeeInvalidations.increment();
+    }
+  }
+
+  private void invalidateAllPages() {
+    pageInvalidations.add(activePages.estimatedSize());
+    activePages.invalidateAll();
+  }
+
+  /**
+   * Evict the pages that contain the coffee or are sorted by a property that changed
+   */
+  private void invalidatePages(Long coffeeId, Set<String> changedProperties) {
+    activePages.asMap().entrySet().removeIf(page -> {
+      boolean affected = containsCoffee(page.getValue(), coffeeId)
+        || dependsOn(page.getKey().sort(), changedProperties);
+      if (affected) {
+        pageInvalidations.increment();
+      }
+      return affected;
+    });
+  }
+
+  private static boolean containsCoffee(Page<CoffeeListItem> page, Long coffeeId) {
+    return page.getContent().stream().anyMatch(coffee -> coffeeId.equals(coffee.getId()));
+  }
+
+  private static boolean dependsOn(Sort sort, Set<String> changedProperties) {
+    return sort.stream().anyMatch(order -> !SORT_PROPERTIES.containsKey(order.getProperty())
+      || changedProperties.contains(order.getProperty()));
+  }
+
+  private static boolean isActive(CoffeeResponse coffee) {
+    return Boolean.TRUE.equals(coffee.getIsActive());
+  }
+
+  private static CacheStatsResponse toResponse(Cache<?, ?> cache, LongAdder invalidations) {
+    CacheStats stats = cache.stats();
+    return CacheStatsResponse.builder()
+      .size(cache.estimatedSize())
+      .hitCount(stats.hitCount())
+      .missCount(stats.missCount())
+      .hitRate(stats.hitRate())
+      .evictionCount(stats.evictionCount())
+      .invalidationCount(invalidations.sum())
+      .build();
+  }
+
+  private record PageKey(CoffeeView view, int page, int size, Sort sort) {
+
+  }
+
+  /**
+   * @param tag Unique per write and per process, so a tag issued before a restart never matches
+   *            again
+   */
+  public record CatalogVersion(String tag) {
+
+  }
+}
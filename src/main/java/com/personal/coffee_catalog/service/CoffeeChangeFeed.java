@@ -0,0 +1,269 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.response.CoffeeChangeEvent;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Publishes catalog changes to Server-Sent Events subscribers, once the change is committed.
+ * <p>Events are numbered in publication order. The last {@code catalog.change-feed.buffer-size}
+ * are kept in a ring buffer, so a client that reconnects with {@code Last-Event-ID} receives the
+ * events it missed. A client too far behind, or resuming from before a restart, gets a
+ * {@code RESET} event and must reload the catalog.
+ * <p>Changes are published after commit, in the order the writing threads get there. Each carries
+ * the outbox event ID of its change, which orders a coffee's changes by commit, and a change that
+ * arrives after a later one of the same coffee is dropped: a subscriber never sees a deleted coffee
+ * updated again.
+ * <p>Publishing never waits for subscribers: each event is serialized once and offered to every
+ * subscriber's bounded queue, and a virtual thread per subscriber writes to its connection. A
+ * subscriber whose queue fills up is sent what is queued and disconnected; it resumes from the
+ * ring buffer when it reconnects.
+ */
+@Slf4j
+@Component
+public class CoffeeChangeFeed {
+
+  static final String RESET = "RESET";
+  static final String SUBSCRIBED = "SUBSCRIBED";
+
+  private final ObjectWriter writer;
+  private final int queueSize;
+  private final long heartbeatMs;
+  private final long timeoutMs;
+  // Event IDs are "<stream>-<sequence>"; the stream differs per process, sequences restart at 1
+  private final String stream = Long.toHexString(ThreadLocalRandom.current().nextLong());
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final AtomicLong subscriberIds = new AtomicLong();
+
+  // Guarded by this
+  private final SentEvent[] buffer;
+  private final CoffeeVersions versions = new CoffeeVersions();
+  private long lastSequence;
+
+  public CoffeeChangeFeed(JsonMapper jsonMapper,
+    @Value("${catalog.change-feed.buffer-size:4096}") int bufferSize,
+    @Value("${catalog.change-feed.subscriber-queue-size:1024}") int queueSize,
+    @Value("${catalog.change-feed.heartbeat-ms:15000}") long heartbeatMs,
+    @Value("${catalog.change-feed.timeout-ms:1800000}") long timeoutMs) {
+    this.writer = jsonMapper.writerFor(CoffeeChangeEvent.class);
+    this.buffer = new SentEvent[bufferSize];
+    this.queueSize = queueSize;
+    this.heartbeatMs = heartbeatMs;
+    this.timeoutMs = timeoutMs;
+  }
+
+  /**
+   * Publish created or updated coffees
+   *
+   * @param eventIds Outbox event ID by coffee ID, the version of each change
+   */
+  public void onCoffeesSaved(ChangeType type, List<CoffeeResponse> coffees,
+    Map<Long, Long> eventIds) {
+    afterCommit(coffees.stream()
+      .map(coffee -> new Change(type, coffee.getId(), coffee, eventIds.get(coffee.getId())))
+      .toList());
+  }
+
+  /**
+   * Publish deactivated or deleted coffees
+   *
+   * @param eventIds Outbox event ID by coffee ID, the version of each change
+   */
+  public void onCoffeesRemoved(ChangeType type, List<Long> coffeeIds, Map<Long, Long> eventIds) {
+    afterCommit(coffeeIds.stream()
+      .map(coffeeId -> new Change(type, coffeeId, null, eventIds.get(coffeeId)))
+      .toList());
+  }
+
+  /**
+   * Subscribe to the feed, after the given event ID when resuming
+   *
+   * @param lastEventId Last-Event-ID sent by a reconnecting client, or null
+   */
+  public SseEmitter subscribe(String lastEventId) {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+
+    List<SentEvent> backlog = new ArrayList<>();
+    synchronized (this) {
+      Long resumeAfter = parseSequence(lastEventId);
+      if (resumeAfter == null) {
+        backlog.add(control(lastEventId == null ? SUBSCRIBED : RESET));
+      } else {
+        for (long sequence = resumeAfter + 1; sequence <= lastSequence; sequence++) {
+          backlog.add(buffer[slot(sequence)]);
+        }
+      }
+      subscribers.add(subscriber);
+    }
+
+    emitter.onCompletion(subscriber::close);
+    emitter.onTimeout(subscriber::close);
+    emitter.onError(error -> subscriber.close());
+    subscriber.thread = Thread.ofVirtual()
+      .name("change-feed-" + subscriber.id)
+      .start(() -> subscriber.run(backlog));
+    return emitter;
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  private void afterCommit(List<Change> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          publish(changes);
+        }
+      });
+    } else {
+      publish(changes);
+    }
+  }
+
+  private synchronized void publish(List<Change> changes) {
+    Instant now = Instant.now();
+    for (Change change : changes) {
+      boolean current = change.coffee() == null
+        ? versions.remove(change.coffeeId(), change.version())
+        : versions.save(change.coffeeId(), change.version());
+      if (!current) {
+        continue;
+      }
+      long sequence = ++lastSequence;
+      CoffeeChangeEvent event = new CoffeeChangeEvent(sequence, change.type(), change.coffeeId(),
+        change.coffee(), now);
+      SentEvent sent = new SentEvent(stream + "-" + sequence, change.type().name(),
+        writer.writeValueAsString(event));
+      buffer[slot(sequence)] = sent;
+
+      for (Subscriber subscriber : subscribers) {
+        if (!subscriber.queue.offer(sent)) {
+          subscriber.overflowed = true;
+          subscribers.remove(subscriber);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the sequence to resume after, or null when the ID is not from this process or its
+   * events are no longer buffered
+   */
+  private Long parseSequence(String lastEventId) {
+    if (lastEventId == null || !lastEventId.startsWith(stream + "-")) {
+      return null;
+    }
+    try {
+      long sequence = Long.parseLong(lastEventId.substring(stream.length() + 1));
+      boolean buffered = sequence >= Math.max(0, lastSequence - buffer.length)
+        && sequence <= lastSequence;
+      return buffered ? sequence : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Event without a change, telling the client where the feed stands
+   */
+  private SentEvent control(String name) {
+    return new SentEvent(stream + "-" + lastSequence, name,
+      "{\"sequence\":" + lastSequence + "}");
+  }
+
+  private int slot(long sequence) {
+    return (int) (sequence % buffer.length);
+  }
+
+  private record Change(ChangeType type, Long coffeeId, CoffeeResponse coffee, long version) {
+
+  }
+
+  private record SentEvent(String id, String name, String data) {
+
+  }
+
+  private class Subscriber {
+
+    private final long id;
+    private final SseEmitter emitter;
+    // Linked, so idle subscribers do not hold a queue-size array each
+    private final BlockingQueue<SentEvent> queue = new LinkedBlockingQueue<>(queueSize);
+    private volatile boolean overflowed;
+    private volatile boolean closed;
+    private volatile Thread thread;
+
+    Subscriber(long id, SseEmitter emitter) {
+      this.id = id;
+      this.emitter = emitter;
+    }
+
+    void run(List<SentEvent> backlog) {
+      try {
+        for (SentEvent event : backlog) {
+          send(event);
+        }
+        while (!closed) {
+          SentEvent event = overflowed ? queue.poll()
+            : queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+          if (event != null) {
+            send(event);
+          } else if (overflowed) {
+            log.debug("Change feed subscriber {} fell behind, disconnecting", id);
+            emitter.complete();
+            return;
+          } else {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException | IllegalStateException e) {
+        // Client gone or emitter already completed: the container completes the request
+        log.debug("Change feed subscriber {} disconnected: {}", id, e.getMessage());
+      } finally {
+        close();
+      }
+    }
+
+    void send(SentEvent event) throws IOException {
+      emitter.send(SseEmitter.event().id(event.id()).name(event.name()).data(event.data()));
+    }
+
+    void close() {
+      closed = true;
+      subscribers.remove(this);
+      Thread running = thread;
+      if (running != null && running != Thread.currentThread()) {
+        running.interrupt();
+      }
+    }
+  }
+}
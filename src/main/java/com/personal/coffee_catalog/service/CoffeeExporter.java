@@ -0,0 +1,120 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.repository.CoffeeProjection;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.utils.CsvWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes the active coffees to a stream as NDJSON or CSV, in ID order.
+ * <p>Rows are read through a Postgres cursor ({@code catalog.export.fetch-size} rows per round
+ * trip) as DTOs the persistence context does not track, and written as they arrive, so memory use
+ * does not grow with the catalog. The read runs in one read-only transaction, so the export is a
+ * consistent snapshot.
+ */
+@Component
+public class CoffeeExporter {
+
+  private static final int WRITE_BUFFER_CHARS = 1 << 16;
+
+  private final CoffeeRepository coffeeRepository;
+  private final JsonMapper jsonMapper;
+  private final TransactionTemplate readOnlyTransaction;
+  private final int fetchSize;
+
+  public CoffeeExporter(CoffeeRepository coffeeRepository, JsonMapper jsonMapper,
+    PlatformTransactionManager transactionManager,
+    @Value("${catalog.export.fetch-size:1000}") int fetchSize) {
+    this.coffeeRepository = coffeeRepository;
+    this.jsonMapper = jsonMapper;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * @return number of coffees written
+   */
+  public long export(DataFormat format, CoffeeView view, OutputStream out) {
+    CoffeeProjection<? extends CoffeeListItem> projection = CoffeeProjection.of(view);
+    Long written = readOnlyTransaction.execute(status -> {
+      try (Stream<CoffeeListItem> coffees = coffeeRepository.findStream(
+        CoffeeSpecifications.isActive(), Sort.by("id"), fetchSize, projection)) {
+        return format == DataFormat.CSV
+          ? writeCsv(coffees.iterator(), projection, out)
+          : writeNdjson(coffees.iterator(), projection, out);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    return written == null ? 0 : written;
+  }
+
+  private long writeNdjson(Iterator<CoffeeListItem> coffees,
+    CoffeeProjection<? extends CoffeeListItem> projection, OutputStream out) throws IOException {
+    ObjectWriter writer = jsonMapper.writerFor(projection.type());
+    long written = 0;
+    while (coffees.hasNext()) {
+      out.write(writer.writeValueAsBytes(coffees.next()));
+      out.write('\n');
+      written++;
+    }
+    out.flush();
+    return written;
+  }
+
+  private static long writeCsv(Iterator<CoffeeListItem> coffees,
+    CoffeeProjection<? extends CoffeeListItem> projection, OutputStream out) throws IOException {
+    List<Method> getters = projection.properties().stream()
+      .map(property -> BeanUtils.getPropertyDescriptor(projection.type(), property).getReadMethod())
+      .toList();
+
+    CsvWriter csv = new CsvWriter(new BufferedWriter(
+      new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS));
+    csv.writeRecord(projection.properties());
+    long written = 0;
+    List<Object> values = new ArrayList<>(getters.size());
+    while (coffees.hasNext()) {
+      CoffeeListItem coffee = coffees.next();
+      values.clear();
+      for (Method getter : getters) {
+        values.add(get(getter, coffee));
+      }
+      csv.writeRecord(values);
+      written++;
+    }
+    csv.flush();
+    return written;
+  }
+
+  private static Object get(Method getter, CoffeeListItem coffee) {
+    try {
+      return getter.invoke(coffee);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Cannot read " + getter.getName(), e);
+    }
+  }
+}
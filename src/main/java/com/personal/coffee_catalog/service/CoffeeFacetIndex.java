@@ -0,0 +1,547 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.repository.CoffeeFlavorCategory;
+import com.personal.coffee_catalog.repository.CoffeeProjection;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CoffeeFacetsResponse;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * In-process column store of the active catalog, counting every facet of a search in one pass.
+ * <p>The filterable fields of each active coffee are kept in primitive arrays by ordinal, strings
+ * dictionary-encoded. A facet request compiles the search into codes and bounds, then walks the
+ * coffees once, testing the criteria and incrementing the counters of the single-valued facets;
+ * flavor categories are counted by intersecting a bitmap per category with the matches.
+ * <p>Criteria follow {@link CoffeeSpecifications#matches}: exact origin, region, roast level and
+ * processing method, case-insensitive varietal containment and inclusive ranges that never match
+ * a missing value. The store is loaded at startup and kept current by the catalog writes; flavor
+ * note links are not written by the application, so they are read when a coffee is added.
+ */
+@Slf4j
+@Component
+public class CoffeeFacetIndex {
+
+  private static final int NONE = -1; // code of a missing string or price
+  private static final long MISSING = Long.MIN_VALUE; // missing number
+  private static final int[] NO_CODES = new int[0];
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * Dictionary-encoded string columns
+   */
+  private enum Column {
+    ORIGIN_COUNTRY,
+    ORIGIN_REGION,
+    VARIETAL,
+    PROCESSING_METHOD,
+    ROAST_LEVEL
+  }
+
+  /**
+   * Numeric columns, prices in cents
+   */
+  private enum Measure {
+    PRICE,
+    ALTITUDE,
+    ACIDITY,
+    SWEETNESS,
+    BITTERNESS
+  }
+
+  private final CoffeeRepository coffeeRepository;
+  private final long[] priceBounds; // upper bound (exclusive) of each but the last range, cents
+  private final List<String> priceRanges;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Column, Dictionary> dictionaries = new EnumMap<>(Column.class);
+  private final Dictionary flavorCategories = new Dictionary();
+  private final int[][] codes = new int[Column.values().length][INITIAL_CAPACITY];
+  private final long[][] measures = new long[Measure.values().length][INITIAL_CAPACITY];
+  private int[] priceRangeCodes = new int[INITIAL_CAPACITY];
+  private int[][] flavorCategoryCodes = new int[INITIAL_CAPACITY][];
+  private final List<BitSet> flavorCategoryOrdinals = new ArrayList<>(); // by category code
+
+  private final BitSet live = new BitSet(); // ordinals in use
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+  private final CoffeeVersions versions = new CoffeeVersions();
+  private int size; // ordinals handed out
+
+  public CoffeeFacetIndex(CoffeeRepository coffeeRepository,
+    @Value("${catalog.facets.price-bounds:10,20,30,40}") BigDecimal[] priceBounds) {
+    this.coffeeRepository = coffeeRepository;
+    List<BigDecimal> bounds = Arrays.stream(priceBounds).sorted().toList();
+    this.priceBounds = bounds.stream().mapToLong(CoffeeFacetIndex::cents).toArray();
+
+    List<String> labels = new ArrayList<>();
+    String lower = "0";
+    for (BigDecimal bound : bounds) {
+      String upper = bound.stripTrailingZeros().toPlainString();
+      labels.add(lower + "-" + upper);
+      lower = upper;
+    }
+    labels.add(lower + "+");
+    this.priceRanges = List.copyOf(labels);
+
+    for (Column column : Column.values()) {
+      dictionaries.put(column, new Dictionary());
+    }
+  }
+
+  /**
+   * Load all active coffees (before the application serves requests)
+   */
+  @PostConstruct
+  void build() {
+    long start = System.nanoTime();
+    List<? extends CoffeeListItem> coffees = coffeeRepository.findPage(
+      CoffeeSpecifications.isActive(), Pageable.unpaged(), CoffeeProjection.SUMMARY).getContent();
+    Map<Long, List<String>> categories = coffeeRepository.findActiveFlavorCategories().stream()
+      .collect(Collectors.groupingBy(CoffeeFlavorCategory::getCoffeeId,
+        Collectors.mapping(CoffeeFlavorCategory::getCategory, Collectors.toList())));
+    rebuild(coffees, categories);
+
+    log.info("Coffee facet index built in {} ms: {} coffees",
+      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), coffees.size());
+  }
+
+  /**
+   * Replace the whole index content
+   *
+   * @param categories Flavor categories by coffee ID
+   */
+  void rebuild(Collection<? extends CoffeeListItem> coffees,
+    Map<Long, List<String>> categories) {
+    lock.writeLock().lock();
+    try {
+      dictionaries.values().forEach(Dictionary::clear);
+      flavorCategories.clear();
+      flavorCategoryOrdinals.clear();
+      live.clear();
+      ordinals.clear();
+      freeOrdinals.clear();
+      versions.clear();
+      size = 0;
+      for (CoffeeListItem coffee : coffees) {
+        add(coffee, encode(categories.getOrDefault(coffee.getId(), List.of())));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Store a saved coffee, or drop it when it is no longer active
+   *
+   * @param version Outbox event ID of the change; older changes than the last applied are ignored
+   */
+  public void onCoffeeSaved(CoffeeResponse coffee, long version) {
+    if (!Boolean.TRUE.equals(coffee.getIsActive())) {
+      onCoffeeDeleted(coffee.getId(), version);
+      return;
+    }
+
+    boolean indexed;
+    lock.readLock().lock();
+    try {
+      if (!versions.isNewer(coffee.getId(), version)) {
+        return;
+      }
+      indexed = ordinals.containsKey(coffee.getId());
+    } finally {
+      lock.readLock().unlock();
+    }
+    List<String> loadedCategories = indexed ? List.of()
+      : coffeeRepository.findFlavorCategories(coffee.getId());
+
+    lock.writeLock().lock();
+    try {
+      if (!versions.save(coffee.getId(), version)) {
+        return;
+      }
+      Integer ordinal = ordinals.get(coffee.getId());
+      int[] categories = ordinal != null ? flavorCategoryCodes[ordinal]
+        : encode(loadedCategories);
+      remove(coffee.getId());
+      add(coffee, categories);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Store newly imported coffees under one write lock. They have no flavor notes yet, so there is
+   * nothing to load.
+   *
+   * @param eventIds Outbox event ID by coffee ID, the version of each coffee
+   */
+  public void onCoffeesImported(List<CoffeeResponse> coffees, Map<Long, Long> eventIds) {
+    lock.writeLock().lock();
+    try {
+      coffees.stream().filter(coffee -> Boolean.TRUE.equals(coffee.getIsActive()))
+        .filter(coffee -> versions.save(coffee.getId(), eventIds.get(coffee.getId())))
+        .forEach(coffee -> add(coffee, NO_CODES));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param version Outbox event ID of the change; older changes than the last applied are ignored
+   */
+  public void onCoffeeDeleted(Long coffeeId, long version) {
+    lock.writeLock().lock();
+    try {
+      if (versions.remove(coffeeId, version)) {
+        remove(coffeeId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Facet counts of the active coffees matching a search
+   *
+   * @throws IllegalArgumentException if a range minimum is greater than its maximum
+   */
+  public CoffeeFacetsResponse count(CoffeeSearchRequest search) {
+    CoffeeSpecifications.checkRanges(search);
+
+    lock.readLock().lock();
+    try {
+      Filter filter = Filter.compile(search, dictionaries);
+      int[] originCountries = codes[Column.ORIGIN_COUNTRY.ordinal()];
+      int[] roastLevels = codes[Column.ROAST_LEVEL.ordinal()];
+      int[] processingMethods = codes[Column.PROCESSING_METHOD.ordinal()];
+      long[] originCountryCounts = new long[dictionaries.get(Column.ORIGIN_COUNTRY).size()];
+      long[] roastLevelCounts = new long[dictionaries.get(Column.ROAST_LEVEL).size()];
+      long[] processingMethodCounts = new long[dictionaries.get(Column.PROCESSING_METHOD).size()];
+      long[] priceRangeCounts = new long[priceRanges.size()];
+      BitSet matches = new BitSet(size);
+      long total = 0;
+
+      if (filter != null) {
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0;
+          ordinal = live.nextSetBit(ordinal + 1)) {
+          if (!filter.matches(codes, measures, ordinal)) {
+            continue;
+          }
+          total++;
+          matches.set(ordinal);
+          increment(originCountryCounts, originCountries[ordinal]);
+          increment(roastLevelCounts, roastLevels[ordinal]);
+          increment(processingMethodCounts, processingMethods[ordinal]);
+          increment(priceRangeCounts, priceRangeCodes[ordinal]);
+        }
+      }
+
+      return CoffeeFacetsResponse.builder()
+        .total(total)
+        .originCountry(byCount(dictionaries.get(Column.ORIGIN_COUNTRY), originCountryCounts))
+        .roastLevel(byCount(dictionaries.get(Column.ROAST_LEVEL), roastLevelCounts))
+        .processingMethod(byCount(dictionaries.get(Column.PROCESSING_METHOD),
+          processingMethodCounts))
+        .priceRange(inRangeOrder(priceRangeCounts))
+        .flavorCategory(byCount(flavorCategories, countFlavorCategories(matches)))
+        .build();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void add(CoffeeListItem coffee, int[] categories) {
+    int ordinal = freeOrdinals.isEmpty() ? size++ : freeOrdinals.pop();
+    ensureCapacity(ordinal + 1);
+
+    codes[Column.ORIGIN_COUNTRY.ordinal()][ordinal] =
+      dictionaries.get(Column.ORIGIN_COUNTRY).encode(coffee.getOriginCountry());
+    codes[Column.ORIGIN_REGION.ordinal()][ordinal] =
+      dictionaries.get(Column.ORIGIN_REGION).encode(coffee.getOriginRegion());
+    codes[Column.VARIETAL.ordinal()][ordinal] =
+      dictionaries.get(Column.VARIETAL).encode(coffee.getVarietal());
+    codes[Column.PROCESSING_METHOD.ordinal()][ordinal] =
+      dictionaries.get(Column.PROCESSING_METHOD).encode(coffee.getProcessingMethod());
+    codes[Column.ROAST_LEVEL.ordinal()][ordinal] =
+      dictionaries.get(Column.ROAST_LEVEL).encode(coffee.getRoastLevel());
+
+    long price = coffee.getPrice() == null ? MISSING : cents(coffee.getPrice());
+    measures[Measure.PRICE.ordinal()][ordinal] = price;
+    measures[Measure.ALTITUDE.ordinal()][ordinal] = number(coffee.getAltitudeMeters());
+    measures[Measure.ACIDITY.ordinal()][ordinal] = number(coffee.getAcidityLevel());
+    measures[Measure.SWEETNESS.ordinal()][ordinal] = number(coffee.getSweetnessLevel());
+    measures[Measure.BITTERNESS.ordinal()][ordinal] = number(coffee.getBitternessLevel());
+    priceRangeCodes[ordinal] = price == MISSING ? NONE : priceRange(price);
+    flavorCategoryCodes[ordinal] = categories;
+    for (int code : categories) {
+      flavorCategoryOrdinals.get(code).set(ordinal);
+    }
+
+    live.set(ordinal);
+    ordinals.put(coffee.getId(), ordinal);
+  }
+
+  private void remove(Long coffeeId) {
+    Integer ordinal = ordinals.remove(coffeeId);
+    if (ordinal != null) {
+      live.clear(ordinal);
+      for (int code : flavorCategoryCodes[ordinal]) {
+        flavorCategoryOrdinals.get(code).clear(ordinal);
+      }
+      flavorCategoryCodes[ordinal] = NO_CODES;
+      freeOrdinals.push(ordinal);
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= priceRangeCodes.length) {
+      return;
+    }
+    int grown = Math.max(capacity, priceRangeCodes.length * 2);
+    for (int column = 0; column < codes.length; column++) {
+      codes[column] = Arrays.copyOf(codes[column], grown);
+    }
+    for (int measure = 0; measure < measures.length; measure++) {
+      measures[measure] = Arrays.copyOf(measures[measure], grown);
+    }
+    priceRangeCodes = Arrays.copyOf(priceRangeCodes, grown);
+    flavorCategoryCodes = Arrays.copyOf(flavorCategoryCodes, grown);
+  }
+
+  private static void increment(long[] counts, int code) {
+    if (code != NONE) {
+      counts[code]++;
+    }
+  }
+
+  private int[] encode(List<String> categories) {
+    if (categories.isEmpty()) {
+      return NO_CODES;
+    }
+    int[] encoded = categories.stream().distinct().mapToInt(flavorCategories::encode).toArray();
+    while (flavorCategoryOrdinals.size() < flavorCategories.size()) {
+      flavorCategoryOrdinals.add(new BitSet());
+    }
+    return encoded;
+  }
+
+  /**
+   * Multi-valued, so counted per category by intersecting bitmaps rather than in the scan
+   */
+  private long[] countFlavorCategories(BitSet matches) {
+    long[] counts = new long[flavorCategoryOrdinals.size()];
+    BitSet intersection = new BitSet(size);
+    for (int code = 0; code < counts.length; code++) {
+      intersection.clear();
+      intersection.or(flavorCategoryOrdinals.get(code));
+      intersection.and(matches);
+      counts[code] = intersection.cardinality();
+    }
+    return counts;
+  }
+
+  private int priceRange(long cents) {
+    int index = Arrays.binarySearch(priceBounds, cents);
+    return index >= 0 ? index + 1 : -index - 1; // a bound starts the next range
+  }
+
+  private Map<String, Long> inRangeOrder(long[] counts) {
+    Map<String, Long> ranges = new LinkedHashMap<>();
+    for (int range = 0; range < counts.length; range++) {
+      if (counts[range] > 0) {
+        ranges.put(priceRanges.get(range), counts[range]);
+      }
+    }
+    return ranges;
+  }
+
+  /**
+   * Values with matches, most matches first
+   */
+  private static Map<String, Long> byCount(Dictionary dictionary, long[] counts) {
+    Map<String, Long> values = new LinkedHashMap<>();
+    for (int code = 0; code < counts.length; code++) {
+      if (counts[code] > 0) {
+        values.put(dictionary.value(code), counts[code]);
+      }
+    }
+    return values.entrySet().stream()
+      .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+        .thenComparing(Map.Entry.comparingByKey()))
+      .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a,
+        LinkedHashMap::new));
+  }
+
+  /**
+   * Cents of a price the way the DECIMAL(10, 2) column stores it
+   */
+  private static long cents(BigDecimal price) {
+    return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  private static long number(Integer value) {
+    return value == null ? MISSING : value;
+  }
+
+  /**
+   * A search compiled against the dictionaries
+   *
+   * @param columns         Columns with an equality criterion
+   * @param columnCodes     Required code of each of these columns
+   * @param varietalMatches Varietal codes containing the searched varietal, null without one
+   * @param rangeMeasures   Measures with a range criterion
+   * @param min             Inclusive lower bound of each range
+   * @param max             Inclusive upper bound of each range
+   */
+  private record Filter(int[] columns, int[] columnCodes, boolean[] varietalMatches,
+                        int[] rangeMeasures, long[] min, long[] max) {
+
+    /**
+     * @return the filter, or null when a searched value is not in the catalog at all
+     */
+    static Filter compile(CoffeeSearchRequest search, Map<Column, Dictionary> dictionaries) {
+      Map<Column, String> equalities = new EnumMap<>(Column.class);
+      equalities.put(Column.ORIGIN_COUNTRY, search.getOriginCountry());
+      equalities.put(Column.ORIGIN_REGION, search.getOriginRegion());
+      equalities.put(Column.PROCESSING_METHOD, search.getProcessingMethod());
+      equalities.put(Column.ROAST_LEVEL, search.getRoastLevel());
+
+      List<int[]> equal = new ArrayList<>();
+      for (Map.Entry<Column, String> equality : equalities.entrySet()) {
+        if (StringUtils.hasText(equality.getValue())) {
+          int code = dictionaries.get(equality.getKey()).codeOf(equality.getValue().trim());
+          if (code == NONE) {
+            return null;
+          }
+          equal.add(new int[]{equality.getKey().ordinal(), code});
+        }
+      }
+
+      boolean[] varietalMatches = null;
+      if (StringUtils.hasText(search.getVarietal())) {
+        String varietal = search.getVarietal().trim().toLowerCase(Locale.ROOT);
+        Dictionary varietals = dictionaries.get(Column.VARIETAL);
+        varietalMatches = new boolean[varietals.size()];
+        for (int code = 0; code < varietalMatches.length; code++) {
+          varietalMatches[code] = varietals.value(code).toLowerCase(Locale.ROOT)
+            .contains(varietal);
+        }
+      }
+
+      List<long[]> ranges = new ArrayList<>();
+      range(ranges, Measure.PRICE,
+        search.getMinPrice() == null ? null : bound(search.getMinPrice(), RoundingMode.CEILING),
+        search.getMaxPrice() == null ? null : bound(search.getMaxPrice(), RoundingMode.FLOOR));
+      range(ranges, Measure.ALTITUDE, search.getMinAltitude(), search.getMaxAltitude());
+      range(ranges, Measure.ACIDITY, search.getMinAcidity(), search.getMaxAcidity());
+      range(ranges, Measure.SWEETNESS, search.getMinSweetness(), search.getMaxSweetness());
+      range(ranges, Measure.BITTERNESS, search.getMinBitterness(), search.getMaxBitterness());
+
+      return new Filter(
+        equal.stream().mapToInt(criterion -> criterion[0]).toArray(),
+        equal.stream().mapToInt(criterion -> criterion[1]).toArray(),
+        varietalMatches,
+        ranges.stream().mapToInt(range -> (int) range[0]).toArray(),
+        ranges.stream().mapToLong(range -> range[1]).toArray(),
+        ranges.stream().mapToLong(range -> range[2]).toArray());
+    }
+
+    boolean matches(int[][] codes, long[][] measures, int ordinal) {
+      for (int i = 0; i < columns.length; i++) {
+        if (codes[columns[i]][ordinal] != columnCodes[i]) {
+          return false;
+        }
+      }
+      if (varietalMatches != null) {
+        int code = codes[Column.VARIETAL.ordinal()][ordinal];
+        if (code == NONE || !varietalMatches[code]) {
+          return false;
+        }
+      }
+      for (int i = 0; i < rangeMeasures.length; i++) {
+        long value = measures[rangeMeasures[i]][ordinal];
+        if (value == MISSING || value < min[i] || value > max[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static void range(List<long[]> ranges, Measure measure, Number min, Number max) {
+      if (min != null || max != null) {
+        ranges.add(new long[]{measure.ordinal(),
+          min == null ? Long.MIN_VALUE + 1 : min.longValue(),
+          max == null ? Long.MAX_VALUE : max.longValue()});
+      }
+    }
+
+    /**
+     * Price bound in whole cents, rounded inwards so it compares like the exact bound
+     */
+    private static Long bound(BigDecimal price, RoundingMode rounding) {
+      return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+  }
+
+  /**
+   * Distinct values of a string column and their codes, in first-seen order
+   */
+  private static final class Dictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+      if (value == null) {
+        return NONE;
+      }
+      return codes.computeIfAbsent(value, key -> {
+        values.add(key);
+        return values.size() - 1;
+      });
+    }
+
+    int codeOf(String value) {
+      return codes.getOrDefault(value, NONE);
+    }
+
+    String value(int code) {
+      return values.get(code);
+    }
+
+    int size() {
+      return values.size();
+    }
+
+    void clear() {
+      codes.clear();
+      values.clear();
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.mapper.CoffeeMapper;
+import com.personal.coffee_catalog.repository.CoffeeBulkLoader;
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.response.CoffeeImportResponse;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.ImportRowError;
+import com.personal.coffee_catalog.utils.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Streams a CSV or NDJSON body of coffees into the database in chunks.
+ * <p>Every row is validated against the {@link CoffeeRequest} constraints, then loaded with
+ * {@link CoffeeBulkLoader}; only one chunk is held in memory. Rows are imported as active coffees,
+ * like single creates. Rejected rows are reported and skipped. Each chunk commits on its own,
+ * together with its {@link CoffeeOutbox} events, so an input that breaks off midway (e.g. an
+ * unterminated quote) keeps the chunks before it.
+ */
+@Component
+public class CoffeeImporter {
+
+  // CSV header names (case-insensitive) and how to set them
+  private static final Map<String, BiConsumer<CoffeeRequest, String>> CSV_FIELDS = csvFields();
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+  private static final int READ_BUFFER_CHARS = 1 << 16;
+
+  private final CoffeeBulkLoader coffeeBulkLoader;
+  private final CoffeeOutbox coffeeOutbox;
+  private final TransactionTemplate transaction;
+  private final CoffeeMapper coffeeMapper;
+  private final Validator validator;
+  private final JsonMapper jsonMapper;
+  private final int batchSize;
+  private final int maxErrors;
+
+  public CoffeeImporter(CoffeeBulkLoader coffeeBulkLoader, CoffeeOutbox coffeeOutbox,
+    PlatformTransactionManager transactionManager, CoffeeMapper coffeeMapper,
+    Validator validator, JsonMapper jsonMapper,
+    @Value("${catalog.import.batch-size:5000}") int batchSize,
+    @Value("${catalog.import.max-errors:1000}") int maxErrors) {
+    this.coffeeBulkLoader = coffeeBulkLoader;
+    this.coffeeOutbox = coffeeOutbox;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.coffeeMapper = coffeeMapper;
+    this.validator = validator;
+    this.jsonMapper = jsonMapper;
+    this.batchSize = batchSize;
+    this.maxErrors = maxErrors;
+  }
+
+  /**
+   * @param onImported Called with the coffees of each chunk once they are committed, and their
+   *                   outbox event IDs by coffee ID
+   * @throws IllegalArgumentException if the CSV header is invalid or a quoted field is not closed
+   */
+  public CoffeeImportResponse importCoffees(InputStream body, DataFormat format,
+    BiConsumer<List<CoffeeResponse>, Map<Long, Long>> onImported) {
+    long start = System.nanoTime();
+    Run run = new Run(onImported);
+    BufferedReader reader = new BufferedReader(
+      new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_CHARS);
+    try {
+      if (format == DataFormat.CSV) {
+        readCsv(reader, run);
+      } else {
+        readNdjson(reader, run);
+      }
+      run.flush();
+    } catch (IOException | RuntimeException e) {
+      RuntimeException failure = e instanceof IOException io
+        ? new UncheckedIOException(io)
+        : (RuntimeException) e;
+      // Rows read before a parse failure are still imported; a chunk that failed to load was
+      // cleared, so it is never loaded twice
+      try {
+        run.flush();
+      } catch (RuntimeException flushFailure) {
+        failure.addSuppressed(flushFailure);
+      }
+      throw failure;
+    }
+
+    return CoffeeImportResponse.builder()
+      .totalRows(run.totalRows)
+      .importedRows(run.importedRows)
+      .failedRows(run.failedRows)
+      .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+      .errors(run.errors)
+      .build();
+  }
+
+  private void readCsv(BufferedReader reader, Run run) throws IOException {
+    CsvReader csv = new CsvReader(reader);
+    List<String> columns = csvColumns(csv.readRecord());
+
+    long row = 0;
+    for (List<String> record; (record = csv.readRecord()) != null; ) {
+      row++;
+      if (record.size() == 1 && record.getFirst().isBlank()) {
+        continue; // empty line
+      }
+      if (record.size() != columns.size()) {
+        run.reject(row, List.of(new ImportRowError(row, null,
+          "Expected " + columns.size() + " fields but found " + record.size())));
+        continue;
+      }
+
+      CoffeeRequest coffee = new CoffeeRequest();
+      List<ImportRowError> errors = new ArrayList<>();
+      for (int i = 0; i < columns.size(); i++) {
+        String value = record.get(i).trim();
+        if (!value.isEmpty()) {
+          try {
+            CSV_FIELDS.get(columns.get(i)).accept(coffee, value);
+          } catch (NumberFormatException e) {
+            errors.add(new ImportRowError(row, columns.get(i), "Invalid number: " + value));
+          }
+        }
+      }
+      run.accept(row, coffee, errors);
+    }
+  }
+
+  private void readNdjson(BufferedReader reader, Run run) throws IOException {
+    long row = 0;
+    for (String line; (line = reader.readLine()) != null; ) {
+      row++;
+      if (line.isBlank()) {
+        continue;
+      }
+
+      try {
+        run.accept(row, jsonMapper.readValue(line, CoffeeRequest.class), List.of());
+      } catch (JacksonException e) {
+        String field = e.getPath().isEmpty() ? null : e.getPath().getLast().getPropertyName();
+        run.reject(row, List.of(new ImportRowError(row, field,
+          "Malformed JSON: " + e.getOriginalMessage())));
+      }
+    }
+  }
+
+  /**
+   * @return the field name of each column, as spelled in {@link #CSV_FIELDS}
+   */
+  private static List<String> csvColumns(List<String> header) {
+    if (header == null) {
+      throw new IllegalArgumentException("CSV header row is missing");
+    }
+
+    List<String> columns = new ArrayList<>();
+    for (String name : header) {
+      String column = name.replace(String.valueOf(BYTE_ORDER_MARK), "").trim();
+      String field = CSV_FIELDS.keySet().stream()
+        .filter(column::equalsIgnoreCase)
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown CSV column '" + column
+          + "', expected any of " + CSV_FIELDS.keySet()));
+      if (columns.contains(field)) {
+        throw new IllegalArgumentException("Duplicate CSV column '" + column + "'");
+      }
+      columns.add(field);
+    }
+    return columns;
+  }
+
+  private static Map<String, BiConsumer<CoffeeRequest, String>> csvFields() {
+    Map<String, BiConsumer<CoffeeRequest, String>> fields = new LinkedHashMap<>();
+    fields.put("roasterId", (coffee, value) -> coffee.setRoasterId(Long.valueOf(value)));
+    fields.put("name", CoffeeRequest::setName);
+    fields.put("description", CoffeeRequest::setDescription);
+    fields.put("originCountry", CoffeeRequest::setOriginCountry);
+    fields.put("originRegion", CoffeeRequest::setOriginRegion);
+    fields.put("roastLevel", CoffeeRequest::setRoastLevel);
+    fields.put("price", (coffee, value) -> coffee.setPrice(new BigDecimal(value)));
+    return fields;
+  }
+
+  /**
+   * State of one import: the pending chunk and the counters of the report
+   */
+  private class Run {
+
+    private final BiConsumer<List<CoffeeResponse>, Map<Long, Long>> onImported;
+    private final List<CoffeeRequest> chunk = new ArrayList<>(batchSize);
+    private final List<Long> chunkRows = new ArrayList<>(batchSize);
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+
+    Run(BiConsumer<List<CoffeeResponse>, Map<Long, Long>> onImported) {
+      this.onImported = onImported;
+    }
+
+    void accept(long row, CoffeeRequest coffee, List<ImportRowError> parseErrors) {
+      totalRows++;
+      List<ImportRowError> rowErrors = new ArrayList<>(parseErrors);
+      for (ConstraintViolation<CoffeeRequest> violation : validator.validate(coffee)) {
+        rowErrors.add(new ImportRowError(row, violation.getPropertyPath().toString(),
+          violation.getMessage()));
+      }
+      if (!rowErrors.isEmpty()) {
+        fail(rowErrors);
+        return;
+      }
+
+      coffee.setIsActive(true);
+      if (coffee.getPrice() != null) {
+        coffee.setPrice(coffee.getPrice().setScale(2, RoundingMode.HALF_UP));
+      }
+      chunk.add(coffee);
+      chunkRows.add(row);
+      if (chunk.size() >= batchSize) {
+        flush();
+      }
+    }
+
+    /**
+     * Count a row that could not be parsed
+     */
+    void reject(long row, List<ImportRowError> rowErrors) {
+      totalRows++;
+      fail(rowErrors);
+    }
+
+    private void fail(List<ImportRowError> rowErrors) {
+      failedRows++;
+      for (ImportRowError error : rowErrors) {
+        if (errors.size() < maxErrors) {
+          errors.add(error);
+        }
+      }
+    }
+
+    void flush() {
+      if (chunk.isEmpty()) {
+        return;
+      }
+
+      // Microseconds, the precision of the column
+      LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+      List<CoffeeResponse> imported = new ArrayList<>(chunk.size());
+      Map<Long, Long> eventIds = new HashMap<>();
+      CoffeeBulkLoader.Result result;
+      try {
+        result = transaction.execute(status -> {
+          CoffeeBulkLoader.Result inserted = coffeeBulkLoader.insert(chunk, now);
+          for (int i = 0; i < chunk.size(); i++) {
+            if (inserted.ids()[i] != null) {
+              CoffeeResponse coffee = coffeeMapper.coffeeToResponse(
+                coffeeMapper.requestToCoffee(chunk.get(i)));
+              coffee.setId(inserted.ids()[i]);
+              coffee.setCreatedAt(now);
+              coffee.setUpdatedAt(now);
+              imported.add(coffee);
+            }
+          }
+          eventIds.putAll(coffeeOutbox.onCoffeesSaved(ChangeType.CREATED, imported));
+          return inserted;
+        });
+      } catch (RuntimeException e) {
+        chunk.clear();
+        chunkRows.clear();
+        throw e;
+      }
+      for (int i = 0; i < chunk.size(); i++) {
+        if (result.ids()[i] == null) {
+          fail(List.of(
+            new ImportRowError(chunkRows.get(i), null, result.errors()[i])));
+        }
+      }
+      importedRows += imported.size();
+      chunk.clear();
+      chunkRows.clear();
+
+      if (!imported.isEmpty()) {
+        onImported.accept(imported, eventIds);
+      }
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.repository.CoffeeOutboxEvent;
+import com.personal.coffee_catalog.repository.CoffeeOutboxRepository;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.OutboxStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Transactional outbox of coffee changes.
+ * <p>Changes are written to {@code coffee_outbox} in the transaction of the change, so other
+ * systems hear of a change if and only if it commits, and writes do not wait for them. A relay
+ * thread claims the oldest events in batches of {@code catalog.outbox.batch-size} with
+ * {@code FOR UPDATE SKIP LOCKED} (so several instances can relay side by side), hands them to the
+ * {@link CoffeeOutboxSink} and deletes them in the same transaction. It runs as soon as a change
+ * commits, or every {@code catalog.outbox.poll-interval-ms} for changes from other instances, and
+ * backs off exponentially while the sink fails.
+ * <p>A coffee's changes are relayed in the order they were made: a second change waits for the
+ * first one's row lock, so it is written after the first commits.
+ */
+@Slf4j
+@Component
+public class CoffeeOutbox {
+
+  private final CoffeeOutboxRepository coffeeOutboxRepository;
+  private final CoffeeOutboxSink sink;
+  private final TransactionTemplate transaction;
+  private final ObjectWriter writer;
+  private final int batchSize;
+  private final long pollIntervalMs;
+  private final long maxBackoffMs;
+  private final boolean relayEnabled;
+
+  private final Semaphore wakeUps = new Semaphore(0);
+  private final LongAdder deliveredEvents = new LongAdder();
+  private final LongAdder deliveredBatches = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+  private final AtomicLong maxLagMillis = new AtomicLong();
+  private volatile long lastLagMillis;
+  private volatile Instant lastDeliveredAt;
+  private volatile Thread relay;
+
+  public CoffeeOutbox(CoffeeOutboxRepository coffeeOutboxRepository, CoffeeOutboxSink sink,
+    PlatformTransactionManager transactionManager, JsonMapper jsonMapper,
+    @Value("${catalog.outbox.batch-size:500}") int batchSize,
+    @Value("${catalog.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+    @Value("${catalog.outbox.max-backoff-ms:30000}") long maxBackoffMs,
+    @Value("${catalog.outbox.relay.enabled:true}") boolean relayEnabled) {
+    this.coffeeOutboxRepository = coffeeOutboxRepository;
+    this.sink = sink;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.writer = jsonMapper.writerFor(CoffeeResponse.class);
+    this.batchSize = batchSize;
+    this.pollIntervalMs = pollIntervalMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.relayEnabled = relayEnabled;
+  }
+
+  /**
+   * Record created or updated coffees, in the current transaction
+   *
+   * @return event ID by coffee ID, which orders the changes of a coffee once committed
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public Map<Long, Long> onCoffeesSaved(ChangeType type, List<CoffeeResponse> coffees) {
+    if (coffees.isEmpty()) {
+      return Map.of();
+    }
+
+    Long[] ids = new Long[coffees.size()];
+    String[] payloads = new String[coffees.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = coffees.get(i).getId();
+      payloads[i] = writer.writeValueAsString(coffees.get(i));
+    }
+    return append(type, ids, payloads);
+  }
+
+  /**
+   * Record deactivated or deleted coffees, in the current transaction
+   *
+   * @return event ID by coffee ID, which orders the changes of a coffee once committed
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public Map<Long, Long> onCoffeesRemoved(ChangeType type, List<Long> coffeeIds) {
+    if (coffeeIds.isEmpty()) {
+      return Map.of();
+    }
+    return append(type, coffeeIds.toArray(Long[]::new), new String[coffeeIds.size()]);
+  }
+
+  /**
+   * Deliver the oldest pending events, up to the batch size, in one transaction
+   *
+   * @return number of events delivered
+   */
+  public int relayBatch() {
+    List<CoffeeOutboxEvent> events = transaction.execute(status -> {
+      List<CoffeeOutboxEvent> claimed = coffeeOutboxRepository.claim(batchSize);
+      if (!claimed.isEmpty()) {
+        sink.deliver(claimed);
+      }
+      return claimed;
+    });
+    if (events == null || events.isEmpty()) {
+      return 0;
+    }
+
+    Instant now = Instant.now();
+    long lag = Duration.between(events.getFirst().createdAt(), now).toMillis();
+    lastLagMillis = lag;
+    maxLagMillis.accumulateAndGet(lag, Math::max);
+    lastDeliveredAt = now;
+    deliveredEvents.add(events.size());
+    deliveredBatches.increment();
+    return events.size();
+  }
+
+  public OutboxStatsResponse getStats() {
+    CoffeeOutboxRepository.Pending pending = coffeeOutboxRepository.pending();
+    Instant delivered = lastDeliveredAt;
+    return OutboxStatsResponse.builder()
+      .relayRunning(relay != null && relay.isAlive())
+      .pendingEvents(pending.count())
+      .oldestPendingAgeMillis(pending.oldestCreatedAt() == null ? null
+        : Duration.between(pending.oldestCreatedAt(), Instant.now()).toMillis())
+      .deliveredEvents(deliveredEvents.sum())
+      .deliveredBatches(deliveredBatches.sum())
+      .failedBatches(failedBatches.sum())
+      .lastLagMillis(lastLagMillis)
+      .maxLagMillis(maxLagMillis.get())
+      .lastDeliveredAt(delivered == null ? null
+        : LocalDateTime.ofInstant(delivered, ZoneId.systemDefault()))
+      .build();
+  }
+
+  @PostConstruct
+  void start() {
+    if (relayEnabled) {
+      relay = Thread.ofPlatform().daemon().name("coffee-outbox-relay").start(this::relayLoop);
+    }
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    Thread running = relay;
+    if (running != null) {
+      running.interrupt();
+      running.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  private Map<Long, Long> append(ChangeType type, Long[] coffeeIds, String[] payloads) {
+    Map<Long, Long> eventIds = coffeeOutboxRepository.insert(type, coffeeIds, payloads);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        wakeUps.release();
+      }
+    });
+    return eventIds;
+  }
+
+  private void relayLoop() {
+    long backoffMs = pollIntervalMs;
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        if (relayBatch() < batchSize) {
+          // Caught up: wait for a commit here, or poll for changes of other instances
+          wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+          wakeUps.drainPermits();
+        }
+        backoffMs = pollIntervalMs;
+      } catch (InterruptedException e) {
+        return;
+      } catch (RuntimeException e) {
+        failedBatches.increment();
+        log.warn("Outbox relay failed, retrying in {} ms", backoffMs, e);
+        try {
+          Thread.sleep(backoffMs);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+        backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+      }
+    }
+  }
+}
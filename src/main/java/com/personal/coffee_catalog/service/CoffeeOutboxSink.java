@@ -0,0 +1,19 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.repository.CoffeeOutboxEvent;
+import java.util.List;
+
+/**
+ * Destination of the coffee changes relayed from the outbox, chosen with
+ * {@code catalog.outbox.sink}.
+ * <p>Delivery is at least once: a batch is delivered again when {@link #deliver} throws, or when
+ * the relay cannot commit after it returned. Consumers drop events whose ID they have seen.
+ */
+@FunctionalInterface
+public interface CoffeeOutboxSink {
+
+  /**
+   * @param events Events in ID order
+   */
+  void deliver(List<CoffeeOutboxEvent> events);
+}
@@ -0,0 +1,481 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.repository.CoffeeProjection;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import com.personal.coffee_catalog.response.SearchIndexStatsResponse;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process inverted index over the active catalog, for autocomplete without a database round
+ * trip.
+ * <p>Name, origin (country and region) and varietal are tokenized into per-field postings lists.
+ * Every query token matches as a prefix; tokens and facet filters are ANDed, and the top matches
+ * are ranked by the field they hit (name over origin over varietal, whole words over prefixes).
+ * The index is loaded at startup and kept current by the catalog writes.
+ */
+@Slf4j
+@Component
+public class CoffeeSearchIndex {
+
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+  // Rough JVM sizes (compressed oops) used for the memory footprint estimate
+  private static final long OBJECT_BYTES = 16;
+  private static final long TREE_ENTRY_BYTES = 40;
+  private static final long HASH_ENTRY_BYTES = 56; // entry plus boxed key and ordinal
+
+  /**
+   * Indexed fields with their score weight
+   */
+  enum Field {
+    NAME(3),
+    ORIGIN(2),
+    VARIETAL(1);
+
+    private final int weight;
+
+    Field(int weight) {
+      this.weight = weight;
+    }
+  }
+
+  private final CoffeeRepository coffeeRepository;
+  private final int maxResults;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Field, NavigableMap<String, Postings>> postings = new EnumMap<>(Field.class);
+  private final List<Document> documents = new ArrayList<>(); // by ordinal, null once removed
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+  private final CoffeeVersions versions = new CoffeeVersions();
+  private long buildMillis;
+  private LocalDateTime builtAt;
+
+  public CoffeeSearchIndex(CoffeeRepository coffeeRepository,
+    @Value("${catalog.search-index.max-results:20}") int maxResults) {
+    this.coffeeRepository = coffeeRepository;
+    this.maxResults = maxResults;
+    for (Field field : Field.values()) {
+      postings.put(field, new TreeMap<>());
+    }
+  }
+
+  /**
+   * Load all active coffees (before the application serves requests)
+   */
+  @PostConstruct
+  void build() {
+    long start = System.nanoTime();
+    rebuild(coffeeRepository.findPage(CoffeeSpecifications.isActive(), Pageable.unpaged(),
+      CoffeeProjection.SUMMARY).getContent());
+
+    lock.writeLock().lock();
+    try {
+      buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      builtAt = LocalDateTime.now();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    SearchIndexStatsResponse stats = getStats();
+    log.info("Coffee search index built in {} ms: {} coffees, {} terms, {} postings, ~{} KiB",
+      stats.getBuildMillis(), stats.getDocumentCount(), stats.getTermCount(),
+      stats.getPostingCount(), stats.getEstimatedBytes() / 1024);
+  }
+
+  /**
+   * Replace the whole index content
+   */
+  void rebuild(Collection<? extends CoffeeListItem> coffees) {
+    lock.writeLock().lock();
+    try {
+      postings.values().forEach(Map::clear);
+      documents.clear();
+      ordinals.clear();
+      freeOrdinals.clear();
+      versions.clear();
+      coffees.forEach(this::add);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Index a saved coffee, or drop it from the index when it is no longer active
+   *
+   * @param version Outbox event ID of the change; older changes than the last applied are ignored
+   */
+  public void onCoffeeSaved(CoffeeResponse coffee, long version) {
+    boolean active = Boolean.TRUE.equals(coffee.getIsActive());
+    lock.writeLock().lock();
+    try {
+      if (active ? versions.save(coffee.getId(), version)
+        : versions.remove(coffee.getId(), version)) {
+        remove(coffee.getId());
+        if (active) {
+          add(coffee);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Index newly imported coffees under one write lock
+   *
+   * @param eventIds Outbox event ID by coffee ID, the version of each coffee
+   */
+  public void onCoffeesImported(List<CoffeeResponse> coffees, Map<Long, Long> eventIds) {
+    lock.writeLock().lock();
+    try {
+      coffees.stream().filter(coffee -> Boolean.TRUE.equals(coffee.getIsActive()))
+        .filter(coffee -> versions.save(coffee.getId(), eventIds.get(coffee.getId())))
+        .forEach(this::add);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param version Outbox event ID of the change; older changes than the last applied are ignored
+   */
+  public void onCoffeeDeleted(Long coffeeId, long version) {
+    lock.writeLock().lock();
+    try {
+      if (versions.remove(coffeeId, version)) {
+        remove(coffeeId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Top matches of a prefix query, optionally narrowed by origin and varietal
+   *
+   * @param query    Words matched as prefixes against name, origin and varietal (all must match)
+   * @param origin   Words matched as prefixes against the origin only (optional)
+   * @param varietal Words matched as prefixes against the varietal only (optional)
+   * @param limit    Maximum number of suggestions
+   * @return Suggestions, best first; empty when no criteria are given
+   * @throws IllegalArgumentException if the limit is out of range
+   */
+  public List<CoffeeSuggestionResponse> search(String query, String origin, String varietal,
+    int limit) {
+    if (limit < 1 || limit > maxResults) {
+      throw new IllegalArgumentException(
+        String.format("Limit must be between 1 and %d", maxResults));
+    }
+
+    List<String> queryTerms = tokenize(query);
+    List<String> originTerms = tokenize(origin);
+    List<String> varietalTerms = tokenize(varietal);
+    if (queryTerms.isEmpty() && originTerms.isEmpty() && varietalTerms.isEmpty()) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      BitSet matches = null;
+      for (String term : queryTerms) {
+        BitSet anyField = new BitSet(documents.size());
+        for (Field field : Field.values()) {
+          collectPrefix(field, term, anyField);
+        }
+        matches = and(matches, anyField);
+      }
+      for (String term : originTerms) {
+        matches = and(matches, collectPrefix(Field.ORIGIN, term, new BitSet(documents.size())));
+      }
+      for (String term : varietalTerms) {
+        matches = and(matches, collectPrefix(Field.VARIETAL, term, new BitSet(documents.size())));
+      }
+
+      return topMatches(matches, queryTerms, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Size of the index and how long the startup build took
+   */
+  public SearchIndexStatsResponse getStats() {
+    lock.readLock().lock();
+    try {
+      long termCount = 0;
+      long postingCount = 0;
+      long estimatedBytes = 0;
+      for (NavigableMap<String, Postings> terms : postings.values()) {
+        termCount += terms.size();
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+          postingCount += entry.getValue().size;
+          estimatedBytes += TREE_ENTRY_BYTES + stringBytes(entry.getKey())
+            + entry.getValue().estimatedBytes();
+        }
+      }
+      for (Document document : documents) {
+        if (document != null) {
+          estimatedBytes += HASH_ENTRY_BYTES + document.estimatedBytes();
+        }
+      }
+
+      return SearchIndexStatsResponse.builder()
+        .documentCount(ordinals.size())
+        .termCount(termCount)
+        .postingCount(postingCount)
+        .estimatedBytes(estimatedBytes)
+        .buildMillis(buildMillis)
+        .builtAt(builtAt)
+        .build();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+      .replaceAll("")
+      .toLowerCase(Locale.ROOT);
+    return Arrays.stream(SEPARATORS.split(normalized))
+      .filter(term -> !term.isEmpty())
+      .distinct()
+      .toList();
+  }
+
+  private void add(CoffeeListItem coffee) {
+    Map<Field, String[]> terms = new EnumMap<>(Field.class);
+    terms.put(Field.NAME, tokenize(coffee.getName()).toArray(String[]::new));
+    terms.put(Field.ORIGIN, tokenize(String.join(" ",
+      nullToEmpty(coffee.getOriginCountry()), nullToEmpty(coffee.getOriginRegion())))
+      .toArray(String[]::new));
+    terms.put(Field.VARIETAL, tokenize(coffee.getVarietal()).toArray(String[]::new));
+    Document document = new Document(coffee.getId(), coffee.getName(), coffee.getOriginCountry(),
+      coffee.getOriginRegion(), coffee.getVarietal(), coffee.getRoastLevel(), coffee.getPrice(),
+      terms);
+
+    int ordinal;
+    if (freeOrdinals.isEmpty()) {
+      ordinal = documents.size();
+      documents.add(document);
+    } else {
+      ordinal = freeOrdinals.pop();
+      documents.set(ordinal, document);
+    }
+    ordinals.put(coffee.getId(), ordinal);
+
+    terms.forEach((field, fieldTerms) -> {
+      for (int i = 0; i < fieldTerms.length; i++) {
+        Postings termPostings = postings.get(field).computeIfAbsent(fieldTerms[i], Postings::new);
+        termPostings.add(ordinal);
+        fieldTerms[i] = termPostings.term; // share one instance per term
+      }
+    });
+  }
+
+  private void remove(Long coffeeId) {
+    Integer ordinal = ordinals.remove(coffeeId);
+    if (ordinal == null) {
+      return;
+    }
+
+    Document document = documents.set(ordinal, null);
+    document.terms().forEach((field, fieldTerms) -> {
+      for (String term : fieldTerms) {
+        Postings termPostings = postings.get(field).get(term);
+        if (termPostings != null && termPostings.remove(ordinal)) {
+          postings.get(field).remove(term);
+        }
+      }
+    });
+    freeOrdinals.push(ordinal);
+  }
+
+  private BitSet collectPrefix(Field field, String prefix, BitSet into) {
+    postings.get(field).subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+      .forEach(termPostings -> termPostings.addTo(into));
+    return into;
+  }
+
+  private static BitSet and(BitSet matches, BitSet next) {
+    if (matches == null) {
+      return next;
+    }
+    matches.and(next);
+    return matches;
+  }
+
+  private List<CoffeeSuggestionResponse> topMatches(BitSet matches, List<String> queryTerms,
+    int limit) {
+    Comparator<Scored> ranking = Comparator.comparingInt(Scored::score)
+      .thenComparing(scored -> scored.document().name(), String.CASE_INSENSITIVE_ORDER.reversed())
+      .thenComparing(scored -> scored.document().id(), Comparator.reverseOrder());
+    PriorityQueue<Scored> top = new PriorityQueue<>(limit, ranking);
+
+    for (int ordinal = matches.nextSetBit(0); ordinal >= 0;
+      ordinal = matches.nextSetBit(ordinal + 1)) {
+      Document document = documents.get(ordinal);
+      int score = score(document, queryTerms);
+      if (top.size() < limit) {
+        top.add(new Scored(document, score));
+      } else if (score >= top.peek().score()) {
+        // Only allocate for matches that can displace the current k-th one
+        Scored candidate = new Scored(document, score);
+        if (ranking.compare(candidate, top.peek()) > 0) {
+          top.poll();
+          top.add(candidate);
+        }
+      }
+    }
+
+    List<CoffeeSuggestionResponse> suggestions = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      Scored scored = top.poll();
+      suggestions.add(scored.document().toSuggestion(scored.score()));
+    }
+    return suggestions.reversed();
+  }
+
+  /**
+   * Sum over query terms of the best field hit: the field weight, doubled for a whole word
+   */
+  private static int score(Document document, List<String> queryTerms) {
+    int score = 0;
+    for (String queryTerm : queryTerms) {
+      int best = 0;
+      for (Map.Entry<Field, String[]> fieldTerms : document.terms().entrySet()) {
+        for (String term : fieldTerms.getValue()) {
+          if (term.startsWith(queryTerm)) {
+            int hit = fieldTerms.getKey().weight * (term.length() == queryTerm.length() ? 2 : 1);
+            best = Math.max(best, hit);
+          }
+        }
+      }
+      score += best;
+    }
+    return score;
+  }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
+
+  private static long stringBytes(String value) {
+    return value == null ? 0 : 2 * OBJECT_BYTES + 8 + value.length();
+  }
+
+  private record Document(Long id, String name, String originCountry, String originRegion,
+                          String varietal, String roastLevel, BigDecimal price,
+                          Map<Field, String[]> terms) {
+
+    CoffeeSuggestionResponse toSuggestion(int score) {
+      return CoffeeSuggestionResponse.builder()
+        .id(id)
+        .name(name)
+        .originCountry(originCountry)
+        .originRegion(originRegion)
+        .varietal(varietal)
+        .roastLevel(roastLevel)
+        .price(price)
+        .score(score)
+        .build();
+    }
+
+    long estimatedBytes() {
+      long bytes = 2 * OBJECT_BYTES + 8 * 8 + stringBytes(name) + stringBytes(originCountry)
+        + stringBytes(originRegion) + stringBytes(varietal) + stringBytes(roastLevel);
+      for (String[] fieldTerms : terms.values()) {
+        bytes += OBJECT_BYTES + 4L * fieldTerms.length; // term strings are shared with postings
+      }
+      return bytes;
+    }
+  }
+
+  private record Scored(Document document, int score) {
+
+  }
+
+  /**
+   * Sorted document ordinals containing a term
+   */
+  private static final class Postings {
+
+    private final String term;
+    private int[] ordinals = new int[2];
+    private int size;
+
+    Postings(String term) {
+      this.term = term;
+    }
+
+    void add(int ordinal) {
+      int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+      if (index >= 0) {
+        return;
+      }
+      index = -index - 1;
+      if (size == ordinals.length) {
+        ordinals = Arrays.copyOf(ordinals, size * 2);
+      }
+      System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+      ordinals[index] = ordinal;
+      size++;
+    }
+
+    /**
+     * @return whether no ordinal is left
+     */
+    boolean remove(int ordinal) {
+      int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+      if (index >= 0) {
+        System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+        size--;
+      }
+      return size == 0;
+    }
+
+    void addTo(BitSet bits) {
+      for (int i = 0; i < size; i++) {
+        bits.set(ordinals[i]);
+      }
+    }
+
+    long estimatedBytes() {
+      return 2 * OBJECT_BYTES + 16 + 4L * ordinals.length;
+    }
+  }
+}
@@ -1,19 +1,77 @@
 package com.personal.coffee_catalog.service;
 
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.request.CoffeeBulkSelection;
+import com.personal.coffee_catalog.request.CoffeeBulkUpdateRequest;
 import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CacheStatsResponse;
+import com.personal.coffee_catalog.response.CoffeeBatchGetResponse;
+import com.personal.coffee_catalog.response.CoffeeBulkUpdateResponse;
+import com.personal.coffee_catalog.response.CoffeeFacetsResponse;
+import com.personal.coffee_catalog.response.CoffeeImportResponse;
+import com.personal.coffee_catalog.response.CoffeeListItem;
 import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import com.personal.coffee_catalog.response.CursorPageResponse;
+import com.personal.coffee_catalog.response.OutboxStatsResponse;
+import com.personal.coffee_catalog.response.SearchIndexStatsResponse;
+import com.personal.coffee_catalog.response.SimilarCoffeeResponse;
+import com.personal.coffee_catalog.service.CoffeeCatalogCache.CatalogVersion;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface CoffeeService {
 
-  Page<CoffeeResponse> getAllActiveCoffees(Pageable pageable);
+  Page<CoffeeListItem> getAllActiveCoffees(Pageable pageable, CoffeeView view);
+
+  CursorPageResponse<CoffeeListItem> getActiveCoffeesAfter(String cursor, Pageable pageable,
+    CoffeeView view);
+
+  Page<CoffeeListItem> searchCoffees(CoffeeSearchRequest search, Pageable pageable,
+    CoffeeView view);
+
+  long exportCoffees(DataFormat format, CoffeeView view, OutputStream out);
+
+  CoffeeFacetsResponse getFacets(CoffeeSearchRequest search);
+
+  Slice<CoffeeResponse> searchCoffeesByText(String query, Pageable pageable);
+
+  List<CoffeeSuggestionResponse> autocomplete(String query, String origin, String varietal,
+    int limit);
 
   CoffeeResponse getCoffee(Long coffeeId);
 
+  CoffeeBatchGetResponse getCoffees(List<Long> coffeeIds);
+
+  List<SimilarCoffeeResponse> getSimilarCoffees(Long coffeeId, int limit);
+
   CoffeeResponse createCoffee(CoffeeRequest coffeeRequest);
 
+  CoffeeImportResponse importCoffees(InputStream body, DataFormat format);
+
   CoffeeResponse updateCoffee(Long coffeeId, CoffeeRequest coffeeRequest);
 
+  CoffeeBulkUpdateResponse updateCoffees(CoffeeBulkUpdateRequest request);
+
+  CoffeeBulkUpdateResponse deactivateCoffees(CoffeeBulkSelection selection);
+
   CoffeeResponse deleteCoffee(Long coffeeId);
+
+  SseEmitter subscribeToChanges(String lastEventId);
+
+  Map<String, CacheStatsResponse> getCacheStats();
+
+  CatalogVersion getCatalogVersion();
+
+  SearchIndexStatsResponse getSearchIndexStats();
+
+  OutboxStatsResponse getOutboxStats();
 }
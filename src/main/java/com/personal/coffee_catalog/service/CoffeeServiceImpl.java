@@ -1,16 +1,53 @@
 package com.personal.coffee_catalog.service;
 
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.exception.ResourceNotFoundException;
 import com.personal.coffee_catalog.mapper.CoffeeMapper;
 import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.repository.CoffeeKeyset;
+import com.personal.coffee_catalog.repository.CoffeeProjection;
 import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.request.CoffeeBulkSelection;
+import com.personal.coffee_catalog.request.CoffeeBulkUpdateRequest;
 import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CacheStatsResponse;
+import com.personal.coffee_catalog.response.CoffeeBatchGetResponse;
+import com.personal.coffee_catalog.response.CoffeeBulkUpdateResponse;
+import com.personal.coffee_catalog.response.CoffeeFacetsResponse;
+import com.personal.coffee_catalog.response.CoffeeImportResponse;
+import com.personal.coffee_catalog.response.CoffeeListItem;
 import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import com.personal.coffee_catalog.response.CursorPageResponse;
+import com.personal.coffee_catalog.response.OutboxStatsResponse;
+import com.personal.coffee_catalog.response.SearchIndexStatsResponse;
+import com.personal.coffee_catalog.response.SimilarCoffeeResponse;
+import com.personal.coffee_catalog.service.CoffeeCatalogCache.CatalogVersion;
 import com.personal.coffee_catalog.utils.CommonHelper;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 @RequiredArgsConstructor
@@ -18,28 +55,165 @@ public class CoffeeServiceImpl implements CoffeeService {
 
   private final CoffeeRepository coffeeRepository;
   private final CoffeeMapper coffeeMapper;
+  private final CoffeeCatalogCache coffeeCatalogCache;
+  private final CoffeeSearchIndex coffeeSearchIndex;
+  private final CoffeeFacetIndex coffeeFacetIndex;
+  private final CoffeeSimilarityIndex coffeeSimilarityIndex;
+  private final CoffeeImporter coffeeImporter;
+  private final CoffeeExporter coffeeExporter;
+  private final CoffeeChangeFeed coffeeChangeFeed;
+  private final CoffeeOutbox coffeeOutbox;
+  private final RoasterService roasterService;
+  // Writes and their outbox events commit together, before the caches and indexes are updated
+  private final TransactionTemplate transaction;
   private static final String MODEL = "Coffee";
 
   /**
-   * Get all active coffees
+   * Get all active coffees (projected straight into list items, no entities are loaded), with
+   * their roasters loaded in one query per page
    */
-  public Page<CoffeeResponse> getAllActiveCoffees(Pageable pageable) {
-    Page<Coffee> allActiveCoffees = coffeeRepository.findByIsActiveTrue(pageable);
+  public Page<CoffeeListItem> getAllActiveCoffees(Pageable pageable, CoffeeView view) {
+    return coffeeCatalogCache.getActivePage(pageable, view, () ->
+      withRoasters(coffeeRepository.findPage(CoffeeSpecifications.isActive(), pageable,
+        CoffeeProjection.of(view))));
+  }
+
+  /**
+   * Get active coffees after a cursor (keyset pagination, no count query)
+   */
+  public CursorPageResponse<CoffeeListItem> getActiveCoffeesAfter(String cursor,
+    Pageable pageable, CoffeeView view) {
+    Sort.Order order = CoffeeKeyset.resolveOrder(pageable.getSort());
+
+    Specification<Coffee> specification = CoffeeSpecifications.isActive();
+    if (cursor != null && !cursor.isBlank()) {
+      specification = specification.and(CoffeeKeyset.after(CoffeeKeyset.decode(cursor, order)));
+    }
+
+    Slice<CoffeeListItem> slice = coffeeRepository.findSlice(specification,
+      CoffeeKeyset.sort(order), pageable.getPageSize(), CoffeeProjection.of(view));
+    roasterService.attachRoasters(slice.getContent());
+
+    return CursorPageResponse.<CoffeeListItem>builder()
+      .content(slice.getContent())
+      .size(slice.getSize())
+      .hasNext(slice.hasNext())
+      .nextCursor(slice.hasNext() ? CoffeeKeyset.encode(order, slice.getContent().getLast()) : null)
+      .build();
+  }
+
+  /**
+   * Search active coffees by any combination of criteria (one query, not cached)
+   */
+  public Page<CoffeeListItem> searchCoffees(CoffeeSearchRequest search, Pageable pageable,
+    CoffeeView view) {
+    return withRoasters(coffeeRepository.findPage(CoffeeSpecifications.matches(search), pageable,
+      CoffeeProjection.of(view)));
+  }
+
+  /**
+   * Write all active coffees to a stream through a database cursor (not cached)
+   */
+  public long exportCoffees(DataFormat format, CoffeeView view, OutputStream out) {
+    return coffeeExporter.export(format, view, out);
+  }
+
+  /**
+   * Facet counts of the active coffees matching the search criteria, from the in-memory index
+   */
+  public CoffeeFacetsResponse getFacets(CoffeeSearchRequest search) {
+    return coffeeFacetIndex.count(search);
+  }
+
+  /**
+   * Ranked text search over active coffees (best matches first). Only when no whole word matches,
+   * names are matched by similarity to catch partial and misspelled words.
+   */
+  public Slice<CoffeeResponse> searchCoffeesByText(String query, Pageable pageable) {
+    if (query == null || query.isBlank()) {
+      throw new IllegalArgumentException("Search query cannot be blank");
+    }
+
+    Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    Slice<Coffee> matches = coffeeRepository.searchByText(query.trim(), unsorted);
+    // Past the first page, an empty slice may only mean the whole word matches ran out
+    if (!matches.hasContent()
+      && (!matches.hasPrevious() || !coffeeRepository.existsByText(query.trim()))) {
+      matches = coffeeRepository.searchByNameSimilarity(query.trim(), unsorted);
+    }
 
-    return allActiveCoffees.map(coffeeMapper::coffeeToResponse);
+    return withRoasters(matches.map(coffeeMapper::coffeeToResponse));
+  }
+
+  /**
+   * Autocomplete active coffees from the in-memory search index (no database access)
+   */
+  public List<CoffeeSuggestionResponse> autocomplete(String query, String origin, String varietal,
+    int limit) {
+    return coffeeSearchIndex.search(query, origin, varietal, limit);
   }
 
   /**
    * Get coffee by ID
    */
   public CoffeeResponse getCoffee(Long coffeeId) {
-    Coffee coffee = CommonHelper.findByIdOrThrow(MODEL, coffeeRepository, coffeeId);
+    return coffeeCatalogCache.getCoffee(coffeeId, () -> {
+      Coffee coffee = CommonHelper.findByIdOrThrow(MODEL, coffeeRepository, coffeeId);
 
-    if (!coffee.getIsActive()) {
-      throw new IllegalArgumentException("Coffee ID " + coffeeId + " is not active");
+      if (!coffee.getIsActive()) {
+        throw new IllegalArgumentException("Coffee ID " + coffeeId + " is not active");
+      }
+
+      CoffeeResponse response = coffeeMapper.coffeeToResponse(coffee);
+      roasterService.attachRoasters(List.of(response));
+      return response;
+    });
+  }
+
+  /**
+   * Get coffees by ID in request order, reporting the IDs that are missing or inactive. Cached
+   * coffees are served from the cache and the others are loaded with one query, and their
+   * roasters with another.
+   */
+  public CoffeeBatchGetResponse getCoffees(List<Long> coffeeIds) {
+    Set<Long> ids = new LinkedHashSet<>(coffeeIds);
+    Set<Long> inactive = new HashSet<>();
+    Map<Long, CoffeeResponse> found = coffeeCatalogCache.getCoffees(ids, misses -> {
+      Map<Long, CoffeeResponse> active = new HashMap<>();
+      for (Coffee coffee : coffeeRepository.findAllById(misses)) {
+        if (Boolean.TRUE.equals(coffee.getIsActive())) {
+          active.put(coffee.getId(), coffeeMapper.coffeeToResponse(coffee));
+        } else {
+          inactive.add(coffee.getId());
+        }
+      }
+      roasterService.attachRoasters(active.values());
+      return active;
+    });
+
+    CoffeeBatchGetResponse response = new CoffeeBatchGetResponse(new ArrayList<>(),
+      new ArrayList<>(), new ArrayList<>());
+    for (Long id : ids) {
+      if (found.containsKey(id)) {
+        response.getCoffees().add(found.get(id));
+      } else if (inactive.contains(id)) {
+        response.getInactiveIds().add(id);
+      } else {
+        response.getMissingIds().add(id);
+      }
     }
+    return response;
+  }
 
-    return coffeeMapper.coffeeToResponse(coffee);
+  /**
+   * Get the active coffees with the most similar flavor profile, from the in-memory index
+   */
+  public List<SimilarCoffeeResponse> getSimilarCoffees(Long coffeeId, int limit) {
+    return coffeeSimilarityIndex.similar(coffeeId, limit).orElseGet(() -> {
+      // Not indexed: tell a missing coffee from an inactive one
+      CommonHelper.findByIdOrThrow(MODEL, coffeeRepository, coffeeId);
+      throw new IllegalArgumentException("Coffee ID " + coffeeId + " is not active");
+    });
   }
 
   /**
@@ -47,48 +221,257 @@ public class CoffeeServiceImpl implements CoffeeService {
    */
   public CoffeeResponse createCoffee(CoffeeRequest coffeeRequest) {
     coffeeRequest.setIsActive(true);
-    Coffee savedCoffee = coffeeRepository.save(coffeeMapper.requestToCoffee(coffeeRequest));
+    Committed<CoffeeResponse> committed = transaction.execute(status -> {
+      Coffee savedCoffee = coffeeRepository.save(coffeeMapper.requestToCoffee(coffeeRequest));
+      CoffeeResponse coffee = coffeeMapper.coffeeToResponse(savedCoffee);
+      return new Committed<>(coffee,
+        coffeeOutbox.onCoffeesSaved(ChangeType.CREATED, List.of(coffee)));
+    });
 
-    return coffeeMapper.coffeeToResponse(savedCoffee);
+    CoffeeResponse created = committed.result();
+    long version = committed.eventIds().get(created.getId());
+    coffeeCatalogCache.onCoffeeCreated(created);
+    coffeeSearchIndex.onCoffeeSaved(created, version);
+    coffeeFacetIndex.onCoffeeSaved(created, version);
+    coffeeSimilarityIndex.onCoffeeSaved(created, version);
+    coffeeChangeFeed.onCoffeesSaved(ChangeType.CREATED, List.of(created), committed.eventIds());
+    return created;
+  }
+
+  /**
+   * Import coffees in bulk from a CSV or NDJSON stream; caches and indexes are updated per chunk
+   */
+  public CoffeeImportResponse importCoffees(InputStream body, DataFormat format) {
+    return coffeeImporter.importCoffees(body, format, (imported, eventIds) -> {
+      coffeeCatalogCache.onCoffeesImported(imported);
+      coffeeSearchIndex.onCoffeesImported(imported, eventIds);
+      coffeeFacetIndex.onCoffeesImported(imported, eventIds);
+      coffeeSimilarityIndex.onCoffeesImported(imported, eventIds);
+      coffeeChangeFeed.onCoffeesSaved(ChangeType.CREATED, imported, eventIds);
+    });
   }
 
   /**
    * Update coffee
    */
   public CoffeeResponse updateCoffee(Long coffeeId, CoffeeRequest coffeeRequest) {
-    Coffee coffee = CommonHelper.findByIdOrThrow(MODEL, coffeeRepository, coffeeId);
-
-    CommonHelper.validateAndSet(coffeeRequest.getName(), coffee::setName, "Name", true);
-    CommonHelper.validateAndSet(coffeeRequest.getOriginCountry(), coffee::setOriginCountry,
-      "Origin Country", true);
-    CommonHelper.validateAndSet(coffeeRequest.getRoastLevel(), coffee::setRoastLevel,
-      "Roast Level", true);
-    CommonHelper.validateAndSet(coffeeRequest.getOriginRegion(), coffee::setOriginRegion,
-      "Origin Region", false);
-    // TODO: add other fields
-    if (coffeeRequest.getPrice() != null) {
-      if (coffeeRequest.getPrice().doubleValue() <= 0) {
-        throw new IllegalArgumentException("Price must be positive");
+    // Read and patched under the row lock: a concurrent update of the coffee waits and patches
+    // the committed result, so neither write is lost and outbox events follow the commit order
+    CoffeeUpdate update = transaction.execute(status -> {
+      Coffee coffee = findByIdForUpdate(coffeeId);
+      CoffeeResponse before = coffeeMapper.coffeeToResponse(coffee);
+
+      CommonHelper.validateAndSet(coffeeRequest.getName(), coffee::setName, "Name", true);
+      CommonHelper.validateAndSet(coffeeRequest.getOriginCountry(), coffee::setOriginCountry,
+        "Origin Country", true);
+      CommonHelper.validateAndSet(coffeeRequest.getRoastLevel(), coffee::setRoastLevel,
+        "Roast Level", true);
+      CommonHelper.validateAndSet(coffeeRequest.getOriginRegion(), coffee::setOriginRegion,
+        "Origin Region", false);
+      // TODO: add other fields
+      if (coffeeRequest.getPrice() != null) {
+        if (coffeeRequest.getPrice().doubleValue() <= 0) {
+          throw new IllegalArgumentException("Price must be positive");
+        }
+        coffee.setPrice(coffeeRequest.getPrice().setScale(2, RoundingMode.HALF_UP));
+      }
+      if (coffeeRequest.getIsActive() != null) {
+        coffee.setIsActive(coffeeRequest.getIsActive());
       }
-      coffee.setPrice(coffeeRequest.getPrice().setScale(2, RoundingMode.HALF_UP));
+
+      boolean deactivated = Boolean.TRUE.equals(before.getIsActive())
+        && !Boolean.TRUE.equals(coffee.getIsActive());
+      // Flushed, so the response carries the new updatedAt
+      CoffeeResponse saved = coffeeMapper.coffeeToResponse(coffeeRepository.saveAndFlush(coffee));
+      Map<Long, Long> eventIds = deactivated
+        ? coffeeOutbox.onCoffeesRemoved(ChangeType.DEACTIVATED, List.of(coffeeId))
+        : coffeeOutbox.onCoffeesSaved(ChangeType.UPDATED, List.of(saved));
+      return new CoffeeUpdate(before, saved, deactivated, eventIds.get(coffeeId));
+    });
+
+    CoffeeResponse updated = update.after();
+    boolean deactivated = update.deactivated();
+    coffeeCatalogCache.onCoffeeUpdated(update.before(), updated);
+    coffeeSearchIndex.onCoffeeSaved(updated, update.version());
+    coffeeFacetIndex.onCoffeeSaved(updated, update.version());
+    coffeeSimilarityIndex.onCoffeeSaved(updated, update.version());
+    Map<Long, Long> eventIds = Map.of(coffeeId, update.version());
+    if (deactivated) {
+      coffeeChangeFeed.onCoffeesRemoved(ChangeType.DEACTIVATED, List.of(coffeeId), eventIds);
+    } else {
+      coffeeChangeFeed.onCoffeesSaved(ChangeType.UPDATED, List.of(updated), eventIds);
     }
-    if (coffeeRequest.getIsActive() != null) {
-      coffee.setIsActive(coffeeRequest.getIsActive());
+    return updated;
+  }
+
+  /**
+   * Apply a patch to the selected coffees with one UPDATE statement
+   */
+  public CoffeeBulkUpdateResponse updateCoffees(CoffeeBulkUpdateRequest request) {
+    checkSelection(request.getSelection());
+    checkNotBlank(request.getRoastLevel(), "Roast Level");
+    checkNotBlank(request.getOriginCountry(), "Origin Country");
+    if (request.getPrice() == null && request.getRoastLevel() == null
+      && request.getOriginCountry() == null && request.getOriginRegion() == null) {
+      throw new IllegalArgumentException("At least one field to update is required");
     }
 
-    Coffee updatedCoffee = coffeeRepository.save(coffee);
+    Committed<List<CoffeeResponse>> committed = transaction.execute(status -> {
+      List<CoffeeResponse> coffees = coffeeRepository.bulkUpdate(
+          idArray(request.getSelection()), request.getSelection().getRoasterId(),
+          request.getPrice() == null ? null : request.getPrice().setScale(2, RoundingMode.HALF_UP),
+          request.getRoastLevel(), request.getOriginCountry(), request.getOriginRegion())
+        .stream()
+        .map(coffeeMapper::coffeeToResponse)
+        .toList();
+      return new Committed<>(coffees, coffeeOutbox.onCoffeesSaved(ChangeType.UPDATED, coffees));
+    });
+
+    List<CoffeeResponse> updated = committed.result();
+    List<Long> ids = updated.stream().map(CoffeeResponse::getId).toList();
+    coffeeCatalogCache.onCoffeesUpdated(ids);
+    updated.forEach(coffee -> {
+      long version = committed.eventIds().get(coffee.getId());
+      coffeeSearchIndex.onCoffeeSaved(coffee, version);
+      coffeeFacetIndex.onCoffeeSaved(coffee, version);
+      coffeeSimilarityIndex.onCoffeeSaved(coffee, version);
+    });
+    coffeeChangeFeed.onCoffeesSaved(ChangeType.UPDATED, updated, committed.eventIds());
+    return new CoffeeBulkUpdateResponse(ids.size(), ids);
+  }
+
+  /**
+   * Deactivate the selected coffees with one UPDATE statement (Soft Delete); only the coffees that
+   * were active are reported
+   */
+  public CoffeeBulkUpdateResponse deactivateCoffees(CoffeeBulkSelection selection) {
+    checkSelection(selection);
+
+    Committed<List<Long>> committed = transaction.execute(status -> {
+      List<Long> deactivated = coffeeRepository.bulkDeactivate(idArray(selection),
+        selection.getRoasterId());
+      return new Committed<>(deactivated,
+        coffeeOutbox.onCoffeesRemoved(ChangeType.DEACTIVATED, deactivated));
+    });
 
-    return coffeeMapper.coffeeToResponse(updatedCoffee);
+    List<Long> ids = committed.result();
+    coffeeCatalogCache.onCoffeesUpdated(ids);
+    ids.forEach(coffeeId -> {
+      long version = committed.eventIds().get(coffeeId);
+      coffeeSearchIndex.onCoffeeDeleted(coffeeId, version);
+      coffeeFacetIndex.onCoffeeDeleted(coffeeId, version);
+      coffeeSimilarityIndex.onCoffeeDeleted(coffeeId, version);
+    });
+    coffeeChangeFeed.onCoffeesRemoved(ChangeType.DEACTIVATED, ids, committed.eventIds());
+    return new CoffeeBulkUpdateResponse(ids.size(), ids);
   }
 
   /**
    * Delete coffee
    */
   public CoffeeResponse deleteCoffee(Long coffeeId) {
-    Coffee coffee = CommonHelper.findByIdOrThrow(MODEL, coffeeRepository, coffeeId);
+    // Under the row lock, so an update running at the same time commits before the delete
+    Committed<CoffeeResponse> committed = transaction.execute(status -> {
+      Coffee coffee = findByIdForUpdate(coffeeId);
+      CoffeeResponse response = coffeeMapper.coffeeToResponse(coffee);
+      coffeeRepository.delete(coffee);
+      return new Committed<>(response,
+        coffeeOutbox.onCoffeesRemoved(ChangeType.DELETED, List.of(coffeeId)));
+    });
+
+    CoffeeResponse deleted = committed.result();
+    long version = committed.eventIds().get(coffeeId);
+    coffeeCatalogCache.onCoffeeDeleted(deleted);
+    coffeeSearchIndex.onCoffeeDeleted(coffeeId, version);
+    coffeeFacetIndex.onCoffeeDeleted(coffeeId, version);
+    coffeeSimilarityIndex.onCoffeeDeleted(coffeeId, version);
+    coffeeChangeFeed.onCoffeesRemoved(ChangeType.DELETED, List.of(coffeeId),
+      committed.eventIds());
+    return deleted;
+  }
+
+  private Coffee findByIdForUpdate(Long coffeeId) {
+    return coffeeRepository.findByIdForUpdate(coffeeId)
+      .orElseThrow(() -> new ResourceNotFoundException(MODEL, "id", coffeeId));
+  }
+
+  /**
+   * Set the roaster summaries of a page, loaded with one query (cached pages keep them)
+   */
+  private <S extends Slice<? extends CoffeeListItem>> S withRoasters(S slice) {
+    roasterService.attachRoasters(slice.getContent());
+    return slice;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the selection would match the whole catalog
+   */
+  private static void checkSelection(CoffeeBulkSelection selection) {
+    if ((selection.getIds() == null || selection.getIds().isEmpty())
+      && selection.getRoasterId() == null) {
+      throw new IllegalArgumentException("Coffee IDs or a roaster ID are required");
+    }
+  }
+
+  private static void checkNotBlank(String value, String fieldName) {
+    if (value != null && value.isBlank()) {
+      throw new IllegalArgumentException(String.format("%s cannot be blank", fieldName));
+    }
+  }
+
+  private static Long[] idArray(CoffeeBulkSelection selection) {
+    return selection.getIds() == null || selection.getIds().isEmpty() ? null
+      : selection.getIds().toArray(Long[]::new);
+  }
 
-    coffeeRepository.delete(coffee);
+  /**
+   * Subscribe to the catalog change feed, resuming after lastEventId when given
+   */
+  public SseEmitter subscribeToChanges(String lastEventId) {
+    return coffeeChangeFeed.subscribe(lastEventId);
+  }
+
+  /**
+   * Get catalog cache statistics
+   */
+  public Map<String, CacheStatsResponse> getCacheStats() {
+    return coffeeCatalogCache.getStats();
+  }
+
+  /**
+   * Get the catalog version, which changes with every catalog write
+   */
+  public CatalogVersion getCatalogVersion() {
+    return coffeeCatalogCache.getCatalogVersion();
+  }
+
+  /**
+   * Get search index size and build statistics
+   */
+  public SearchIndexStatsResponse getSearchIndexStats() {
+    return coffeeSearchIndex.getStats();
+  }
+
+  /**
+   * Get outbox backlog and relay statistics
+   */
+  public OutboxStatsResponse getOutboxStats() {
+    return coffeeOutbox.getStats();
+  }
+
+  /**
+   * @param version Outbox event ID of the update
+   */
+  private record CoffeeUpdate(CoffeeResponse before, CoffeeResponse after, boolean deactivated,
+    long version) {
+
+  }
+
+  /**
+   * Result of a write with the outbox event IDs of its coffees, which order the in-process index
+   * updates made after commit
+   */
+  private record Committed<T>(T result, Map<Long, Long> eventIds) {
 
-    return coffeeMapper.coffeeToResponse(coffee);
   }
 }
@@ -0,0 +1,399 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.repository.CoffeeFlavorCategory;
+import com.personal.coffee_catalog.repository.CoffeeProjection;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.SimilarCoffeeResponse;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process flavor vector index over the active catalog, for "coffees like this one" without a
+ * database scan.
+ * <p>Every coffee is a vector of 16-bit values in a single array: acidity, sweetness,
+ * bitterness, roast degree, altitude and a multi-hot slot per flavor category (categories beyond
+ * the slot count share slots). Missing values sit mid-scale. Neighbors are found by an exact scan
+ * of weighted squared distances in integer arithmetic, skipping the category slots of candidates
+ * that cannot make the top k anyway. The index is loaded at startup and kept current by the
+ * catalog writes; flavor note links are not written by the application, so they are read when a
+ * coffee is added.
+ */
+@Slf4j
+@Component
+public class CoffeeSimilarityIndex {
+
+  private static final int MAX_VALUE = Short.MAX_VALUE;
+  private static final int MISSING = MAX_VALUE / 2;
+  private static final int MAX_ALTITUDE = 3000; // meters, higher altitudes count as this one
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * Scalar dimensions with their distance weight
+   */
+  public enum Feature {
+    ACIDITY(4),
+    SWEETNESS(4),
+    BITTERNESS(4),
+    ROAST(3),
+    ALTITUDE(1);
+
+    private final int weight;
+
+    Feature(int weight) {
+      this.weight = weight;
+    }
+
+    public int getWeight() {
+      return weight;
+    }
+  }
+
+  public static final int CATEGORY_WEIGHT = 2; // of each flavor category
+  private static final int CATEGORY_SLOTS = 16;
+  private static final int FEATURES = Feature.values().length;
+  private static final int DIMENSIONS = FEATURES + CATEGORY_SLOTS;
+  private static final int[] WEIGHTS = new int[DIMENSIONS];
+  private static final long MAX_DISTANCE;
+
+  static {
+    for (Feature feature : Feature.values()) {
+      WEIGHTS[feature.ordinal()] = feature.weight;
+    }
+    Arrays.fill(WEIGHTS, FEATURES, DIMENSIONS, CATEGORY_WEIGHT);
+    MAX_DISTANCE = (long) Arrays.stream(WEIGHTS).sum() * MAX_VALUE * MAX_VALUE;
+  }
+
+  private final CoffeeRepository coffeeRepository;
+  private final int maxResults;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private short[] vectors = new short[INITIAL_CAPACITY * DIMENSIONS]; // by ordinal
+  private final Map<String, Integer> categorySlots = new HashMap<>(); // in first-seen order
+  private Entry[] entries = new Entry[INITIAL_CAPACITY];
+  private final BitSet live = new BitSet(); // ordinals in use
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+  private final CoffeeVersions versions = new CoffeeVersions();
+  private int size; // ordinals handed out
+
+  public CoffeeSimilarityIndex(CoffeeRepository coffeeRepository,
+    @Value("${catalog.similarity.max-results:20}") int maxResults) {
+    this.coffeeRepository = coffeeRepository;
+    this.maxResults = maxResults;
+  }
+
+  /**
+   * Load all active coffees (before the application serves requests)
+   */
+  @PostConstruct
+  void build() {
+    long start = System.nanoTime();
+    List<? extends CoffeeListItem> coffees = coffeeRepository.findPage(
+      CoffeeSpecifications.isActive(), Pageable.unpaged(), CoffeeProjection.SUMMARY).getContent();
+    Map<Long, List<String>> categories = coffeeRepository.findActiveFlavorCategories().stream()
+      .collect(Collectors.groupingBy(CoffeeFlavorCategory::getCoffeeId,
+        Collectors.mapping(CoffeeFlavorCategory::getCategory, Collectors.toList())));
+    rebuild(coffees, categories);
+
+    log.info("Coffee similarity index built in {} ms: {} coffees, {} KiB of vectors",
+      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), coffees.size(),
+      (long) coffees.size() * DIMENSIONS * Short.BYTES / 1024);
+  }
+
+  /**
+   * Replace the whole index content
+   *
+   * @param categories Flavor categories by coffee ID
+   */
+  void rebuild(Collection<? extends CoffeeListItem> coffees,
+    Map<Long, List<String>> categories) {
+    lock.writeLock().lock();
+    try {
+      live.clear();
+      ordinals.clear();
+      freeOrdinals.clear();
+      versions.clear();
+      categorySlots.clear();
+      Arrays.fill(entries, null);
+      size = 0;
+      for (CoffeeListItem coffee : coffees) {
+        add(coffee, categorySlots(categories.getOrDefault(coffee.getId(), List.of())));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Index a saved coffee, or drop it from the index when it is no longer active
+   *
+   * @param version Outbox event ID of the change; older changes than the last applied are ignored
+   */
+  public void onCoffeeSaved(CoffeeResponse coffee, long version) {
+    if (!Boolean.TRUE.equals(coffee.getIsActive())) {
+      onCoffeeDeleted(coffee.getId(), version);
+      return;
+    }
+
+    boolean indexed;
+    lock.readLock().lock();
+    try {
+      if (!versions.isNewer(coffee.getId(), version)) {
+        return;
+      }
+      indexed = ordinals.containsKey(coffee.getId());
+    } finally {
+      lock.readLock().unlock();
+    }
+    List<String> loadedCategories = indexed ? List.of()
+      : coffeeRepository.findFlavorCategories(coffee.getId());
+
+    lock.writeLock().lock();
+    try {
+      if (!versions.save(coffee.getId(), version)) {
+        return;
+      }
+      Integer ordinal = ordinals.get(coffee.getId());
+      short[] slots = ordinal == null ? categorySlots(loadedCategories)
+        : Arrays.copyOfRange(vectors, ordinal * DIMENSIONS + FEATURES,
+          (ordinal + 1) * DIMENSIONS);
+      remove(coffee.getId());
+      add(coffee, slots);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Index newly imported coffees under one write lock. They have no flavor notes yet, so there is
+   * nothing to load.
+   *
+   * @param eventIds Outbox event ID by coffee ID, the version of each coffee
+   */
+  public void onCoffeesImported(List<CoffeeResponse> coffees, Map<Long, Long> eventIds) {
+    lock.writeLock().lock();
+    try {
+      short[] noCategories = categorySlots(List.of());
+      coffees.stream().filter(coffee -> Boolean.TRUE.equals(coffee.getIsActive()))
+        .filter(coffee -> versions.save(coffee.getId(), eventIds.get(coffee.getId())))
+        .forEach(coffee -> add(coffee, noCategories));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param version Outbox event ID of the change; older changes than the last applied are ignored
+   */
+  public void onCoffeeDeleted(Long coffeeId, long version) {
+    lock.writeLock().lock();
+    try {
+      if (versions.remove(coffeeId, version)) {
+        remove(coffeeId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Nearest active coffees to an active coffee by weighted flavor profile distance
+   *
+   * @param coffeeId ID of the reference coffee
+   * @param limit    Maximum number of coffees
+   * @return Most similar coffees first, excluding the reference coffee; empty when the coffee is
+   * not an active one
+   * @throws IllegalArgumentException if the limit is out of range
+   */
+  public Optional<List<SimilarCoffeeResponse>> similar(Long coffeeId, int limit) {
+    if (limit < 1 || limit > maxResults) {
+      throw new IllegalArgumentException(
+        String.format("Limit must be between 1 and %d", maxResults));
+    }
+
+    lock.readLock().lock();
+    try {
+      Integer reference = ordinals.get(coffeeId);
+      if (reference == null) {
+        return Optional.empty();
+      }
+
+      // Best distances so far in ascending order, ties by ordinal
+      long[] bestDistances = new long[limit];
+      int[] bestOrdinals = new int[limit];
+      int found = 0;
+      int offset = reference * DIMENSIONS;
+      for (int ordinal = live.nextSetBit(0); ordinal >= 0;
+        ordinal = live.nextSetBit(ordinal + 1)) {
+        if (ordinal == reference) {
+          continue;
+        }
+        long bound = found == limit ? bestDistances[limit - 1] : Long.MAX_VALUE;
+        long distance = distance(vectors, offset, ordinal * DIMENSIONS, bound);
+        if (distance >= bound) {
+          continue;
+        }
+        int index = found == limit ? limit - 1 : found++;
+        while (index > 0 && bestDistances[index - 1] > distance) {
+          bestDistances[index] = bestDistances[index - 1];
+          bestOrdinals[index] = bestOrdinals[index - 1];
+          index--;
+        }
+        bestDistances[index] = distance;
+        bestOrdinals[index] = ordinal;
+      }
+
+      List<SimilarCoffeeResponse> similar = new ArrayList<>(found);
+      for (int i = 0; i < found; i++) {
+        similar.add(entries[bestOrdinals[i]].toResponse(similarity(bestDistances[i])));
+      }
+      return Optional.of(similar);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static short[] vector(CoffeeListItem coffee, short[] categorySlots) {
+    short[] vector = new short[DIMENSIONS];
+    vector[Feature.ACIDITY.ordinal()] = level(coffee.getAcidityLevel());
+    vector[Feature.SWEETNESS.ordinal()] = level(coffee.getSweetnessLevel());
+    vector[Feature.BITTERNESS.ordinal()] = level(coffee.getBitternessLevel());
+    vector[Feature.ROAST.ordinal()] = roast(coffee.getRoastLevel());
+    vector[Feature.ALTITUDE.ordinal()] = coffee.getAltitudeMeters() == null ? (short) MISSING
+      : (short) (Math.clamp(coffee.getAltitudeMeters(), 0, MAX_ALTITUDE) * MAX_VALUE
+        / MAX_ALTITUDE);
+    System.arraycopy(categorySlots, 0, vector, FEATURES, CATEGORY_SLOTS);
+    return vector;
+  }
+
+  /**
+   * Weighted squared distance between two vectors, or any value of at least the bound once it is
+   * reached
+   */
+  private static long distance(short[] vectors, int offset, int otherOffset, long bound) {
+    long distance = 0;
+    for (int dimension = 0; dimension < FEATURES; dimension++) {
+      long difference = vectors[offset + dimension] - vectors[otherOffset + dimension];
+      distance += WEIGHTS[dimension] * difference * difference;
+    }
+    if (distance >= bound) {
+      return distance; // most candidates stop here, the category slots are rarely needed
+    }
+    for (int dimension = FEATURES; dimension < DIMENSIONS; dimension++) {
+      long difference = vectors[offset + dimension] - vectors[otherOffset + dimension];
+      distance += WEIGHTS[dimension] * difference * difference;
+    }
+    return distance;
+  }
+
+  private static double similarity(long distance) {
+    return 1 - Math.sqrt((double) distance / MAX_DISTANCE);
+  }
+
+  private void add(CoffeeListItem coffee, short[] categorySlots) {
+    int ordinal = freeOrdinals.isEmpty() ? size++ : freeOrdinals.pop();
+    if (ordinal >= entries.length) {
+      entries = Arrays.copyOf(entries, entries.length * 2);
+      vectors = Arrays.copyOf(vectors, entries.length * DIMENSIONS);
+    }
+
+    System.arraycopy(vector(coffee, categorySlots), 0, vectors, ordinal * DIMENSIONS, DIMENSIONS);
+    entries[ordinal] = new Entry(coffee.getId(), coffee.getName(), coffee.getOriginCountry(),
+      coffee.getRoastLevel(), coffee.getPrice(), coffee.getAcidityLevel(),
+      coffee.getSweetnessLevel(), coffee.getBitternessLevel());
+    live.set(ordinal);
+    ordinals.put(coffee.getId(), ordinal);
+  }
+
+  private void remove(Long coffeeId) {
+    Integer ordinal = ordinals.remove(coffeeId);
+    if (ordinal != null) {
+      live.clear(ordinal);
+      entries[ordinal] = null;
+      freeOrdinals.push(ordinal);
+    }
+  }
+
+  /**
+   * 1-10 level scaled to 0-MAX_VALUE
+   */
+  private static short level(Integer level) {
+    return level == null ? (short) MISSING
+      : (short) ((Math.clamp(level, 1, 10) - 1) * MAX_VALUE / 9);
+  }
+
+  /**
+   * Roast degree from light (0) through medium to dark (MAX_VALUE); blends such as "Medium-Dark"
+   * sit halfway between their parts
+   */
+  private static short roast(String roastLevel) {
+    if (roastLevel == null) {
+      return (short) MISSING;
+    }
+    int sum = 0;
+    int parts = 0;
+    for (String part : roastLevel.toLowerCase(Locale.ROOT).split("[^a-z]+")) {
+      int degree = switch (part) {
+        case "light" -> 0;
+        case "medium" -> 2;
+        case "dark" -> 4;
+        default -> -1;
+      };
+      if (degree >= 0) {
+        sum += degree;
+        parts++;
+      }
+    }
+    return parts == 0 ? (short) MISSING : (short) (sum * MAX_VALUE / (4 * parts));
+  }
+
+  private short[] categorySlots(List<String> categories) {
+    short[] slots = new short[CATEGORY_SLOTS];
+    for (String category : categories) {
+      int slot = categorySlots.computeIfAbsent(category.toLowerCase(Locale.ROOT),
+        key -> categorySlots.size() % CATEGORY_SLOTS);
+      slots[slot] = (short) MAX_VALUE;
+    }
+    return slots;
+  }
+
+  private record Entry(Long id, String name, String originCountry, String roastLevel,
+                       BigDecimal price, Integer acidityLevel, Integer sweetnessLevel,
+                       Integer bitternessLevel) {
+
+    SimilarCoffeeResponse toResponse(double similarity) {
+      return SimilarCoffeeResponse.builder()
+        .id(id)
+        .name(name)
+        .originCountry(originCountry)
+        .roastLevel(roastLevel)
+        .price(price)
+        .acidityLevel(acidityLevel)
+        .sweetnessLevel(sweetnessLevel)
+        .bitternessLevel(bitternessLevel)
+        .similarity(similarity)
+        .build();
+    }
+  }
+}
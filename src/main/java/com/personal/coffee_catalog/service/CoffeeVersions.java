@@ -0,0 +1,69 @@
+package com.personal.coffee_catalog.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outbox event ID of the last change applied to each coffee, for the in-process indexes and the
+ * change feed.
+ * <p>They are updated after commit, in the order the writing threads get there, which is not
+ * always the commit order: an update that lost the race to a delete must not bring the coffee
+ * back. Event IDs follow the commit order of a coffee's changes, so a change is applied only when
+ * its ID is above the last one applied. Removed coffees keep a tombstone, the oldest ones are
+ * dropped past 10,000.
+ * <p>Not thread-safe: used under the lock of its owner.
+ */
+final class CoffeeVersions {
+
+  private static final int MAX_TOMBSTONES = 10_000;
+
+  private final Map<Long, Long> saved = new HashMap<>();
+  private final Map<Long, Long> removed = new LinkedHashMap<>() {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+      return size() > MAX_TOMBSTONES;
+    }
+  };
+
+  /**
+   * Record a change that leaves the coffee in the index
+   *
+   * @return false when a later change of the coffee was applied already
+   */
+  boolean save(Long coffeeId, long version) {
+    if (!isNewer(coffeeId, version)) {
+      return false;
+    }
+    removed.remove(coffeeId);
+    saved.put(coffeeId, version);
+    return true;
+  }
+
+  /**
+   * Record a change that takes the coffee out of the index
+   *
+   * @return false when a later change of the coffee was applied already
+   */
+  boolean remove(Long coffeeId, long version) {
+    if (!isNewer(coffeeId, version)) {
+      return false;
+    }
+    saved.remove(coffeeId);
+    removed.put(coffeeId, version);
+    return true;
+  }
+
+  void clear() {
+    saved.clear();
+    removed.clear();
+  }
+
+  /**
+   * Whether a change would be applied; safe under a read lock of the owner
+   */
+  boolean isNewer(Long coffeeId, long version) {
+    return version > Math.max(saved.getOrDefault(coffeeId, 0L),
+      removed.getOrDefault(coffeeId, 0L));
+  }
+}
@@ -0,0 +1,52 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.repository.CoffeeOutboxEvent;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Appends relayed events to {@code catalog.outbox.file} as NDJSON, one event per line. A batch is
+ * forced to disk before it counts as delivered.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements CoffeeOutboxSink {
+
+  private final ObjectWriter writer;
+  private final Path file;
+
+  public FileOutboxSink(JsonMapper jsonMapper,
+    @Value("${catalog.outbox.file:coffee-outbox.ndjson}") Path file) {
+    this.writer = jsonMapper.writerFor(CoffeeOutboxEvent.class);
+    this.file = file;
+  }
+
+  @Override
+  public synchronized void deliver(List<CoffeeOutboxEvent> events) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      BufferedWriter out = new BufferedWriter(
+        Channels.newWriter(channel, StandardCharsets.UTF_8));
+      for (CoffeeOutboxEvent event : events) {
+        out.write(writer.writeValueAsString(event));
+        out.write('\n');
+      }
+      out.flush();
+      channel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
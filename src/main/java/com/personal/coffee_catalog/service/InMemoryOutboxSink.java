@@ -0,0 +1,44 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.repository.CoffeeOutboxEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the last {@code catalog.outbox.memory-capacity} relayed events in memory (the default
+ * sink, for development and tests)
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements CoffeeOutboxSink {
+
+  private final int capacity;
+
+  // Guarded by this
+  private final Deque<CoffeeOutboxEvent> events = new ArrayDeque<>();
+
+  public InMemoryOutboxSink(@Value("${catalog.outbox.memory-capacity:10000}") int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public synchronized void deliver(List<CoffeeOutboxEvent> delivered) {
+    for (CoffeeOutboxEvent event : delivered) {
+      if (events.size() == capacity) {
+        events.removeFirst();
+      }
+      events.addLast(event);
+    }
+  }
+
+  /**
+   * @return the retained events, oldest first
+   */
+  public synchronized List<CoffeeOutboxEvent> getEvents() {
+    return List.copyOf(events);
+  }
+}
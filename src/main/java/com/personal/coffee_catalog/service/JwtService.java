@@ -1,14 +1,32 @@
 package com.personal.coffee_catalog.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import javax.crypto.SecretKey;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -16,14 +34,107 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
+  public static final String CLAIM_USER_ID = "uid";
+  public static final String CLAIM_ROLE = "role";
+  public static final String CLAIM_TOKEN_VERSION = "ver";
+
   @Value("${jwt.secret}")
   private String secretKey;
 
   @Value("${jwt.expiration}")
   private long jwtExpiration;
 
+  @Value("${jwt.verified-token-cache-size:10000}")
+  private int verifiedTokenCacheSize;
+
+  // Left to the global registry where the service is built by hand (tests, benchmarks)
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  private SecretKey signInKey;
+  private JwtParser jwtParser;
+  private Cache<ByteBuffer, ParsedToken> verifiedTokens;
+  private Timer cachedVerifications;
+  private Timer validVerifications;
+  private Timer expiredVerifications;
+  private Timer invalidVerifications;
+
+  /**
+   * Build the signing key and parser once instead of on every token operation
+   */
+  @PostConstruct
+  void init() {
+    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+    this.jwtParser = Jwts.parser().verifyWith(signInKey).build();
+    // Lock-free reads; each entry expires with its token
+    this.verifiedTokens = Caffeine.newBuilder()
+      .maximumSize(verifiedTokenCacheSize)
+      .expireAfter(Expiry.creating((ByteBuffer digest, ParsedToken token) ->
+        Duration.ofMillis(Math.max(0, token.expiresAt() - System.currentTimeMillis()))))
+      .build();
+    this.cachedVerifications = verificationTimer("hit", "valid");
+    this.validVerifications = verificationTimer("miss", "valid");
+    this.expiredVerifications = verificationTimer("miss", "expired");
+    this.invalidVerifications = verificationTimer("miss", "invalid");
+  }
+
+  private Timer verificationTimer(String cache, String outcome) {
+    return Timer.builder("jwt.verification")
+      .description("Token verifications, from the cache or with a signature check")
+      .tag("cache", cache)
+      .tag("outcome", outcome)
+      .publishPercentileHistogram()
+      .register(meterRegistry);
+  }
+
+  /**
+   * Verify a token once and return its claims. Tokens verified recently are served from a bounded
+   * cache keyed by the SHA-256 digest of the token, skipping the signature check until they expire.
+   * Every call is timed in {@code jwt.verification}, tagged with the cache use and the outcome.
+   *
+   * @param token Compact JWT
+   * @return Parsed token
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+   */
+  public ParsedToken parseToken(String token) {
+    long start = System.nanoTime();
+    ByteBuffer digest = digest(token);
+
+    ParsedToken cached = verifiedTokens.getIfPresent(digest);
+    if (cached != null) {
+      cachedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return cached;
+    }
+
+    Claims claims;
+    try {
+      claims = extractAllClaims(token);
+    } catch (ExpiredJwtException e) {
+      expiredVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw e;
+    } catch (RuntimeException e) {
+      invalidVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw e;
+    }
+    ParsedToken parsedToken = new ParsedToken(
+      claims.getSubject(),
+      claims.get(CLAIM_USER_ID, Long.class),
+      claims.get(CLAIM_ROLE, String.class),
+      claims.get(CLAIM_TOKEN_VERSION, Integer.class),
+      claims.getExpiration().getTime()
+    );
+
+    if (verifiedTokenCacheSize > 0) {
+      verifiedTokens.put(digest, parsedToken);
+    }
+
+    validVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return parsedToken;
+  }
+
   public String extractUsername(String token) {
-    return extractClaim(token, Claims::getSubject);
+    return parseToken(token).subject();
   }
 
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -31,6 +142,39 @@ public class JwtService {
     return claimsResolver.apply(claims);
   }
 
+  /**
+   * Generate an access token carrying the claims needed to authenticate without a user lookup
+   *
+   * @param user Authenticated user
+   * @return Signed access token
+   */
+  public String generateAccessToken(User user) {
+    Map<String, Object> claims = new HashMap<>();
+    claims.put(CLAIM_USER_ID, user.getId());
+    claims.put(CLAIM_ROLE, user.getRole().name());
+    claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+    return generateToken(claims, user);
+  }
+
+  /**
+   * Build a detached principal from the identity claims of a verified token
+   *
+   * @param token Verified token
+   * @return Principal, or null if the token was issued without identity claims
+   */
+  public User extractPrincipal(ParsedToken token) {
+    if (!token.hasIdentityClaims()) {
+      return null;
+    }
+
+    return User.builder()
+      .id(token.userId())
+      .email(token.subject())
+      .role(Constants.Role.valueOf(token.role()))
+      .tokenVersion(token.tokenVersion())
+      .build();
+  }
+
   public String generateToken(UserDetails userDetails) {
     return generateToken(new HashMap<>(), userDetails);
   }
@@ -50,34 +194,38 @@ public class JwtService {
       .subject(userDetails.getUsername())
       .issuedAt(new Date(System.currentTimeMillis()))
       .expiration(new Date(System.currentTimeMillis() + expiration))
-      .signWith(getSignInKey())
+      .signWith(signInKey)
       .compact();
   }
 
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-  }
-
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+    return isTokenValid(parseToken(token), userDetails);
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  /**
+   * Check a token against the user it was issued to. Tokens carrying a token version must not be
+   * older than the version of a loaded {@link User}, so revocations hold on the lookup path too.
+   */
+  public boolean isTokenValid(ParsedToken token, UserDetails userDetails) {
+    if (token.tokenVersion() != null && userDetails instanceof User user
+      && token.tokenVersion() < user.getTokenVersion()) {
+      return false;
+    }
+    return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
   }
 
   private Claims extractAllClaims(String token) {
-    return Jwts
-      .parser()
-      .verifyWith(getSignInKey())
-      .build()
+    return jwtParser
       .parseSignedClaims(token)
       .getPayload();
   }
 
-  private SecretKey getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+  private static ByteBuffer digest(String token) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
   }
 }
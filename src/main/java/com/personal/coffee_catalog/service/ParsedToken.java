@@ -0,0 +1,29 @@
+package com.personal.coffee_catalog.service;
+
+/**
+ * Immutable view of a verified access token.
+ * <p>Produced once per request by {@link JwtService#parseToken(String)} and reused for every
+ * check the request needs, so the signature is verified at most once.
+ *
+ * @param subject      Token subject (user email)
+ * @param userId       User ID claim, null for tokens issued without identity claims
+ * @param role         Role claim, null for tokens issued without identity claims
+ * @param tokenVersion Token version claim, null for tokens issued without identity claims
+ * @param expiresAt    Expiration time in epoch milliseconds
+ */
+public record ParsedToken(
+  String subject,
+  Long userId,
+  String role,
+  Integer tokenVersion,
+  long expiresAt
+) {
+
+  public boolean hasIdentityClaims() {
+    return userId != null && role != null && tokenVersion != null;
+  }
+
+  public boolean isExpired() {
+    return expiresAt <= System.currentTimeMillis();
+  }
+}
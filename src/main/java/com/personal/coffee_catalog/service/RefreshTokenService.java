@@ -1,77 +1,368 @@
 package com.personal.coffee_catalog.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.personal.coffee_catalog.exception.TokenRefreshException;
-import com.personal.coffee_catalog.model.RefreshToken;
 import com.personal.coffee_catalog.model.User;
 import com.personal.coffee_catalog.repository.RefreshTokenRepository;
+import com.personal.coffee_catalog.repository.RefreshTokenRepository.Owner;
+import com.personal.coffee_catalog.repository.RefreshTokenRepository.Rotation;
+import com.personal.coffee_catalog.repository.RefreshTokenRepository.TokenRevocation;
+import com.personal.coffee_catalog.repository.RefreshTokenRepository.UserRevocation;
+import com.personal.coffee_catalog.repository.StoredRefreshToken;
 import com.personal.coffee_catalog.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Refresh token store: an in-memory index of recent tokens, keyed by the SHA-256 of the token,
+ * with write-behind persistence to {@code refresh_tokens}.
+ * <p>Logins write nothing and a refresh only reads its user: new tokens, rotations and revocations
+ * are queued and written in batches every {@code catalog.refresh-tokens.flush-interval-ms} (a crash
+ * loses at most that much). Tokens stay in the index for
+ * {@code catalog.refresh-tokens.index-ttl-ms}, so they are found before they are written; older
+ * ones are looked up in the table.
+ * <p>Every refresh exchanges the token for a new one. Presenting an exchanged token again means it
+ * was copied, so every session of the user is ended: refresh tokens are revoked and access tokens
+ * invalidated through the token version. The refresh reads the token row together with its user,
+ * so exchanges and revocations made by other instances apply once they are written.
+ * <p>Logout revokes the presented token and invalidates the access tokens of the user. A scheduled
+ * purge deletes expired rows in batches along {@code idx_refresh_token_expiry}.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
-  @Value("${jwt.refresh-expiration}")
-  private Long refreshTokenDurationMs;
+  private static final SecureRandom RANDOM = new SecureRandom();
 
   private final RefreshTokenRepository refreshTokenRepository;
   private final UserRepository userRepository;
+  private final TokenRevocationService tokenRevocationService;
+  private final TransactionTemplate transaction;
+  private final long refreshTokenDurationMs;
+  private final long flushIntervalMs;
+  private final int flushBatchSize;
+  private final int purgeBatchSize;
 
-  public RefreshToken createRefreshToken(Long userId) {
-    User user = userRepository.findById(userId)
-      .orElseThrow(() -> new RuntimeException("User not found"));
+  private final Cache<String, Entry> tokens;
+  private final ConcurrentLinkedQueue<Object> writes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedWrites = new AtomicInteger();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final List<Object> pendingWrites = new ArrayList<>();
+  private final Semaphore wakeUps = new Semaphore(0);
+  private volatile Thread flusher;
 
-    // Delete old refresh tokens for this user
-    refreshTokenRepository.deleteByUserId(userId);
-
-    RefreshToken refreshToken = RefreshToken.builder()
-      .user(user)
-      .token(UUID.randomUUID().toString())
-      .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
-      .revoked(false)
+  public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+    UserRepository userRepository, TokenRevocationService tokenRevocationService,
+    PlatformTransactionManager transactionManager,
+    @Value("${jwt.refresh-expiration}") long refreshTokenDurationMs,
+    @Value("${catalog.refresh-tokens.flush-interval-ms:500}") long flushIntervalMs,
+    @Value("${catalog.refresh-tokens.flush-batch-size:1000}") int flushBatchSize,
+    @Value("${catalog.refresh-tokens.purge-batch-size:5000}") int purgeBatchSize,
+    @Value("${catalog.refresh-tokens.index-ttl-ms:600000}") long indexTtlMs) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.userRepository = userRepository;
+    this.tokenRevocationService = tokenRevocationService;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.refreshTokenDurationMs = refreshTokenDurationMs;
+    this.flushIntervalMs = flushIntervalMs;
+    this.flushBatchSize = flushBatchSize;
+    this.purgeBatchSize = purgeBatchSize;
+    this.tokens = Caffeine.newBuilder()
+      .expireAfterWrite(Duration.ofMillis(indexTtlMs))
       .build();
+  }
+
+  /**
+   * Token handed out by a refresh, with the user to issue the access token for
+   *
+   * @param token New refresh token
+   * @param user  Detached owner (ID, email, role and token version)
+   */
+  public record Refresh(String token, User user) {
 
-    return refreshTokenRepository.save(refreshToken);
   }
 
-  public Optional<RefreshToken> findByToken(String token) {
-    return refreshTokenRepository.findByToken(token);
+  /**
+   * Issue a refresh token for a new session of the user
+   *
+   * @return the token, to be sent to the client only
+   */
+  public String createRefreshToken(User user) {
+    return issue(user.getId());
   }
 
-  public RefreshToken verifyExpiration(RefreshToken token) {
-    if (token.isExpired()) {
-      refreshTokenRepository.delete(token);
-      throw new TokenRefreshException(token.getToken(),
+  /**
+   * Exchange a refresh token for a new one. The owner is read again (one primary key lookup), so
+   * the access token carries its current role, email and token version, along with the token row.
+   *
+   * @throws TokenRefreshException if the token expired, was revoked or was already exchanged (in
+   *                               which case every session of the user is ended)
+   */
+  public Refresh rotate(String token) {
+    Entry entry = find(token)
+      .orElseThrow(() -> new RuntimeException("Refresh token not found"));
+    StoredRefreshToken stored = entry.stored;
+
+    if (stored.expiresAt().isBefore(Instant.now())) {
+      tokens.asMap().remove(stored.tokenHash(), entry);
+      throw new TokenRefreshException(token,
         "Refresh token was expired. Please make a new login request");
     }
 
-    if (token.isRevoked()) {
-      throw new TokenRefreshException(token.getToken(),
-        "Refresh token was revoked. Please make a new login request");
+    Optional<Owner> owner = refreshTokenRepository.findOwner(stored.userId(), stored.tokenHash());
+    // Exchanged or revoked by another instance
+    owner.filter(Owner::revoked).ifPresent(written -> entry.state.compareAndSet(State.ACTIVE,
+      written.rotated() ? State.ROTATED : State.REVOKED));
+    if (owner.isPresent() && entry.state.compareAndSet(State.ACTIVE, State.ROTATED)) {
+      enqueue(new Rotation(stored.tokenHash(), Instant.now()));
+      return new Refresh(issue(stored.userId()), owner.get().user());
+    }
+
+    // The first reuse seen here ends the sessions; later ones find the token revoked
+    if (entry.state.compareAndSet(State.ROTATED, State.REVOKED)) {
+      log.warn("Reuse of an exchanged refresh token of user {}, ending all sessions",
+        stored.userId());
+      endSessions(stored.userId());
+    }
+    throw new TokenRefreshException(token,
+      "Refresh token was revoked. Please make a new login request");
+  }
+
+  /**
+   * Revoke the refresh token and invalidate the access tokens of its owner. Unknown tokens are
+   * ignored.
+   */
+  public void logout(String token) {
+    find(token).ifPresent(entry -> {
+      entry.state.compareAndSet(State.ACTIVE, State.REVOKED);
+      enqueue(new TokenRevocation(entry.stored.tokenHash(), Instant.now()));
+      invalidateAccessTokens(entry.stored.userId());
+    });
+  }
+
+  /**
+   * Write the queued changes, in batches of the flush batch size, in one transaction. When it
+   * fails the changes are kept and retried first on the next flush, except those the database
+   * rejects for good (constraint violations), which are dropped.
+   *
+   * @return number of changes written
+   */
+  public int flush() {
+    flushLock.lock();
+    try {
+      for (Object write; (write = writes.poll()) != null; ) {
+        queuedWrites.decrementAndGet();
+        pendingWrites.add(write);
+      }
+      if (pendingWrites.isEmpty()) {
+        return 0;
+      }
+
+      int written = pendingWrites.size();
+      try {
+        transaction.executeWithoutResult(status -> writeInBatches(pendingWrites));
+      } catch (DataIntegrityViolationException e) {
+        // A write that can never succeed (e.g. the user was deleted) must not block the others
+        written = 0;
+        for (Object write : pendingWrites) {
+          try {
+            transaction.executeWithoutResult(status -> write(List.of(write)));
+            written++;
+          } catch (DataIntegrityViolationException rejected) {
+            log.warn("Dropping refresh token write {}: {}", write, rejected.getMessage());
+          }
+        }
+      }
+      pendingWrites.clear();
+      return written;
+    } finally {
+      flushLock.unlock();
     }
+  }
 
+  /**
+   * Delete expired tokens, from the index and from the table in batches of the purge batch size
+   *
+   * @return number of rows deleted
+   */
+  @Scheduled(fixedDelayString = "${catalog.refresh-tokens.purge-interval-ms:3600000}",
+    initialDelayString = "${catalog.refresh-tokens.purge-interval-ms:3600000}")
+  public int purgeExpired() {
+    Instant now = Instant.now();
+    int deleted = 0;
+    for (int batch; (batch = refreshTokenRepository.deleteExpired(now, purgeBatchSize)) > 0; ) {
+      deleted += batch;
+      if (batch < purgeBatchSize) {
+        break;
+      }
+    }
+    if (deleted > 0) {
+      log.info("Purged {} expired refresh tokens", deleted);
+    }
+    return deleted;
+  }
+
+  @PostConstruct
+  void start() {
+    flusher = Thread.ofPlatform().daemon().name("refresh-token-writer").start(this::flushLoop);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    Thread running = flusher;
+    if (running != null) {
+      running.interrupt();
+      running.join(TimeUnit.SECONDS.toMillis(5));
+    }
+    flush();
+  }
+
+  private String issue(long userId) {
+    byte[] bytes = new byte[32];
+    RANDOM.nextBytes(bytes);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    Instant now = Instant.now();
+    StoredRefreshToken stored = new StoredRefreshToken(hash(token), userId, now,
+      now.plusMillis(refreshTokenDurationMs), false, null);
+    tokens.put(stored.tokenHash(), new Entry(stored, State.ACTIVE));
+    enqueue(stored);
     return token;
   }
 
-  @Transactional
-  public void revokeToken(String token) {
-    refreshTokenRepository.findByToken(token)
-      .ifPresent(rt -> {
-        rt.setRevoked(true);
-        refreshTokenRepository.save(rt);
-      });
+  private Optional<Entry> find(String token) {
+    if (token == null) {
+      return Optional.empty();
+    }
+
+    String tokenHash = hash(token);
+    Entry entry = tokens.getIfPresent(tokenHash);
+    if (entry != null) {
+      return Optional.of(entry);
+    }
+
+    return refreshTokenRepository.findByTokenHash(tokenHash)
+      .map(stored -> tokens.asMap().computeIfAbsent(tokenHash, key -> new Entry(stored,
+        stored.rotatedAt() != null ? State.ROTATED
+          : stored.revoked() ? State.REVOKED : State.ACTIVE)));
+  }
+
+  private void endSessions(long userId) {
+    Instant now = Instant.now();
+    invalidateAccessTokens(userId);
+    // Tokens not written yet are revoked here, the written ones in the table
+    for (Entry entry : tokens.asMap().values()) {
+      if (entry.stored.userId() == userId && !entry.stored.issuedAt().isAfter(now)) {
+        entry.state.compareAndSet(State.ACTIVE, State.REVOKED);
+      }
+    }
+    enqueue(new UserRevocation(userId, now));
+  }
+
+  private void invalidateAccessTokens(long userId) {
+    userRepository.incrementTokenVersion(userId)
+      .ifPresent(tokenVersion -> tokenRevocationService.revoke(userId, tokenVersion));
+  }
+
+  private void enqueue(Object write) {
+    writes.add(write);
+    if (queuedWrites.incrementAndGet() >= flushBatchSize) {
+      wakeUps.release();
+    }
+  }
+
+  private void writeInBatches(List<Object> pending) {
+    // Consecutive writes of the same kind go in one batch, keeping the order between kinds
+    int start = 0;
+    for (int i = 1; i <= pending.size(); i++) {
+      if (i == pending.size() || i - start == flushBatchSize
+        || pending.get(i).getClass() != pending.get(start).getClass()) {
+        write(pending.subList(start, i));
+        start = i;
+      }
+    }
+  }
+
+  private void write(List<Object> batch) {
+    switch (batch.getFirst()) {
+      case StoredRefreshToken ignored ->
+        refreshTokenRepository.insert(cast(batch, StoredRefreshToken.class));
+      case Rotation ignored -> refreshTokenRepository.markRotated(cast(batch, Rotation.class));
+      case TokenRevocation ignored ->
+        refreshTokenRepository.revoke(cast(batch, TokenRevocation.class));
+      case UserRevocation ignored ->
+        refreshTokenRepository.revokeUsers(cast(batch, UserRevocation.class));
+      default -> throw new IllegalStateException("Unknown write " + batch.getFirst());
+    }
   }
 
-  @Transactional
-  public void deleteByUserId(Long userId) {
-    User user = userRepository.findById(userId)
-      .orElseThrow(() -> new RuntimeException("User not found"));
-    refreshTokenRepository.deleteByUser(user);
+  private static <T> List<T> cast(List<Object> batch, Class<T> type) {
+    return batch.stream().map(type::cast).toList();
+  }
+
+  private void flushLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        wakeUps.tryAcquire(flushIntervalMs, TimeUnit.MILLISECONDS);
+        wakeUps.drainPermits();
+        flush();
+      } catch (InterruptedException e) {
+        return;
+      } catch (RuntimeException e) {
+        log.warn("Writing refresh tokens failed, retrying in {} ms", flushIntervalMs, e);
+      }
+    }
+  }
+
+  private static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private enum State {
+    ACTIVE,
+    // Exchanged for a new token on refresh
+    ROTATED,
+    REVOKED
+  }
+
+  private static final class Entry {
+
+    private final StoredRefreshToken stored;
+    private final AtomicReference<State> state;
+
+    private Entry(StoredRefreshToken stored, State state) {
+      this.stored = stored;
+      this.state = new AtomicReference<>(state);
+    }
   }
 }
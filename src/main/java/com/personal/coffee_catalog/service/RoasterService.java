@@ -0,0 +1,20 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.RoasterCoffeesResponse;
+import com.personal.coffee_catalog.response.RoasterResponse;
+import java.util.Collection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface RoasterService {
+
+  Page<RoasterResponse> getRoasters(Boolean verified, Pageable pageable);
+
+  RoasterResponse getRoaster(Long roasterId);
+
+  RoasterCoffeesResponse getRoasterCoffees(Long roasterId, Pageable pageable, CoffeeView view);
+
+  void attachRoasters(Collection<? extends CoffeeListItem> coffees);
+}
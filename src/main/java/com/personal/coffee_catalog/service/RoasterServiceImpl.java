@@ -0,0 +1,83 @@
+package com.personal.coffee_catalog.service;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.mapper.RoasterMapper;
+import com.personal.coffee_catalog.model.Roaster;
+import com.personal.coffee_catalog.repository.CoffeeProjection;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.repository.RoasterRepository;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.RoasterCoffeesResponse;
+import com.personal.coffee_catalog.response.RoasterResponse;
+import com.personal.coffee_catalog.response.RoasterSummaryResponse;
+import com.personal.coffee_catalog.utils.CommonHelper;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class RoasterServiceImpl implements RoasterService {
+
+  private final RoasterRepository roasterRepository;
+  private final RoasterMapper roasterMapper;
+  private final CoffeeRepository coffeeRepository;
+  private static final String MODEL = "Roaster";
+
+  /**
+   * Get roasters, all of them or only the verified (or unverified) ones
+   */
+  public Page<RoasterResponse> getRoasters(Boolean verified, Pageable pageable) {
+    Page<Roaster> roasters = verified == null
+      ? roasterRepository.findAll(pageable)
+      : roasterRepository.findByIsVerified(verified, pageable);
+    return roasters.map(roasterMapper::roasterToResponse);
+  }
+
+  /**
+   * Get roaster by ID
+   */
+  public RoasterResponse getRoaster(Long roasterId) {
+    return roasterMapper.roasterToResponse(
+      CommonHelper.findByIdOrThrow(MODEL, roasterRepository, roasterId));
+  }
+
+  /**
+   * Get a roaster and a page of its active coffees (projected, through idx_coffee_roaster)
+   */
+  public RoasterCoffeesResponse getRoasterCoffees(Long roasterId, Pageable pageable,
+    CoffeeView view) {
+    RoasterResponse roaster = getRoaster(roasterId);
+    Page<CoffeeListItem> coffees = coffeeRepository.findPage(
+      CoffeeSpecifications.isActive().and(CoffeeSpecifications.ofRoaster(roasterId)), pageable,
+      CoffeeProjection.of(view));
+    return new RoasterCoffeesResponse(roaster, coffees);
+  }
+
+  /**
+   * Set the roaster summary of each coffee, loading the roasters of all of them with one query
+   * rather than one per coffee
+   */
+  public void attachRoasters(Collection<? extends CoffeeListItem> coffees) {
+    Set<Long> roasterIds = coffees.stream()
+      .map(CoffeeListItem::getRoasterId)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toSet());
+    if (roasterIds.isEmpty()) {
+      return;
+    }
+
+    Map<Long, RoasterSummaryResponse> roasters =
+      roasterRepository.findSummariesByIdIn(roasterIds).stream()
+        .collect(Collectors.toMap(RoasterSummaryResponse::getId, Function.identity()));
+    coffees.forEach(coffee -> coffee.setRoaster(roasters.get(coffee.getRoasterId())));
+  }
+}
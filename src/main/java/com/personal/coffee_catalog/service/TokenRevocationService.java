@@ -0,0 +1,112 @@
+package com.personal.coffee_catalog.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded in-memory record of users whose access tokens were invalidated (e.g. on logout).
+ * <p>Lets the stateless authentication path reject revoked tokens without a database lookup.
+ * An entry only has to outlive the access token lifetime: tokens issued before the revocation
+ * are expired by then, and tokens issued after it carry the new token version.
+ * <p>When more users are revoked within one token lifetime than it can hold, the oldest entry is
+ * dropped and the record fails closed: until the tokens that entry covered have expired, tokens
+ * of users it has no entry for are {@link Status#UNKNOWN} and must be checked against the
+ * database.
+ * <p>Every authenticated request checks it, so it is guarded by a lock instead of
+ * {@code synchronized}: virtual threads contending for it park without pinning their carrier.
+ */
+@Service
+public class TokenRevocationService {
+
+  private final long jwtExpiration;
+  private final int maxEntries;
+  // Insertion order is expiry order: every entry expires one token lifetime after its revocation
+  private final Map<Long, Revocation> revokedUsers = new LinkedHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  // Tokens expiring up to this time may be covered by a dropped entry
+  private long droppedUntil;
+
+  public TokenRevocationService(
+    @Value("${jwt.expiration}") long jwtExpiration,
+    @Value("${jwt.revocation-cache-size:10000}") int maxEntries
+  ) {
+    this.jwtExpiration = jwtExpiration;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Reject every access token of the user with a version lower than the given one
+   *
+   * @param userId          User ID
+   * @param minTokenVersion Lowest token version still accepted
+   */
+  public void revoke(Long userId, int minTokenVersion) {
+    lock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      // Never lower the bar set by an earlier revocation
+      Revocation previous = revokedUsers.remove(userId);
+      int minVersion = previous == null || previous.expiresAt() < now
+        ? minTokenVersion
+        : Math.max(previous.minTokenVersion(), minTokenVersion);
+      revokedUsers.put(userId, new Revocation(minVersion, now + jwtExpiration));
+
+      removeExpired(now);
+      Iterator<Revocation> eldest = revokedUsers.values().iterator();
+      while (revokedUsers.size() > maxEntries) {
+        droppedUntil = Math.max(droppedUntil, eldest.next().expiresAt());
+        eldest.remove();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Check a token version of the user against the recorded revocations
+   *
+   * @param userId         User ID
+   * @param tokenVersion   Token version carried by the access token
+   * @param tokenExpiresAt Expiration time of the access token in epoch milliseconds
+   * @return whether the token is accepted, must be rejected, or must be checked elsewhere
+   */
+  public Status check(Long userId, int tokenVersion, long tokenExpiresAt) {
+    lock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      Revocation revocation = revokedUsers.get(userId);
+      if (revocation != null && revocation.expiresAt() < now) {
+        revokedUsers.remove(userId);
+        revocation = null;
+      }
+      if (revocation != null) {
+        return tokenVersion < revocation.minTokenVersion() ? Status.REVOKED : Status.ACCEPTED;
+      }
+      // Issued before a dropped revocation, so it may be one of the tokens it covered
+      return tokenExpiresAt <= droppedUntil ? Status.UNKNOWN : Status.ACCEPTED;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void removeExpired(long now) {
+    Iterator<Revocation> eldest = revokedUsers.values().iterator();
+    while (eldest.hasNext() && eldest.next().expiresAt() < now) {
+      eldest.remove();
+    }
+  }
+
+  public enum Status {
+    ACCEPTED,
+    REVOKED,
+    UNKNOWN
+  }
+
+  private record Revocation(int minTokenVersion, long expiresAt) {
+
+  }
+}
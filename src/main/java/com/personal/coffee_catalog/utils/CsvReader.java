@@ -0,0 +1,77 @@
+package com.personal.coffee_catalog.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: comma separated, fields optionally enclosed in double quotes, quotes
+ * escaped by doubling them, line breaks allowed inside quoted fields. Lines may end in CRLF or LF.
+ */
+public class CsvReader {
+
+  private final Reader reader;
+  private int lookahead = -2; // none read yet
+
+  public CsvReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * @return the fields of the next record, or null at the end of the input
+   * @throws IllegalArgumentException if a quoted field is not closed
+   */
+  public List<String> readRecord() throws IOException {
+    int c = next();
+    if (c == -1) {
+      return null;
+    }
+
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new IllegalArgumentException("Unterminated quoted CSV field");
+        }
+        if (c == '"') {
+          c = next();
+          if (c != '"') {
+            quoted = false;
+            continue; // closing quote, c is the character after it
+          }
+        }
+        field.append((char) c);
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == -1) {
+        break;
+      } else if (c == '\r') {
+        int after = next();
+        if (after != '\n') {
+          lookahead = after;
+        }
+        break;
+      } else {
+        field.append((char) c);
+      }
+      c = next();
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private int next() throws IOException {
+    if (lookahead != -2) {
+      int c = lookahead;
+      lookahead = -2;
+      return c;
+    }
+    return reader.read();
+  }
+}
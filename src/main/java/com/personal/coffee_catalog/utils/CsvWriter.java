@@ -0,0 +1,49 @@
+package com.personal.coffee_catalog.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * RFC 4180 writer, the counterpart of {@link CsvReader}: fields are quoted only when they contain
+ * a comma, quote or line break, and records end in CRLF. Null values are written as empty fields.
+ */
+public class CsvWriter {
+
+  private final Writer writer;
+
+  public CsvWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  public void writeRecord(List<?> values) throws IOException {
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeField(values.get(i));
+    }
+    writer.write("\r\n");
+  }
+
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  private void writeField(Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+
+    String text = value instanceof BigDecimal number ? number.toPlainString() : value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0
+      && text.indexOf('\r') < 0) {
+      writer.write(text);
+      return;
+    }
+    writer.write('"');
+    writer.write(text.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -0,0 +1,215 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.mapper.CoffeeMapperImpl;
+import com.personal.coffee_catalog.repository.CoffeeBulkLoader;
+import com.personal.coffee_catalog.repository.CoffeeOutboxRepository;
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.response.CoffeeImportResponse;
+import com.personal.coffee_catalog.service.CoffeeImporter;
+import com.personal.coffee_catalog.service.CoffeeOutbox;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Time to load 100k coffees: the bulk import (CSV parsing, validation, COPY and outbox events),
+ * COPY alone, JDBC batches of multi-row inserts, and one auto-committed insert per row (what
+ * creating the coffees one request at a time costs the database at the least).
+ * <p>Runs against the Postgres of the dev setup (override with BENCHMARK_DB_URL, BENCHMARK_DB_USER
+ * and BENCHMARK_DB_PASSWORD), into a separate {@code import_benchmark} schema with the indexes and
+ * search vector trigger of {@code coffees}. The tables are emptied before every iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoffeeImportBenchmark {
+
+  static final int ROWS = 100_000;
+  static final int BATCH_SIZE = 5000;
+  static final String SCHEMA = "import_benchmark";
+
+  static final String INSERT = """
+    INSERT INTO coffees (roaster_id, name, description, origin_country, origin_region,
+      roast_level, price, is_active)
+    VALUES (?, ?, ?, ?, ?, ?, ?, true)
+    """;
+
+  private Connection connection;
+  private CoffeeImporter importer;
+  private CoffeeBulkLoader loader;
+  private List<CoffeeRequest> coffees;
+  private byte[] csv;
+
+  @Setup
+  public void setup() throws SQLException {
+    connection = DriverManager.getConnection(
+      env("BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/coffee_catalog")
+        + "?reWriteBatchedInserts=true",
+      env("BENCHMARK_DB_USER", "coffee_admin"),
+      env("BENCHMARK_DB_PASSWORD", "dev_password_123"));
+    createSchema();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SET search_path = " + SCHEMA + ", public");
+    }
+
+    SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection, true);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    loader = new CoffeeBulkLoader(jdbcTemplate);
+    CoffeeOutbox outbox = new CoffeeOutbox(new CoffeeOutboxRepository(jdbcTemplate),
+      events -> {
+      }, transactionManager, jsonMapper, BATCH_SIZE, 1000, 1000, false);
+    importer = new CoffeeImporter(loader, outbox, transactionManager, new CoffeeMapperImpl(),
+      Validation.buildDefaultValidatorFactory().getValidator(), jsonMapper, BATCH_SIZE, 100);
+
+    coffees = new ArrayList<>(ROWS);
+    StringBuilder body = new StringBuilder(
+      "roasterId,name,description,originCountry,originRegion,roastLevel,price\n");
+    for (int n = 0; n < ROWS; n++) {
+      CoffeeRequest coffee = CoffeeRequest.builder()
+        .roasterId(1L)
+        .name("Import Lot " + n)
+        .description("Notes of cocoa, lot " + n)
+        .originCountry("Origin " + n % 30)
+        .originRegion("Region " + n % 11)
+        .roastLevel("Light")
+        .price(new BigDecimal(5 + n % 40 + ".25"))
+        .isActive(true)
+        .build();
+      coffees.add(coffee);
+      body.append(String.join(",", "1", coffee.getName(), '"' + coffee.getDescription() + '"',
+          coffee.getOriginCountry(), coffee.getOriginRegion(), coffee.getRoastLevel(),
+          coffee.getPrice().toPlainString()))
+        .append('\n');
+    }
+    csv = body.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Setup(Level.Iteration)
+  public void truncate() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("TRUNCATE " + SCHEMA + ".coffees, " + SCHEMA + ".coffee_outbox");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  @Benchmark
+  public long csvImport() {
+    CoffeeImportResponse report = importer.importCoffees(new ByteArrayInputStream(csv),
+      DataFormat.CSV, (imported, eventIds) -> {
+      });
+    if (report.getImportedRows() != ROWS) {
+      throw new IllegalStateException("Imported " + report.getImportedRows() + " rows");
+    }
+    return report.getImportedRows();
+  }
+
+  @Benchmark
+  public int copy() {
+    int inserted = 0;
+    for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+      inserted += loader.insert(coffees.subList(from, Math.min(from + BATCH_SIZE, ROWS)),
+        LocalDateTime.now())
+        .ids().length;
+    }
+    return inserted;
+  }
+
+  @Benchmark
+  public int batchedInsert() throws SQLException {
+    connection.setAutoCommit(false);
+    try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+      for (int n = 0; n < ROWS; n++) {
+        bind(statement, coffees.get(n));
+        statement.addBatch();
+        if ((n + 1) % BATCH_SIZE == 0) {
+          statement.executeBatch();
+          connection.commit();
+        }
+      }
+      statement.executeBatch();
+      connection.commit();
+    } finally {
+      connection.setAutoCommit(true);
+    }
+    return ROWS;
+  }
+
+  @Benchmark
+  public int rowByRow() throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+      for (CoffeeRequest coffee : coffees) {
+        bind(statement, coffee);
+        statement.executeUpdate();
+      }
+    }
+    return ROWS;
+  }
+
+  private static void bind(PreparedStatement statement, CoffeeRequest coffee)
+    throws SQLException {
+    statement.setLong(1, coffee.getRoasterId());
+    statement.setString(2, coffee.getName());
+    statement.setString(3, coffee.getDescription());
+    statement.setString(4, coffee.getOriginCountry());
+    statement.setString(5, coffee.getOriginRegion());
+    statement.setString(6, coffee.getRoastLevel());
+    statement.setBigDecimal(7, coffee.getPrice());
+  }
+
+  private void createSchema() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+      statement.execute("CREATE SCHEMA " + SCHEMA);
+      statement.execute("CREATE SEQUENCE " + SCHEMA + ".coffees_id_seq");
+      statement.execute("CREATE TABLE " + SCHEMA
+        + ".coffees (LIKE public.coffees INCLUDING ALL)");
+      statement.execute("ALTER TABLE " + SCHEMA + ".coffees ALTER COLUMN id SET DEFAULT nextval('"
+        + SCHEMA + ".coffees_id_seq')");
+      statement.execute("CREATE TABLE " + SCHEMA
+        + ".coffee_outbox (LIKE public.coffee_outbox INCLUDING ALL)");
+      statement.execute("CREATE TRIGGER trg_coffees_search_vector BEFORE INSERT ON " + SCHEMA
+        + ".coffees FOR EACH ROW EXECUTE FUNCTION public.refresh_coffee_search_vector()");
+    }
+  }
+
+  private static String env(String name, String defaultValue) {
+    return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+  }
+}
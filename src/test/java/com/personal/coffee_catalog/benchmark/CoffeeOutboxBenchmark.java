@@ -0,0 +1,170 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.repository.CoffeeOutboxRepository;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.service.CoffeeOutbox;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Time to move 100k coffee changes through the outbox, by events per transaction (batchSize):
+ * {@code append} writes them (what the writes pay on top of their own statements), {@code relay}
+ * drains a backlog of them into a sink that drops them. Events per second is 100k divided by the
+ * time.
+ * <p>Runs against the Postgres of the dev setup (override with BENCHMARK_DB_URL, BENCHMARK_DB_USER
+ * and BENCHMARK_DB_PASSWORD), in a separate {@code outbox_benchmark} schema with a copy of
+ * {@code coffee_outbox}. The table is emptied before every iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoffeeOutboxBenchmark {
+
+  static final int EVENTS = 100_000;
+  static final String SCHEMA = "outbox_benchmark";
+
+  @Param({"10", "100", "1000"})
+  public int batchSize;
+
+  private Connection connection;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transaction;
+  private CoffeeOutbox outbox;
+  private List<CoffeeResponse> coffees;
+  private String payload;
+
+  @Setup
+  public void setup() throws SQLException {
+    connection = DriverManager.getConnection(
+      env("BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/coffee_catalog"),
+      env("BENCHMARK_DB_USER", "coffee_admin"),
+      env("BENCHMARK_DB_PASSWORD", "dev_password_123"));
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+      statement.execute("CREATE SCHEMA " + SCHEMA);
+      statement.execute("CREATE TABLE " + SCHEMA
+        + ".coffee_outbox (LIKE public.coffee_outbox INCLUDING ALL)");
+      statement.execute("SET search_path = " + SCHEMA + ", public");
+    }
+
+    SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection, true);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transaction = new TransactionTemplate(transactionManager);
+    outbox = new CoffeeOutbox(new CoffeeOutboxRepository(jdbcTemplate), events -> {
+    }, transactionManager, jsonMapper, batchSize, 1000, 1000, false);
+
+    coffees = new ArrayList<>(batchSize);
+    for (long n = 0; n < batchSize; n++) {
+      coffees.add(CoffeeResponse.builder()
+        .id(n)
+        .name("Outbox Lot " + n)
+        .description("Notes of cocoa, red fruit and panela, lot " + n)
+        .originCountry("Colombia")
+        .originRegion("Huila")
+        .altitudeMeters(1750)
+        .varietal("Caturra")
+        .processingMethod("Washed")
+        .roastLevel("Light")
+        .roastDate(LocalDate.of(2026, 1, 15))
+        .price(new BigDecimal("18.50"))
+        .weightGrams(250)
+        .acidityLevel(7)
+        .sweetnessLevel(6)
+        .bitternessLevel(2)
+        .isActive(true)
+        .createdAt(LocalDateTime.of(2026, 1, 1, 9, 0))
+        .updatedAt(LocalDateTime.of(2026, 1, 20, 9, 0))
+        .build());
+    }
+    payload = jsonMapper.writeValueAsString(coffees.getFirst());
+  }
+
+  @Setup(Level.Iteration)
+  public void truncate() {
+    jdbcTemplate.execute("TRUNCATE " + SCHEMA + ".coffee_outbox");
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  /**
+   * 100k pending events, written in chunks before each relay iteration
+   */
+  @State(Scope.Benchmark)
+  public static class Backlog {
+
+    @Setup(Level.Iteration)
+    public void fill(CoffeeOutboxBenchmark benchmark) {
+      int chunk = 5000;
+      Long[] ids = new Long[chunk];
+      Arrays.setAll(ids, Long::valueOf);
+      String[] payloads = new String[chunk];
+      Arrays.fill(payloads, benchmark.payload);
+      CoffeeOutboxRepository repository = new CoffeeOutboxRepository(benchmark.jdbcTemplate);
+      for (int written = 0; written < EVENTS; written += chunk) {
+        repository.insert(ChangeType.UPDATED, ids, payloads);
+      }
+    }
+  }
+
+  @Benchmark
+  public int append() {
+    for (int written = 0; written < EVENTS; written += batchSize) {
+      transaction.executeWithoutResult(
+        status -> outbox.onCoffeesSaved(ChangeType.UPDATED, coffees));
+    }
+    return EVENTS;
+  }
+
+  @Benchmark
+  public int relay(Backlog backlog) {
+    int relayed = 0;
+    for (int batch; (batch = outbox.relayBatch()) > 0; ) {
+      relayed += batch;
+    }
+    if (relayed != EVENTS) {
+      throw new IllegalStateException("Relayed " + relayed + " events");
+    }
+    return relayed;
+  }
+
+  private static String env(String name, String defaultValue) {
+    return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+  }
+}
@@ -0,0 +1,108 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.mapper.CoffeeMapper;
+import com.personal.coffee_catalog.mapper.CoffeeMapperImpl;
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.GenericResponse;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * CPU cost of answering a page of coffees once the entities are loaded: {@code mapPage} maps them
+ * with {@link CoffeeMapper#coffeeToResponse}, {@code serializePage} writes the mapped page wrapped
+ * in a {@link GenericResponse} as JSON, {@code mapAndSerializePage} does both like a list request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoffeePageBenchmark {
+
+  @Param({"20", "100"})
+  public int pageSize;
+
+  private CoffeeMapper coffeeMapper;
+  private ObjectWriter writer;
+  private Page<Coffee> coffees;
+  private GenericResponse<Page<CoffeeResponse>> response;
+
+  @Setup
+  public void setup() {
+    coffeeMapper = new CoffeeMapperImpl();
+    writer = JsonMapper.builder().build().writer();
+
+    List<Coffee> content = new ArrayList<>(pageSize);
+    for (long id = 1; id <= pageSize; id++) {
+      content.add(coffee(id));
+    }
+    coffees = new PageImpl<>(content, PageRequest.of(0, pageSize), 10000);
+    response = GenericResponse.<Page<CoffeeResponse>>builder()
+      .data(mapPage())
+      .build();
+  }
+
+  @Benchmark
+  public Page<CoffeeResponse> mapPage() {
+    return coffees.map(coffeeMapper::coffeeToResponse);
+  }
+
+  @Benchmark
+  public byte[] serializePage() {
+    return writer.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] mapAndSerializePage() {
+    return writer.writeValueAsBytes(GenericResponse.<Page<CoffeeResponse>>builder()
+      .data(mapPage())
+      .build());
+  }
+
+  static Coffee coffee(long id) {
+    LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+    return Coffee.builder()
+      .id(id)
+      .name("Coffee " + id)
+      .description("Notes of dark chocolate, red fruit and brown sugar")
+      .originCountry("Ethiopia")
+      .originRegion("Yirgacheffe")
+      .altitudeMeters(1900)
+      .varietal("Heirloom")
+      .processingMethod("Washed")
+      .roastLevel("LIGHT")
+      .roastDate(LocalDate.of(2025, 1, 1))
+      .price(new BigDecimal("18.50"))
+      .weightGrams(250)
+      .acidityLevel(4)
+      .sweetnessLevel(3)
+      .bitternessLevel(2)
+      .imageUrl("https://example.com/coffee/" + id + ".jpg")
+      .isActive(true)
+      .createdAt(now)
+      .updatedAt(now)
+      .build();
+  }
+}
@@ -0,0 +1,171 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeSummaryResponse;
+import com.personal.coffee_catalog.response.SimilarCoffeeResponse;
+import com.personal.coffee_catalog.service.CoffeeSimilarityIndex;
+import com.personal.coffee_catalog.service.CoffeeSimilarityIndex.Feature;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Latency and recall of the similar coffees index on 100k generated coffees.
+ * <p>{@code exactScan} is the reference: the same weighted distance in double precision over the
+ * coffee objects, with one dimension per flavor category instead of hashed byte slots. Recall@10
+ * of the index against it (a neighbor counts when it is no farther than the true 10th one, so
+ * ties do not matter) is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoffeeSimilarityBenchmark {
+
+  static final int COFFEES = 100_000;
+  static final int K = 10;
+  static final int RECALL_QUERIES = 200;
+  static final String[] ROAST_LEVELS = {"Light", "Light-Medium", "Medium", "Medium-Dark", "Dark"};
+  static final String[] CATEGORIES = {"Fruity", "Citrus", "Chocolatey", "Sweet", "Nutty",
+    "Floral", "Spicy", "Earthy"};
+
+  private CoffeeSimilarityIndex index;
+  private List<CoffeeListItem> coffees;
+  private Map<Long, List<String>> categories;
+  private long[] queryIds;
+  private int next;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    coffees = new ArrayList<>(COFFEES);
+    categories = new HashMap<>();
+    for (long id = 1; id <= COFFEES; id++) {
+      coffees.add(CoffeeSummaryResponse.builder()
+        .id(id)
+        .name("Coffee " + id)
+        .originCountry("Origin " + random.nextInt(30))
+        .roastLevel(ROAST_LEVELS[random.nextInt(ROAST_LEVELS.length)])
+        .acidityLevel(1 + random.nextInt(10))
+        .sweetnessLevel(1 + random.nextInt(10))
+        .bitternessLevel(1 + random.nextInt(10))
+        .altitudeMeters(500 + random.nextInt(2000))
+        .build());
+      List<String> coffeeCategories = new ArrayList<>();
+      for (int i = random.nextInt(3); i >= 0; i--) {
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        if (!coffeeCategories.contains(category)) {
+          coffeeCategories.add(category);
+        }
+      }
+      categories.put(id, coffeeCategories);
+    }
+
+    index = new CoffeeSimilarityIndex(null, K);
+    ReflectionTestUtils.invokeMethod(index, "rebuild", coffees, categories);
+
+    queryIds = random.longs(RECALL_QUERIES, 1, COFFEES + 1).toArray();
+    double recall = 0;
+    for (long queryId : queryIds) {
+      recall += recall(queryId);
+    }
+    System.out.printf("%nRecall@%d over %d queries: %.4f%n", K, RECALL_QUERIES,
+      recall / RECALL_QUERIES);
+  }
+
+  @Benchmark
+  public List<SimilarCoffeeResponse> index() {
+    return index.similar(nextQueryId(), K).orElseThrow();
+  }
+
+  @Benchmark
+  public List<Long> exactScan() {
+    return exactNearest(nextQueryId());
+  }
+
+  private long nextQueryId() {
+    next = (next + 1) % queryIds.length;
+    return queryIds[next];
+  }
+
+  private double recall(long queryId) {
+    List<Long> exact = exactNearest(queryId);
+    CoffeeListItem query = coffees.get((int) (queryId - 1));
+    double kthDistance = distance(query, coffees.get((int) (exact.getLast() - 1)));
+    long hits = index.similar(queryId, K).orElseThrow().stream()
+      .filter(similar -> distance(query, coffees.get((int) (similar.getId() - 1)))
+        <= kthDistance + 1e-9)
+      .count();
+    return (double) hits / K;
+  }
+
+  private List<Long> exactNearest(long queryId) {
+    CoffeeListItem query = coffees.get((int) (queryId - 1));
+    PriorityQueue<Map.Entry<Double, Long>> top = new PriorityQueue<>(
+      Map.Entry.<Double, Long>comparingByKey().reversed());
+    for (CoffeeListItem coffee : coffees) {
+      if (coffee.getId() != queryId) {
+        top.add(Map.entry(distance(query, coffee), coffee.getId()));
+        if (top.size() > K) {
+          top.poll();
+        }
+      }
+    }
+    List<Long> nearest = new ArrayList<>();
+    while (!top.isEmpty()) {
+      nearest.addFirst(top.poll().getValue());
+    }
+    return nearest;
+  }
+
+  private double distance(CoffeeListItem a, CoffeeListItem b) {
+    double distance = squared(Feature.ACIDITY, level(a.getAcidityLevel()),
+      level(b.getAcidityLevel()))
+      + squared(Feature.SWEETNESS, level(a.getSweetnessLevel()), level(b.getSweetnessLevel()))
+      + squared(Feature.BITTERNESS, level(a.getBitternessLevel()), level(b.getBitternessLevel()))
+      + squared(Feature.ROAST, roast(a.getRoastLevel()), roast(b.getRoastLevel()))
+      + squared(Feature.ALTITUDE, a.getAltitudeMeters() / 3000.0, b.getAltitudeMeters() / 3000.0);
+    List<String> aCategories = categories.get(a.getId());
+    List<String> bCategories = categories.get(b.getId());
+    for (String category : CATEGORIES) {
+      if (aCategories.contains(category) != bCategories.contains(category)) {
+        distance += CoffeeSimilarityIndex.CATEGORY_WEIGHT;
+      }
+    }
+    return distance;
+  }
+
+  private static double squared(Feature feature, double a, double b) {
+    return feature.getWeight() * (a - b) * (a - b);
+  }
+
+  private static double level(int level) {
+    return (level - 1) / 9.0;
+  }
+
+  private static double roast(String roastLevel) {
+    for (int i = 0; i < ROAST_LEVELS.length; i++) {
+      if (ROAST_LEVELS[i].equals(roastLevel)) {
+        return i / 4.0;
+      }
+    }
+    throw new IllegalArgumentException(roastLevel);
+  }
+}
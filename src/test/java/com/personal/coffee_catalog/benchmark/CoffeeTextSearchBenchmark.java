@@ -0,0 +1,178 @@
+package com.personal.coffee_catalog.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of the ranked text search against the LIKE query it replaces, on 1M coffees.
+ * <p>Runs against the Postgres of the dev setup (override with BENCHMARK_DB_URL, BENCHMARK_DB_USER
+ * and BENCHMARK_DB_PASSWORD). The rows are generated once into a separate
+ * {@code text_search_benchmark} schema, with the indexes of {@code coffees}, and reused by later
+ * runs; drop the schema to regenerate them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoffeeTextSearchBenchmark {
+
+  static final int ROWS = 1_000_000;
+  static final String SCHEMA = "text_search_benchmark";
+
+  // What CoffeeRepository.findByNameContainingIgnoreCase runs
+  static final String LIKE_QUERY =
+    "SELECT * FROM coffees WHERE upper(name) LIKE upper(?) ESCAPE '\\'";
+
+  // CoffeeRepository.searchByText and searchByNameSimilarity, first slice of 10 (one row more
+  // tells whether there is a next one)
+  static final String TEXT_SEARCH_QUERY = """
+    SELECT c.*
+    FROM coffees c
+    WHERE c.is_active AND c.search_vector @@ websearch_to_tsquery('english', ?)
+    ORDER BY ts_rank_cd(c.search_vector, websearch_to_tsquery('english', ?)) DESC, c.id
+    LIMIT 11
+    """;
+  static final String SIMILARITY_QUERY = """
+    SELECT c.*
+    FROM coffees c
+    WHERE c.is_active AND ? <% c.name
+    ORDER BY word_similarity(?, c.name) DESC, c.id
+    LIMIT 11
+    """;
+
+  /**
+   * A region in 1 of 20 names, a flavor note in 1 of 12 descriptions (not in any name), a single
+   * lot, and a misspelled region that only the similarity fallback finds
+   */
+  @Param({"yirgacheffe", "blueberry", "lot 4242", "yirgachefe"})
+  public String term;
+
+  private Connection connection;
+  private PreparedStatement like;
+  private PreparedStatement textSearch;
+  private PreparedStatement similarity;
+
+  @Setup
+  public void setup() throws SQLException {
+    connection = DriverManager.getConnection(
+      env("BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/coffee_catalog"),
+      env("BENCHMARK_DB_USER", "coffee_admin"),
+      env("BENCHMARK_DB_PASSWORD", "dev_password_123"));
+    seed();
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SET search_path = " + SCHEMA + ", public");
+    }
+    like = connection.prepareStatement(LIKE_QUERY);
+    textSearch = connection.prepareStatement(TEXT_SEARCH_QUERY);
+    similarity = connection.prepareStatement(SIMILARITY_QUERY);
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  @Benchmark
+  public int likeName() throws SQLException {
+    like.setString(1, "%" + term + "%");
+    return drain(like);
+  }
+
+  /**
+   * What CoffeeService.searchCoffeesByText runs: a slice, falling back to similarity
+   */
+  @Benchmark
+  public int textSearchPage() throws SQLException {
+    int rows = slice(textSearch);
+    return rows > 0 ? rows : slice(similarity);
+  }
+
+  private int slice(PreparedStatement query) throws SQLException {
+    query.setString(1, term);
+    query.setString(2, term);
+    return drain(query);
+  }
+
+  private static int drain(PreparedStatement statement) throws SQLException {
+    int rows = 0;
+    try (ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  private void seed() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+      statement.execute("CREATE TABLE IF NOT EXISTS " + SCHEMA
+        + ".coffees (LIKE public.coffees INCLUDING ALL)");
+
+      try (ResultSet count = statement.executeQuery(
+        "SELECT count(*) FROM " + SCHEMA + ".coffees")) {
+        count.next();
+        if (count.getLong(1) == ROWS) {
+          return;
+        }
+      }
+
+      statement.execute("TRUNCATE " + SCHEMA + ".coffees");
+      statement.execute(String.format("""
+        INSERT INTO %s.coffees (roaster_id, name, description, origin_country, origin_region,
+          varietal, roast_level, price, is_active, search_vector)
+        SELECT 1, name, description, origin, region, varietal, 'Medium', 10 + n %% 20,
+          n %% 10 <> 0,
+          coffee_search_document(name, description, region, varietal, NULL)
+        FROM (
+          SELECT n,
+            origin || ' ' || region || ' Lot ' || n AS name,
+            'Notes of ' || note || ' with a ' || body || ' body.' AS description,
+            origin, region, varietal
+          FROM (
+            SELECT n,
+              (ARRAY['Ethiopia', 'Colombia', 'Kenya', 'Brazil', 'Guatemala', 'Sumatra',
+                'Costa Rica', 'Panama', 'Rwanda', 'Honduras'])[n %% 10 + 1] AS origin,
+              (ARRAY['Yirgacheffe', 'Huila', 'Nyeri', 'Cerrado', 'Antigua', 'Aceh', 'Tarrazu',
+                'Boquete', 'Nyamasheke', 'Marcala', 'Sidamo', 'Narino', 'Kirinyaga', 'Mogiana',
+                'Huehuetenango', 'Gayo', 'Dota', 'Volcan', 'Gakenke', 'Copan'])
+                [n / 10 %% 20 + 1] AS region,
+              (ARRAY['Blueberry', 'Chocolate', 'Caramel', 'Jasmine', 'Citrus', 'Hazelnut',
+                'Cherry', 'Honey', 'Bergamot', 'Plum', 'Toffee', 'Cedar'])
+                [n %% 12 + 1] AS note,
+              (ARRAY['light', 'silky', 'round', 'syrupy', 'heavy'])[n %% 5 + 1] AS body,
+              (ARRAY['Heirloom', 'Caturra', 'SL28', 'Bourbon', 'Geisha', 'Typica'])
+                [n %% 6 + 1] AS varietal
+            FROM generate_series(1, %d) AS n
+          ) AS words
+        ) AS generated
+        """, SCHEMA, ROWS));
+      statement.execute("ANALYZE " + SCHEMA + ".coffees");
+    }
+  }
+
+  private static String env(String name, String defaultValue) {
+    return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+  }
+}
@@ -0,0 +1,82 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.utils.CommonHelper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The field checks of a coffee update through {@link CommonHelper#validateAndSet}, as
+ * {@code CoffeeServiceImpl.updateCoffee} runs them: a full patch, a patch of one field, and a
+ * patch rejected for a blank name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommonHelperBenchmark {
+
+  private Coffee coffee;
+  private CoffeeRequest fullPatch;
+  private CoffeeRequest namePatch;
+  private CoffeeRequest blankPatch;
+
+  @Setup
+  public void setup() {
+    coffee = CoffeePageBenchmark.coffee(1);
+    fullPatch = CoffeeRequest.builder()
+      .name("Yirgacheffe Kochere")
+      .originCountry("Ethiopia")
+      .roastLevel("MEDIUM")
+      .originRegion("Gedeo")
+      .build();
+    namePatch = CoffeeRequest.builder()
+      .name("Yirgacheffe Kochere")
+      .build();
+    blankPatch = CoffeeRequest.builder()
+      .name(" ")
+      .build();
+  }
+
+  @Benchmark
+  public Coffee fullPatch() {
+    return apply(fullPatch);
+  }
+
+  @Benchmark
+  public Coffee namePatch() {
+    return apply(namePatch);
+  }
+
+  @Benchmark
+  public Object blankPatch() {
+    try {
+      return apply(blankPatch);
+    } catch (IllegalArgumentException e) {
+      return e;
+    }
+  }
+
+  private Coffee apply(CoffeeRequest coffeeRequest) {
+    CommonHelper.validateAndSet(coffeeRequest.getName(), coffee::setName, "Name", true);
+    CommonHelper.validateAndSet(coffeeRequest.getOriginCountry(), coffee::setOriginCountry,
+      "Origin Country", true);
+    CommonHelper.validateAndSet(coffeeRequest.getRoastLevel(), coffee::setRoastLevel,
+      "Roast Level", true);
+    CommonHelper.validateAndSet(coffeeRequest.getOriginRegion(), coffee::setOriginRegion,
+      "Origin Region", false);
+    return coffee;
+  }
+}
@@ -0,0 +1,82 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.config.JwtAuthenticationFilter;
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.TokenRevocationService;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * One request through {@link JwtAuthenticationFilter} with a bearer token, up to the security
+ * context being set. The user lookup is an {@link InMemoryUserDetailsManager}, so the score is the
+ * filter's own cost: stateless builds the principal from the claims, stateful loads the user.
+ * {@code verifiedTokenCacheSize} 0 verifies the signature on every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+  @Param({"true", "false"})
+  public boolean statelessAuthentication;
+
+  @Param({"0", "10000"})
+  public int verifiedTokenCacheSize;
+
+  private final FilterChain filterChain = (request, response) -> { };
+
+  private JwtAuthenticationFilter filter;
+  private String authorization;
+
+  @Setup
+  public void setup() {
+    JwtService jwtService = JwtServiceBenchmark.jwtService(verifiedTokenCacheSize);
+    User user = User.builder()
+      .id(1L)
+      .email("admin@coffee.com")
+      .password("not a hash")
+      .role(Constants.Role.ADMIN)
+      .tokenVersion(0)
+      .build();
+    filter = new JwtAuthenticationFilter(jwtService, new InMemoryUserDetailsManager(user),
+      new TokenRevocationService(JwtServiceBenchmark.EXPIRATION, 10000), statelessAuthentication);
+    authorization = "Bearer " + jwtService.generateAccessToken(user);
+  }
+
+  @Benchmark
+  public Authentication authenticate() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/coffee");
+    request.addHeader("Authorization", authorization);
+    try {
+      filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication == null) {
+        throw new IllegalStateException("Token rejected");
+      }
+      return authentication;
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+}
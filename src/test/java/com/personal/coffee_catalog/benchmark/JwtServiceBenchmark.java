@@ -0,0 +1,108 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.ParsedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * CPU cost of issuing a token and of authenticating one request with it.
+ * <p>{@code legacyPerRequest} replays the work the filter used to do (three key derivations and
+ * three signature verifications), the parse and validate benchmarks go through
+ * {@link JwtService#parseToken}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+  static final String SECRET = "myVerySecureSecretKeyThatIsAtLeast32CharsLongForHS256Algorithm";
+  static final long EXPIRATION = 900000;
+
+  private JwtService cachedJwtService;
+  private JwtService uncachedJwtService;
+  private User user;
+  private String token;
+
+  @Setup
+  public void setup() {
+    cachedJwtService = jwtService(10000);
+    uncachedJwtService = jwtService(0);
+    user = User.builder()
+      .id(1L)
+      .email("admin@coffee.com")
+      .role(Constants.Role.ADMIN)
+      .tokenVersion(0)
+      .build();
+    token = cachedJwtService.generateAccessToken(user);
+  }
+
+  static JwtService jwtService(int verifiedTokenCacheSize) {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", EXPIRATION);
+    ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", verifiedTokenCacheSize);
+    ReflectionTestUtils.invokeMethod(jwtService, "init");
+    return jwtService;
+  }
+
+  @Benchmark
+  public String generateAccessToken() {
+    return uncachedJwtService.generateAccessToken(user);
+  }
+
+  @Benchmark
+  public boolean legacyPerRequest() {
+    // extractUsername, then isTokenValid -> extractUsername + isTokenExpired
+    String username = legacyClaims(token).getSubject();
+    boolean sameUser = legacyClaims(token).getSubject().equals(username);
+    return sameUser && legacyClaims(token).getExpiration().getTime() > System.currentTimeMillis();
+  }
+
+  @Benchmark
+  public ParsedToken parseOnceUncached() {
+    return uncachedJwtService.parseToken(token);
+  }
+
+  @Benchmark
+  public ParsedToken parseOnceCached() {
+    return cachedJwtService.parseToken(token);
+  }
+
+  @Benchmark
+  public boolean validateUncached() {
+    return uncachedJwtService.isTokenValid(token, user);
+  }
+
+  @Benchmark
+  public boolean validateCached() {
+    return cachedJwtService.isTokenValid(token, user);
+  }
+
+  private static Claims legacyClaims(String token) {
+    return Jwts.parser()
+      .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+      .build()
+      .parseSignedClaims(token)
+      .getPayload();
+  }
+}
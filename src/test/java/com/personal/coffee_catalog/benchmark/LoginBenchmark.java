@@ -0,0 +1,71 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.service.JwtService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Logins per second one core can serve, by BCrypt strength: {@code login} is the CPU work of a
+ * login (password check and access token), {@code passwordCheck} the password check alone. The
+ * database round trips are left out; they wait rather than compute.
+ * <p>Runs on one thread, so the score is per core; size {@code catalog.password-hashing.threads}
+ * and the expected login rate from it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+  static final String PASSWORD = "password123";
+
+  @Param({"8", "10", "12"})
+  public int strength;
+
+  private BCryptPasswordEncoder passwordEncoder;
+  private JwtService jwtService;
+  private User user;
+
+  @Setup
+  public void setup() {
+    passwordEncoder = new BCryptPasswordEncoder(strength);
+    jwtService = JwtServiceBenchmark.jwtService(0);
+    user = User.builder()
+      .id(1L)
+      .email("admin@coffee.com")
+      .password(passwordEncoder.encode(PASSWORD))
+      .role(Constants.Role.ADMIN)
+      .tokenVersion(0)
+      .build();
+  }
+
+  @Benchmark
+  public boolean passwordCheck() {
+    return passwordEncoder.matches(PASSWORD, user.getPassword());
+  }
+
+  @Benchmark
+  public String login() {
+    if (!passwordEncoder.matches(PASSWORD, user.getPassword())) {
+      throw new IllegalStateException("Password rejected");
+    }
+    return jwtService.generateAccessToken(user);
+  }
+}
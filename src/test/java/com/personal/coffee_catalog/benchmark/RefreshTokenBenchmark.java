@@ -0,0 +1,159 @@
+package com.personal.coffee_catalog.benchmark;
+
+import com.personal.coffee_catalog.constants.Constants.Role;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.repository.RefreshTokenRepository;
+import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.RefreshTokenService;
+import com.personal.coffee_catalog.service.TokenRevocationService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Refreshes per second, including the new access token.
+ * <p>{@code legacyLookup} replays the reads the refresh used to do (the token row, then its user)
+ * without rotating; {@code rotateInTransaction} adds the rotation written on the request (revoke
+ * the token, insert the next one); {@code rotate} exchanges the token through the token store,
+ * whose background writer saves the changes meanwhile.
+ * <p>Runs against the Postgres of the dev setup (override with BENCHMARK_DB_URL, BENCHMARK_DB_USER
+ * and BENCHMARK_DB_PASSWORD), in a separate {@code refresh_token_benchmark} schema with copies of
+ * {@code users} and {@code refresh_tokens}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefreshTokenBenchmark {
+
+  static final String SCHEMA = "refresh_token_benchmark";
+
+  private HikariDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transaction;
+  private JwtService jwtService;
+  private RefreshTokenService refreshTokenService;
+  private String legacyToken;
+  private String transactionToken;
+  private String token;
+
+  @Setup
+  public void setup() {
+    String url = env("BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/coffee_catalog");
+    try (HikariDataSource admin = dataSource(url)) {
+      JdbcTemplate schema = new JdbcTemplate(admin);
+      schema.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+      schema.execute("CREATE SCHEMA " + SCHEMA);
+      schema.execute("CREATE TABLE " + SCHEMA + ".users (LIKE public.users INCLUDING ALL)");
+      schema.execute("CREATE TABLE " + SCHEMA
+        + ".refresh_tokens (LIKE public.refresh_tokens INCLUDING ALL)");
+    }
+
+    // Copies without foreign keys, in a schema of their own
+    dataSource = dataSource(url + "?currentSchema=" + SCHEMA);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    jwtService = JwtServiceBenchmark.jwtService(0);
+
+    long userId = jdbcTemplate.queryForObject(
+      "INSERT INTO users (email, password, role) VALUES (?, ?, ?) RETURNING id", Long.class,
+      "admin@coffee.com", "not a hash", Role.ADMIN.name());
+    legacyToken = UUID.randomUUID().toString();
+    jdbcTemplate.update("""
+      INSERT INTO refresh_tokens (token, user_id, expiry_date)
+      VALUES (?, ?, now() + interval '7 days')
+      """, legacyToken, userId);
+    transactionToken = legacyToken;
+
+    refreshTokenService = new RefreshTokenService(new RefreshTokenRepository(jdbcTemplate), null,
+      new TokenRevocationService(JwtServiceBenchmark.EXPIRATION, 10000),
+      new DataSourceTransactionManager(dataSource), 604800000L, 500, 1000, 5000, 600000);
+    ReflectionTestUtils.invokeMethod(refreshTokenService, "start");
+    token = refreshTokenService.createRefreshToken(User.builder()
+      .id(userId)
+      .email("admin@coffee.com")
+      .role(Role.ADMIN)
+      .build());
+  }
+
+  @TearDown
+  public void tearDown() {
+    ReflectionTestUtils.invokeMethod(refreshTokenService, "stop");
+    dataSource.close();
+  }
+
+  @Benchmark
+  public String legacyLookup() {
+    Map<String, Object> refreshToken = jdbcTemplate.queryForMap(
+      "SELECT * FROM refresh_tokens WHERE token = ?", legacyToken);
+    Map<String, Object> user = jdbcTemplate.queryForMap(
+      "SELECT * FROM users WHERE id = ?", refreshToken.get("user_id"));
+    return jwtService.generateAccessToken(toUser(user));
+  }
+
+  @Benchmark
+  public String rotateInTransaction() {
+    return transaction.execute(status -> {
+      Map<String, Object> refreshToken = jdbcTemplate.queryForMap(
+        "SELECT * FROM refresh_tokens WHERE token = ? FOR UPDATE", transactionToken);
+      Map<String, Object> user = jdbcTemplate.queryForMap(
+        "SELECT * FROM users WHERE id = ?", refreshToken.get("user_id"));
+      jdbcTemplate.update(
+        "UPDATE refresh_tokens SET revoked = true, rotated_at = now() WHERE id = ?",
+        refreshToken.get("id"));
+      transactionToken = UUID.randomUUID().toString();
+      jdbcTemplate.update("""
+        INSERT INTO refresh_tokens (token, user_id, expiry_date)
+        VALUES (?, ?, now() + interval '7 days')
+        """, transactionToken, user.get("id"));
+      return jwtService.generateAccessToken(toUser(user));
+    });
+  }
+
+  @Benchmark
+  public String rotate() {
+    RefreshTokenService.Refresh refresh = refreshTokenService.rotate(token);
+    token = refresh.token();
+    return jwtService.generateAccessToken(refresh.user());
+  }
+
+  private static User toUser(Map<String, Object> user) {
+    return User.builder()
+      .id((Long) user.get("id"))
+      .email((String) user.get("email"))
+      .role(Role.valueOf((String) user.get("role")))
+      .tokenVersion((Integer) user.get("token_version"))
+      .build();
+  }
+
+  private static HikariDataSource dataSource(String url) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl(url);
+    dataSource.setUsername(env("BENCHMARK_DB_USER", "coffee_admin"));
+    dataSource.setPassword(env("BENCHMARK_DB_PASSWORD", "dev_password_123"));
+    return dataSource;
+  }
+
+  private static String env(String name, String defaultValue) {
+    return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+  }
+}
@@ -0,0 +1,127 @@
+package com.personal.coffee_catalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.TokenRevocationService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Runs the authentication filter on virtual threads and checks with JFR
+ * ({@code jdk.VirtualThreadPinned}) that none of them blocks while pinned to its carrier, e.g.
+ * inside a {@code synchronized} section. The user lookup of tokens without identity claims sleeps
+ * like a database call.
+ */
+class AuthPathPinningTest {
+
+  private static final int REQUESTS = 2000;
+  private static final int USERS = 50;
+
+  @Test
+  void shouldReportBlockingInsideSynchronized() throws Exception {
+    // Guards the check below against passing because JFR recorded nothing
+    Object monitor = new Object();
+
+    List<RecordedEvent> pinned = recordPinnedEvents(() -> {
+      synchronized (monitor) {
+        sleep(Duration.ofMillis(20));
+      }
+    });
+
+    assertThat(pinned).isNotEmpty();
+  }
+
+  @Test
+  void shouldAuthenticateWithoutPinning() throws Exception {
+    // Given
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey",
+      "myVerySecureSecretKeyThatIsAtLeast32CharsLongForHS256Algorithm");
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 900000L);
+    ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", 100);
+    ReflectionTestUtils.invokeMethod(jwtService, "init");
+    TokenRevocationService revocations = new TokenRevocationService(900000L, 100);
+    UserDetailsService userDetailsService = email -> {
+      sleep(Duration.ofMillis(2));
+      return user(0L, email);
+    };
+    JwtAuthenticationFilter filter =
+      new JwtAuthenticationFilter(jwtService, userDetailsService, revocations, true);
+
+    // When - claim tokens, tokens that need the user lookup, and logouts, all at once
+    List<RecordedEvent> pinned = recordPinnedEvents(() -> {
+      try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int n = 0; n < REQUESTS; n++) {
+          long userId = n % USERS;
+          User user = user(userId, "user" + userId + "@coffee.com");
+          String token = n % 4 == 0
+            ? jwtService.generateToken(user)
+            : jwtService.generateAccessToken(user);
+          executor.submit(() -> {
+            if (userId == 0) {
+              revocations.revoke(userId, 1);
+            }
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/coffee");
+            request.addHeader("Authorization", "Bearer " + token);
+            try {
+              filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            } finally {
+              SecurityContextHolder.clearContext();
+            }
+            return null;
+          });
+        }
+      }
+    });
+
+    // Then
+    assertThat(pinned)
+      .extracting(event -> event.getStackTrace() == null ? "" : event.getStackTrace().toString())
+      .isEmpty();
+  }
+
+  private static List<RecordedEvent> recordPinnedEvents(Runnable work) throws Exception {
+    List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+    try (RecordingStream recording = new RecordingStream()) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+      recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+      recording.startAsync();
+      Thread.ofVirtual().start(work).join();
+      // Returns once every recorded event has been consumed
+      recording.stop();
+    }
+    return pinned;
+  }
+
+  private static User user(Long id, String email) {
+    return User.builder()
+      .id(id)
+      .email(email)
+      .role(Constants.Role.USER)
+      .tokenVersion(0)
+      .build();
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.personal.coffee_catalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.exception.TooManyRequestsException;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+  @Test
+  void shouldHashOnTheHashingThreads() {
+    // Given
+    try (BoundedPasswordEncoder encoder =
+      new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 10)) {
+
+      // When
+      String hash = encoder.encode("password123");
+
+      // Then
+      assertThat(encoder.matches("password123", hash)).isTrue();
+      assertThat(encoder.matches("password124", hash)).isFalse();
+    }
+  }
+
+  @Test
+  void shouldRejectWhenTheQueueIsFull() throws Exception {
+    // Given - one hash running and one waiting for the only thread
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        return rawPassword.toString();
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        running.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return true;
+      }
+    };
+
+    try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1)) {
+      Thread first = Thread.ofVirtual().start(() -> encoder.matches("a", "hash"));
+      running.await();
+      Thread second = Thread.ofVirtual().start(() -> encoder.matches("b", "hash"));
+      awaitWaiting(second);
+
+      // When / Then
+      assertThatThrownBy(() -> encoder.matches("c", "hash"))
+        .isInstanceOf(TooManyRequestsException.class);
+
+      release.countDown();
+      first.join();
+      second.join();
+      assertThat(encoder.matches("d", "hash")).isTrue();
+    }
+  }
+
+  private static void awaitWaiting(Thread thread) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
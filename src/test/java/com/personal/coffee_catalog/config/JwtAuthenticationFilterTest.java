@@ -0,0 +1,150 @@
+package com.personal.coffee_catalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.service.JwtService;
+import com.personal.coffee_catalog.service.TokenRevocationService;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Stateless mode, with a user lookup that records every call
+ */
+class JwtAuthenticationFilterTest {
+
+  private static final long EXPIRATION = 900000L;
+
+  private final JwtService jwtService = jwtService();
+  private final Map<String, User> storedUsers = new HashMap<>();
+  private final Map<String, Integer> lookups = new HashMap<>();
+  private final UserDetailsService userDetailsService = email -> {
+    lookups.merge(email, 1, Integer::sum);
+    return storedUsers.get(email);
+  };
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void shouldAuthenticateFromClaimsWithoutLookup() throws Exception {
+    // Given
+    User user = store(user(1L, "claims@coffee.com", Constants.Role.ADMIN, 2));
+    TokenRevocationService revocations = new TokenRevocationService(EXPIRATION, 10);
+
+    // When
+    Authentication authentication = authenticate(jwtService.generateAccessToken(user),
+      revocations);
+
+    // Then - the principal is rebuilt from the uid, role and ver claims
+    assertThat(authentication).isNotNull();
+    User principal = (User) authentication.getPrincipal();
+    assertThat(principal.getId()).isEqualTo(1L);
+    assertThat(principal.getEmail()).isEqualTo("claims@coffee.com");
+    assertThat(principal.getTokenVersion()).isEqualTo(2);
+    assertThat(authentication.getAuthorities()).extracting(Object::toString)
+      .containsExactly("ROLE_ADMIN");
+    assertThat(lookups).isEmpty();
+  }
+
+  @Test
+  void shouldRejectRevokedTokenVersion() throws Exception {
+    // Given
+    User user = store(user(1L, "revoked@coffee.com", Constants.Role.USER, 0));
+    String token = jwtService.generateAccessToken(user);
+    TokenRevocationService revocations = new TokenRevocationService(EXPIRATION, 10);
+
+    // When - logout bumps the version
+    revocations.revoke(1L, 1);
+
+    // Then - the old token is rejected, one with the new version is accepted
+    assertThat(authenticate(token, revocations)).isNull();
+    user.setTokenVersion(1);
+    assertThat(authenticate(jwtService.generateAccessToken(user), revocations)).isNotNull();
+    assertThat(lookups).isEmpty();
+  }
+
+  @Test
+  void shouldLookUpTokensWithoutIdentityClaims() throws Exception {
+    // Given
+    User user = store(user(1L, "legacy@coffee.com", Constants.Role.USER, 0));
+    TokenRevocationService revocations = new TokenRevocationService(EXPIRATION, 10);
+
+    // When
+    Authentication authentication = authenticate(jwtService.generateToken(user), revocations);
+
+    // Then
+    assertThat(authentication).isNotNull();
+    assertThat(authentication.getPrincipal()).isSameAs(user);
+    assertThat(lookups).containsEntry("legacy@coffee.com", 1);
+  }
+
+  @Test
+  void shouldLookUpTokensOfDroppedRevocations() throws Exception {
+    // Given - room for one revocation, and tokens issued before two users log out
+    TokenRevocationService revocations = new TokenRevocationService(EXPIRATION, 1);
+    User first = store(user(1L, "first@coffee.com", Constants.Role.USER, 0));
+    User second = store(user(2L, "second@coffee.com", Constants.Role.USER, 0));
+    User bystander = store(user(3L, "bystander@coffee.com", Constants.Role.USER, 0));
+    String firstToken = jwtService.generateAccessToken(first);
+    String bystanderToken = jwtService.generateAccessToken(bystander);
+
+    // When - the second revocation drops the first
+    first.setTokenVersion(1);
+    revocations.revoke(1L, 1);
+    second.setTokenVersion(1);
+    revocations.revoke(2L, 1);
+
+    // Then - tokens the record can no longer vouch for are checked against the stored version
+    assertThat(authenticate(firstToken, revocations)).isNull();
+    assertThat(authenticate(bystanderToken, revocations)).isNotNull();
+    assertThat(lookups).containsOnlyKeys("first@coffee.com", "bystander@coffee.com");
+  }
+
+  private Authentication authenticate(String token, TokenRevocationService revocations)
+    throws Exception {
+    SecurityContextHolder.clearContext();
+    JwtAuthenticationFilter filter =
+      new JwtAuthenticationFilter(jwtService, userDetailsService, revocations, true);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/coffee");
+    request.addHeader("Authorization", "Bearer " + token);
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+
+  private User store(User user) {
+    storedUsers.put(user.getEmail(), user);
+    return user;
+  }
+
+  private static User user(Long id, String email, Constants.Role role, int tokenVersion) {
+    return User.builder()
+      .id(id)
+      .email(email)
+      .role(role)
+      .tokenVersion(tokenVersion)
+      .build();
+  }
+
+  private static JwtService jwtService() {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey",
+      "myVerySecureSecretKeyThatIsAtLeast32CharsLongForHS256Algorithm");
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", EXPIRATION);
+    ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", 100);
+    ReflectionTestUtils.invokeMethod(jwtService, "init");
+    return jwtService;
+  }
+}
@@ -0,0 +1,112 @@
+package com.personal.coffee_catalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+@SpringBootTest
+class RequestSqlMetricsFilterTest {
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  void shouldCountTheStatementsOfEachRequest() throws Exception {
+    // Given - a handler running one query per coffee, as an N+1 would, over a threshold of 4
+    String uri = "/test/" + System.nanoTime();
+    RequestSqlMetricsFilter filter = new RequestSqlMetricsFilter(meterRegistry, 4);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest request, HttpServletResponse response) {
+        for (int i = 0; i < 5; i++) {
+          jdbcTemplate.queryForObject("SELECT ?", Integer.class, i);
+        }
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+      }
+    });
+    long statementsBefore = meterRegistry.get("jdbc.statements").timer().count();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+    jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+    // Then - the query outside the request is only in the global timer (where background jobs
+    // may add theirs)
+    DistributionSummary statements = meterRegistry.get(RequestSqlMetricsFilter.STATEMENTS_METRIC)
+      .tag("method", "GET")
+      .tag("uri", uri)
+      .summary();
+    Timer time = meterRegistry.get(RequestSqlMetricsFilter.TIME_METRIC).tag("uri", uri).timer();
+    assertThat(statements.count()).isEqualTo(1);
+    assertThat(statements.totalAmount()).isEqualTo(5);
+    assertThat(time.count()).isEqualTo(1);
+    assertThat(time.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    assertThat(meterRegistry.get(RequestSqlMetricsFilter.EXCEEDED_METRIC).tag("uri", uri)
+      .counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("jdbc.statements").timer().count())
+      .isGreaterThanOrEqualTo(statementsBefore + 6);
+  }
+
+  @Test
+  void shouldFailCallsOverTheirStatementBudget() {
+    // When / Then - literals of plain statements are left out of the shapes
+    assertThatThrownBy(() -> SqlStatementGuard.assertMaxStatements(2, () -> {
+      for (int i = 0; i < 3; i++) {
+        jdbcTemplate.queryForObject("SELECT " + i, Integer.class);
+      }
+    }))
+      .isInstanceOf(AssertionError.class)
+      .hasMessage("Expected at most 2 SQL statements, ran 3: 3 x SELECT ?");
+    assertThat(SqlStatementGuard.assertMaxStatements(1,
+      () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class))).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountStatementsSlowerThanTheThreshold() throws Exception {
+    // Given - a registry of its own, so that no other statement is counted
+    MeterRegistry registry = new SimpleMeterRegistry();
+    JdbcTemplate timed = new JdbcTemplate(new StatementMetricsDataSource(
+      dataSource.unwrap(HikariDataSource.class), registry, Duration.ofMillis(1)));
+
+    // When
+    timed.execute("SELECT pg_sleep(0.01)");
+
+    // Then
+    assertThat(registry.get("jdbc.statements.slow").counter().count()).isEqualTo(1);
+    assertThat(registry.get("jdbc.statements").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepThePoolReachable() throws Exception {
+    // Then - for the Hikari gauges, and for COPY through the driver connection
+    assertThat(dataSource).isInstanceOf(StatementMetricsDataSource.class);
+    assertThat(dataSource.unwrap(HikariDataSource.class)).isNotNull();
+    assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+  }
+}
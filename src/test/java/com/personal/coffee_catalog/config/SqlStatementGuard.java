@@ -0,0 +1,41 @@
+package com.personal.coffee_catalog.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Statement budgets for tests: a call running more SQL statements than declared fails, listing
+ * the statements it repeated most. Counts what goes through the app's data source on the calling
+ * thread, so it needs a Spring context (and catches lazy loads inside the call only).
+ * <pre>
+ * CoffeeResponse coffee = SqlStatementGuard.assertMaxStatements(1,
+ *   () -> coffeeService.getCoffee(id));
+ * </pre>
+ */
+public final class SqlStatementGuard {
+
+  private SqlStatementGuard() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  public static <T> T assertMaxStatements(int maxStatements, Supplier<T> call) {
+    SqlStatementTally tally = SqlStatementTally.open();
+    T result;
+    try {
+      result = call.get();
+    } finally {
+      SqlStatementTally.close(tally);
+    }
+    if (tally.statements() > maxStatements) {
+      throw new AssertionError("Expected at most " + maxStatements + " SQL statements, ran "
+        + tally.statements() + ": " + tally.mostRepeated(5));
+    }
+    return result;
+  }
+
+  public static void assertMaxStatements(int maxStatements, Runnable call) {
+    assertMaxStatements(maxStatements, () -> {
+      call.run();
+      return null;
+    });
+  }
+}
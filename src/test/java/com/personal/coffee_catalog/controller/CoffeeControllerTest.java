@@ -0,0 +1,83 @@
+package com.personal.coffee_catalog.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.service.CoffeeCatalogCache;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@SpringBootTest
+class CoffeeControllerTest {
+
+  @Autowired
+  private CoffeeController coffeeController;
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @Autowired
+  private CoffeeCatalogCache coffeeCatalogCache;
+
+  @Test
+  void shouldAnswerNotModifiedForUnchangedCoffee() {
+    // Given
+    Long id = coffeeRepository.findByIsActiveTrue(PageRequest.of(0, 1)).getContent().getFirst()
+      .getId();
+    ResponseEntity<?> first = coffeeController.getCoffee(id, request(null));
+    String eTag = first.getHeaders().getETag();
+
+    // When
+    ResponseEntity<?> second = coffeeController.getCoffee(id, request(eTag));
+
+    // Then - strong ETag, no body on the revalidation
+    assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(eTag).startsWith("\"" + id + "-");
+    assertThat(first.getHeaders().getLastModified()).isPositive();
+    assertThat(first.getHeaders().getCacheControl()).isEqualTo("max-age=30, private");
+    assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(second.getBody()).isNull();
+    assertThat(second.getHeaders().getCacheControl()).isEqualTo("max-age=30, private");
+  }
+
+  @Test
+  void shouldRevalidateListingsAgainstCatalogVersion() {
+    // Given
+    PageRequest pageable = PageRequest.of(0, 5);
+    String eTag = coffeeController.getAllActiveCoffees(pageable, CoffeeView.SUMMARY, request(null))
+      .getHeaders().getETag();
+
+    // When
+    ResponseEntity<?> unchanged = coffeeController.getAllActiveCoffees(pageable,
+      CoffeeView.SUMMARY, request(eTag));
+    coffeeCatalogCache.onCoffeesUpdated(List.of(-1L));
+    ResponseEntity<?> changed = coffeeController.getAllActiveCoffees(pageable,
+      CoffeeView.SUMMARY, request(eTag));
+
+    // Then
+    assertThat(eTag).startsWith("W/\"");
+    assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changed.getHeaders().getETag()).isNotEqualTo(eTag);
+    assertThat(changed.getHeaders().getLastModified()).isEqualTo(-1);
+    assertThat(changed.getBody()).isNotNull();
+  }
+
+  private static ServletWebRequest request(String ifNoneMatch) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/coffee");
+    if (ifNoneMatch != null) {
+      request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+    }
+    return new ServletWebRequest(request, new MockHttpServletResponse());
+  }
+}
@@ -0,0 +1,358 @@
+package com.personal.coffee_catalog.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Fills the catalog tables with a production-sized dataset, deterministic for a given seed.
+ * <p>For {@code n} coffees: n / 100 roasters, n / 10 users, about 3n flavor links and 3n reviews.
+ * Sizes are skewed like a real marketplace: a few roasters sell most coffees, a few coffees
+ * collect most reviews, and origins, roast levels and flavor notes follow Zipf weights. Rows are
+ * streamed with COPY in one transaction; the search vector triggers are off while loading and the
+ * vectors of the new coffees are computed in one UPDATE at the end.
+ * <p>Every user signs in with {@link #PASSWORD}; {@link #ADMIN_EMAIL} is an admin.
+ */
+@Slf4j
+final class CatalogDataGenerator {
+
+  static final String PASSWORD = "password123";
+  static final String ADMIN_EMAIL = "admin@load.test";
+  static final String USER_EMAIL = "user%d@load.test";
+
+  static final List<String> ORIGINS = List.of("Ethiopia", "Colombia", "Brazil", "Kenya",
+    "Guatemala", "Costa Rica", "Honduras", "Peru", "Indonesia", "Rwanda", "Panama", "Mexico",
+    "El Salvador", "Burundi", "Yemen");
+  static final List<List<String>> REGIONS = List.of(
+    List.of("Yirgacheffe", "Sidamo", "Guji", "Harrar"),
+    List.of("Huila", "Nariño", "Antioquia", "Tolima"),
+    List.of("Cerrado", "Sul de Minas", "Mogiana"),
+    List.of("Nyeri", "Kirinyaga", "Embu"),
+    List.of("Antigua", "Huehuetenango", "Atitlán"),
+    List.of("Tarrazú", "West Valley", "Central Valley"),
+    List.of("Marcala", "Santa Bárbara", "Copán"),
+    List.of("Cajamarca", "Cusco", "Amazonas"),
+    List.of("Sumatra", "Java", "Sulawesi"),
+    List.of("Nyamasheke", "Huye", "Rutsiro"),
+    List.of("Boquete", "Volcán"),
+    List.of("Chiapas", "Veracruz", "Oaxaca"),
+    List.of("Santa Ana", "Apaneca"),
+    List.of("Kayanza", "Ngozi"),
+    List.of("Haraz", "Bani Matar"));
+  static final List<String> ROAST_LEVELS = List.of("Medium", "Light", "Medium-Dark", "Dark");
+  static final List<String> PROCESSING_METHODS =
+    List.of("Washed", "Natural", "Honey", "Anaerobic", "Wet Hulled");
+  static final List<String> VARIETALS = List.of("Bourbon", "Caturra", "Heirloom", "Typica",
+    "SL28", "Catuai", "Geisha", "Pacamara", "Castillo", "Mundo Novo");
+  static final List<String> DESCRIPTORS = List.of("bright", "juicy", "silky", "balanced",
+    "complex", "sweet", "clean", "syrupy", "delicate", "bold", "round", "lively");
+
+  private static final List<String> BREWING_METHODS =
+    List.of("Pour Over", "Espresso", "French Press", "AeroPress", "Moka Pot", "Cold Brew");
+  private static final List<String> GRIND_SIZES =
+    List.of("Medium-Fine", "Fine", "Medium", "Coarse", "Extra Fine");
+  // Reviews lean positive, like on any shop
+  private static final int[] RATINGS = {5, 5, 5, 5, 4, 4, 4, 3, 3, 2, 1};
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  private final Connection connection;
+  private final SplittableRandom random;
+
+  /**
+   * What was generated, for the load runner to draw requests from
+   */
+  record Dataset(long firstCoffeeId, int coffees, long firstRoasterId, int roasters,
+    long firstUserId, int users) {
+
+  }
+
+  CatalogDataGenerator(Connection connection, long seed) {
+    this.connection = connection;
+    this.random = new SplittableRandom(seed);
+  }
+
+  Dataset generate(int coffees) throws SQLException, IOException {
+    int roasters = Math.max(10, coffees / 100);
+    int users = Math.max(100, coffees / 10);
+
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      if (exists(statement, "SELECT 1 FROM users WHERE email = '" + ADMIN_EMAIL + "'")) {
+        throw new IllegalStateException(
+          "A dataset was already generated here; start from a new data directory");
+      }
+      statement.execute("ALTER TABLE coffees DISABLE TRIGGER trg_coffees_search_vector");
+      statement.execute(
+        "ALTER TABLE coffee_flavor_notes DISABLE TRIGGER trg_coffee_flavor_notes_search_vector");
+
+      long firstUserId = nextId(statement, "users");
+      long firstRoasterId = nextId(statement, "roasters");
+      long firstCoffeeId = nextId(statement, "coffees");
+      long[] flavorNoteIds = ids(statement, "SELECT id FROM flavor_notes ORDER BY id");
+
+      log.info("Generating {} users, {} roasters, {} coffees", users, roasters, coffees);
+      copyUsers(firstUserId, users);
+      copyRoasters(firstRoasterId, roasters);
+      copyCoffees(firstCoffeeId, coffees, firstRoasterId, roasters);
+      copyFlavorLinks(firstCoffeeId, coffees, flavorNoteIds);
+      copyReviews(firstCoffeeId, coffees, firstUserId, users);
+
+      log.info("Computing search vectors");
+      try (PreparedStatement update = connection.prepareStatement("""
+        UPDATE coffees c
+        SET search_vector = coffee_search_document(c.name, c.description, c.origin_region,
+                                                   c.varietal, notes.names)
+        FROM (SELECT c2.id, string_agg(fn.name, ' ') AS names
+              FROM coffees c2
+                       LEFT JOIN coffee_flavor_notes cfn ON cfn.coffee_id = c2.id
+                       LEFT JOIN flavor_notes fn ON fn.id = cfn.flavor_note_id
+              WHERE c2.id >= ?
+              GROUP BY c2.id) notes
+        WHERE c.id = notes.id
+        """)) {
+        update.setLong(1, firstCoffeeId);
+        update.executeUpdate();
+      }
+
+      statement.execute("ALTER TABLE coffees ENABLE TRIGGER trg_coffees_search_vector");
+      statement.execute(
+        "ALTER TABLE coffee_flavor_notes ENABLE TRIGGER trg_coffee_flavor_notes_search_vector");
+      for (String table : List.of("users", "roasters", "coffees", "reviews")) {
+        statement.execute(
+          "SELECT setval('" + table + "_id_seq', (SELECT max(id) FROM " + table + "))");
+      }
+      connection.commit();
+
+      log.info("Analyzing");
+      connection.setAutoCommit(true);
+      statement.execute("ANALYZE");
+      return new Dataset(firstCoffeeId, coffees, firstRoasterId, roasters, firstUserId, users);
+    } catch (SQLException | IOException | RuntimeException e) {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private void copyUsers(long firstId, int count) throws SQLException, IOException {
+    // One hash for everyone; hashing a million passwords would take hours
+    String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+    try (Writer out = copy("COPY users (id, email, password, first_name, last_name, role, "
+      + "created_at, updated_at) FROM STDIN WITH (FORMAT csv)")) {
+      for (int i = 0; i < count; i++) {
+        String email = i == count - 1 ? ADMIN_EMAIL : USER_EMAIL.formatted(i);
+        LocalDateTime createdAt = pastTimestamp(3 * 365);
+        row(out, firstId + i, email, hash, "Load", "User" + i, i == count - 1 ? "ADMIN" : "USER",
+          createdAt, createdAt);
+      }
+    }
+  }
+
+  private void copyRoasters(long firstId, int count) throws SQLException, IOException {
+    try (Writer out = copy("COPY roasters (id, company_name, description, website, location, "
+      + "founded_year, is_verified, created_at, updated_at) FROM STDIN WITH (FORMAT csv)")) {
+      for (int i = 0; i < count; i++) {
+        LocalDateTime createdAt = pastTimestamp(5 * 365);
+        row(out, firstId + i, "Roaster " + i, "Small-batch roaster of single origins",
+          "https://roaster" + i + ".example.com", pick(ORIGINS), 1990 + random.nextInt(35),
+          random.nextInt(10) < 3, createdAt, createdAt);
+      }
+    }
+  }
+
+  private void copyCoffees(long firstId, int count, long firstRoasterId, int roasters)
+    throws SQLException, IOException {
+    ZipfDistribution roasterSizes = new ZipfDistribution(roasters, 1.0);
+    ZipfDistribution origins = new ZipfDistribution(ORIGINS.size(), 0.8);
+    ZipfDistribution roastLevels = new ZipfDistribution(ROAST_LEVELS.size(), 1.0);
+    ZipfDistribution processingMethods = new ZipfDistribution(PROCESSING_METHODS.size(), 1.2);
+    ZipfDistribution varietals = new ZipfDistribution(VARIETALS.size(), 0.7);
+
+    try (Writer out = copy("COPY coffees (id, roaster_id, name, description, origin_country, "
+      + "origin_region, altitude_meters, varietal, processing_method, roast_level, roast_date, "
+      + "price, weight_grams, acidity_level, sweetness_level, bitterness_level, image_url, "
+      + "is_active, created_at, updated_at) FROM STDIN WITH (FORMAT csv)")) {
+      for (int i = 0; i < count; i++) {
+        long id = firstId + i;
+        int origin = origins.sample(random);
+        String region = pick(REGIONS.get(origin));
+        String varietal = VARIETALS.get(varietals.sample(random));
+        String processingMethod = PROCESSING_METHODS.get(processingMethods.sample(random));
+        int roastLevel = roastLevels.sample(random);
+        LocalDateTime createdAt = pastTimestamp(3 * 365);
+        LocalDateTime updatedAt = random.nextInt(4) == 0 ? createdAt.plusDays(random.nextInt(60))
+          : createdAt;
+        // Lighter roasts taste brighter and sweeter, darker ones more bitter
+        int bitterness = clamp(2 + roastLevelDarkness(roastLevel) * 2 + random.nextInt(3));
+
+        row(out, id, firstRoasterId + roasterSizes.sampleScattered(random),
+          region + " " + varietal + " " + processingMethod + " " + id,
+          pick(DESCRIPTORS) + " and " + pick(DESCRIPTORS) + " " + varietal + " from " + region
+            + ", " + ORIGINS.get(origin) + ", " + processingMethod.toLowerCase() + " process",
+          ORIGINS.get(origin), region, 900 + random.nextInt(1400), varietal, processingMethod,
+          ROAST_LEVELS.get(roastLevel), NOW.toLocalDate().minusDays(random.nextInt(90)), price(),
+          random.nextInt(3) == 0 ? 1000 : 250 + 90 * random.nextInt(2),
+          clamp(9 - bitterness + random.nextInt(3)), clamp(3 + random.nextInt(6)), bitterness,
+          "https://images.example.com/coffee/" + id + ".jpg", random.nextInt(100) < 97, createdAt,
+          updatedAt);
+      }
+    }
+  }
+
+  private void copyFlavorLinks(long firstCoffeeId, int coffees, long[] flavorNoteIds)
+    throws SQLException, IOException {
+    ZipfDistribution popularity = new ZipfDistribution(flavorNoteIds.length, 1.0);
+    BitSet linked = new BitSet(flavorNoteIds.length);
+
+    try (Writer out = copy(
+      "COPY coffee_flavor_notes (coffee_id, flavor_note_id) FROM STDIN WITH (FORMAT csv)")) {
+      for (int i = 0; i < coffees; i++) {
+        int links = 1 + random.nextInt(Math.min(5, flavorNoteIds.length));
+        linked.clear();
+        while (linked.cardinality() < links) {
+          linked.set(popularity.sampleScattered(random));
+        }
+        for (int note = linked.nextSetBit(0); note >= 0; note = linked.nextSetBit(note + 1)) {
+          row(out, firstCoffeeId + i, flavorNoteIds[note]);
+        }
+      }
+    }
+  }
+
+  /**
+   * About three reviews per coffee on average, by Zipf rank of the coffee: the most reviewed ones
+   * get thousands, most get none. Reviewers of a coffee are consecutive users from a random offset,
+   * so nobody reviews a coffee twice.
+   */
+  private void copyReviews(long firstCoffeeId, int coffees, long firstUserId, int users)
+    throws SQLException, IOException {
+    ZipfDistribution popularity = new ZipfDistribution(coffees, 0.9);
+    long total = 3L * coffees;
+
+    try (Writer out = copy("COPY reviews (coffee_id, user_id, rating, title, comment, "
+      + "brewing_method, grind_size, created_at, updated_at) FROM STDIN WITH (FORMAT csv)")) {
+      for (int rank = 0; rank < coffees; rank++) {
+        double expected = total * popularity.probability(rank);
+        int reviews = (int) Math.min(users, (long) expected
+          + (random.nextDouble() < expected - Math.floor(expected) ? 1 : 0));
+        long coffeeId = firstCoffeeId + ZipfDistribution.scatter(rank, coffees);
+        int firstReviewer = random.nextInt(users);
+        for (int i = 0; i < reviews; i++) {
+          int rating = RATINGS[random.nextInt(RATINGS.length)];
+          LocalDateTime createdAt = pastTimestamp(2 * 365);
+          row(out, coffeeId, firstUserId + (firstReviewer + i) % users, rating,
+            rating >= 4 ? "Would buy again" : "Not for me",
+            "Tastes " + pick(DESCRIPTORS) + ", " + pick(DESCRIPTORS) + " finish",
+            pick(BREWING_METHODS), pick(GRIND_SIZES), createdAt, createdAt);
+        }
+      }
+    }
+  }
+
+  private Writer copy(String sql) throws SQLException {
+    PGCopyOutputStream stream = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql,
+      1 << 16);
+    return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+  }
+
+  /**
+   * One CSV row for COPY; strings are quoted, so only an unquoted empty field is NULL
+   */
+  private static void row(Writer out, Object... values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      Object value = values[i];
+      if (value instanceof String text) {
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+      } else if (value != null) {
+        out.write(value.toString());
+      }
+    }
+    out.write('\n');
+  }
+
+  private static boolean exists(Statement statement, String sql) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(sql)) {
+      return resultSet.next();
+    }
+  }
+
+  private static long nextId(Statement statement, String table) throws SQLException {
+    try (ResultSet resultSet =
+      statement.executeQuery("SELECT coalesce(max(id), 0) + 1 FROM " + table)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  private static long[] ids(Statement statement, String sql) throws SQLException {
+    List<Long> ids = new ArrayList<>();
+    try (ResultSet resultSet = statement.executeQuery(sql)) {
+      while (resultSet.next()) {
+        ids.add(resultSet.getLong(1));
+      }
+    }
+    return ids.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private <T> T pick(List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  /**
+   * Log-normal around 18, the long tail being rare lots and large bags
+   */
+  private BigDecimal price() {
+    double price = Math.exp(Math.log(18) + 0.35 * random.nextGaussian());
+    return BigDecimal.valueOf(Math.clamp(price, 6, 120)).setScale(2, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * Timestamps within the last {@code days}, more of them recent: the catalog keeps growing
+   */
+  private LocalDateTime pastTimestamp(int days) {
+    double age = Math.pow(random.nextDouble(), 2) * days * 86400;
+    return NOW.minusSeconds((long) age);
+  }
+
+  private static int roastLevelDarkness(int roastLevel) {
+    // Index into ROAST_LEVELS: Medium, Light, Medium-Dark, Dark
+    return switch (roastLevel) {
+      case 1 -> 0;
+      case 0 -> 1;
+      case 2 -> 2;
+      default -> 3;
+    };
+  }
+
+  private static int clamp(int level) {
+    return Math.clamp(level, 1, 10);
+  }
+}
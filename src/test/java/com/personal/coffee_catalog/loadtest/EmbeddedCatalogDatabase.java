@@ -0,0 +1,96 @@
+package com.personal.coffee_catalog.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Postgres 16 without Docker, run from the binaries packaged in the embedded-postgres jars.
+ * <p>The cluster lives in a data directory that outlives the process, so a generated dataset is
+ * loaded once and reused by every run. On first start the {@code coffee_catalog} database and the
+ * {@code coffee_admin} role of docker-compose are created and {@code init-scripts} applied, so the
+ * app connects with its default credentials on another port.
+ */
+final class EmbeddedCatalogDatabase implements AutoCloseable {
+
+  static final String DATABASE = "coffee_catalog";
+  static final String USER = "coffee_admin";
+  static final String PASSWORD = "dev_password_123";
+
+  private final EmbeddedPostgres postgres;
+  private final int port;
+
+  private EmbeddedCatalogDatabase(EmbeddedPostgres postgres, int port) {
+    this.postgres = postgres;
+    this.port = port;
+  }
+
+  static EmbeddedCatalogDatabase start(int port, Path dataDirectory, Path initScripts)
+    throws IOException, SQLException {
+    Files.createDirectories(dataDirectory);
+    EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+      .setPort(port)
+      .setDataDirectory(dataDirectory)
+      .setCleanDataDirectory(false)
+      // docker-compose runs the image defaults
+      .setServerConfig("max_connections", "100")
+      .start();
+    EmbeddedCatalogDatabase database = new EmbeddedCatalogDatabase(postgres, port);
+    try {
+      database.createIfMissing(initScripts);
+    } catch (IOException | SQLException | RuntimeException e) {
+      postgres.close();
+      throw e;
+    }
+    return database;
+  }
+
+  String jdbcUrl() {
+    return "jdbc:postgresql://localhost:" + port + "/" + DATABASE;
+  }
+
+  @Override
+  public void close() throws IOException {
+    postgres.close();
+  }
+
+  private void createIfMissing(Path initScripts) throws IOException, SQLException {
+    try (Connection connection = postgres.getPostgresDatabase().getConnection();
+      Statement statement = connection.createStatement()) {
+      try (ResultSet resultSet = statement.executeQuery(
+        "SELECT 1 FROM pg_database WHERE datname = '" + DATABASE + "'")) {
+        if (resultSet.next()) {
+          return;
+        }
+      }
+      statement.execute("CREATE ROLE " + USER + " LOGIN SUPERUSER PASSWORD '" + PASSWORD + "'");
+      statement.execute("CREATE DATABASE " + DATABASE + " OWNER " + USER);
+    }
+
+    List<Path> scripts;
+    try (Stream<Path> files = Files.list(initScripts)) {
+      scripts = files.filter(file -> file.toString().endsWith(".sql")).sorted().toList();
+    }
+    try (Connection connection = DriverManager.getConnection(jdbcUrl(), USER, PASSWORD);
+      Statement statement = connection.createStatement()) {
+      for (Path script : scripts) {
+        statement.execute(Files.readString(script));
+      }
+    } catch (IOException | SQLException e) {
+      // Half a schema would be taken for a complete one on the next start
+      try (Connection connection = postgres.getPostgresDatabase().getConnection();
+        Statement statement = connection.createStatement()) {
+        statement.execute("DROP DATABASE " + DATABASE + " WITH (FORCE)");
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.personal.coffee_catalog.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latencies in microseconds, counted in log-linear buckets: each power of two is split in
+ * {@value #SUB_BUCKETS} equal buckets, so a recorded value is off by at most 1/{@value #SUB_BUCKETS}
+ * (about 3%) whatever its magnitude, and the histogram has a fixed size from 1 us to 2^40 us.
+ * <p>Not thread-safe: every client records into its own and they are merged at the end.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 40;
+
+  private final long[] counts = new long[(MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+  private long total;
+  private long max;
+
+  void record(long micros) {
+    long value = Math.clamp(micros, 0, (1L << MAX_EXPONENT) - 1);
+    counts[index(value)]++;
+    total++;
+    max = Math.max(max, value);
+  }
+
+  void merge(LatencyHistogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    total += other.total;
+    max = Math.max(max, other.max);
+  }
+
+  long count() {
+    return total;
+  }
+
+  long max() {
+    return max;
+  }
+
+  /**
+   * Upper bound of the bucket holding the value at this quantile
+   *
+   * @param quantile 0 to 1, e.g. 0.99
+   * @return Latency in microseconds, 0 when nothing was recorded
+   */
+  long percentile(double quantile) {
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBound(i), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Counts per power of two, for printing: the latencies in [from, to) microseconds
+   */
+  List<Bucket> powerOfTwoBuckets() {
+    long[] perPowerOfTwo = new long[MAX_EXPONENT + 1];
+    for (int i = 0; i < counts.length; i++) {
+      perPowerOfTwo[64 - Long.numberOfLeadingZeros(lowerBound(i))] += counts[i];
+    }
+    List<Bucket> buckets = new ArrayList<>();
+    for (int bits = 0; bits <= MAX_EXPONENT; bits++) {
+      if (perPowerOfTwo[bits] > 0) {
+        buckets.add(new Bucket(bits == 0 ? 0 : 1L << (bits - 1), 1L << bits,
+          perPowerOfTwo[bits]));
+      }
+    }
+    return buckets;
+  }
+
+  record Bucket(long from, long to, long count) {
+
+  }
+
+  // Values below 2 * SUB_BUCKETS get a bucket each; above, a value is shifted right until its
+  // top SUB_BUCKET_BITS + 1 bits are left, the highest of them always set
+
+  private static int index(long value) {
+    int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1);
+    return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  private static long lowerBound(int index) {
+    int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+    return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+  }
+
+  private static long upperBound(int index) {
+    int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+    return lowerBound(index) + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,47 @@
+package com.personal.coffee_catalog.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldReportPercentilesWithinTheBucketPrecision() {
+    // Given - 1 to 100000 us, once each
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 100_000; micros++) {
+      histogram.record(micros);
+    }
+
+    // Then
+    assertThat(histogram.count()).isEqualTo(100_000);
+    assertThat(histogram.percentile(0.50)).isCloseTo(50_000L, within(50_000L / 32));
+    assertThat(histogram.percentile(0.99)).isCloseTo(99_000L, within(99_000L / 32));
+    assertThat(histogram.percentile(1.0)).isEqualTo(100_000);
+    assertThat(histogram.powerOfTwoBuckets())
+      .extracting(LatencyHistogram.Bucket::count)
+      .containsExactly(1L, 2L, 4L, 8L, 16L, 32L, 64L, 128L, 256L, 512L, 1024L, 2048L, 4096L,
+        8192L, 16384L, 32768L, 100_000L - 65535L);
+  }
+
+  @Test
+  void shouldMergeClientHistograms() {
+    // Given
+    LatencyHistogram fast = new LatencyHistogram();
+    LatencyHistogram slow = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      fast.record(1_000);
+    }
+    slow.record(2_000_000);
+
+    // When
+    fast.merge(slow);
+
+    // Then
+    assertThat(fast.count()).isEqualTo(100);
+    assertThat(fast.percentile(0.99)).isCloseTo(1_000L, within(1_000L / 32));
+    assertThat(fast.percentile(0.999)).isEqualTo(2_000_000);
+  }
+}
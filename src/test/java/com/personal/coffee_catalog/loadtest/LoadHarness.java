@@ -0,0 +1,157 @@
+package com.personal.coffee_catalog.loadtest;
+
+import com.personal.coffee_catalog.loadtest.CatalogDataGenerator.Dataset;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Entry point of the load test, run through the {@code load-test} profile:
+ * <pre>
+ * ./mvnw -Pload-test test -Dload-test.args="db"
+ * ./mvnw -Pload-test test -Dload-test.args="generate --coffees 1000000"
+ * ./mvnw -Pload-test test -Dload-test.args="run --clients 64 --duration 60"
+ * </pre>
+ * {@code db} keeps a containerless Postgres running until interrupted, {@code generate} fills it
+ * and saves what it generated, {@code run} loads the app (started on its own with the
+ * {@code load-test} Spring profile) and prints the report, also saved as JSON. Options take their
+ * defaults from {@link #DEFAULTS}.
+ */
+public final class LoadHarness {
+
+  private static final Map<String, String> DEFAULTS = Map.ofEntries(
+    Map.entry("port", "5433"),
+    Map.entry("data-dir", "target/load-test/pgdata"),
+    Map.entry("init-scripts", "init-scripts"),
+    Map.entry("url", "jdbc:postgresql://localhost:5433/coffee_catalog"),
+    Map.entry("coffees", "1000000"),
+    Map.entry("seed", "42"),
+    Map.entry("dataset", "target/load-test/dataset.properties"),
+    Map.entry("base-url", "http://localhost:8080"),
+    Map.entry("clients", "64"),
+    Map.entry("warmup", "30"),
+    Map.entry("duration", "60"),
+    Map.entry("mix", LoadScenario.DEFAULT_MIX),
+    Map.entry("report", "target/load-test/report.json"));
+
+  private LoadHarness() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      throw new IllegalArgumentException("Usage: db|generate|run [--option value]...");
+    }
+    Map<String, String> options = options(args);
+    switch (args[0]) {
+      case "db" -> db(options);
+      case "generate" -> generate(options);
+      case "run" -> run(options);
+      default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+    }
+  }
+
+  private static void db(Map<String, String> options) throws Exception {
+    EmbeddedCatalogDatabase database = EmbeddedCatalogDatabase.start(
+      Integer.parseInt(options.get("port")), Path.of(options.get("data-dir")),
+      Path.of(options.get("init-scripts")));
+    CountDownLatch stopped = new CountDownLatch(1);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        database.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+      stopped.countDown();
+    }));
+    System.out.println("Postgres ready at " + database.jdbcUrl() + " (Ctrl+C to stop)");
+    stopped.await();
+  }
+
+  private static void generate(Map<String, String> options) throws Exception {
+    Dataset dataset;
+    try (Connection connection = DriverManager.getConnection(options.get("url"),
+      EmbeddedCatalogDatabase.USER, EmbeddedCatalogDatabase.PASSWORD)) {
+      dataset = new CatalogDataGenerator(connection, Long.parseLong(options.get("seed")))
+        .generate(Integer.parseInt(options.get("coffees")));
+    }
+
+    Properties properties = new Properties();
+    properties.setProperty("first-coffee-id", String.valueOf(dataset.firstCoffeeId()));
+    properties.setProperty("coffees", String.valueOf(dataset.coffees()));
+    properties.setProperty("first-roaster-id", String.valueOf(dataset.firstRoasterId()));
+    properties.setProperty("roasters", String.valueOf(dataset.roasters()));
+    properties.setProperty("first-user-id", String.valueOf(dataset.firstUserId()));
+    properties.setProperty("users", String.valueOf(dataset.users()));
+    Path file = Path.of(options.get("dataset"));
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    try (Writer writer = Files.newBufferedWriter(file)) {
+      properties.store(writer, "Generated by LoadHarness generate, read by LoadHarness run");
+    }
+    System.out.println("Generated " + dataset + ", saved to " + file);
+  }
+
+  private static void run(Map<String, String> options) throws Exception {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(Path.of(options.get("dataset")))) {
+      properties.load(reader);
+    }
+    Dataset dataset = new Dataset(
+      Long.parseLong(properties.getProperty("first-coffee-id")),
+      Integer.parseInt(properties.getProperty("coffees")),
+      Long.parseLong(properties.getProperty("first-roaster-id")),
+      Integer.parseInt(properties.getProperty("roasters")),
+      Long.parseLong(properties.getProperty("first-user-id")),
+      Integer.parseInt(properties.getProperty("users")));
+    LoadRunner.Options runOptions = new LoadRunner.Options(
+      URI.create(options.get("base-url")),
+      Integer.parseInt(options.get("clients")),
+      Duration.ofSeconds(Long.parseLong(options.get("warmup"))),
+      Duration.ofSeconds(Long.parseLong(options.get("duration"))),
+      LoadScenario.parseMix(options.get("mix")),
+      Long.parseLong(options.get("seed")));
+
+    LoadReport report = new LoadRunner(runOptions, dataset).run();
+    report.print(System.out, runOptions.duration());
+
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("finishedAt", Instant.now().toString());
+    json.put("options", options);
+    json.put("dataset", dataset);
+    json.put("operations", report.toMap(runOptions.duration()));
+    Path file = Path.of(options.get("report"));
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build()
+      .writeValue(file.toFile(), json);
+    System.out.println("Report saved to " + file);
+  }
+
+  private static Map<String, String> options(String[] args) {
+    Map<String, String> options = new HashMap<>(DEFAULTS);
+    for (int i = 1; i < args.length; i += 2) {
+      if (!args[i].startsWith("--") || i + 1 == args.length) {
+        throw new IllegalArgumentException("Options look like --name value, got " + args[i]);
+      }
+      String name = args[i].substring(2);
+      if (!DEFAULTS.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+      options.put(name, args[i + 1]);
+    }
+    return options;
+  }
+}
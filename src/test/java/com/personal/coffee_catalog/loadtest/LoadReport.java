@@ -0,0 +1,102 @@
+package com.personal.coffee_catalog.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response statuses per operation, recorded by one client or merged over all of
+ * them. Status 0 stands for a request that failed without a response (refused, reset, timed out).
+ */
+final class LoadReport {
+
+  private final Map<String, LatencyHistogram> latencies = new TreeMap<>();
+  private final Map<String, Map<Integer, Long>> statuses = new TreeMap<>();
+
+  void record(String operation, int status, long micros) {
+    latencies.computeIfAbsent(operation, name -> new LatencyHistogram()).record(micros);
+    statuses.computeIfAbsent(operation, name -> new TreeMap<>()).merge(status, 1L, Long::sum);
+  }
+
+  void merge(LoadReport other) {
+    other.latencies.forEach((operation, histogram) ->
+      latencies.computeIfAbsent(operation, name -> new LatencyHistogram()).merge(histogram));
+    other.statuses.forEach((operation, counts) -> counts.forEach((status, count) ->
+      statuses.computeIfAbsent(operation, name -> new TreeMap<>()).merge(status, count, Long::sum)));
+  }
+
+  void print(PrintStream out, Duration duration) {
+    double seconds = duration.toMillis() / 1000.0;
+    out.printf("%-34s %9s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "req/s",
+      "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    LatencyHistogram all = new LatencyHistogram();
+    long allFailed = 0;
+    for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+      LatencyHistogram histogram = entry.getValue();
+      long failed = failed(statuses.get(entry.getKey()));
+      printRow(out, entry.getKey(), histogram, failed, seconds);
+      all.merge(histogram);
+      allFailed += failed;
+    }
+    printRow(out, "total", all, allFailed, seconds);
+
+    out.println();
+    out.println("Statuses: " + statuses);
+    out.println();
+    out.println("Latency histogram (all operations)");
+    long peak = all.powerOfTwoBuckets().stream().mapToLong(LatencyHistogram.Bucket::count).max()
+      .orElse(1);
+    for (LatencyHistogram.Bucket bucket : all.powerOfTwoBuckets()) {
+      out.printf("%10.3f - %10.3f ms %9d %s%n", bucket.from() / 1000.0, bucket.to() / 1000.0,
+        bucket.count(), "#".repeat((int) Math.ceil(50.0 * bucket.count() / peak)));
+    }
+  }
+
+  /**
+   * The report as a JSON-ready tree: per operation the counts, percentiles and power-of-two
+   * buckets
+   */
+  Map<String, Object> toMap(Duration duration) {
+    double seconds = duration.toMillis() / 1000.0;
+    Map<String, Object> operations = new LinkedHashMap<>();
+    latencies.forEach((operation, histogram) -> {
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("count", histogram.count());
+      summary.put("throughput", histogram.count() / seconds);
+      summary.put("statuses", statuses.get(operation));
+      summary.put("p50Micros", histogram.percentile(0.50));
+      summary.put("p90Micros", histogram.percentile(0.90));
+      summary.put("p99Micros", histogram.percentile(0.99));
+      summary.put("p999Micros", histogram.percentile(0.999));
+      summary.put("maxMicros", histogram.max());
+      List<Map<String, Long>> buckets = histogram.powerOfTwoBuckets().stream()
+        .map(bucket -> Map.of("fromMicros", bucket.from(), "toMicros", bucket.to(),
+          "count", bucket.count()))
+        .toList();
+      summary.put("histogram", buckets);
+      operations.put(operation, summary);
+    });
+    return operations;
+  }
+
+  private static void printRow(PrintStream out, String operation, LatencyHistogram histogram,
+    long failed, double seconds) {
+    out.printf("%-34s %9d %9.1f %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n", operation,
+      histogram.count(), histogram.count() / seconds, failed, histogram.percentile(0.50) / 1000.0,
+      histogram.percentile(0.90) / 1000.0, histogram.percentile(0.99) / 1000.0,
+      histogram.percentile(0.999) / 1000.0, histogram.max() / 1000.0);
+  }
+
+  /**
+   * Anything but 2xx and 304 (a cached page still being valid)
+   */
+  private static long failed(Map<Integer, Long> counts) {
+    return counts.entrySet().stream()
+      .filter(entry -> entry.getKey() / 100 != 2 && entry.getKey() != 304)
+      .mapToLong(Map.Entry::getValue)
+      .sum();
+  }
+}
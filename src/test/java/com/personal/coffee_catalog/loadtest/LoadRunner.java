@@ -0,0 +1,329 @@
+package com.personal.coffee_catalog.loadtest;
+
+import com.personal.coffee_catalog.loadtest.CatalogDataGenerator.Dataset;
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.request.LoginRequest;
+import com.personal.coffee_catalog.request.RefreshTokenRequest;
+import com.personal.coffee_catalog.response.AuthResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Closed-loop load over HTTP: every client is a virtual thread signed in as a user of its own,
+ * sending its next request as soon as the previous one is answered, for a warm-up and then a
+ * measured period.
+ * <p>Requests that start within the measured period are recorded, with the time until the whole
+ * response body was read; throughput is the number recorded over the period. Coffee IDs are
+ * drawn with the skew of the generated reviews, so the same coffees are hot for readers and
+ * reviewers.
+ */
+@Slf4j
+final class LoadRunner {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+  /**
+   * @param baseUrl  Where the app listens, e.g. http://localhost:8080
+   * @param clients  Concurrent simulated users
+   * @param warmup   Load before recording, for the JIT, the pools and the caches
+   * @param duration Recorded period
+   * @param mix      Relative weight of each scenario
+   * @param seed     Seed of the request choices of client 0; client n uses seed + n
+   */
+  record Options(URI baseUrl, int clients, Duration warmup, Duration duration,
+    Map<LoadScenario, Integer> mix, long seed) {
+
+  }
+
+  private final Options options;
+  private final Dataset dataset;
+  private final HttpClient httpClient;
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+  private final ZipfDistribution coffees;
+  private final ZipfDistribution pages = new ZipfDistribution(50, 1.2);
+  private final ZipfDistribution origins =
+    new ZipfDistribution(CatalogDataGenerator.ORIGINS.size(), 0.8);
+  private final LoadScenario[] scenarios;
+  private final ReentrantLock adminLock = new ReentrantLock();
+  private volatile String adminToken;
+
+  LoadRunner(Options options, Dataset dataset) {
+    this.options = options;
+    this.dataset = dataset;
+    this.httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(TIMEOUT)
+      .build();
+    this.coffees = new ZipfDistribution(dataset.coffees(), 0.9);
+
+    List<LoadScenario> weighted = new ArrayList<>();
+    options.mix().forEach((scenario, weight) -> weighted.addAll(Collections.nCopies(weight,
+      scenario)));
+    this.scenarios = weighted.toArray(LoadScenario[]::new);
+  }
+
+  LoadReport run() throws IOException, InterruptedException {
+    adminToken = signIn(CatalogDataGenerator.ADMIN_EMAIL).getAccessToken();
+
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+    List<LoadReport> reports = Collections.synchronizedList(new ArrayList<>());
+
+    log.info("{} clients, warming up for {}s, then recording for {}s", options.clients(),
+      options.warmup().toSeconds(), options.duration().toSeconds());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < options.clients(); i++) {
+        Client client = new Client(i, measureFrom, end);
+        executor.submit(() -> reports.add(client.run()));
+      }
+    }
+
+    LoadReport report = new LoadReport();
+    reports.forEach(report::merge);
+    return report;
+  }
+
+  private AuthResponse signIn(String email) throws IOException, InterruptedException {
+    HttpResponse<String> response = httpClient.send(login(email),
+      HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException(
+        "Login of " + email + " failed with " + response.statusCode() + ": " + response.body());
+    }
+    return jsonMapper.readValue(response.body(), AuthResponse.class);
+  }
+
+  private HttpRequest login(String email) {
+    LoginRequest login = new LoginRequest();
+    login.setEmail(email);
+    login.setPassword(CatalogDataGenerator.PASSWORD);
+    return post("/api/auth/login", login, null);
+  }
+
+  private HttpRequest post(String path, Object body, String token) {
+    return send(path, "POST", body, token);
+  }
+
+  private HttpRequest send(String path, String method, Object body, String token) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(options.baseUrl().resolve(path))
+      .timeout(TIMEOUT)
+      .header("Content-Type", "application/json")
+      .method(method, HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body)));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return request.build();
+  }
+
+  private HttpRequest get(String path, String token) {
+    return HttpRequest.newBuilder(options.baseUrl().resolve(path))
+      .timeout(TIMEOUT)
+      .header("Authorization", "Bearer " + token)
+      .GET()
+      .build();
+  }
+
+  /**
+   * Sign the admin in again once its access token expired, unless another client already did
+   */
+  private void renewAdminToken(String expired) throws IOException, InterruptedException {
+    adminLock.lock();
+    try {
+      if (expired.equals(adminToken)) {
+        adminToken = signIn(CatalogDataGenerator.ADMIN_EMAIL).getAccessToken();
+      }
+    } finally {
+      adminLock.unlock();
+    }
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  private final class Client {
+
+    private final SplittableRandom random;
+    private final String email;
+    private final long measureFrom;
+    private final long end;
+    private final LoadReport report = new LoadReport();
+    private AuthResponse session;
+
+    Client(int index, long measureFrom, long end) {
+      this.random = new SplittableRandom(options.seed() + index);
+      // The admin is the last generated user, keep it out of the readers
+      this.email = CatalogDataGenerator.USER_EMAIL.formatted(index % (dataset.users() - 1));
+      this.measureFrom = measureFrom;
+      this.end = end;
+    }
+
+    LoadReport run() {
+      while (System.nanoTime() < end) {
+        try {
+          if (session == null) {
+            signIn();
+          } else {
+            step();
+          }
+        } catch (IOException e) {
+          // Refused, reset or timed out: recorded as status 0, then back off a little
+          try {
+            Thread.sleep(100);
+          } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            break;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      return report;
+    }
+
+    private void step() throws IOException, InterruptedException {
+      switch (scenarios[random.nextInt(scenarios.length)]) {
+        case BROWSE -> browse();
+        case SEARCH -> search();
+        case AUTH -> auth();
+        case ADMIN -> admin();
+      }
+    }
+
+    private void browse() throws IOException, InterruptedException {
+      int dice = random.nextInt(10);
+      if (dice < 6) {
+        read("GET /api/coffee/{id}", "/api/coffee/" + coffeeId());
+      } else if (dice < 9) {
+        read("GET /api/coffee", "/api/coffee?size=20&view=SUMMARY&page=" + pages.sample(random));
+      } else {
+        read("GET /api/coffee/{id}/similar", "/api/coffee/" + coffeeId() + "/similar");
+      }
+    }
+
+    private void search() throws IOException, InterruptedException {
+      int origin = origins.sample(random);
+      String country = encode(CatalogDataGenerator.ORIGINS.get(origin));
+      String region = pick(CatalogDataGenerator.REGIONS.get(origin));
+      int dice = random.nextInt(10);
+      if (dice < 4) {
+        read("GET /api/coffee/search", "/api/coffee/search?size=20&view=SUMMARY&originCountry="
+          + country + "&roastLevel=" + encode(pick(CatalogDataGenerator.ROAST_LEVELS)));
+      } else if (dice < 7) {
+        String words = pick(CatalogDataGenerator.DESCRIPTORS) + " "
+          + pick(CatalogDataGenerator.VARIETALS);
+        read("GET /api/coffee/text-search", "/api/coffee/text-search?size=20&q=" + encode(words));
+      } else if (dice < 9) {
+        String prefix = region.substring(0, Math.min(region.length(), 2 + random.nextInt(3)));
+        read("GET /api/coffee/autocomplete", "/api/coffee/autocomplete?q=" + encode(prefix));
+      } else {
+        read("GET /api/coffee/facets", "/api/coffee/facets?originCountry=" + country);
+      }
+    }
+
+    private void auth() throws IOException, InterruptedException {
+      // Sessions are refreshed far more often than started; a login costs a password hash
+      if (random.nextInt(20) > 0) {
+        RefreshTokenRequest refresh = new RefreshTokenRequest();
+        refresh.setRefreshToken(session.getRefreshToken());
+        HttpResponse<String> response = exchange("POST /api/auth/refresh",
+          post("/api/auth/refresh", refresh, null));
+        session = response.statusCode() == 200
+          ? jsonMapper.readValue(response.body(), AuthResponse.class)
+          : null;
+      } else {
+        signIn();
+      }
+    }
+
+    private void admin() throws IOException, InterruptedException {
+      String token = adminToken;
+      int status;
+      if (random.nextInt(10) < 7) {
+        long id = dataset.firstCoffeeId() + random.nextInt(dataset.coffees());
+        status = exchange("PATCH /api/coffee/{id}", send("/api/coffee/" + id, "PATCH",
+          CoffeeRequest.builder().price(price()).build(), token)).statusCode();
+      } else {
+        CoffeeRequest coffee = CoffeeRequest.builder()
+          .roasterId(dataset.firstRoasterId() + random.nextInt(dataset.roasters()))
+          .name("Load test coffee " + random.nextLong(Long.MAX_VALUE))
+          .originCountry(pick(CatalogDataGenerator.ORIGINS))
+          .roastLevel(pick(CatalogDataGenerator.ROAST_LEVELS))
+          .price(price())
+          .isActive(true)
+          .build();
+        status = exchange("POST /api/coffee", post("/api/coffee", coffee, token)).statusCode();
+      }
+      if (status == 401) {
+        renewAdminToken(token);
+      }
+    }
+
+    private void signIn() throws IOException, InterruptedException {
+      HttpResponse<String> response = exchange("POST /api/auth/login", login(email));
+      if (response.statusCode() == 200) {
+        session = jsonMapper.readValue(response.body(), AuthResponse.class);
+      } else if (response.statusCode() == 429) {
+        // Admission control of the password hashing: come back after Retry-After
+        Thread.sleep(1000);
+      }
+    }
+
+    private void read(String operation, String path) throws IOException, InterruptedException {
+      if (exchange(operation, get(path, session.getAccessToken())).statusCode() == 401) {
+        session = null;
+      }
+    }
+
+    private HttpResponse<String> exchange(String operation, HttpRequest request)
+      throws IOException, InterruptedException {
+      long started = System.nanoTime();
+      try {
+        HttpResponse<String> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        record(operation, response.statusCode(), started);
+        return response;
+      } catch (IOException e) {
+        record(operation, 0, started);
+        throw e;
+      }
+    }
+
+    private void record(String operation, int status, long started) {
+      if (started >= measureFrom && started < end) {
+        report.record(operation, status, (System.nanoTime() - started) / 1000);
+      }
+    }
+
+    private long coffeeId() {
+      return dataset.firstCoffeeId() + coffees.sampleScattered(random);
+    }
+
+    private BigDecimal price() {
+      return BigDecimal.valueOf(600 + random.nextInt(6000), 2);
+    }
+
+    private <T> T pick(List<T> values) {
+      return values.get(random.nextInt(values.size()));
+    }
+  }
+}
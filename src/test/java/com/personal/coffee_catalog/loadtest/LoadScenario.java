@@ -0,0 +1,56 @@
+package com.personal.coffee_catalog.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What a simulated user does in one step; the mix sets how often each scenario is picked.
+ */
+enum LoadScenario {
+
+  /**
+   * Coffee pages by ID (Zipf-popular coffees), catalog pages (mostly the first ones) and similar
+   * coffees
+   */
+  BROWSE,
+
+  /**
+   * Filtered search, full-text search, autocomplete and facet counts
+   */
+  SEARCH,
+
+  /**
+   * Token refreshes, and one login hashing the password for 19 of them
+   */
+  AUTH,
+
+  /**
+   * Admin price updates and new coffees
+   */
+  ADMIN;
+
+  static final String DEFAULT_MIX = "browse=60,search=25,auth=10,admin=5";
+
+  /**
+   * Parse a mix like {@value #DEFAULT_MIX}; weights are relative, scenarios left out never run
+   */
+  static Map<LoadScenario, Integer> parseMix(String mix) {
+    Map<LoadScenario, Integer> weights = new EnumMap<>(LoadScenario.class);
+    for (String part : mix.split(",")) {
+      String[] weight = part.split("=");
+      if (weight.length != 2) {
+        throw new IllegalArgumentException("Mix entries look like browse=60, got " + part);
+      }
+      int value = Integer.parseInt(weight[1].trim());
+      if (value < 0) {
+        throw new IllegalArgumentException("Mix weights cannot be negative: " + part);
+      }
+      weights.put(valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), value);
+    }
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+      throw new IllegalArgumentException("Mix has no weight: " + mix);
+    }
+    return weights;
+  }
+}
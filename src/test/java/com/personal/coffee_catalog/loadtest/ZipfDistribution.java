@@ -0,0 +1,58 @@
+package com.personal.coffee_catalog.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ranks 0..n-1 drawn with probability proportional to 1 / (rank + 1)^exponent, so a few ranks take
+ * most of the draws: the best-selling roasters, the most reviewed coffees, the pages everyone
+ * opens.
+ * <p>{@link #sampleScattered} maps the rank to a value through a fixed permutation, so popularity is
+ * not correlated with IDs (and with the order rows were inserted in).
+ */
+final class ZipfDistribution {
+
+  // Prime above any int, hence coprime with every n: rank * SCATTER mod n is a permutation
+  private static final long SCATTER = 2_147_483_647L;
+
+  private final double[] cumulative;
+
+  ZipfDistribution(int n, double exponent) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n must be at least 1");
+    }
+    cumulative = new double[n];
+    double sum = 0;
+    for (int rank = 0; rank < n; rank++) {
+      sum += 1 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < n; rank++) {
+      cumulative[rank] /= sum;
+    }
+  }
+
+  int size() {
+    return cumulative.length;
+  }
+
+  /**
+   * Share of all draws that land on a rank
+   */
+  double probability(int rank) {
+    return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+  }
+
+  int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+  }
+
+  int sampleScattered(RandomGenerator random) {
+    return scatter(sample(random), cumulative.length);
+  }
+
+  static int scatter(int rank, int n) {
+    return (int) (rank * SCATTER % n);
+  }
+}
@@ -0,0 +1,46 @@
+package com.personal.coffee_catalog.repository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Coffee rows for integration tests, inserted with native SQL so that no entity ends up in the
+ * persistence context: the code under test loads them the way it would in production.
+ * <pre>
+ * long id = CoffeeFixtures.insertCoffee(entityManager, roasterId, "Test Lot", null, true);
+ * </pre>
+ */
+public final class CoffeeFixtures {
+
+  private CoffeeFixtures() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * ID of a roaster of the seed data
+   */
+  public static long anyRoasterId(EntityManager entityManager) {
+    return ((Number) entityManager.createNativeQuery("SELECT min(id) FROM roasters")
+      .getSingleResult()).longValue();
+  }
+
+  /**
+   * Insert a light roasted Peruvian coffee priced 12.50
+   *
+   * @param originRegion Origin region, may be null
+   * @return ID of the inserted coffee
+   */
+  public static long insertCoffee(EntityManager entityManager, long roasterId, String name,
+    String originRegion, boolean active) {
+    return ((Number) entityManager.createNativeQuery("""
+        INSERT INTO coffees (roaster_id, name, origin_country, origin_region, roast_level, price,
+          is_active)
+        VALUES (?1, ?2, 'Peru', ?3, 'Light', 12.50, ?4)
+        RETURNING id
+        """)
+      .setParameter(1, roasterId)
+      .setParameter(2, name)
+      .setParameter(3, originRegion)
+      .setParameter(4, active)
+      .getSingleResult()).longValue();
+  }
+}
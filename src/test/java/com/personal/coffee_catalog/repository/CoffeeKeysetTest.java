@@ -0,0 +1,159 @@
+package com.personal.coffee_catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CursorPageResponse;
+import com.personal.coffee_catalog.service.CoffeeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Walks the active coffees page by page and compares the result with the full listing sorted in
+ * memory: every row must come exactly once, in keyset order. Pages of 3 rows make cursors land
+ * among ties and among the null prices.
+ */
+@SpringBootTest
+@Transactional // Rollback after each test
+class CoffeeKeysetTest {
+
+  private static final int PAGE_SIZE = 3;
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    // 4 without a price and 3 tied at the same price and name
+    long roasterId = ((Number) entityManager.createNativeQuery("SELECT min(id) FROM roasters")
+      .getSingleResult()).longValue();
+    for (int n = 0; n < 7; n++) {
+      coffeeRepository.save(Coffee.builder()
+        .roasterId(roasterId)
+        .name(n < 4 ? "Keyset Unpriced " + n : "Keyset Tie")
+        .originCountry("Peru")
+        .roastLevel("Light")
+        .price(n < 4 ? null : new BigDecimal("13.37"))
+        .isActive(true)
+        .build());
+    }
+    coffeeRepository.flush();
+  }
+
+  @Test
+  void shouldWalkPricesAscendingWithNullsLast() {
+    Comparator<CoffeeListItem> byPrice = Comparator.comparing(CoffeeListItem::getPrice,
+      Comparator.nullsLast(Comparator.naturalOrder()));
+
+    assertThat(walk(Sort.Order.asc("price")))
+      .containsExactlyElementsOf(expected(byPrice.thenComparing(CoffeeListItem::getId)));
+  }
+
+  @Test
+  void shouldWalkPricesDescendingWithNullsFirst() {
+    Comparator<CoffeeListItem> byPrice = Comparator.comparing(CoffeeListItem::getPrice,
+      Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder().reversed()));
+
+    assertThat(walk(Sort.Order.desc("price"))).containsExactlyElementsOf(
+      expected(byPrice.thenComparing(CoffeeListItem::getId, Comparator.reverseOrder())));
+  }
+
+  @Test
+  void shouldBreakTiesOnIdInBothDirections() {
+    // Name order follows the database collation, so only coverage and the ties are compared
+    List<Long> all = expected(Comparator.comparing(CoffeeListItem::getId));
+    List<Long> ties = coffeeRepository.findAll().stream()
+      .filter(coffee -> coffee.getName().equals("Keyset Tie"))
+      .map(Coffee::getId)
+      .sorted()
+      .toList();
+
+    List<Long> ascending = walk(Sort.Order.asc("name"));
+    List<Long> descending = walk(Sort.Order.desc("name"));
+
+    assertThat(ascending).containsExactlyInAnyOrderElementsOf(all);
+    assertThat(ascending.stream().filter(ties::contains)).containsExactlyElementsOf(ties);
+    assertThat(descending).containsExactlyElementsOf(ascending.reversed());
+  }
+
+  @Test
+  void shouldRejectMalformedCursors() {
+    Sort.Order byPrice = Sort.Order.asc("price");
+
+    assertThatThrownBy(() -> CoffeeKeyset.decode("not base64!", byPrice))
+      .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid cursor");
+    assertThatThrownBy(() -> CoffeeKeyset.decode(raw("price|ASC"), byPrice))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Cursor does not match the requested sort");
+    assertThatThrownBy(() -> CoffeeKeyset.decode(raw("price|ASC|seven|1.00"), byPrice))
+      .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid cursor");
+    assertThatThrownBy(() -> CoffeeKeyset.decode(raw("price|ASC|7|cheap"), byPrice))
+      .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid cursor");
+  }
+
+  @Test
+  void shouldRejectCursorsOfAnotherSort() {
+    String cursor = coffeeService.getActiveCoffeesAfter(null,
+      PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Order.asc("price"))), CoffeeView.SUMMARY)
+      .getNextCursor();
+
+    assertThatThrownBy(() -> CoffeeKeyset.decode(cursor, Sort.Order.desc("price")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Cursor does not match the requested sort");
+    assertThatThrownBy(() -> CoffeeKeyset.decode(cursor, Sort.Order.asc("name")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Cursor does not match the requested sort");
+    assertThatThrownBy(() -> CoffeeKeyset.resolveOrder(Sort.by("name", "price")))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CoffeeKeyset.resolveOrder(Sort.by("description")))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private List<Long> walk(Sort.Order order) {
+    List<Long> ids = new ArrayList<>();
+    String cursor = null;
+    do {
+      CursorPageResponse<CoffeeListItem> page = coffeeService.getActiveCoffeesAfter(cursor,
+        PageRequest.of(0, PAGE_SIZE, Sort.by(order)), CoffeeView.SUMMARY);
+      page.getContent().forEach(coffee -> ids.add(coffee.getId()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+    return ids;
+  }
+
+  private List<Long> expected(Comparator<CoffeeListItem> order) {
+    return coffeeRepository.findPage(CoffeeSpecifications.isActive(),
+        PageRequest.of(0, Integer.MAX_VALUE), CoffeeProjection.of(CoffeeView.SUMMARY))
+      .getContent().stream()
+      .sorted(order)
+      .map(CoffeeListItem::getId)
+      .toList();
+  }
+
+  private static String raw(String cursor) {
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,137 @@
+package com.personal.coffee_catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Query plan regression test for the coffee search: the SQL generated by
+ * {@link CoffeeSpecifications#matches} must stay servable by idx_coffee_beans_search.
+ * <p>A catalog of realistic size is generated and analyzed inside the rolled back transaction,
+ * since on the small seed data the planner has no reason to prefer one index over another. The
+ * generic (parameter independent) plan is inspected; note that it assumes an unknown two-sided
+ * range to be very selective, so those may legitimately be served by a range index instead.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+  + "com.personal.coffee_catalog.repository.CoffeeSearchPlanTest$RecordingInspector")
+@Transactional // Rollback after each test
+class CoffeeSearchPlanTest {
+
+  private static final String SEARCH_INDEX = "idx_coffee_beans_search";
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    RecordingInspector.STATEMENTS.clear();
+
+    // 20 origins x 4 roast levels, 1 in 10 inactive
+    entityManager.createNativeQuery("""
+        INSERT INTO coffees (roaster_id, name, origin_country, origin_region, varietal,
+          processing_method, roast_level, price, acidity_level, sweetness_level,
+          bitterness_level, is_active)
+        SELECT (SELECT min(id) FROM roasters), 'Generated ' || n, 'Origin ' || (n % 20),
+          'Region ' || (n % 50), 'Varietal ' || (n % 7), 'Method ' || (n % 3),
+          'Roast ' || (n % 4), 5 + (n % 30), 1 + (n % 10), 1 + (n % 9), 1 + (n % 8),
+          n % 10 <> 0
+        FROM generate_series(1, 20000) AS n
+        """).executeUpdate();
+    entityManager.createNativeQuery("ANALYZE coffees").executeUpdate();
+  }
+
+  @Test
+  void shouldUseSearchIndexForOriginAndRoastLevel() {
+    // Given
+    CoffeeSearchRequest search = CoffeeSearchRequest.builder()
+      .originCountry("Origin 3")
+      .roastLevel("Roast 1")
+      .build();
+
+    // When
+    String plan = explain(search);
+
+    // Then
+    assertThat(plan).contains(SEARCH_INDEX);
+  }
+
+  @Test
+  void shouldUseSearchIndexWhenCombinedWithOtherCriteria() {
+    // Given
+    CoffeeSearchRequest search = CoffeeSearchRequest.builder()
+      .originCountry("Origin 7")
+      .roastLevel("Roast 2")
+      .processingMethod("Method 1")
+      .varietal("varietal 5")
+      .maxPrice(new BigDecimal("20.00"))
+      .minAcidity(5)
+      .build();
+
+    // When
+    String plan = explain(search);
+
+    // Then
+    assertThat(plan).contains(SEARCH_INDEX);
+  }
+
+  /**
+   * Run the search, then EXPLAIN the exact select statement Hibernate sent
+   */
+  private String explain(CoffeeSearchRequest search) {
+    coffeeRepository.findPage(CoffeeSpecifications.matches(search), PageRequest.of(0, 10),
+      CoffeeProjection.SUMMARY);
+
+    String sql = RecordingInspector.STATEMENTS.stream()
+      .filter(statement -> !statement.contains("count("))
+      .findFirst()
+      .orElseThrow();
+    StringBuilder numbered = new StringBuilder();
+    int parameter = 0;
+    for (char c : sql.toCharArray()) {
+      numbered.append(c == '?' ? "$" + ++parameter : String.valueOf(c));
+    }
+
+    entityManager.createNativeQuery("SET LOCAL plan_cache_mode = force_generic_plan")
+      .executeUpdate();
+    entityManager.createNativeQuery("PREPARE coffee_search AS " + numbered).executeUpdate();
+    try {
+      List<?> rows = entityManager
+        .createNativeQuery("EXPLAIN EXECUTE coffee_search("
+          + String.join(", ", Collections.nCopies(parameter, "NULL")) + ")")
+        .getResultList();
+      return rows.stream().map(Object::toString).collect(Collectors.joining("\n"));
+    } finally {
+      entityManager.createNativeQuery("DEALLOCATE coffee_search").executeUpdate();
+    }
+  }
+
+  public static class RecordingInspector implements StatementInspector {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      if (sql.contains("from coffees")) {
+        STATEMENTS.add(sql);
+      }
+      return sql;
+    }
+  }
+}
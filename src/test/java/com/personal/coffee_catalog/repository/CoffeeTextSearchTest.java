@@ -0,0 +1,175 @@
+package com.personal.coffee_catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.service.CoffeeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Full-text search over coffees: the triggers of init-scripts/01-create-tables.sql must keep
+ * search_vector in step with the coffee columns and its flavor notes, matches are ranked by where
+ * the word was found, and misspelled names fall back to trigram similarity.
+ * <p>The searched words are made up so that the seed data never matches them.
+ */
+@SpringBootTest
+@Transactional // Rollback after each test
+class CoffeeTextSearchTest {
+
+  private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10);
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private long roasterId;
+
+  @BeforeEach
+  void setUp() {
+    roasterId = ((Number) entityManager.createNativeQuery("SELECT min(id) FROM roasters")
+      .getSingleResult()).longValue();
+  }
+
+  @Test
+  void shouldIndexCoffeeColumnsOnInsertAndUpdate() {
+    // Given
+    Coffee coffee = saveCoffee("Text Search Reserve", "Notes of quokkaberry");
+
+    // When
+    coffee.setDescription("Notes of wallabyfruit");
+    coffee.setVarietal("Numbatica");
+    coffeeRepository.flush();
+
+    // Then
+    assertThat(searchIds("quokkaberry")).isEmpty();
+    assertThat(searchIds("wallabyfruit")).containsExactly(coffee.getId());
+    assertThat(searchIds("numbatica")).containsExactly(coffee.getId());
+  }
+
+  @Test
+  void shouldIndexFlavorNotesWhenLinkedRenamedAndUnlinked() {
+    // Given
+    Coffee coffee = saveCoffee("Text Search Reserve", null);
+    long flavorNoteId = ((Number) entityManager.createNativeQuery(
+        "INSERT INTO flavor_notes (name, category) VALUES ('Tamarillo', 'Fruity') RETURNING id")
+      .getSingleResult()).longValue();
+
+    // When / Then
+    execute("INSERT INTO coffee_flavor_notes (coffee_id, flavor_note_id) VALUES (?1, ?2)",
+      coffee.getId(), flavorNoteId);
+    assertThat(searchIds("tamarillo")).containsExactly(coffee.getId());
+
+    execute("UPDATE flavor_notes SET name = 'Feijoa' WHERE id = ?1", flavorNoteId);
+    assertThat(searchIds("tamarillo")).isEmpty();
+    assertThat(searchIds("feijoa")).containsExactly(coffee.getId());
+
+    execute("DELETE FROM coffee_flavor_notes WHERE coffee_id = ?1 AND flavor_note_id = ?2",
+      coffee.getId(), flavorNoteId);
+    assertThat(searchIds("feijoa")).isEmpty();
+  }
+
+  @Test
+  void shouldRankNameMatchesBeforeFlavorNotesBeforeDescription() {
+    // Given
+    Coffee inDescription = saveCoffee("Text Search Lot A", "A hint of quokkaberry");
+    Coffee inFlavorNote = saveCoffee("Text Search Lot B", null);
+    Coffee inName = saveCoffee("Quokkaberry Reserve", null);
+    long flavorNoteId = ((Number) entityManager.createNativeQuery(
+        "INSERT INTO flavor_notes (name) VALUES ('Quokkaberry') RETURNING id")
+      .getSingleResult()).longValue();
+    execute("INSERT INTO coffee_flavor_notes (coffee_id, flavor_note_id) VALUES (?1, ?2)",
+      inFlavorNote.getId(), flavorNoteId);
+
+    // When
+    List<Long> ids = searchIds("quokkaberry");
+
+    // Then
+    assertThat(ids).containsExactly(inName.getId(), inFlavorNote.getId(), inDescription.getId());
+  }
+
+  @Test
+  void shouldSliceWithoutCounting() {
+    // Given
+    for (int n = 0; n < 3; n++) {
+      saveCoffee("Text Search Lot " + n, "Notes of quokkaberry");
+    }
+
+    // When
+    Slice<Coffee> first = coffeeRepository.searchByText("quokkaberry", PageRequest.of(0, 2));
+    Slice<Coffee> second = coffeeRepository.searchByText("quokkaberry", PageRequest.of(1, 2));
+
+    // Then
+    assertThat(first.getContent()).hasSize(2);
+    assertThat(first.hasNext()).isTrue();
+    assertThat(second.getContent()).hasSize(1);
+    assertThat(second.hasNext()).isFalse();
+  }
+
+  @Test
+  void shouldFallBackToNameSimilarityForMisspelledWords() {
+    // Given
+    Coffee coffee = saveCoffee("Wombatique Reserve", null);
+
+    // When
+    Slice<CoffeeResponse> results = coffeeService.searchCoffeesByText("wombatiqe", FIRST_PAGE);
+
+    // Then
+    assertThat(coffeeRepository.searchByText("wombatiqe", FIRST_PAGE)).isEmpty();
+    assertThat(results.getContent()).extracting(CoffeeResponse::getId)
+      .containsExactly(coffee.getId());
+  }
+
+  @Test
+  void shouldNotFallBackPastTheLastPageOfWholeWordMatches() {
+    // Given
+    saveCoffee("Wombatique Reserve", null);
+    saveCoffee("Text Search Lot", "Wombatique notes");
+
+    // When
+    Slice<CoffeeResponse> results = coffeeService.searchCoffeesByText("wombatique",
+      PageRequest.of(1, 10));
+
+    // Then
+    assertThat(results.getContent()).isEmpty();
+  }
+
+  private Coffee saveCoffee(String name, String description) {
+    return coffeeRepository.saveAndFlush(Coffee.builder()
+      .roasterId(roasterId)
+      .name(name)
+      .description(description)
+      .originCountry("Peru")
+      .roastLevel("Light")
+      .isActive(true)
+      .build());
+  }
+
+  private void execute(String sql, Object... parameters) {
+    var query = entityManager.createNativeQuery(sql);
+    for (int i = 0; i < parameters.length; i++) {
+      query.setParameter(i + 1, parameters[i]);
+    }
+    query.executeUpdate();
+  }
+
+  private List<Long> searchIds(String query) {
+    return coffeeRepository.searchByText(query, FIRST_PAGE).stream()
+      .map(Coffee::getId)
+      .toList();
+  }
+}
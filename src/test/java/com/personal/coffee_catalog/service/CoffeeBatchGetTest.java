@@ -0,0 +1,76 @@
+package com.personal.coffee_catalog.service;
+
+import static com.personal.coffee_catalog.config.SqlStatementGuard.assertMaxStatements;
+import static com.personal.coffee_catalog.repository.CoffeeFixtures.anyRoasterId;
+import static com.personal.coffee_catalog.repository.CoffeeFixtures.insertCoffee;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.response.CoffeeBatchGetResponse;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional // Rollback after each test
+class CoffeeBatchGetTest {
+
+  private static final long MISSING_ID = 999_999;
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private CoffeeCatalogCache coffeeCatalogCache;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private long roasterId;
+
+  @BeforeEach
+  void setUp() {
+    roasterId = anyRoasterId(entityManager);
+  }
+
+  @Test
+  void shouldReturnCoffeesInRequestOrderAndReportTheOthers() {
+    // Given
+    long first = insertCoffee(entityManager, roasterId, "Batch Lot A", null, true);
+    long second = insertCoffee(entityManager, roasterId, "Batch Lot B", null, true);
+    long inactive = insertCoffee(entityManager, roasterId, "Batch Lot C", null, false);
+
+    // When - duplicates are returned once; one query loads the coffees, one their roasters
+    CoffeeBatchGetResponse response = assertMaxStatements(2, () -> coffeeService.getCoffees(
+      List.of(second, MISSING_ID, first, inactive, first)));
+
+    // Then
+    assertThat(response.getCoffees()).extracting(CoffeeResponse::getId)
+      .containsExactly(second, first);
+    assertThat(response.getCoffees()).extracting(CoffeeResponse::getName)
+      .containsExactly("Batch Lot B", "Batch Lot A");
+    assertThat(response.getMissingIds()).containsExactly(MISSING_ID);
+    assertThat(response.getInactiveIds()).containsExactly(inactive);
+  }
+
+  @Test
+  void shouldServeCachedCoffeesWithoutReloading() {
+    // Given
+    long first = insertCoffee(entityManager, roasterId, "Batch Lot D", null, true);
+    long second = insertCoffee(entityManager, roasterId, "Batch Lot E", null, true);
+    coffeeService.getCoffees(List.of(first, second));
+    long hits = coffeeCatalogCache.getStats().get("coffees").getHitCount();
+
+    // When
+    CoffeeBatchGetResponse response = coffeeService.getCoffees(List.of(first, second));
+
+    // Then
+    assertThat(response.getCoffees()).hasSize(2);
+    assertThat(coffeeCatalogCache.getStats().get("coffees").getHitCount()).isEqualTo(hits + 2);
+  }
+}
@@ -0,0 +1,125 @@
+package com.personal.coffee_catalog.service;
+
+import static com.personal.coffee_catalog.repository.CoffeeFixtures.insertCoffee;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.request.CoffeeBulkSelection;
+import com.personal.coffee_catalog.request.CoffeeBulkUpdateRequest;
+import com.personal.coffee_catalog.response.CoffeeBulkUpdateResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional // Rollback after each test
+class CoffeeBulkUpdateTest {
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private CoffeeSearchIndex coffeeSearchIndex;
+
+  @Autowired
+  private CoffeeFacetIndex coffeeFacetIndex;
+
+  @Autowired
+  private CoffeeSimilarityIndex coffeeSimilarityIndex;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private long roasterId;
+  private long first;
+  private long second;
+  private long third;
+
+  @BeforeEach
+  void setUp() {
+    roasterId = ((Number) entityManager.createNativeQuery(
+      "INSERT INTO roasters (company_name) VALUES ('Bulk Roastery') RETURNING id")
+      .getSingleResult()).longValue();
+    first = insertCoffee(entityManager, roasterId, "Bulkia Washed", null, true);
+    second = insertCoffee(entityManager, roasterId, "Bulkia Natural", null, true);
+    third = insertCoffee(entityManager, roasterId, "Bulkia Honey", null, true);
+    coffeeSearchIndex.build();
+    coffeeFacetIndex.build();
+    coffeeSimilarityIndex.build();
+  }
+
+  @AfterTransaction
+  void restoreIndexes() {
+    coffeeSearchIndex.build();
+    coffeeFacetIndex.build();
+    coffeeSimilarityIndex.build();
+  }
+
+  @Test
+  void shouldRepriceRoasterLineup() {
+    // When
+    CoffeeBulkUpdateResponse response = coffeeService.updateCoffees(
+      CoffeeBulkUpdateRequest.builder()
+        .selection(CoffeeBulkSelection.builder().roasterId(roasterId).build())
+        .price(new BigDecimal("14.999"))
+        .roastLevel("Medium")
+        .build());
+
+    // Then
+    assertThat(response.getUpdatedRows()).isEqualTo(3);
+    assertThat(response.getIds()).containsExactlyInAnyOrder(first, second, third);
+    assertThat(entityManager.createNativeQuery(
+        "SELECT DISTINCT price, roast_level, origin_country FROM coffees WHERE roaster_id = ?1")
+      .setParameter(1, roasterId)
+      .getResultList())
+      .singleElement()
+      .satisfies(row -> assertThat((Object[]) row)
+        .containsExactly(new BigDecimal("15.00"), "Medium", "Peru"));
+
+    // And the search index serves the new prices
+    assertThat(coffeeService.autocomplete("bulkia", null, null, 10))
+      .extracting(CoffeeSuggestionResponse::getPrice)
+      .containsOnly(new BigDecimal("15.00"));
+  }
+
+  @Test
+  void shouldDeactivateOnlySelectedActiveCoffees() {
+    // Given
+    coffeeService.deactivateCoffees(CoffeeBulkSelection.builder().ids(List.of(first)).build());
+
+    // When - ids restricted to the roaster's coffees, one of them already inactive
+    CoffeeBulkUpdateResponse response = coffeeService.deactivateCoffees(
+      CoffeeBulkSelection.builder()
+        .ids(List.of(first, second, 999_999L))
+        .roasterId(roasterId)
+        .build());
+
+    // Then
+    assertThat(response.getUpdatedRows()).isEqualTo(1);
+    assertThat(response.getIds()).containsExactly(second);
+    assertThat(coffeeService.getCoffees(List.of(first, second, third)).getInactiveIds())
+      .containsExactlyInAnyOrder(first, second);
+    assertThat(coffeeService.autocomplete("bulkia", null, null, 10))
+      .extracting(CoffeeSuggestionResponse::getName)
+      .containsExactly("Bulkia Honey");
+  }
+
+  @Test
+  void shouldRejectUnboundedSelection() {
+    assertThatThrownBy(() -> coffeeService.deactivateCoffees(new CoffeeBulkSelection()))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> coffeeService.updateCoffees(CoffeeBulkUpdateRequest.builder()
+      .selection(CoffeeBulkSelection.builder().roasterId(roasterId).build())
+      .build()))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("At least one field");
+  }
+}
@@ -0,0 +1,197 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+class CoffeeCatalogCacheTest {
+
+  private final CoffeeCatalogCache cache = new CoffeeCatalogCache(true, 100, 100, 2, 60000);
+
+  @Test
+  void shouldServeRepeatedReadsFromCache() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<CoffeeResponse> loader = () -> {
+      loads.incrementAndGet();
+      return coffee(1L, "Colombian Supremo", "16.99");
+    };
+
+    // When
+    cache.getCoffee(1L, loader);
+    cache.getCoffee(1L, loader);
+
+    // Then
+    assertThat(loads).hasValue(1);
+    assertThat(cache.getStats().get("coffees").getHitCount()).isEqualTo(1);
+    assertThat(cache.getStats().get("coffees").getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldOnlyCacheFirstPages() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    Pageable deepPage = PageRequest.of(2, 10, Sort.by("id"));
+
+    // When
+    cache.getActivePage(deepPage, CoffeeView.FULL, () -> page(deepPage, loads));
+    cache.getActivePage(deepPage, CoffeeView.FULL, () -> page(deepPage, loads));
+
+    // Then
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void shouldEvictOnlyPagesAffectedByUpdate() {
+    // Given - pages sorted by id (containing coffee 1) and by price (not containing it)
+    AtomicInteger loads = new AtomicInteger();
+    Pageable byId = PageRequest.of(0, 10, Sort.by("id"));
+    Pageable byName = PageRequest.of(0, 10, Sort.by("name"));
+    Pageable byPrice = PageRequest.of(0, 10, Sort.by("price"));
+    cache.getActivePage(byId, CoffeeView.FULL,
+      () -> page(byId, loads, coffee(1L, "Colombian Supremo", "16.99")));
+    cache.getActivePage(byName, CoffeeView.FULL,
+      () -> page(byName, loads, coffee(2L, "Brazilian Santos", "15.99")));
+    cache.getActivePage(byPrice, CoffeeView.FULL,
+      () -> page(byPrice, loads, coffee(2L, "Brazilian Santos", "15.99")));
+
+    // When - coffee 1 is repriced
+    cache.onCoffeeUpdated(coffee(1L, "Colombian Supremo", "16.99"),
+      coffee(1L, "Colombian Supremo", "14.99"));
+
+    // Then - the page containing it and the page sorted by price are reloaded
+    cache.getActivePage(byId, CoffeeView.FULL, () -> page(byId, loads));
+    cache.getActivePage(byName, CoffeeView.FULL, () -> page(byName, loads));
+    cache.getActivePage(byPrice, CoffeeView.FULL, () -> page(byPrice, loads));
+    assertThat(loads).hasValue(5);
+    assertThat(cache.getStats().get("activePages").getInvalidationCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldEvictAllPagesWhenActiveSetChanges() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    Pageable byName = PageRequest.of(0, 10, Sort.by("name"));
+    cache.getActivePage(byName, CoffeeView.FULL, () -> page(byName, loads));
+
+    // When
+    cache.onCoffeeCreated(coffee(3L, "Kenya AA Kirinyaga", "19.99"));
+
+    // Then
+    cache.getActivePage(byName, CoffeeView.FULL, () -> page(byName, loads));
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void shouldNotCacheCoffeeLoadedBeforeConcurrentWrite() {
+    // Given - a load that reads the old row while an update commits and is reported
+    AtomicInteger loads = new AtomicInteger();
+    CoffeeResponse before = coffee(1L, "Colombian Supremo", "16.99");
+    CoffeeResponse after = coffee(1L, "Colombian Supremo", "14.99");
+    Supplier<CoffeeResponse> racingLoader = () -> {
+      loads.incrementAndGet();
+      cache.onCoffeeUpdated(before, after);
+      return before;
+    };
+
+    // When
+    CoffeeResponse raced = cache.getCoffee(1L, racingLoader);
+    CoffeeResponse reloaded = cache.getCoffee(1L, () -> {
+      loads.incrementAndGet();
+      return after;
+    });
+
+    // Then - the stale result is returned to its own caller only, and the next read reloads
+    assertThat(raced.getPrice()).isEqualByComparingTo("16.99");
+    assertThat(reloaded.getPrice()).isEqualByComparingTo("14.99");
+    assertThat(loads).hasValue(2);
+    assertThat(cache.getCoffee(1L, () -> before).getPrice()).isEqualByComparingTo("14.99");
+  }
+
+  @Test
+  void shouldNotCachePageLoadedBeforeConcurrentWrite() {
+    // Given - a page load that overlaps the creation of an active coffee
+    AtomicInteger loads = new AtomicInteger();
+    Pageable byName = PageRequest.of(0, 10, Sort.by("name"));
+    CoffeeCatalogCache.CatalogVersion initial = cache.getCatalogVersion();
+
+    // When
+    cache.getActivePage(byName, CoffeeView.FULL, () -> {
+      cache.onCoffeeCreated(coffee(3L, "Kenya AA Kirinyaga", "19.99"));
+      return page(byName, loads);
+    });
+    CoffeeCatalogCache.CatalogVersion written = cache.getCatalogVersion();
+    cache.getActivePage(byName, CoffeeView.FULL,
+      () -> page(byName, loads, coffee(3L, "Kenya AA Kirinyaga", "19.99")));
+    Page<CoffeeListItem> cached = cache.getActivePage(byName, CoffeeView.FULL,
+      () -> page(byName, loads));
+
+    // Then - under the new version only the page loaded after the write is served
+    assertThat(written.tag()).isNotEqualTo(initial.tag());
+    assertThat(loads).hasValue(2);
+    assertThat(cached.getContent()).extracting(CoffeeListItem::getId).containsExactly(3L);
+  }
+
+  @Test
+  void shouldNotCacheBatchLoadedBeforeConcurrentWrite() {
+    // Given
+    CoffeeResponse before = coffee(1L, "Colombian Supremo", "16.99");
+    CoffeeResponse after = coffee(1L, "Colombian Supremo", "14.99");
+
+    // When - the batch load overlaps a bulk update of one of its coffees
+    cache.getCoffees(Set.of(1L, 2L), misses -> {
+      cache.onCoffeesUpdated(List.of(1L));
+      return Map.of(1L, before, 2L, coffee(2L, "Brazilian Santos", "15.99"));
+    });
+
+    // Then
+    assertThat(cache.getCoffee(1L, () -> after).getPrice()).isEqualByComparingTo("14.99");
+  }
+
+  @Test
+  void shouldMoveCatalogVersionOnEveryWrite() {
+    // Given
+    CoffeeCatalogCache.CatalogVersion initial = cache.getCatalogVersion();
+    CoffeeCatalogCache other = new CoffeeCatalogCache(true, 100, 100, 2, 60000);
+
+    // When
+    cache.onCoffeeUpdated(coffee(1L, "Colombian Supremo", "16.99"),
+      coffee(1L, "Colombian Supremo", "14.99"));
+    CoffeeCatalogCache.CatalogVersion updated = cache.getCatalogVersion();
+    cache.onCoffeesUpdated(List.of());
+
+    // Then - an empty bulk update changes nothing, and another process never issues the same tag
+    assertThat(updated.tag()).isNotEqualTo(initial.tag());
+    assertThat(cache.getCatalogVersion()).isEqualTo(updated);
+    assertThat(other.getCatalogVersion().tag()).isNotEqualTo(initial.tag());
+  }
+
+  private static Page<CoffeeListItem> page(Pageable pageable, AtomicInteger loads,
+    CoffeeListItem... coffees) {
+    loads.incrementAndGet();
+    return new PageImpl<>(List.of(coffees), pageable, coffees.length);
+  }
+
+  private static CoffeeResponse coffee(Long id, String name, String price) {
+    return CoffeeResponse.builder()
+      .id(id)
+      .name(name)
+      .price(new BigDecimal(price))
+      .isActive(true)
+      .build();
+  }
+}
@@ -0,0 +1,267 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Buffers the last 4 events, so resuming from further back resets the client, and queues up to 8
+ * events per subscriber
+ */
+class CoffeeChangeFeedTest {
+
+  private static final Pattern EVENT = Pattern.compile("id:(\\S+)\nevent:(\\S+)\ndata:(.*)\n");
+
+  private final CoffeeChangeFeed feed = new CoffeeChangeFeed(JsonMapper.builder().build(), 4, 8,
+    60_000, 60_000);
+  private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(feed)).build();
+  // Writes of its subscribers block once stalled, like a client that stopped reading
+  private final StallingFilter stallingFilter = new StallingFilter();
+  private final MockMvc stalledMockMvc = MockMvcBuilders.standaloneSetup(new FeedController(feed))
+    .addFilters(stallingFilter)
+    .build();
+  private final AtomicLong nextEventId = new AtomicLong();
+
+  @Test
+  void shouldStreamChangesAndResumeAfterLastEventId() throws Exception {
+    // Given - a subscriber that joined after the first change
+    feed.onCoffeesRemoved(ChangeType.DELETED, List.of(7L), eventIds(7L));
+    MvcResult live = subscribe(null);
+    String subscribed = awaitEvents(live, 1).getFirst();
+
+    // When
+    feed.onCoffeesSaved(ChangeType.CREATED, List.of(coffee(8L), coffee(9L)), eventIds(8L, 9L));
+    feed.onCoffeesRemoved(ChangeType.DEACTIVATED, List.of(8L), eventIds(8L));
+
+    // Then - live events follow the subscription point
+    assertThat(subscribed).contains("SUBSCRIBED", "{\"sequence\":1}");
+    List<String> events = awaitEvents(live, 4);
+    assertThat(events.get(1)).contains("-2 CREATED", "\"coffeeId\":8", "\"name\":\"Lot 8\"");
+    assertThat(events.get(2)).contains("-3 CREATED", "\"coffeeId\":9");
+    assertThat(events.get(3)).contains("-4 DEACTIVATED", "\"coffee\":null");
+
+    // And a client resuming after event 2 gets events 3 and 4 only
+    String stream = subscribed.substring(0, subscribed.indexOf('-'));
+    List<String> resumed = awaitEvents(subscribe(stream + "-2"), 2);
+    assertThat(resumed.get(0)).startsWith(stream + "-3 CREATED");
+    assertThat(resumed.get(1)).startsWith(stream + "-4 DEACTIVATED");
+  }
+
+  @Test
+  void shouldResetClientsResumingFromUnbufferedEvents() throws Exception {
+    // Given - 6 events, of which only the last 4 are buffered
+    feed.onCoffeesRemoved(ChangeType.DELETED, List.of(1L, 2L, 3L, 4L, 5L, 6L),
+      eventIds(1L, 2L, 3L, 4L, 5L, 6L));
+    String stream = awaitEvents(subscribe(null), 1).getFirst().split("-")[0];
+
+    // When
+    String tooOld = awaitEvents(subscribe(stream + "-1"), 1).getFirst();
+    String oldest = awaitEvents(subscribe(stream + "-2"), 1).getFirst();
+    String otherProcess = awaitEvents(subscribe("0-6"), 1).getFirst();
+
+    // Then
+    assertThat(tooOld).isEqualTo(stream + "-6 RESET {\"sequence\":6}");
+    assertThat(oldest).startsWith(stream + "-3 DELETED");
+    assertThat(otherProcess).isEqualTo(stream + "-6 RESET {\"sequence\":6}");
+  }
+
+  @Test
+  void shouldDisconnectSubscriberThatStopsReadingWithoutBlockingPublishers() throws Exception {
+    // Given - one subscriber reading and one that stops reading after subscribing
+    MvcResult reading = subscribe(null);
+    MvcResult stalled = stalledMockMvc.perform(get("/changes"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+    String stream = awaitEvents(stalled, 1).getFirst().split("-")[0];
+    stallingFilter.stall();
+
+    // When - more events than the stalled subscriber's queue holds
+    for (long id = 1; id <= 12; id++) {
+      List<Long> coffeeIds = List.of(id);
+      Map<Long, Long> eventIds = eventIds(id);
+      assertTimeoutPreemptively(Duration.ofSeconds(1),
+        () -> feed.onCoffeesRemoved(ChangeType.DELETED, coffeeIds, eventIds));
+    }
+
+    // Then - the stalled subscriber is dropped while the other one gets every event
+    assertThat(feed.getSubscriberCount()).isEqualTo(1);
+    assertThat(awaitEvents(reading, 13).getLast()).startsWith(stream + "-12 DELETED");
+
+    // And once unblocked, it is sent what was queued, disconnected, and resumes from the buffer
+    stallingFilter.resume();
+    assertThat(stalled.getAsyncResult(5000)).isNull();
+    List<String> received = awaitEvents(stalled, 9);
+    String lastEventId = received.getLast().split(" ")[0];
+    long lastSequence = Long.parseLong(lastEventId.split("-")[1]);
+    assertThat(lastSequence).isBetween(8L, 9L);
+
+    List<String> resumed = awaitEvents(subscribe(lastEventId), (int) (12 - lastSequence));
+    assertThat(resumed).hasSize((int) (12 - lastSequence));
+    assertThat(resumed.getFirst()).startsWith(stream + "-" + (lastSequence + 1) + " DELETED");
+    assertThat(resumed.getLast()).startsWith(stream + "-12 DELETED");
+  }
+
+  @Test
+  void shouldDropChangesOlderThanTheLastPublished() throws Exception {
+    // Given
+    MvcResult live = subscribe(null);
+    awaitEvents(live, 1);
+
+    // When - an update committed before the delete reaches the feed after it
+    feed.onCoffeesRemoved(ChangeType.DELETED, List.of(7L), Map.of(7L, 11L));
+    feed.onCoffeesSaved(ChangeType.UPDATED, List.of(coffee(7L)), Map.of(7L, 10L));
+    feed.onCoffeesSaved(ChangeType.CREATED, List.of(coffee(8L)), Map.of(8L, 12L));
+
+    // Then - the update is not sent and takes no sequence number
+    List<String> events = awaitEvents(live, 3);
+    assertThat(events).hasSize(3);
+    assertThat(events.get(1)).contains("-1 DELETED", "\"coffeeId\":7");
+    assertThat(events.get(2)).contains("-2 CREATED", "\"coffeeId\":8");
+  }
+
+  private MvcResult subscribe(String lastEventId) throws Exception {
+    return mockMvc.perform(lastEventId == null ? get("/changes")
+        : get("/changes").header("Last-Event-ID", lastEventId))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+  }
+
+  /**
+   * Wait for the subscriber to have received at least count events
+   *
+   * @return the events as "id name data"
+   */
+  private static List<String> awaitEvents(MvcResult result, int count) throws Exception {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (true) {
+      Matcher matcher = EVENT.matcher(result.getResponse().getContentAsString());
+      List<String> events = matcher.results()
+        .map(event -> event.group(1) + " " + event.group(2) + " " + event.group(3))
+        .toList();
+      if (events.size() >= count || System.currentTimeMillis() > deadline) {
+        return events;
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Outbox event IDs for changes of the given coffees, in the order they were made
+   */
+  private Map<Long, Long> eventIds(Long... coffeeIds) {
+    Map<Long, Long> eventIds = new HashMap<>();
+    for (Long coffeeId : coffeeIds) {
+      eventIds.put(coffeeId, nextEventId.incrementAndGet());
+    }
+    return eventIds;
+  }
+
+  private static CoffeeResponse coffee(Long id) {
+    return CoffeeResponse.builder().id(id).name("Lot " + id).isActive(true).build();
+  }
+
+  private static class StallingFilter extends OncePerRequestFilter {
+
+    private final CountDownLatch resumed = new CountDownLatch(1);
+    private volatile boolean stalled;
+
+    void stall() {
+      stalled = true;
+    }
+
+    void resume() {
+      resumed.countDown();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+      return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+      chain.doFilter(request, new HttpServletResponseWrapper(response) {
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+          ServletOutputStream out = super.getOutputStream();
+          return new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+              awaitResume();
+              out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+              awaitResume();
+              out.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+              return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+              out.setWriteListener(writeListener);
+            }
+          };
+        }
+      });
+    }
+
+    private void awaitResume() throws IOException {
+      if (!stalled) {
+        return;
+      }
+      try {
+        resumed.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+    }
+  }
+
+  @RestController
+  private record FeedController(CoffeeChangeFeed feed) {
+
+    @GetMapping("/changes")
+    SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String id) {
+      return feed.subscribe(id);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.controller.CoffeeController;
+import com.personal.coffee_catalog.repository.CoffeeProjection;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.utils.CsvReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@SpringBootTest
+@Transactional // Rollback after each test
+class CoffeeExporterTest {
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private CoffeeController coffeeController;
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Test
+  void shouldExportActiveCoffeesAsNdjson() {
+    // When
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long written = coffeeService.exportCoffees(DataFormat.NDJSON, CoffeeView.FULL, out);
+
+    // Then - one object per line, in ID order
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(lines).hasSize((int) written);
+    assertThat(written).isEqualTo(coffeeRepository.count(CoffeeSpecifications.isActive()));
+    assertThat(lines).allMatch(line -> line.startsWith("{\"id\":") && line.endsWith("}"));
+  }
+
+  @Test
+  void shouldStreamGzippedCsvThatReadsBack() throws IOException {
+    // Given - a description that needs quoting
+    entityManager.createNativeQuery("""
+        INSERT INTO coffees (roaster_id, name, description, origin_country, roast_level, price)
+        VALUES ((SELECT min(id) FROM roasters), 'Export "Reserve", Lot 7',
+          'Honey, plum' || chr(10) || 'and cedar', 'Peru', 'Light', 12.50)
+        """).executeUpdate();
+
+    // When
+    ResponseEntity<StreamingResponseBody> response = coffeeController.exportCoffees(
+      DataFormat.CSV, CoffeeView.FULL, "br, gzip");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    // Then
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    CsvReader csv = new CsvReader(new InputStreamReader(
+      new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())), StandardCharsets.UTF_8));
+    assertThat(csv.readRecord()).isEqualTo(CoffeeProjection.FULL.properties());
+    List<List<String>> rows = new ArrayList<>();
+    for (List<String> row; (row = csv.readRecord()) != null; ) {
+      rows.add(row);
+    }
+    assertThat(rows).hasSize((int) coffeeRepository.count(CoffeeSpecifications.isActive()));
+    assertThat(rows.getLast().subList(1, 4))
+      .containsExactly("Export \"Reserve\", Lot 7", "Honey, plum\nand cedar", "Peru");
+  }
+
+  /**
+   * Runs in its own JVM with a small heap (see the bounded-heap execution in pom.xml): 1M coffees
+   * do not fit in it, so the export only passes if rows are streamed rather than collected.
+   */
+  @Test
+  @Tag("bounded-heap")
+  void shouldExportOneMillionCoffeesInSmallHeap() {
+    // Given - a temporary table shadows coffees on this connection (unindexed, fast to fill)
+    entityManager.createNativeQuery(
+      "CREATE TEMP TABLE coffees (LIKE public.coffees INCLUDING DEFAULTS) ON COMMIT DROP")
+      .executeUpdate();
+    entityManager.createNativeQuery("""
+        INSERT INTO coffees (id, roaster_id, name, description, origin_country, origin_region,
+          roast_level, price)
+        SELECT n, 1, 'Streamed Lot ' || n, 'Notes of cocoa and plum, lot ' || n,
+          'Origin ' || (n % 30), 'Region ' || (n % 11), 'Medium', 10 + n % 20
+        FROM generate_series(1, 1000000) AS n
+        """).executeUpdate();
+
+    // When
+    LineCounter out = new LineCounter();
+    long written = coffeeService.exportCoffees(DataFormat.NDJSON, CoffeeView.FULL, out);
+
+    // Then
+    assertThat(written).isEqualTo(1_000_000);
+    assertThat(out.lines).isEqualTo(1_000_000);
+  }
+
+  private static class LineCounter extends OutputStream {
+
+    private long lines;
+
+    @Override
+    public void write(int b) {
+      if (b == '\n') {
+        lines++;
+      }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        write(bytes[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.repository.CoffeeSpecifications;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CoffeeFacetsResponse;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The facet counts must agree with what the coffee search returns for the same criteria
+ */
+@SpringBootTest
+@Transactional // Rollback after each test
+class CoffeeFacetIndexTest {
+
+  @Autowired
+  private CoffeeFacetIndex coffeeFacetIndex;
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    // Every filterable column is missing on some rows, 1 in 10 inactive
+    entityManager.createNativeQuery("""
+        INSERT INTO coffees (roaster_id, name, origin_country, origin_region, varietal,
+          processing_method, roast_level, price, altitude_meters, acidity_level, sweetness_level,
+          bitterness_level, is_active)
+        SELECT (SELECT min(id) FROM roasters), 'Facet ' || n, 'Origin ' || (n % 7),
+          CASE WHEN n % 13 <> 0 THEN 'Region ' || (n % 11) END,
+          CASE WHEN n % 5 <> 0 THEN 'Caturra, Typica ' || (n % 4) END,
+          CASE WHEN n % 6 <> 0 THEN 'Method ' || (n % 3) END,
+          'Roast ' || (n % 4),
+          CASE WHEN n % 17 <> 0 THEN 5.49 + (n % 40) END,
+          CASE WHEN n % 9 <> 0 THEN 1000 + (n % 1500) END,
+          1 + (n % 10), CASE WHEN n % 8 <> 0 THEN 1 + (n % 9) END, 1 + (n % 8),
+          n % 10 <> 0
+        FROM generate_series(1, 3000) AS n
+        """).executeUpdate();
+    entityManager.createNativeQuery("""
+        INSERT INTO coffee_flavor_notes (coffee_id, flavor_note_id)
+        SELECT c.id, fn.id
+        FROM coffees c CROSS JOIN flavor_notes fn
+        WHERE c.name LIKE 'Facet %' AND (c.id + fn.id) % 6 = 0
+        """).executeUpdate();
+    coffeeFacetIndex.build();
+  }
+
+  @AfterTransaction
+  void restoreIndex() {
+    coffeeFacetIndex.build();
+  }
+
+  @Test
+  void shouldCountLikeTheSearch() {
+    List<CoffeeSearchRequest> searches = List.of(
+      new CoffeeSearchRequest(),
+      CoffeeSearchRequest.builder().originCountry("Origin 3").roastLevel(" Roast 1 ").build(),
+      CoffeeSearchRequest.builder().varietal("TYPICA 2").minPrice(new BigDecimal("20.491"))
+        .maxAltitude(2000).build(),
+      CoffeeSearchRequest.builder().originRegion("Region 4").processingMethod("Method 1")
+        .minSweetness(3).maxSweetness(7).maxPrice(new BigDecimal("30.49")).build(),
+      CoffeeSearchRequest.builder().originCountry("Nowhere").build()
+    );
+
+    for (CoffeeSearchRequest search : searches) {
+      // When
+      CoffeeFacetsResponse facets = coffeeFacetIndex.count(search);
+
+      // Then - the total and every single facet value narrow the search the same way
+      assertThat(facets.getTotal()).isEqualTo(countMatches(search));
+      String roastLevel = search.getRoastLevel();
+      facets.getRoastLevel().forEach((value, count) -> {
+        search.setRoastLevel(value);
+        assertThat(countMatches(search)).as("%s %s", search, value).isEqualTo(count);
+      });
+      search.setRoastLevel(roastLevel);
+      String processingMethod = search.getProcessingMethod();
+      facets.getProcessingMethod().forEach((value, count) -> {
+        search.setProcessingMethod(value);
+        assertThat(countMatches(search)).as("%s %s", search, value).isEqualTo(count);
+      });
+      search.setProcessingMethod(processingMethod);
+    }
+  }
+
+  @Test
+  void shouldCountPriceRangesAndFlavorCategories() {
+    // Given
+    List<Object[]> rows = entityManager.createNativeQuery("""
+        SELECT fn.category, count(DISTINCT c.id)
+        FROM coffees c
+        JOIN coffee_flavor_notes cfn ON cfn.coffee_id = c.id
+        JOIN flavor_notes fn ON fn.id = cfn.flavor_note_id
+        WHERE c.is_active AND c.origin_country = 'Origin 2'
+        GROUP BY fn.category
+        """, Object[].class).getResultList();
+    Map<String, Long> expectedCategories = rows.stream()
+      .collect(Collectors.toMap(row -> (String) row[0], row -> ((Number) row[1]).longValue()));
+
+    // When
+    CoffeeFacetsResponse facets = coffeeFacetIndex.count(
+      CoffeeSearchRequest.builder().originCountry("Origin 2").build());
+
+    // Then
+    assertThat(facets.getFlavorCategory()).isEqualTo(expectedCategories);
+    assertThat(facets.getPriceRange().keySet())
+      .containsExactly("0-10", "10-20", "20-30", "30-40", "40+");
+    assertThat(facets.getPriceRange().get("10-20")).isEqualTo(countMatches(
+      CoffeeSearchRequest.builder().originCountry("Origin 2").minPrice(BigDecimal.TEN)
+        .maxPrice(new BigDecimal("19.99")).build()));
+    assertThat(facets.getOriginCountry()).containsOnlyKeys("Origin 2");
+  }
+
+  @Test
+  void shouldApplyWritesIncrementally() {
+    // Given
+    Long coffeeId = ((Number) entityManager
+      .createNativeQuery("SELECT id FROM coffees WHERE name = 'Facet 42'")
+      .getSingleResult()).longValue();
+    CoffeeResponse coffee = CoffeeResponse.builder()
+      .id(coffeeId)
+      .originCountry("Origin Z")
+      .roastLevel("Light")
+      .price(new BigDecimal("55.00"))
+      .isActive(true)
+      .build();
+    CoffeeSearchRequest search = CoffeeSearchRequest.builder().originCountry("Origin Z").build();
+
+    // When - moved to a new origin, then deactivated
+    coffeeFacetIndex.onCoffeeSaved(coffee, 1);
+    CoffeeFacetsResponse moved = coffeeFacetIndex.count(search);
+    coffee.setIsActive(false);
+    coffeeFacetIndex.onCoffeeSaved(coffee, 2);
+
+    // Then
+    assertThat(moved.getTotal()).isEqualTo(1);
+    assertThat(moved.getPriceRange()).containsExactly(Map.entry("40+", 1L));
+    assertThat(coffeeFacetIndex.count(search).getTotal()).isZero();
+  }
+
+  @Test
+  void shouldIgnoreChangesOlderThanTheLastApplied() {
+    // Given
+    Long coffeeId = ((Number) entityManager
+      .createNativeQuery("SELECT id FROM coffees WHERE name = 'Facet 42'")
+      .getSingleResult()).longValue();
+    CoffeeResponse coffee = CoffeeResponse.builder()
+      .id(coffeeId)
+      .originCountry("Origin Z")
+      .roastLevel("Light")
+      .price(new BigDecimal("55.00"))
+      .isActive(true)
+      .build();
+
+    // When - an update committed before the delete reaches the index after it
+    coffeeFacetIndex.onCoffeeDeleted(coffeeId, 11);
+    coffeeFacetIndex.onCoffeeSaved(coffee, 10);
+
+    // Then
+    assertThat(coffeeFacetIndex.count(
+      CoffeeSearchRequest.builder().originCountry("Origin Z").build()).getTotal()).isZero();
+  }
+
+  @Test
+  void shouldRejectInvertedRange() {
+    assertThatThrownBy(() -> coffeeFacetIndex.count(
+      CoffeeSearchRequest.builder().minAcidity(8).maxAcidity(2).build()))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private long countMatches(CoffeeSearchRequest search) {
+    return coffeeRepository.count(CoffeeSpecifications.matches(search));
+  }
+}
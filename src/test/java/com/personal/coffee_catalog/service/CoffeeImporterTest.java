@@ -0,0 +1,247 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.personal.coffee_catalog.constants.Constants.DataFormat;
+import com.personal.coffee_catalog.mapper.CoffeeMapper;
+import com.personal.coffee_catalog.model.Coffee;
+import com.personal.coffee_catalog.repository.CoffeeBulkLoader;
+import com.personal.coffee_catalog.repository.CoffeeRepository;
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CoffeeImportResponse;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import com.personal.coffee_catalog.response.ImportRowError;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Imports in chunks of 2 rows, so that a chunk rejected by the database is retried row by row
+ */
+@SpringBootTest(properties = "catalog.import.batch-size=2")
+@Transactional // Rollback after each test
+class CoffeeImporterTest {
+
+  private static final long MISSING_ROASTER_ID = 999_999;
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private CoffeeRepository coffeeRepository;
+
+  @Autowired
+  private CoffeeImporter coffeeImporter;
+
+  @Autowired
+  private CoffeeOutbox coffeeOutbox;
+
+  @Autowired
+  private CoffeeMapper coffeeMapper;
+
+  @Autowired
+  private Validator validator;
+
+  @Autowired
+  private JsonMapper jsonMapper;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private CoffeeSearchIndex coffeeSearchIndex;
+
+  @Autowired
+  private CoffeeFacetIndex coffeeFacetIndex;
+
+  @Autowired
+  private CoffeeSimilarityIndex coffeeSimilarityIndex;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private long roasterId;
+
+  @BeforeEach
+  void setUp() {
+    roasterId = ((Number) entityManager.createNativeQuery("SELECT min(id) FROM roasters")
+      .getSingleResult()).longValue();
+  }
+
+  @AfterTransaction
+  void restoreIndexes() {
+    coffeeSearchIndex.build();
+    coffeeFacetIndex.build();
+    coffeeSimilarityIndex.build();
+  }
+
+  @Test
+  void shouldImportValidCsvRowsAndReportTheOthers() {
+    // Given - columns in any order, a quoted description with a comma, quote and line break
+    String csv = """
+      price,name,roasterId,originCountry,roastLevel,description
+      18.499,Importa Gesha,%1$d,Panama,Light,"Jasmine, ""bergamot""
+      and peach"
+      12,,%1$d,Brazil,Medium,
+      abc,Importa Bourbon,%1$d,Rwanda,Light,
+      14,Importa Orphan,%2$d,Kenya,Light,
+      15,Importa Pacamara,%1$d,El Salvador,Medium,
+      16,Importa Short,%1$d
+      """.formatted(roasterId, MISSING_ROASTER_ID);
+
+    // When
+    CoffeeImportResponse report = coffeeService.importCoffees(stream(csv), DataFormat.CSV);
+
+    // Then
+    assertThat(report.getTotalRows()).isEqualTo(6);
+    assertThat(report.getImportedRows()).isEqualTo(2);
+    assertThat(report.getFailedRows()).isEqualTo(4);
+    assertThat(report.getErrors()).extracting(ImportRowError::getRow, ImportRowError::getField)
+      .containsExactlyInAnyOrder(tuple(2L, "name"), tuple(3L, "price"), tuple(4L, null),
+        tuple(6L, null));
+    assertThat(report.getErrors()).filteredOn(error -> error.getRow() == 4)
+      .singleElement().extracting(ImportRowError::getMessage).asString().contains("roaster_id");
+
+    Coffee gesha = coffeeRepository.findAll().stream()
+      .filter(coffee -> coffee.getName().equals("Importa Gesha"))
+      .findFirst().orElseThrow();
+    assertThat(gesha.getDescription()).isEqualTo("Jasmine, \"bergamot\"\nand peach");
+    assertThat(gesha.getPrice()).isEqualByComparingTo("18.50");
+    assertThat(gesha.getIsActive()).isTrue();
+
+    // And the in-memory indexes serve the imported coffees
+    assertThat(coffeeService.autocomplete("importa", null, null, 10))
+      .extracting(CoffeeSuggestionResponse::getName)
+      .containsExactlyInAnyOrder("Importa Gesha", "Importa Pacamara");
+    assertThat(coffeeService.getFacets(
+      CoffeeSearchRequest.builder().originCountry("El Salvador").build()).getTotal())
+      .isEqualTo(coffeeRepository.findAll().stream()
+        .filter(coffee -> coffee.getIsActive() && coffee.getOriginCountry().equals("El Salvador"))
+        .count());
+    assertThat(coffeeService.getSimilarCoffees(gesha.getId(), 1)).hasSize(1);
+  }
+
+  @Test
+  void shouldImportNdjson() {
+    // Given
+    String ndjson = """
+      {"roasterId": %1$d, "name": "Importa Sidamo", "originCountry": "Ethiopia", \
+      "roastLevel": "Light", "price": 21.5}
+
+      {"roasterId": %1$d, "name": "Importa Broken",
+      {"roasterId": %1$d, "name": "Importa Typed", "originCountry": "Peru", \
+      "roastLevel": "Light", "price": "cheap"}
+      """.formatted(roasterId);
+
+    // When
+    CoffeeImportResponse report = coffeeService.importCoffees(stream(ndjson),
+      DataFormat.NDJSON);
+
+    // Then - blank lines are skipped but keep the line numbers
+    assertThat(report.getImportedRows()).isEqualTo(1);
+    assertThat(report.getErrors()).extracting(ImportRowError::getRow, ImportRowError::getField)
+      .containsExactly(tuple(3L, null), tuple(4L, "price"));
+    assertThat(coffeeService.autocomplete("importa sidamo", null, null, 10))
+      .singleElement().extracting(CoffeeSuggestionResponse::getPrice)
+      .isEqualTo(new BigDecimal("21.50"));
+  }
+
+  @Test
+  void shouldReportStoredTimestamps() {
+    // Given
+    List<CoffeeResponse> imported = new ArrayList<>();
+    String ndjson = """
+      {"roasterId": %d, "name": "Importa Dated", "originCountry": "Peru", "roastLevel": "Light"}
+      """.formatted(roasterId);
+
+    // When
+    coffeeImporter.importCoffees(stream(ndjson), DataFormat.NDJSON,
+      (coffees, eventIds) -> imported.addAll(coffees));
+
+    // Then - the coffees handed to the caches and the outbox carry the stored times
+    CoffeeResponse reported = imported.getFirst();
+    Coffee stored = coffeeRepository.findById(reported.getId()).orElseThrow();
+    assertThat(reported.getCreatedAt()).isNotNull().isEqualTo(stored.getCreatedAt());
+    assertThat(reported.getUpdatedAt()).isEqualTo(stored.getUpdatedAt());
+  }
+
+  @Test
+  void shouldImportRowsReadBeforeParseFailure() {
+    // Given - a valid row, then a quote that is never closed
+    List<CoffeeResponse> imported = new ArrayList<>();
+    String csv = """
+      name,roasterId,originCountry,roastLevel
+      Importa Early,%d,Peru,Light
+      "Importa Broken,%d,Peru,Light
+      """.formatted(roasterId, roasterId);
+
+    // When / Then
+    assertThatThrownBy(() -> coffeeImporter.importCoffees(stream(csv), DataFormat.CSV,
+      (coffees, eventIds) -> imported.addAll(coffees)))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThat(imported).extracting(CoffeeResponse::getName).containsExactly("Importa Early");
+  }
+
+  @Test
+  void shouldNotReloadChunkThatFailedToLoad() {
+    // Given - a loader that fails once it is called
+    AtomicInteger loads = new AtomicInteger();
+    CoffeeBulkLoader failing = new CoffeeBulkLoader(jdbcTemplate) {
+      @Override
+      public Result insert(List<CoffeeRequest> coffees, LocalDateTime createdAt) {
+        loads.incrementAndGet();
+        throw new IllegalStateException("Load failed");
+      }
+    };
+    CoffeeImporter importer = new CoffeeImporter(failing, coffeeOutbox, transactionManager,
+      coffeeMapper, validator, jsonMapper, 2, 10);
+    String ndjson = """
+      {"roasterId": %d, "name": "Importa Lost", "originCountry": "Peru", "roastLevel": "Light"}
+      """.formatted(roasterId);
+
+    // When / Then - the failure is reported as is, after one load
+    assertThatThrownBy(() -> importer.importCoffees(stream(ndjson), DataFormat.NDJSON,
+      (coffees, eventIds) -> {
+      }))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Load failed")
+      .satisfies(failure -> assertThat(failure.getSuppressed()).isEmpty());
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void shouldRejectUnknownCsvColumns() {
+    assertThatThrownBy(() -> coffeeService.importCoffees(stream("name,origin\nA,B\n"),
+      DataFormat.CSV))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("origin");
+  }
+
+  private static InputStream stream(String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,193 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.personal.coffee_catalog.constants.Constants.ChangeType;
+import com.personal.coffee_catalog.repository.CoffeeOutboxEvent;
+import com.personal.coffee_catalog.repository.CoffeeOutboxRepository;
+import com.personal.coffee_catalog.request.CoffeeRequest;
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Commits for real (the outbox is only relayed after commit); the background relay is disabled in
+ * tests, so batches are relayed by hand
+ */
+@SpringBootTest
+class CoffeeOutboxTest {
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private CoffeeOutbox coffeeOutbox;
+
+  @Autowired
+  private CoffeeOutboxRepository coffeeOutboxRepository;
+
+  @Autowired
+  private InMemoryOutboxSink sink;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JsonMapper jsonMapper;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private TransactionTemplate transaction;
+
+  @BeforeEach
+  void setUp() {
+    transaction = new TransactionTemplate(transactionManager);
+    while (coffeeOutbox.relayBatch() > 0) {
+      // Start from an empty outbox
+    }
+  }
+
+  @Test
+  void shouldRelayCommittedChangesInOrder() {
+    // Given
+    CoffeeResponse created = coffeeService.createCoffee(CoffeeRequest.builder()
+      .roasterId(1L)
+      .name("Outbox Lot")
+      .originCountry("Peru")
+      .roastLevel("Light")
+      .price(new BigDecimal("12.50"))
+      .build());
+    coffeeService.updateCoffee(created.getId(), CoffeeRequest.builder().isActive(false).build());
+    coffeeService.deleteCoffee(created.getId());
+    transaction.executeWithoutResult(status -> {
+      coffeeOutbox.onCoffeesRemoved(ChangeType.DELETED, List.of(-1L));
+      status.setRollbackOnly();
+    });
+
+    // When
+    int relayed = coffeeOutbox.relayBatch();
+
+    // Then - the rolled back change was never written
+    assertThat(relayed).isEqualTo(3);
+    List<CoffeeOutboxEvent> events = sink.getEvents();
+    assertThat(events.subList(events.size() - 3, events.size()))
+      .extracting(CoffeeOutboxEvent::coffeeId, CoffeeOutboxEvent::type)
+      .containsExactly(
+        tuple(created.getId(), ChangeType.CREATED),
+        tuple(created.getId(), ChangeType.DEACTIVATED),
+        tuple(created.getId(), ChangeType.DELETED));
+    assertThat(events.get(events.size() - 3).payload()).contains("\"name\":\"Outbox Lot\"");
+    assertThat(events.getLast().payload()).isNull();
+    assertThat(coffeeOutboxRepository.pending().count()).isZero();
+  }
+
+  @Test
+  void shouldNotLoseConcurrentUpdates() throws Exception {
+    // Given - a coffee whose row is locked by another transaction
+    CoffeeResponse created = coffeeService.createCoffee(CoffeeRequest.builder()
+      .roasterId(1L)
+      .name("Contended Lot")
+      .originCountry("Peru")
+      .roastLevel("Light")
+      .price(new BigDecimal("12.50"))
+      .build());
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+      transaction.executeWithoutResult(status -> {
+        jdbcTemplate.queryForList("SELECT id FROM coffees WHERE id = ? FOR UPDATE",
+          created.getId());
+        locked.countDown();
+        await(release);
+      }));
+    locked.await();
+
+    // When - two updates of different fields wait for it, then run
+    CompletableFuture<CoffeeResponse> rename = CompletableFuture.supplyAsync(() ->
+      coffeeService.updateCoffee(created.getId(),
+        CoffeeRequest.builder().name("Renamed Lot").build()));
+    CompletableFuture<CoffeeResponse> reprice = CompletableFuture.supplyAsync(() ->
+      coffeeService.updateCoffee(created.getId(),
+        CoffeeRequest.builder().price(new BigDecimal("14.00")).build()));
+    awaitLockWaiters(2);
+    release.countDown();
+    holder.get(10, TimeUnit.SECONDS);
+    rename.get(10, TimeUnit.SECONDS);
+    reprice.get(10, TimeUnit.SECONDS);
+
+    // Then - both changes are kept, and the last event carries both
+    Map<String, Object> stored = jdbcTemplate.queryForMap(
+      "SELECT name, price FROM coffees WHERE id = ?", created.getId());
+    assertThat(stored.get("name")).isEqualTo("Renamed Lot");
+    assertThat((BigDecimal) stored.get("price")).isEqualByComparingTo("14.00");
+    coffeeOutbox.relayBatch();
+    CoffeeOutboxEvent last = sink.getEvents().getLast();
+    assertThat(last.coffeeId()).isEqualTo(created.getId());
+    assertThat(last.payload()).contains("\"name\":\"Renamed Lot\"", "\"price\":14.0");
+    coffeeService.deleteCoffee(created.getId());
+  }
+
+  @Test
+  void shouldKeepEventsWhileTheSinkFails() {
+    // Given
+    CoffeeOutbox failing = new CoffeeOutbox(coffeeOutboxRepository, events -> {
+      throw new IllegalStateException("Sink unavailable");
+    }, transactionManager, jsonMapper, 10, 1000, 1000, false);
+    Map<Long, Long> eventIds = transaction.execute(status ->
+      coffeeOutbox.onCoffeesRemoved(ChangeType.DELETED, List.of(-1L, -2L, -3L)));
+    long delivered = coffeeOutbox.getStats().getDeliveredEvents();
+
+    // When
+    assertThatThrownBy(failing::relayBatch).hasMessage("Sink unavailable");
+
+    // Then - the events are still pending, and the next relay delivers them
+    assertThat(coffeeOutbox.getStats().getPendingEvents()).isEqualTo(3);
+    assertThat(coffeeOutbox.relayBatch()).isEqualTo(3);
+    assertThat(sink.getEvents().subList(sink.getEvents().size() - 3, sink.getEvents().size()))
+      .extracting(CoffeeOutboxEvent::coffeeId, CoffeeOutboxEvent::id)
+      .containsExactly(tuple(-1L, eventIds.get(-1L)), tuple(-2L, eventIds.get(-2L)),
+        tuple(-3L, eventIds.get(-3L)));
+    assertThat(coffeeOutbox.getStats().getDeliveredEvents()).isEqualTo(delivered + 3);
+  }
+
+  @Test
+  void shouldOnlyWriteInsideTransactions() {
+    assertThatThrownBy(() -> coffeeOutbox.onCoffeesRemoved(ChangeType.DELETED, List.of(-1L)))
+      .isInstanceOf(IllegalTransactionStateException.class);
+  }
+
+  private void awaitLockWaiters(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (jdbcTemplate.queryForObject("""
+      SELECT count(*) FROM pg_stat_activity
+      WHERE datname = current_database() AND wait_event_type = 'Lock'
+      """, Integer.class) < count) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
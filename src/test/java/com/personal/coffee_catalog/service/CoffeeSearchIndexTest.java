@@ -0,0 +1,119 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.CoffeeSuggestionResponse;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CoffeeSearchIndexTest {
+
+  private final CoffeeSearchIndex index = new CoffeeSearchIndex(null, 20);
+
+  @BeforeEach
+  void setUp() {
+    index.rebuild(List.of(
+      coffee(1L, "Ethiopian Yirgacheffe Natural", "Ethiopia", "Yirgacheffe", "Heirloom"),
+      coffee(2L, "Colombian Supremo", "Colombia", "Huila", "Caturra"),
+      coffee(3L, "Costa Rica Tarrazú", "Costa Rica", "Tarrazú", "Caturra, Catuai"),
+      coffee(4L, "Panama Geisha", "Panama", "Boquete", "Geisha")
+    ));
+  }
+
+  @Test
+  void shouldMatchEveryWordAsPrefix() {
+    // When
+    List<CoffeeSuggestionResponse> suggestions = index.search("col sup", null, null, 10);
+
+    // Then
+    assertThat(suggestions).extracting(CoffeeSuggestionResponse::getId).containsExactly(2L);
+  }
+
+  @Test
+  void shouldRankNameHitsAboveOtherFields() {
+    // Given - Geisha as a name word and as a varietal only
+    index.onCoffeeSaved(coffee(6L, "Boquete Estate", "Panama", "Boquete", "Geisha"), 1);
+
+    // When
+    List<CoffeeSuggestionResponse> suggestions = index.search("geisha", null, null, 10);
+
+    // Then
+    assertThat(suggestions).extracting(CoffeeSuggestionResponse::getId).containsExactly(4L, 6L);
+    assertThat(suggestions).extracting(CoffeeSuggestionResponse::getScore).containsExactly(6, 2);
+  }
+
+  @Test
+  void shouldAndQueryWithFacets() {
+    // When
+    List<CoffeeSuggestionResponse> suggestions = index.search(null, "costa", "catu", 10);
+
+    // Then
+    assertThat(suggestions).extracting(CoffeeSuggestionResponse::getId).containsExactly(3L);
+    assertThat(index.search("tarrazu", "colombia", null, 10)).isEmpty();
+  }
+
+  @Test
+  void shouldApplyWritesIncrementally() {
+    // When - 2 is deactivated, 5 is created and 4 is renamed
+    index.onCoffeeSaved(inactive(coffee(2L, "Colombian Supremo", "Colombia", "Huila", "Caturra")),
+      1);
+    index.onCoffeeSaved(coffee(5L, "Colombian Pink Bourbon", "Colombia", "Huila", "Bourbon"), 2);
+    index.onCoffeeSaved(coffee(4L, "Panama Gesha Reserve", "Panama", "Boquete", "Geisha"), 3);
+    index.onCoffeeDeleted(1L, 4);
+
+    // Then
+    assertThat(index.search("colombian", null, null, 10))
+      .extracting(CoffeeSuggestionResponse::getId).containsExactly(5L);
+    assertThat(index.search("reserve", null, null, 10))
+      .extracting(CoffeeSuggestionResponse::getId).containsExactly(4L);
+    assertThat(index.search("yirga", null, null, 10)).isEmpty();
+    assertThat(index.getStats().getDocumentCount()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldIgnoreChangesOlderThanTheLastApplied() {
+    // When - updates committed before a delete and a deactivation reach the index after them
+    index.onCoffeeDeleted(2L, 10);
+    index.onCoffeeSaved(coffee(2L, "Colombian Supremo", "Colombia", "Huila", "Caturra"), 9);
+    index.onCoffeeSaved(inactive(coffee(4L, "Panama Geisha", "Panama", "Boquete", "Geisha")), 12);
+    index.onCoffeeSaved(coffee(4L, "Panama Geisha Reserve", "Panama", "Boquete", "Geisha"), 11);
+
+    // Then
+    assertThat(index.search("colombian", null, null, 10)).isEmpty();
+    assertThat(index.search("panama", null, null, 10)).isEmpty();
+    assertThat(index.getStats().getDocumentCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldKeepOnlyTopMatches() {
+    // When
+    List<CoffeeSuggestionResponse> suggestions = index.search("c", null, null, 1);
+
+    // Then - Colombian and Costa Rica tie, broken by name
+    assertThat(suggestions).extracting(CoffeeSuggestionResponse::getName)
+      .containsExactly("Colombian Supremo");
+    assertThatThrownBy(() -> index.search("c", null, null, 21))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static CoffeeResponse coffee(Long id, String name, String originCountry,
+    String originRegion, String varietal) {
+    return CoffeeResponse.builder()
+      .id(id)
+      .name(name)
+      .originCountry(originCountry)
+      .originRegion(originRegion)
+      .varietal(varietal)
+      .roastLevel("Medium")
+      .isActive(true)
+      .build();
+  }
+
+  private static CoffeeResponse inactive(CoffeeResponse coffee) {
+    coffee.setIsActive(false);
+    return coffee;
+  }
+}
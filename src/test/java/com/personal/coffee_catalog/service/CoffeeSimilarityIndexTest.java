@@ -0,0 +1,95 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.response.CoffeeResponse;
+import com.personal.coffee_catalog.response.SimilarCoffeeResponse;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CoffeeSimilarityIndexTest {
+
+  private final CoffeeSimilarityIndex index = new CoffeeSimilarityIndex(null, 20);
+
+  @BeforeEach
+  void setUp() {
+    index.rebuild(List.of(
+      coffee(1L, "Ethiopian Yirgacheffe", "Light", 9, 7, 2, 2000),
+      coffee(2L, "Kenyan AA", "Light-Medium", 9, 6, 3, 1800),
+      coffee(3L, "Sumatra Mandheling", "Dark", 2, 4, 8, 1200),
+      coffee(4L, "Brazil Santos", "Medium-Dark", 3, 6, 6, 1000),
+      coffee(5L, "Rwanda Nyamasheke", "Light", 9, 7, 2, 1900)
+    ), Map.of(
+      1L, List.of("Floral", "Citrus"),
+      2L, List.of("Fruity"),
+      5L, List.of("Floral", "Citrus")
+    ));
+  }
+
+  @Test
+  void shouldRankByFlavorProfileDistance() {
+    // When
+    List<SimilarCoffeeResponse> similar = index.similar(1L, 10).orElseThrow();
+
+    // Then - same profile and categories first, the dark roasts last
+    assertThat(similar).extracting(SimilarCoffeeResponse::getId).containsExactly(5L, 2L, 4L, 3L);
+    assertThat(similar.getFirst().getSimilarity()).isGreaterThan(0.95);
+    assertThat(similar).extracting(SimilarCoffeeResponse::getSimilarity)
+      .isSortedAccordingTo((a, b) -> Double.compare(b, a));
+  }
+
+  @Test
+  void shouldKeepOnlyNearest() {
+    assertThat(index.similar(3L, 1).orElseThrow())
+      .extracting(SimilarCoffeeResponse::getId).containsExactly(4L);
+    assertThatThrownBy(() -> index.similar(3L, 21))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldApplyWritesIncrementally() {
+    // When - 5 is deactivated and 4 becomes a light, acidic roast (keeping its categories)
+    CoffeeResponse deactivated = coffee(5L, "Rwanda Nyamasheke", "Light", 9, 7, 2, 1900);
+    deactivated.setIsActive(false);
+    index.onCoffeeSaved(deactivated, 1);
+    index.onCoffeeSaved(coffee(4L, "Brazil Santos", "Light", 9, 7, 2, 2000), 2);
+
+    // Then
+    assertThat(index.similar(1L, 10).orElseThrow())
+      .extracting(SimilarCoffeeResponse::getId).containsExactly(4L, 2L, 3L);
+    assertThat(index.similar(5L, 10)).isEmpty();
+  }
+
+  @Test
+  void shouldIgnoreChangesOlderThanTheLastApplied() {
+    // When - an update committed before the delete of 5 reaches the index after it, and so does
+    // one committed before the latest update of 4
+    index.onCoffeeDeleted(5L, 11);
+    index.onCoffeeSaved(coffee(5L, "Rwanda Nyamasheke", "Light", 9, 7, 2, 1900), 10);
+    index.onCoffeeSaved(coffee(4L, "Brazil Santos", "Medium-Dark", 3, 6, 6, 1000), 13);
+    index.onCoffeeSaved(coffee(4L, "Brazil Santos", "Light", 9, 7, 2, 2000), 12);
+
+    // Then
+    assertThat(index.similar(5L, 10)).isEmpty();
+    assertThat(index.similar(1L, 10).orElseThrow())
+      .extracting(SimilarCoffeeResponse::getId).containsExactly(2L, 4L, 3L);
+  }
+
+  private static CoffeeResponse coffee(Long id, String name, String roastLevel, int acidity,
+    int sweetness, int bitterness, int altitude) {
+    return CoffeeResponse.builder()
+      .id(id)
+      .name(name)
+      .originCountry("Origin")
+      .roastLevel(roastLevel)
+      .acidityLevel(acidity)
+      .sweetnessLevel(sweetness)
+      .bitternessLevel(bitterness)
+      .altitudeMeters(altitude)
+      .isActive(true)
+      .build();
+  }
+}
@@ -0,0 +1,116 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.constants.Constants;
+import com.personal.coffee_catalog.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtServiceTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void shouldServeRepeatedVerificationsFromCache() {
+    // Given
+    JwtService jwtService = jwtService(900000L);
+    String token = jwtService.generateAccessToken(user());
+
+    // When
+    ParsedToken first = jwtService.parseToken(token);
+    ParsedToken second = jwtService.parseToken(token);
+
+    // Then - the signature is checked once
+    assertThat(second).isEqualTo(first);
+    assertThat(verifications("miss", "valid")).isEqualTo(1);
+    assertThat(verifications("hit", "valid")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldEvictTokensOnceExpired() throws InterruptedException {
+    // Given - a token verified just before it expires (exp has second precision)
+    JwtService jwtService = jwtService(1000L);
+    String token = jwtService.generateAccessToken(user());
+    ParsedToken parsed = jwtService.parseToken(token);
+
+    // When
+    Thread.sleep(Math.max(0, parsed.expiresAt() - System.currentTimeMillis()) + 50);
+
+    // Then - it is verified again instead of served from the cache, and rejected
+    assertThatThrownBy(() -> jwtService.parseToken(token))
+      .isInstanceOf(ExpiredJwtException.class);
+    assertThat(verifications("hit", "valid")).isZero();
+    assertThat(verifications("miss", "expired")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectTamperedSignature() {
+    // Given - a verified token, and a copy with another signature
+    JwtService jwtService = jwtService(900000L);
+    String token = jwtService.generateAccessToken(user());
+    jwtService.parseToken(token);
+    int signature = token.lastIndexOf('.') + 1;
+    char replaced = token.charAt(signature) == 'A' ? 'B' : 'A';
+    String tampered = token.substring(0, signature) + replaced + token.substring(signature + 1);
+
+    // When / Then
+    assertThatThrownBy(() -> jwtService.parseToken(tampered))
+      .isInstanceOf(SignatureException.class);
+    assertThat(verifications("miss", "invalid")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldExtractPrincipalFromIdentityClaims() {
+    // Given
+    JwtService jwtService = jwtService(900000L);
+    User user = user();
+
+    // When
+    User principal = jwtService.extractPrincipal(
+      jwtService.parseToken(jwtService.generateAccessToken(user)));
+    User withoutClaims = jwtService.extractPrincipal(
+      jwtService.parseToken(jwtService.generateToken(user)));
+
+    // Then
+    assertThat(principal.getId()).isEqualTo(7L);
+    assertThat(principal.getEmail()).isEqualTo("jwt@coffee.com");
+    assertThat(principal.getRole()).isEqualTo(Constants.Role.ADMIN);
+    assertThat(principal.getTokenVersion()).isEqualTo(3);
+    assertThat(principal.getPassword()).isNull();
+    assertThat(withoutClaims).isNull();
+  }
+
+  private long verifications(String cache, String outcome) {
+    return meterRegistry.get("jwt.verification")
+      .tag("cache", cache)
+      .tag("outcome", outcome)
+      .timer()
+      .count();
+  }
+
+  private JwtService jwtService(long expiration) {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey",
+      "myVerySecureSecretKeyThatIsAtLeast32CharsLongForHS256Algorithm");
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", expiration);
+    ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheSize", 100);
+    ReflectionTestUtils.setField(jwtService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.invokeMethod(jwtService, "init");
+    return jwtService;
+  }
+
+  private static User user() {
+    return User.builder()
+      .id(7L)
+      .email("jwt@coffee.com")
+      .role(Constants.Role.ADMIN)
+      .tokenVersion(3)
+      .build();
+  }
+}
@@ -0,0 +1,206 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.personal.coffee_catalog.constants.Constants.Role;
+import com.personal.coffee_catalog.exception.TokenRefreshException;
+import com.personal.coffee_catalog.model.User;
+import com.personal.coffee_catalog.repository.RefreshTokenRepository;
+import com.personal.coffee_catalog.repository.UserRepository;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Commits for real; every test works on a user of its own
+ */
+@SpringBootTest
+class RefreshTokenServiceTest {
+
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private TokenRevocationService tokenRevocationService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+      .email("refresh-" + System.nanoTime() + "@coffee.com")
+      .password("not a hash")
+      .role(Role.USER)
+      .build());
+  }
+
+  @Test
+  void shouldRotateAndEndSessionsOnReuse() {
+    // Given
+    String first = refreshTokenService.createRefreshToken(user);
+    String second = refreshTokenService.rotate(first).token();
+    String third = refreshTokenService.rotate(second).token();
+
+    // When - the exchanged first token is presented again
+    assertThatThrownBy(() -> refreshTokenService.rotate(first))
+      .isInstanceOf(TokenRefreshException.class);
+
+    // Then - the latest token is revoked too, and issued access tokens are invalidated
+    assertThatThrownBy(() -> refreshTokenService.rotate(third))
+      .isInstanceOf(TokenRefreshException.class);
+    assertThat(userRepository.findById(user.getId()).orElseThrow().getTokenVersion()).isEqualTo(1);
+    assertThat(tokenRevocationService.check(user.getId(), 0, System.currentTimeMillis()))
+      .isEqualTo(TokenRevocationService.Status.REVOKED);
+  }
+
+  @Test
+  void shouldIssueAccessTokensWithTheCurrentClaimsOfTheUser() {
+    // Given - demoted and renamed after the first refresh
+    String first = refreshTokenService.createRefreshToken(user);
+    String second = refreshTokenService.rotate(first).token();
+    jdbcTemplate.update("UPDATE users SET role = 'ADMIN', email = ? WHERE id = ?",
+      "renamed-" + user.getEmail(), user.getId());
+
+    // When
+    User owner = refreshTokenService.rotate(second).user();
+
+    // Then
+    assertThat(owner.getRole()).isEqualTo(Role.ADMIN);
+    assertThat(owner.getEmail()).isEqualTo("renamed-" + user.getEmail());
+  }
+
+  @Test
+  void shouldRevokeTheTokenVersionHeldByTheDatabase() {
+    // Given - access tokens invalidated 5 times since the refresh token was issued
+    String first = refreshTokenService.createRefreshToken(user);
+    refreshTokenService.rotate(first);
+    jdbcTemplate.update("UPDATE users SET token_version = 5 WHERE id = ?", user.getId());
+
+    // When
+    assertThatThrownBy(() -> refreshTokenService.rotate(first))
+      .isInstanceOf(TokenRefreshException.class);
+
+    // Then
+    long expiresAt = System.currentTimeMillis();
+    assertThat(tokenRevocationService.check(user.getId(), 5, expiresAt))
+      .isEqualTo(TokenRevocationService.Status.REVOKED);
+    assertThat(tokenRevocationService.check(user.getId(), 6, expiresAt))
+      .isEqualTo(TokenRevocationService.Status.ACCEPTED);
+  }
+
+  @Test
+  void shouldSeeExchangesAndRevocationsOfAnotherInstance() {
+    // Given - a token of this instance, exchanged on another one
+    RefreshTokenService other = tokenStore(604800000L);
+    String first = refreshTokenService.createRefreshToken(user);
+    refreshTokenService.flush();
+    String second = other.rotate(first).token();
+    other.flush();
+
+    // When - the exchanged token is presented here again
+    assertThatThrownBy(() -> refreshTokenService.rotate(first))
+      .isInstanceOf(TokenRefreshException.class);
+    refreshTokenService.flush();
+
+    // Then - the sessions are ended on the other instance as well
+    assertThat(userRepository.findById(user.getId()).orElseThrow().getTokenVersion()).isEqualTo(1);
+    assertThatThrownBy(() -> other.rotate(second)).isInstanceOf(TokenRefreshException.class);
+  }
+
+  @Test
+  void shouldRevokeOnlyThePresentedTokenOnLogout() {
+    // Given - two sessions
+    String phone = refreshTokenService.createRefreshToken(user);
+    String laptop = refreshTokenService.createRefreshToken(user);
+
+    // When
+    refreshTokenService.logout(phone);
+
+    // Then - the other session can still refresh, issued access tokens are invalidated
+    assertThatThrownBy(() -> refreshTokenService.rotate(phone))
+      .isInstanceOf(TokenRefreshException.class);
+    assertThat(refreshTokenService.rotate(laptop).user().getTokenVersion()).isEqualTo(1);
+    assertThat(tokenRevocationService.check(user.getId(), 0, System.currentTimeMillis()))
+      .isEqualTo(TokenRevocationService.Status.REVOKED);
+  }
+
+  @Test
+  void shouldWriteHashedTokensBehind() {
+    // Given
+    String token = refreshTokenService.createRefreshToken(user);
+    refreshTokenService.rotate(token);
+
+    // When
+    refreshTokenService.flush();
+
+    // Then - two rows, the first one exchanged, neither holding the token itself
+    assertThat(jdbcTemplate.queryForList("""
+        SELECT revoked, rotated_at IS NOT NULL AS rotated FROM refresh_tokens
+        WHERE user_id = ? ORDER BY created_at
+        """, user.getId()))
+      .containsExactly(
+        Map.of("revoked", true, "rotated", true),
+        Map.of("revoked", false, "rotated", false));
+    assertThat(jdbcTemplate.queryForObject(
+      "SELECT count(*) FROM refresh_tokens WHERE token = ?", Long.class, token)).isZero();
+  }
+
+  @Test
+  void shouldRefreshTokensIssuedBeforeARestart() {
+    // Given
+    String token = refreshTokenService.createRefreshToken(user);
+    refreshTokenService.flush();
+    RefreshTokenService restarted = tokenStore(604800000L);
+
+    // When
+    RefreshTokenService.Refresh refresh = restarted.rotate(token);
+
+    // Then
+    assertThat(refresh.user().getId()).isEqualTo(user.getId());
+    assertThat(refresh.user().getEmail()).isEqualTo(user.getEmail());
+    assertThatThrownBy(() -> restarted.rotate(token)).isInstanceOf(TokenRefreshException.class);
+  }
+
+  @Test
+  void shouldPurgeExpiredTokensInBatches() {
+    // Given - tokens that expired a minute ago
+    RefreshTokenService expiring = tokenStore(-60000L);
+    for (int i = 0; i < 5; i++) {
+      expiring.createRefreshToken(user);
+    }
+    expiring.flush();
+
+    // When
+    int purged = expiring.purgeExpired();
+
+    // Then
+    assertThat(purged).isGreaterThanOrEqualTo(5);
+    assertThat(jdbcTemplate.queryForObject(
+      "SELECT count(*) FROM refresh_tokens WHERE user_id = ?", Long.class, user.getId())).isZero();
+  }
+
+  /**
+   * A second store on the same table, without the background writer
+   */
+  private RefreshTokenService tokenStore(long refreshTokenDurationMs) {
+    return new RefreshTokenService(refreshTokenRepository, userRepository, tokenRevocationService,
+      transactionManager, refreshTokenDurationMs, 500, 1000, 2, 600000);
+  }
+}
@@ -0,0 +1,88 @@
+package com.personal.coffee_catalog.service;
+
+import static com.personal.coffee_catalog.config.SqlStatementGuard.assertMaxStatements;
+import static com.personal.coffee_catalog.repository.CoffeeFixtures.insertCoffee;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.constants.Constants.CoffeeView;
+import com.personal.coffee_catalog.request.CoffeeSearchRequest;
+import com.personal.coffee_catalog.response.CoffeeListItem;
+import com.personal.coffee_catalog.response.RoasterCoffeesResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional // Rollback after each test
+class RoasterServiceTest {
+
+  private static final String REGION = "Roaster Test Region";
+
+  @Autowired
+  private CoffeeService coffeeService;
+
+  @Autowired
+  private RoasterService roasterService;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Test
+  void shouldEmbedTheRoastersOfAPageWithOneQuery() {
+    // Given - six coffees from three roasters
+    long[] roasters = {insertRoaster("North Roasting Co"), insertRoaster("South Roasting Co"),
+      insertRoaster("East Roasting Co")};
+    for (int i = 0; i < 6; i++) {
+      insertCoffee(entityManager, roasters[i % 3], "Roaster Test Lot " + i, REGION, true);
+    }
+    CoffeeSearchRequest search = new CoffeeSearchRequest();
+    search.setOriginRegion(REGION);
+
+    // When - the page fits in one query, so no count query runs
+    Page<CoffeeListItem> page = assertMaxStatements(2, () -> coffeeService.searchCoffees(search,
+      PageRequest.of(0, 10, Sort.by("id")), CoffeeView.SUMMARY));
+
+    // Then
+    assertThat(page.getContent()).hasSize(6);
+    assertThat(page.getContent()).allSatisfy(coffee -> {
+      assertThat(coffee.getRoaster()).isNotNull();
+      assertThat(coffee.getRoaster().getId()).isEqualTo(coffee.getRoasterId());
+    });
+    assertThat(page.getContent()).extracting(coffee -> coffee.getRoaster().getCompanyName())
+      .containsExactly("North Roasting Co", "South Roasting Co", "East Roasting Co",
+        "North Roasting Co", "South Roasting Co", "East Roasting Co");
+  }
+
+  @Test
+  void shouldReturnTheRoasterWithItsActiveCoffees() {
+    // Given
+    long roasterId = insertRoaster("West Roasting Co");
+    long active = insertCoffee(entityManager, roasterId, "Roaster Test Active", REGION, true);
+    insertCoffee(entityManager, roasterId, "Roaster Test Inactive", REGION, false);
+
+    // When
+    RoasterCoffeesResponse response = roasterService.getRoasterCoffees(roasterId,
+      PageRequest.of(0, 10, Sort.by("id")), CoffeeView.FULL);
+
+    // Then
+    assertThat(response.getRoaster().getCompanyName()).isEqualTo("West Roasting Co");
+    assertThat(response.getRoaster().getIsVerified()).isFalse();
+    assertThat(response.getCoffees().getContent()).extracting(CoffeeListItem::getId)
+      .containsExactly(active);
+    assertThat(response.getCoffees().getContent().getFirst().getRoasterId()).isEqualTo(roasterId);
+  }
+
+  private long insertRoaster(String companyName) {
+    return ((Number) entityManager.createNativeQuery("""
+        INSERT INTO roasters (company_name, location) VALUES (?1, 'Lisbon') RETURNING id
+        """)
+      .setParameter(1, companyName)
+      .getSingleResult()).longValue();
+  }
+}
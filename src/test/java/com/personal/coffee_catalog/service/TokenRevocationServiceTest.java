@@ -0,0 +1,59 @@
+package com.personal.coffee_catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.personal.coffee_catalog.service.TokenRevocationService.Status;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationServiceTest {
+
+  private static final long EXPIRATION = 900000L;
+
+  @Test
+  void shouldFailClosedWhenFull() {
+    // Given
+    TokenRevocationService revocations = new TokenRevocationService(EXPIRATION, 2);
+    long issuedBefore = System.currentTimeMillis() + EXPIRATION;
+
+    // When - a third revocation within one token lifetime
+    revocations.revoke(1L, 1);
+    revocations.revoke(2L, 1);
+    revocations.revoke(3L, 1);
+
+    // Then - the dropped user's old tokens, and those of users never revoked, are unknown
+    assertThat(revocations.check(1L, 0, issuedBefore)).isEqualTo(Status.UNKNOWN);
+    assertThat(revocations.check(4L, 0, issuedBefore)).isEqualTo(Status.UNKNOWN);
+    assertThat(revocations.check(3L, 0, issuedBefore)).isEqualTo(Status.REVOKED);
+    assertThat(revocations.check(3L, 1, issuedBefore)).isEqualTo(Status.ACCEPTED);
+    // Tokens issued after the dropped revocation expire after everything it covered
+    assertThat(revocations.check(1L, 1, issuedBefore + 60000)).isEqualTo(Status.ACCEPTED);
+  }
+
+  @Test
+  void shouldDropExpiredRevocationsBeforeLiveOnes() throws InterruptedException {
+    // Given - revocations that outlive tokens by 10 ms
+    TokenRevocationService revocations = new TokenRevocationService(10, 1);
+    revocations.revoke(1L, 1);
+    Thread.sleep(20);
+
+    // When
+    revocations.revoke(2L, 1);
+
+    // Then - the expired entry made room, so nothing was dropped
+    assertThat(revocations.check(1L, 0, System.currentTimeMillis())).isEqualTo(Status.ACCEPTED);
+    assertThat(revocations.check(2L, 0, System.currentTimeMillis())).isEqualTo(Status.REVOKED);
+  }
+
+  @Test
+  void shouldNeverLowerMinimumVersion() {
+    // Given
+    TokenRevocationService revocations = new TokenRevocationService(EXPIRATION, 10);
+
+    // When
+    revocations.revoke(1L, 3);
+    revocations.revoke(1L, 2);
+
+    // Then
+    assertThat(revocations.check(1L, 2, System.currentTimeMillis())).isEqualTo(Status.REVOKED);
+  }
+}